@@ -0,0 +1,47 @@
+plugins {
+	java
+	id("me.champeau.jmh") version "0.7.2"
+}
+
+group = "com.eseg"
+version = "0.0.1-SNAPSHOT"
+description = "Benchmarks"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	// Mesmas versões dos serviços (BOM do Spring Boot), sem aplicar o plugin: aqui não há aplicação para subir
+	jmh(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+	jmh(project(":contratos"))
+	jmh(project(":infra"))
+	jmh(project(":campanhas"))
+	jmh(project(":comentarios"))
+	jmh(project(":pagamentos"))
+	jmh(project(":usuarios"))
+	jmh("org.springframework.boot:spring-boot-starter-web")
+	jmh("io.micrometer:micrometer-core")
+	jmh("org.springframework:spring-test")
+}
+
+jmh {
+	jmhVersion = "1.37"
+	fork = 1
+	warmupIterations = 3
+	iterations = 5
+	// alloc/op ao lado do tempo: o que importa em vários destes caminhos é quanto lixo cada operação gera
+	profilers = listOf("gc")
+	jvmArgs = listOf("-Xms4g", "-Xmx4g")
+	// Resultado em JSON, para comparar uma versão com a anterior (o CI guarda um por release)
+	resultFormat = "JSON"
+	resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+	// Só alguns benchmarks: ./gradlew -Pbenchmarks :benchmarks:jmh -Pjmh.includes=Jackson
+	providers.gradleProperty("jmh.includes").orNull?.let { includes = listOf(it) }
+}
@@ -0,0 +1,177 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.cliente.ClienteServicosHttp;
+import com.eseg.campanhas.controller.CampanhaController;
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.campanhas.repository.CampanhaRepository;
+import com.eseg.campanhas.service.CampanhaService;
+import com.eseg.campanhas.service.NotificadorEventos;
+import com.eseg.campanhas.service.VisaoDetalhada;
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.visao.AgregacaoParalela;
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.PagamentoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+// Monta o que os benchmarks medem sem subir o Spring: repositórios reais sobre um diretório temporário,
+// com os @Value preenchidos como no application.properties, e dados sintéticos determinísticos (semente fixa).
+final class Ambiente {
+
+    static final long SEMENTE = 42;
+
+    private static final String[] PALAVRAS = {
+            "doação", "escola", "comunidade", "saúde", "reforma", "biblioteca", "projeto", "cultura", "esporte",
+            "alimentos", "crianças", "hospital", "música", "teatro", "horta", "água", "energia", "solar",
+            "animais", "abrigo", "bolsa", "estudos", "tecnologia", "oficina", "artesanato", "festival", "bairro",
+            "praça", "livros", "cadeira", "rodas", "tratamento", "cirurgia", "enchente", "reconstrução", "ajuda"};
+
+    private Ambiente() {}
+
+    // O mesmo ObjectMapper dos repositórios (JavaTimeModule para as datas)
+    static ObjectMapper mapper() {
+        return new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    static Path diretorio(String prefixo) {
+        try {
+            return Files.createTempDirectory("bench-" + prefixo);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static void apagar(Path diretorio) {
+        if (diretorio == null) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.walk(diretorio)) {
+            for (Path arquivo : arquivos.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(arquivo);
+            }
+        } catch (IOException e) {
+            System.err.println("Não foi possível apagar " + diretorio + ": " + e.getMessage());
+        }
+    }
+
+    // Texto com n palavras sorteadas do vocabulário
+    static String texto(SplittableRandom random, int n) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            if (i > 0) {
+                texto.append(' ');
+            }
+            texto.append(PALAVRAS[random.nextInt(PALAVRAS.length)]);
+        }
+        return texto.toString();
+    }
+
+    static Campanha campanha(long id, SplittableRandom random) {
+        Campanha campanha = new Campanha(id, 1 + random.nextLong(10_000), texto(random, 4), texto(random, 30),
+                BigDecimal.valueOf(100_000 + random.nextLong(10_000_000), 2), BigDecimal.valueOf(random.nextLong(100_000), 2),
+                LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(id), LocalDateTime.of(2026, 1, 1, 0, 0), 1);
+        for (int i = 0; i < 10; i++) {
+            campanha.getIdPagamentos().add(random.nextLong(1_000_000));
+            campanha.getIdComentarios().add(random.nextLong(1_000_000));
+        }
+        campanha.getIdRecompensas().add(random.nextLong(1_000));
+        return campanha;
+    }
+
+    // Pagamentos espalhados por 1.000 campanhas e 10.000 doadores, com valores de R$ 1,00 a R$ 1.000,00
+    static Pagamento pagamento(long id, SplittableRandom random) {
+        return new Pagamento(id, BigDecimal.valueOf(100 + random.nextLong(100_000), 2), 1 + random.nextLong(1_000),
+                1 + random.nextLong(10_000), LocalDateTime.of(2025, 1, 1, 0, 0).plusSeconds(id * 7));
+    }
+
+    // Repositório de campanhas já carregado com n campanhas (gravadas antes como um arquivo existente)
+    static CampanhaRepository campanhaRepository(Path diretorio, int n) throws IOException {
+        Path arquivo = diretorio.resolve("campanhas.json");
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<Campanha> campanhas = new ArrayList<>(n);
+        for (long id = 1; id <= n; id++) {
+            campanhas.add(campanha(id, random));
+        }
+        new AtomicJsonFile(arquivo, 1).write(mapper().writeValueAsBytes(campanhas));
+
+        CampanhaRepository repository = new CampanhaRepository();
+        ReflectionTestUtils.setField(repository, "jsonPath", arquivo.toString());
+        ReflectionTestUtils.setField(repository, "journalPath", arquivo + ".log");
+        ReflectionTestUtils.setField(repository, "snapshotMinimoBytes", 1L << 20);
+        ReflectionTestUtils.setField(repository, "janelaGroupCommitMs", 2L);
+        ReflectionTestUtils.setField(repository, "maxLoteGroupCommit", 256);
+        ReflectionTestUtils.setField(repository, "geracoes", 1);
+        repository.init();
+        return repository;
+    }
+
+    // Repositório de pagamentos já carregado com n pagamentos (snapshot existente, journal vazio)
+    static PagamentoRepository pagamentoRepository(Path diretorio, int n) throws IOException {
+        Path arquivo = diretorio.resolve("pagamentos.json");
+        SplittableRandom random = new SplittableRandom(SEMENTE);
+        List<Pagamento> pagamentos = new ArrayList<>(n);
+        for (long id = 1; id <= n; id++) {
+            pagamentos.add(pagamento(id, random));
+        }
+        new AtomicJsonFile(arquivo, 1).write(mapper().writeValueAsBytes(pagamentos));
+
+        PagamentoRepository repository = new PagamentoRepository();
+        ReflectionTestUtils.setField(repository, "jsonPath", arquivo.toString());
+        ReflectionTestUtils.setField(repository, "journalPath", arquivo + ".log");
+        ReflectionTestUtils.setField(repository, "outboxPath", arquivo + ".outbox");
+        ReflectionTestUtils.setField(repository, "chavesPath", arquivo + ".chaves");
+        ReflectionTestUtils.setField(repository, "maxChaves", 100_000);
+        ReflectionTestUtils.setField(repository, "ttlChavesMs", 86_400_000L);
+        ReflectionTestUtils.setField(repository, "snapshotMinimo", 1000);
+        ReflectionTestUtils.setField(repository, "janelaGroupCommitMs", 2L);
+        ReflectionTestUtils.setField(repository, "maxLoteGroupCommit", 256);
+        ReflectionTestUtils.setField(repository, "geracoes", 1);
+        repository.init();
+        return repository;
+    }
+
+    // Serviço de campanhas montado à mão (controller -> service -> repositório), com as chamadas aos outros
+    // serviços indo para o RestTemplate dado; close() para a thread de eventos
+    record ServicoCampanhas(CampanhaController controller, NotificadorEventos notificador) implements AutoCloseable {
+        @Override
+        public void close() throws InterruptedException {
+            notificador.close();
+        }
+    }
+
+    static ServicoCampanhas servicoCampanhas(CampanhaRepository repository, RestTemplate restTemplate, long ttlVisaoMs) {
+        ObjectMapper mapper = mapper();
+        AgregacaoParalela agregacao = new AgregacaoParalela();
+        ReflectionTestUtils.setField(agregacao, "maxConcorrencia", 16);
+        ReflectionTestUtils.setField(agregacao, "prazoMs", 2000L);
+        ReflectionTestUtils.setField(agregacao, "tamanhoLote", 200);
+
+        ClienteServicosHttp cliente = new ClienteServicosHttp(restTemplate);
+        ReflectionTestUtils.setField(cliente, "comentarioServiceUrl", "http://comentarios");
+        ReflectionTestUtils.setField(cliente, "pagamentoServiceUrl", "http://pagamentos");
+        ReflectionTestUtils.setField(cliente, "recompensaServiceUrl", "http://recompensas");
+        ReflectionTestUtils.setField(cliente, "usuarioServiceUrl", "http://usuarios");
+
+        VisaoDetalhada visao = new VisaoDetalhada(cliente, agregacao, mapper, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(visao, "ttlMs", ttlVisaoMs);
+
+        NotificadorEventos notificador = new NotificadorEventos(cliente, mapper, 10_000);
+        CampanhaService service = new CampanhaService(repository, visao, notificador);
+        return new ServicoCampanhas(new CampanhaController(service, visao, mapper), notificador);
+    }
+}
@@ -0,0 +1,57 @@
+package com.eseg.benchmarks;
+
+import com.eseg.infra.busca.IndiceTexto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Busca textual (?q=) sobre o índice invertido dos comentários: um termo raro (lista curta), um termo
+// presente em boa parte dos textos e dois termos (interseção dirigida pela menor lista), top 20 por BM25.
+// Também mede a indexação de um texto novo, o custo que cada save/update paga.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BuscaTextoBenchmark {
+
+    // 5 milhões não cabem nos 4 GB de heap dos forks (cada postagem é uma entrada de ConcurrentHashMap)
+    @Param({"100000", "1000000", "2000000"})
+    public int documentos;
+
+    private IndiceTexto indice;
+    private SplittableRandom random;
+    private long proximoId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        indice = new IndiceTexto();
+        random = new SplittableRandom(Ambiente.SEMENTE);
+        for (long id = 1; id <= documentos; id++) {
+            // Comentários curtos; a cada 1.000 aparece um termo raro
+            String texto = Ambiente.texto(random, 12) + (id % 1_000 == 0 ? " arrecadação recorde" : "");
+            indice.indexar(id, texto);
+        }
+        proximoId = documentos + 1;
+    }
+
+    @Benchmark
+    public List<IndiceTexto.Resultado> termoRaro() {
+        return indice.buscar("recorde", 20);
+    }
+
+    @Benchmark
+    public List<IndiceTexto.Resultado> termoComum() {
+        return indice.buscar("escola", 20);
+    }
+
+    @Benchmark
+    public List<IndiceTexto.Resultado> doisTermos() {
+        return indice.buscar("biblioteca comunidade", 20);
+    }
+
+    @Benchmark
+    public void indexar() {
+        indice.indexar(proximoId++, Ambiente.texto(random, 12));
+    }
+}
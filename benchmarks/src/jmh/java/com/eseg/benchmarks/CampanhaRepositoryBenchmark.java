@@ -0,0 +1,57 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.campanhas.repository.CampanhaRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// CampanhaRepository.findById (índice em memória) e save (durável: group commit que acrescenta ao journal)
+// com mil, 10 mil, 100 mil e 1 milhão de campanhas carregadas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CampanhaRepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int registros;
+
+    private Path diretorio;
+    private CampanhaRepository repository;
+    private final SplittableRandom random = new SplittableRandom(Ambiente.SEMENTE);
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        diretorio = Ambiente.diretorio("campanhas");
+        repository = Ambiente.campanhaRepository(diretorio, registros);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        repository.close();
+        Ambiente.apagar(diretorio);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Optional<Campanha> findById() {
+        return repository.findById(1 + ThreadLocalRandom.current().nextLong(registros));
+    }
+
+    // Cada chamada espera o fsync do lote; com uma thread só, cada lote tem um item
+    @Benchmark
+    @Warmup(iterations = 1)
+    @Measurement(iterations = 3)
+    public Campanha save() {
+        Campanha nova;
+        synchronized (random) {
+            nova = Ambiente.campanha(0, random);
+        }
+        nova.setId(null);
+        return repository.save(nova);
+    }
+}
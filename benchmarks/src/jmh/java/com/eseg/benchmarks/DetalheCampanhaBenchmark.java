@@ -0,0 +1,72 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.dto.*;
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.campanhas.repository.CampanhaRepository;
+import com.eseg.contratos.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// CampanhaController.listarPorId (GET /campanhas/{id}) com os outros serviços respondendo em processo.
+// "memoria": a visão materializada já está completa (caso comum). "completa": toda leitura recarrega a visão
+// (TTL vencido), com as buscas paralelas em virtual threads, mas sem rede: mede só o custo da agregação.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class DetalheCampanhaBenchmark {
+
+    @Param({"memoria", "completa"})
+    public String visao;
+
+    private Path diretorio;
+    private Ambiente.ServicoCampanhas servico;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        diretorio = Ambiente.diretorio("detalhe");
+        CampanhaRepository repository = Ambiente.campanhaRepository(diretorio, 1);
+        Campanha campanha = repository.findById(1L).orElseThrow();
+
+        RestTemplateEmMemoria stub = new RestTemplateEmMemoria()
+                .responder("/comentarios?ids=", campanha.getIdComentarios().stream()
+                        .map(id -> new ComentarioDTO(id, "Força, pessoal!", LocalDateTime.now(), 1L, 7L))
+                        .toArray(ComentarioDTO[]::new))
+                .responder("/pagamentos?ids=", campanha.getIdPagamentos().stream()
+                        .map(id -> new PagamentoDTO(id, new BigDecimal("25.00"), 1L, LocalDateTime.now()))
+                        .toArray(PagamentoDTO[]::new))
+                .responder("/recompensas?ids=", campanha.getIdRecompensas().stream()
+                        .map(id -> new RecompensaDTO(id, "Camiseta", "Camiseta da campanha", new BigDecimal("50.00"), 1L))
+                        .toArray(RecompensaDTO[]::new))
+                .responder("/resumo", new UsuarioDTO(campanha.getIdCriador(), "Criador", "(11) 90000-0000", "criador@example.com"));
+
+        servico = Ambiente.servicoCampanhas(repository, stub, visao.equals("memoria") ? Long.MAX_VALUE : -1);
+        servico.controller().listarPorId(1L);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        servico.close();
+        Ambiente.apagar(diretorio);
+    }
+
+    @Benchmark
+    public ResponseEntity<CampanhaDetalhadaDTO> listarPorId() {
+        return servico.controller().listarPorId(1L);
+    }
+
+    // Garante que a resposta montada tem tudo (para o benchmark não medir um atalho de erro)
+    @TearDown(Level.Iteration)
+    public void conferir() {
+        CampanhaDetalhadaDTO dto = servico.controller().listarPorId(1L).getBody();
+        List<?> pagamentos = dto == null ? List.of() : dto.getPagamentos();
+        if (pagamentos.size() != 10) {
+            throw new IllegalStateException("Visão incompleta: " + pagamentos.size() + " pagamentos");
+        }
+    }
+}
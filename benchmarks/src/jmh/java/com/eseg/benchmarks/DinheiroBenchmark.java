@@ -0,0 +1,98 @@
+package com.eseg.benchmarks;
+
+import com.eseg.infra.dinheiro.Centavos;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+// Caminho da doação em BigDecimal contra centavos em long: somar ao arrecadado e comparar com a meta,
+// e achar a faixa de recompensa alcançada. As variantes BigDecimal reproduzem o código de antes da troca
+// (add + compareTo; floorEntry num mapa por valorMinimo); as de centavos usam a mesma conversão dos serviços.
+// Rode com o profiler gc (padrão do módulo) para ver o alloc/op de cada lado.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DinheiroBenchmark {
+
+    private static final int VALORES = 1024;
+
+    private BigDecimal[] valores;
+    private long[] centavos;
+    private int proximo;
+
+    private BigDecimal arrecadado;
+    private BigDecimal meta;
+    private long arrecadadoCentavos;
+    private long metaCentavos;
+
+    private NavigableMap<BigDecimal, String> faixas;
+    private long[] minimos;
+    private String[] recompensas;
+
+    @Setup
+    public void preparar() {
+        SplittableRandom random = new SplittableRandom(Ambiente.SEMENTE);
+        valores = new BigDecimal[VALORES];
+        centavos = new long[VALORES];
+        for (int i = 0; i < VALORES; i++) {
+            valores[i] = BigDecimal.valueOf(100 + random.nextLong(100_000), 2);
+            centavos[i] = Centavos.de(valores[i]);
+        }
+        arrecadado = BigDecimal.ZERO;
+        meta = new BigDecimal("1000000000.00");
+        metaCentavos = Centavos.teto(meta);
+
+        faixas = new TreeMap<>();
+        String[] nomes = {"Agradecimento", "Adesivo", "Camiseta", "Caneca", "Kit", "Visita"};
+        BigDecimal[] pisos = {new BigDecimal("5.00"), new BigDecimal("20.00"), new BigDecimal("50.00"),
+                new BigDecimal("100.00"), new BigDecimal("250.00"), new BigDecimal("500.00")};
+        minimos = new long[pisos.length];
+        recompensas = nomes;
+        for (int i = 0; i < pisos.length; i++) {
+            faixas.put(pisos[i], nomes[i]);
+            minimos[i] = Centavos.teto(pisos[i]);
+        }
+    }
+
+    private int indice() {
+        return proximo++ & (VALORES - 1);
+    }
+
+    @Benchmark
+    public boolean doacaoBigDecimal() {
+        arrecadado = arrecadado.add(valores[indice()]);
+        return arrecadado.compareTo(meta) >= 0;
+    }
+
+    @Benchmark
+    public boolean doacaoCentavos() {
+        arrecadadoCentavos = Math.addExact(arrecadadoCentavos, centavos[indice()]);
+        return arrecadadoCentavos >= metaCentavos;
+    }
+
+    // Inclui a conversão de entrada (o valor chega como BigDecimal no JSON)
+    @Benchmark
+    public boolean doacaoCentavosComConversao() {
+        arrecadadoCentavos = Math.addExact(arrecadadoCentavos, Centavos.de(valores[indice()]));
+        return arrecadadoCentavos >= metaCentavos;
+    }
+
+    @Benchmark
+    public String faixaBigDecimal() {
+        Map.Entry<BigDecimal, String> faixa = faixas.floorEntry(valores[indice()]);
+        return faixa == null ? null : faixa.getValue();
+    }
+
+    @Benchmark
+    public String faixaCentavos() {
+        int posicao = Arrays.binarySearch(minimos, centavos[indice()]);
+        int faixa = posicao >= 0 ? posicao : -posicao - 2;
+        return faixa < 0 ? null : recompensas[faixa];
+    }
+}
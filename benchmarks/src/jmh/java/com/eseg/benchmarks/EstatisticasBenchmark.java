@@ -0,0 +1,54 @@
+package com.eseg.benchmarks;
+
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.EstatisticasPagamentos;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Agregados incrementais por campanha: o custo que cada pagamento aplicado paga (trocar) e as leituras
+// do painel (resumo O(1), top 10 doadores, série diária), com 1 milhão de pagamentos em 1.000 campanhas.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EstatisticasBenchmark {
+
+    private static final int PAGAMENTOS = 1_000_000;
+
+    private EstatisticasPagamentos estatisticas;
+    private SplittableRandom random;
+    private long proximoId;
+
+    @Setup(Level.Trial)
+    public void preparar() {
+        estatisticas = new EstatisticasPagamentos();
+        random = new SplittableRandom(Ambiente.SEMENTE);
+        for (long id = 1; id <= PAGAMENTOS; id++) {
+            estatisticas.trocar(null, Ambiente.pagamento(id, random));
+        }
+        proximoId = PAGAMENTOS + 1;
+    }
+
+    @Benchmark
+    public void aplicarPagamento() {
+        Pagamento novo = Ambiente.pagamento(proximoId++, random);
+        estatisticas.trocar(null, novo);
+    }
+
+    @Benchmark
+    public EstatisticasPagamentos.Resumo resumo() {
+        return estatisticas.resumo(1 + random.nextLong(1_000));
+    }
+
+    @Benchmark
+    public List<EstatisticasPagamentos.Doador> topDoadores() {
+        return estatisticas.topDoadores(1 + random.nextLong(1_000), 10);
+    }
+
+    @Benchmark
+    public List<EstatisticasPagamentos.Balde> serieDiaria() {
+        return estatisticas.serie(1 + random.nextLong(1_000), EstatisticasPagamentos.Intervalo.DIA, null, null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.repository.CampanhaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.OutputStream;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// GET /campanhas inteiro: a lista montada e serializada de uma vez (application/json) contra a exportação
+// em streaming (application/x-ndjson), escrevendo num OutputStream que descarta. Com o profiler gc, o
+// alloc/op mostra a diferença de memória: a lista cresce com as campanhas, o streaming não.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class ExportacaoBenchmark {
+
+    @Param({"10000", "100000"})
+    public int registros;
+
+    private Path diretorio;
+    private Ambiente.ServicoCampanhas servico;
+    private ObjectMapper mapper;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        diretorio = Ambiente.diretorio("exportacao");
+        CampanhaRepository repository = Ambiente.campanhaRepository(diretorio, registros);
+        servico = Ambiente.servicoCampanhas(repository, new RestTemplateEmMemoria(), Long.MAX_VALUE);
+        mapper = Ambiente.mapper();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() throws Exception {
+        servico.close();
+        Ambiente.apagar(diretorio);
+    }
+
+    @Benchmark
+    public void json() throws Exception {
+        Object lista = servico.controller().listarTodas(null, null, null, null, null).getBody();
+        mapper.writeValue(OutputStream.nullOutputStream(), lista);
+    }
+
+    @Benchmark
+    public void ndjson() throws Exception {
+        StreamingResponseBody corpo = servico.controller().exportarTodas().getBody();
+        corpo.writeTo(OutputStream.nullOutputStream());
+    }
+}
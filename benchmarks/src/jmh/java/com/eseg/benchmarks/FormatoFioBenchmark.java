@@ -0,0 +1,96 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.contratos.CampanhaDTO;
+import com.eseg.contratos.RecompensaDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// JSON x Smile nas respostas entre serviços que mais pesam: as faixas de recompensa (RecompensaDTO[]) que
+// pagamentos busca a cada doação e as campanhas (CampanhaDTO[]) do perfil de usuários. Mappers montados como
+// os conversores do Spring (Jackson2ObjectMapperBuilder.json()/smile()). O tamanho de cada corpo sai no log
+// do setup, ao lado do tempo e do alloc/op; ex.: ./gradlew -Pbenchmarks :benchmarks:jmh -Pjmh.includes=FormatoFio
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class FormatoFioBenchmark {
+
+    @Param({"json", "smile"})
+    public String formato;
+
+    // Faixas de recompensa por campanha
+    @Param({"5", "50"})
+    public int faixas;
+
+    private ObjectWriter writerRecompensas;
+    private ObjectWriter writerCampanhas;
+    private ObjectReader readerRecompensas;
+    private ObjectReader readerCampanhas;
+
+    private RecompensaDTO[] recompensas;
+    private CampanhaDTO[] campanhas;
+
+    private byte[] corpoRecompensas;
+    private byte[] corpoCampanhas;
+
+    @Setup
+    public void preparar() throws Exception {
+        ObjectMapper mapper = formato.equals("smile")
+                ? Jackson2ObjectMapperBuilder.smile().build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        SplittableRandom random = new SplittableRandom(Ambiente.SEMENTE);
+
+        recompensas = new RecompensaDTO[faixas];
+        for (int i = 0; i < faixas; i++) {
+            recompensas[i] = new RecompensaDTO((long) i + 1, Ambiente.texto(random, 3), Ambiente.texto(random, 12),
+                    BigDecimal.valueOf(500 + random.nextLong(100_000), 2), 1L);
+        }
+        // Perfil com 20 campanhas criadas
+        campanhas = new CampanhaDTO[20];
+        for (int i = 0; i < campanhas.length; i++) {
+            Campanha campanha = Ambiente.campanha(i + 1, random);
+            campanhas[i] = new CampanhaDTO(campanha.getId(), campanha.getTitulo(), campanha.getDescricao(),
+                    campanha.getMeta(), campanha.getValorArrecadado(), campanha.getDataCriacao(),
+                    campanha.getDataEncerramento(), campanha.getStatus());
+            campanhas[i].setIdPagamentos(campanha.getIdPagamentos());
+            campanhas[i].setIdComentarios(campanha.getIdComentarios());
+        }
+
+        writerRecompensas = mapper.writerFor(RecompensaDTO[].class);
+        writerCampanhas = mapper.writerFor(CampanhaDTO[].class);
+        readerRecompensas = mapper.readerFor(RecompensaDTO[].class);
+        readerCampanhas = mapper.readerFor(CampanhaDTO[].class);
+
+        corpoRecompensas = writerRecompensas.writeValueAsBytes(recompensas);
+        corpoCampanhas = writerCampanhas.writeValueAsBytes(campanhas);
+        System.out.println("Corpo em " + formato + ": " + faixas + " recompensas = " + corpoRecompensas.length
+                + " bytes, " + campanhas.length + " campanhas = " + corpoCampanhas.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] serializarRecompensas() throws Exception {
+        return writerRecompensas.writeValueAsBytes(recompensas);
+    }
+
+    @Benchmark
+    public RecompensaDTO[] desserializarRecompensas() throws Exception {
+        return readerRecompensas.readValue(corpoRecompensas);
+    }
+
+    @Benchmark
+    public byte[] serializarCampanhas() throws Exception {
+        return writerCampanhas.writeValueAsBytes(campanhas);
+    }
+
+    @Benchmark
+    public CampanhaDTO[] desserializarCampanhas() throws Exception {
+        return readerCampanhas.readValue(corpoCampanhas);
+    }
+}
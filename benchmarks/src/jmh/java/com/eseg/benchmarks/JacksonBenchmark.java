@@ -0,0 +1,92 @@
+package com.eseg.benchmarks;
+
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.usuarios.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Serialização e desserialização (bytes UTF-8) dos modelos que mais trafegam entre os serviços,
+// com o ObjectMapper configurado como nos repositórios. Readers/writers criados uma vez, como o Spring faz.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JacksonBenchmark {
+
+    private ObjectWriter writerCampanha;
+    private ObjectWriter writerUsuario;
+    private ObjectWriter writerPagamento;
+    private ObjectReader readerCampanha;
+    private ObjectReader readerUsuario;
+    private ObjectReader readerPagamento;
+
+    private Campanha campanha;
+    private Usuario usuario;
+    private Pagamento pagamento;
+
+    private byte[] jsonCampanha;
+    private byte[] jsonUsuario;
+    private byte[] jsonPagamento;
+
+    @Setup
+    public void preparar() throws Exception {
+        ObjectMapper mapper = Ambiente.mapper();
+        SplittableRandom random = new SplittableRandom(Ambiente.SEMENTE);
+
+        campanha = Ambiente.campanha(1, random);
+        pagamento = Ambiente.pagamento(1, random);
+        usuario = new Usuario(1L, "Maria da Silva", "(11) 99999-0000", "maria@example.com");
+        for (int i = 0; i < 10; i++) {
+            usuario.getIdCampanhasCriadas().add(random.nextLong(1_000_000));
+            usuario.getIdPagamentosFeitos().add(random.nextLong(1_000_000));
+            usuario.getIdComentariosFeitos().add(random.nextLong(1_000_000));
+        }
+        usuario.getIdRecompensasRecebidas().add(random.nextLong(1_000));
+
+        writerCampanha = mapper.writerFor(Campanha.class);
+        writerUsuario = mapper.writerFor(Usuario.class);
+        writerPagamento = mapper.writerFor(Pagamento.class);
+        readerCampanha = mapper.readerFor(Campanha.class);
+        readerUsuario = mapper.readerFor(Usuario.class);
+        readerPagamento = mapper.readerFor(Pagamento.class);
+
+        jsonCampanha = writerCampanha.writeValueAsBytes(campanha);
+        jsonUsuario = writerUsuario.writeValueAsBytes(usuario);
+        jsonPagamento = writerPagamento.writeValueAsBytes(pagamento);
+    }
+
+    @Benchmark
+    public byte[] serializarCampanha() throws Exception {
+        return writerCampanha.writeValueAsBytes(campanha);
+    }
+
+    @Benchmark
+    public Campanha desserializarCampanha() throws Exception {
+        return readerCampanha.readValue(jsonCampanha);
+    }
+
+    @Benchmark
+    public byte[] serializarUsuario() throws Exception {
+        return writerUsuario.writeValueAsBytes(usuario);
+    }
+
+    @Benchmark
+    public Usuario desserializarUsuario() throws Exception {
+        return readerUsuario.readValue(jsonUsuario);
+    }
+
+    @Benchmark
+    public byte[] serializarPagamento() throws Exception {
+        return writerPagamento.writeValueAsBytes(pagamento);
+    }
+
+    @Benchmark
+    public Pagamento desserializarPagamento() throws Exception {
+        return readerPagamento.readValue(jsonPagamento);
+    }
+}
@@ -0,0 +1,56 @@
+package com.eseg.benchmarks;
+
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.PagamentoRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// PagamentoRepository.save (journal + group commit, snapshot amortizado) com 10 mil, 100 mil e 1 milhão de
+// pagamentos carregados. A versão com 16 threads mostra o group commit juntando várias gravações num fsync.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 3)
+public class PagamentoRepositoryBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int registros;
+
+    private Path diretorio;
+    private PagamentoRepository repository;
+
+    @Setup(Level.Trial)
+    public void preparar() throws Exception {
+        diretorio = Ambiente.diretorio("pagamentos");
+        repository = Ambiente.pagamentoRepository(diretorio, registros);
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        repository.close();
+        Ambiente.apagar(diretorio);
+    }
+
+    // Gerador por thread, para as threads não disputarem o sorteio
+    @State(Scope.Thread)
+    public static class Gerador {
+        final SplittableRandom random = new SplittableRandom(Ambiente.SEMENTE + Thread.currentThread().threadId());
+    }
+
+    @Benchmark
+    public Pagamento save(Gerador gerador) {
+        Pagamento novo = Ambiente.pagamento(0, gerador.random);
+        novo.setId(null);
+        return repository.save(novo);
+    }
+
+    @Benchmark
+    @Threads(16)
+    public Pagamento saveConcorrente(Gerador gerador) {
+        return save(gerador);
+    }
+}
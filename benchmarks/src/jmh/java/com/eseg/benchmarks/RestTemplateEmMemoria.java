@@ -0,0 +1,30 @@
+package com.eseg.benchmarks;
+
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Stub em processo dos outros serviços: GET devolve a resposta já pronta do primeiro trecho de URL que casar,
+// sem rede nem JSON, para o benchmark medir só o trabalho do serviço que agrega
+final class RestTemplateEmMemoria extends RestTemplate {
+
+    private final Map<String, Object> respostas = new LinkedHashMap<>();
+
+    RestTemplateEmMemoria responder(String trechoUrl, Object resposta) {
+        respostas.put(trechoUrl, resposta);
+        return this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getForObject(String url, Class<T> tipo, Object... variaveis) {
+        for (Map.Entry<String, Object> resposta : respostas.entrySet()) {
+            if (url.contains(resposta.getKey())) {
+                return (T) resposta.getValue();
+            }
+        }
+        throw new RestClientException("Stub sem resposta para " + url);
+    }
+}
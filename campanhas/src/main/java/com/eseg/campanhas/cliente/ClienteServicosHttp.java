@@ -0,0 +1,67 @@
+package com.eseg.campanhas.cliente;
+
+import com.eseg.contratos.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Implementação padrão (serviços separados): HTTP pelo RestTemplate com pool keep-alive do ClienteHttpConfig
+@Component
+@ConditionalOnProperty(name = "servicos.em-processo", havingValue = "false", matchIfMissing = true)
+public class ClienteServicosHttp implements ClienteServicos {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${comentario.service.url:http://localhost:8081}")
+    private String comentarioServiceUrl;
+
+    @Value("${pagamento.service.url:http://localhost:8082}")
+    private String pagamentoServiceUrl;
+
+    @Value("${recompensa.service.url:http://localhost:8083}")
+    private String recompensaServiceUrl;
+
+    @Value("${usuario.service.url:http://localhost:8084}")
+    private String usuarioServiceUrl;
+
+    public ClienteServicosHttp(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public ComentarioDTO[] buscarComentarios(List<Long> ids) {
+        return restTemplate.getForObject(comentarioServiceUrl + "/comentarios?ids=" + juntar(ids), ComentarioDTO[].class);
+    }
+
+    @Override
+    public PagamentoDTO[] buscarPagamentos(List<Long> ids) {
+        return restTemplate.getForObject(pagamentoServiceUrl + "/pagamentos?ids=" + juntar(ids), PagamentoDTO[].class);
+    }
+
+    @Override
+    public RecompensaDTO[] buscarRecompensas(List<Long> ids) {
+        return restTemplate.getForObject(recompensaServiceUrl + "/recompensas?ids=" + juntar(ids), RecompensaDTO[].class);
+    }
+
+    @Override
+    public UsuarioDTO buscarResumoUsuario(Long id) {
+        return restTemplate.getForObject(usuarioServiceUrl + "/usuarios/" + id + "/resumo", UsuarioDTO.class);
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        if (!servico.equals("usuarios")) {
+            throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+        restTemplate.postForLocation(usuarioServiceUrl + "/usuarios/eventos", evento);
+    }
+
+    // "1,2,3" para o parâmetro ?ids=
+    private static String juntar(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
@@ -3,14 +3,16 @@ package com.eseg.campanhas.controller;
 import com.eseg.campanhas.dto.*;
 import com.eseg.campanhas.model.Campanha;
 import com.eseg.campanhas.service.CampanhaService;
-import org.springframework.beans.factory.annotation.Value;
+import com.eseg.campanhas.service.VisaoDetalhada;
+import com.eseg.contratos.*;
+import com.eseg.infra.web.Ndjson;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 import java.math.BigDecimal;
 
 @RestController
@@ -20,86 +22,61 @@ public class CampanhaController {
 
     private final CampanhaService campanhaService;
 
-    private RestTemplate restTemplate = new RestTemplate();
+    private final VisaoDetalhada visaoDetalhada;
 
-    // URLs base dos outros microsserviços, configuráveis via application.properties
-    @Value("${comentario.service.url:http://localhost:8081}")
-    private String comentarioServiceUrl;
+    private final ObjectMapper objectMapper;
 
-    @Value("${pagamento.service.url:http://localhost:8082}")
-    private String pagamentoServiceUrl;
-
-    @Value("${recompensa.service.url:http://localhost:8083}")
-    private String recompensaServiceUrl;
-
-    @Value("${usuario.service.url:http://localhost:8084}")
-    private String usuarioServiceUrl;
-
-    public CampanhaController(CampanhaService campanhaService, RestTemplate restTemplate) {
+    public CampanhaController(CampanhaService campanhaService, VisaoDetalhada visaoDetalhada, ObjectMapper objectMapper) {
         this.campanhaService = campanhaService;
-        this.restTemplate = restTemplate;
+        this.visaoDetalhada = visaoDetalhada;
+        this.objectMapper = objectMapper;
     }
 
-    // Listar todas as campanhas: retorna lista simples com objetos Campanha (não expandido)
+    // Listar todas as campanhas: retorna lista simples com objetos Campanha (não expandido).
+    // Com limite, cursor, status, ordem (dataCriacao | valorArrecadado | progresso) ou direcao (asc | desc)
+    // retorna uma página { itens, proximoCursor } servida pelos índices ordenados, com as campanhas resumidas
+    // (totalComentarios e totalPagamentos no lugar das listas de ids).
     @GetMapping
-    public List<Campanha> listarTodas() {
+    public ResponseEntity<?> listarTodas(@RequestParam(required = false) Integer limite,
+                                         @RequestParam(required = false) String cursor,
+                                         @RequestParam(required = false) Integer status,
+                                         @RequestParam(required = false) String ordem,
+                                         @RequestParam(required = false) String direcao) {
+        if (limite != null || cursor != null || status != null || ordem != null || direcao != null) {
+            return ResponseEntity.ok(campanhaService.listarPagina(limite, cursor, status, ordem, direcao));
+        }
         List<Campanha> campanhas = campanhaService.listarTodas();
         System.out.println("Quantidade campanhas encontradas: " + campanhas.size());
-        return campanhas;
+        return ResponseEntity.ok(campanhas);
+    }
+
+    // Exportar todas as campanhas em streaming (Accept: application/x-ndjson): uma campanha por linha, direto da memória
+    // para a resposta, sem montar a lista; o heap não cresce com o volume exportado
+    @GetMapping(produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> exportarTodas() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.MEDIA_TYPE)
+                .body(Ndjson.de(objectMapper, campanhaService.percorrerTodos()));
+    }
+
+    // Buscar várias campanhas de uma vez: GET /campanhas?ids=1,2,3 (formato resumido)
+    @GetMapping(params = "ids")
+    public List<Campanha> buscarPorIds(@RequestParam List<Long> ids) {
+        return campanhaService.buscarPorIds(ids);
+    }
+
+    // Busca textual em título e descrição: GET /campanhas/busca?q=...&limite= (mais relevantes primeiro)
+    @GetMapping("/busca")
+    public List<Campanha> buscarPorTexto(@RequestParam String q, @RequestParam(required = false) Integer limite) {
+        return campanhaService.buscarPorTexto(q, limite);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<CampanhaDetalhadaDTO> listarPorId(@PathVariable Long id) {
         Campanha campanha = campanhaService.buscarPorId(id);
 
-        // 1. Comentários com proteção
-        List<ComentarioDTO> comentarios = campanha.getIdComentarios() == null ? List.of() :
-                campanha.getIdComentarios().stream()
-                        .map(cid -> {
-                            try {
-                                return restTemplate.getForObject(comentarioServiceUrl + "/comentarios/" + cid, ComentarioDTO.class);
-                            } catch (Exception e) { return null; } //
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // 2. Pagamentos com proteção
-        List<PagamentoDTO> pagamentos = campanha.getIdPagamentos() == null ? List.of() :
-                campanha.getIdPagamentos().stream()
-                        .map(pid -> {
-                            try {
-                                return restTemplate.getForObject(pagamentoServiceUrl + "/pagamentos/" + pid, PagamentoDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // 3. Recompensas com proteção
-        List<RecompensaDTO> recompensas = campanha.getIdRecompensas() == null ? List.of() :
-                campanha.getIdRecompensas().stream()
-                        .map(rid -> {
-                            try {
-                                return restTemplate.getForObject(recompensaServiceUrl + "/recompensas/" + rid, RecompensaDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // 4. Usuário com proteção e correção de ID
-        UsuarioDTO usuario;
-        try {
-            usuario = restTemplate.getForObject(usuarioServiceUrl + "/usuarios/" + campanha.getIdCriador() + "/resumo", UsuarioDTO.class);
-        } catch (Exception e) {
-            usuario = new UsuarioDTO();
-            usuario.setNome("Desconhecido (Erro ao buscar)");
-        }
-
-        CampanhaDetalhadaDTO dto = new CampanhaDetalhadaDTO(
-                campanha.getId(), campanha.getIdCriador(), campanha.getTitulo(), campanha.getDescricao(),
-                campanha.getMeta(), campanha.getValorArrecadado(), campanha.getDataCriacao(),
-                campanha.getDataEncerramento(), campanha.getStatus(),
-                comentarios, pagamentos, recompensas, usuario
-        );
+        // Visão materializada: em regra só memória; vai à rede apenas para o que ainda não conhece ou se expirou
+        CampanhaDetalhadaDTO dto = visaoDetalhada.montar(campanha);
 
         return ResponseEntity.ok(dto);
     }
@@ -125,6 +102,26 @@ public class CampanhaController {
         return ResponseEntity.noContent().build();
     }
 
+    // Registrar doação: soma ao valor arrecadado e vincula o pagamento (só campanhas em progresso)
+    @PostMapping("/{id}/doar")
+    public ResponseEntity<Campanha> doar(@PathVariable Long id, @RequestBody DoacaoDTO doacao) {
+        return ResponseEntity.ok(campanhaService.registrarDoacao(id, doacao));
+    }
+
+    // Registrar um lote de doações na ordem recebida (ingestão em massa de pagamentos): as primeiras
+    // "aceitas" entram, as seguintes são recusadas se a campanha encerrar no meio do lote
+    @PostMapping("/{id}/doar-lote")
+    public ResponseEntity<LoteDoacoesDTO> doarEmLote(@PathVariable Long id, @RequestBody List<DoacaoDTO> doacoes) {
+        return ResponseEntity.ok(campanhaService.registrarDoacoes(id, doacoes));
+    }
+
+    // Eventos de mudança dos outros serviços: atualizam a visão materializada de GET /campanhas/{id}
+    @PostMapping("/eventos")
+    public ResponseEntity<Void> receberEvento(@RequestBody EventoDTO evento) {
+        visaoDetalhada.aplicar(evento);
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/{id}/resumo")
     public ResponseEntity<Campanha> buscarResumo(@PathVariable Long id) {
         return ResponseEntity.ok(campanhaService.buscarPorId(id));
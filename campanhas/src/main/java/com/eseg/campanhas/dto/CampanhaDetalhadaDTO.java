@@ -1,5 +1,10 @@
 package com.eseg.campanhas.dto;
 
+import com.eseg.contratos.ComentarioDTO;
+import com.eseg.contratos.PagamentoDTO;
+import com.eseg.contratos.RecompensaDTO;
+import com.eseg.contratos.UsuarioDTO;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -0,0 +1,131 @@
+package com.eseg.campanhas.dto;
+
+import com.eseg.campanhas.model.Campanha;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// DTO resumido para as páginas de GET /campanhas: os campos da campanha e só a quantidade de comentários e
+// pagamentos, sem as listas de ids (que crescem sem limite com a campanha). Os ids ficam em /campanhas/{id}.
+public class CampanhaResumoDTO {
+    private Long id;
+    private Long idCriador;
+    private String titulo;
+    private String descricao;
+    private BigDecimal meta;
+    private BigDecimal valorArrecadado;
+    private LocalDateTime dataCriacao;
+    private LocalDateTime dataEncerramento;
+    private int status; // 0 - encerrada | 1 - em progresso | 2 - cancelada
+
+    private int totalComentarios;
+    private int totalPagamentos;
+
+    public CampanhaResumoDTO() {}
+
+    public static CampanhaResumoDTO de(Campanha campanha) {
+        CampanhaResumoDTO resumo = new CampanhaResumoDTO();
+        resumo.id = campanha.getId();
+        resumo.idCriador = campanha.getIdCriador();
+        resumo.titulo = campanha.getTitulo();
+        resumo.descricao = campanha.getDescricao();
+        resumo.meta = campanha.getMeta();
+        resumo.valorArrecadado = campanha.getValorArrecadado();
+        resumo.dataCriacao = campanha.getDataCriacao();
+        resumo.dataEncerramento = campanha.getDataEncerramento();
+        resumo.status = campanha.getStatus();
+        resumo.totalComentarios = campanha.getIdComentarios() != null ? campanha.getIdComentarios().size() : 0;
+        resumo.totalPagamentos = campanha.getIdPagamentos() != null ? campanha.getIdPagamentos().size() : 0;
+        return resumo;
+    }
+
+    // Getters e setters
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getIdCriador() {
+        return idCriador;
+    }
+
+    public void setIdCriador(Long idCriador) {
+        this.idCriador = idCriador;
+    }
+
+    public String getTitulo() {
+        return titulo;
+    }
+
+    public void setTitulo(String titulo) {
+        this.titulo = titulo;
+    }
+
+    public String getDescricao() {
+        return descricao;
+    }
+
+    public void setDescricao(String descricao) {
+        this.descricao = descricao;
+    }
+
+    public BigDecimal getMeta() {
+        return meta;
+    }
+
+    public void setMeta(BigDecimal meta) {
+        this.meta = meta;
+    }
+
+    public BigDecimal getValorArrecadado() {
+        return valorArrecadado;
+    }
+
+    public void setValorArrecadado(BigDecimal valorArrecadado) {
+        this.valorArrecadado = valorArrecadado;
+    }
+
+    public LocalDateTime getDataCriacao() {
+        return dataCriacao;
+    }
+
+    public void setDataCriacao(LocalDateTime dataCriacao) {
+        this.dataCriacao = dataCriacao;
+    }
+
+    public LocalDateTime getDataEncerramento() {
+        return dataEncerramento;
+    }
+
+    public void setDataEncerramento(LocalDateTime dataEncerramento) {
+        this.dataEncerramento = dataEncerramento;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public int getTotalComentarios() {
+        return totalComentarios;
+    }
+
+    public void setTotalComentarios(int totalComentarios) {
+        this.totalComentarios = totalComentarios;
+    }
+
+    public int getTotalPagamentos() {
+        return totalPagamentos;
+    }
+
+    public void setTotalPagamentos(int totalPagamentos) {
+        this.totalPagamentos = totalPagamentos;
+    }
+}
@@ -1,32 +1,120 @@
 package com.eseg.campanhas.repository;
 
 import com.eseg.campanhas.model.Campanha;
+import com.eseg.infra.busca.IndiceTexto;
+import com.eseg.infra.dinheiro.Centavos;
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.persistencia.GroupCommitWriter;
+import com.eseg.infra.persistencia.Journal;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
 
 @Repository
 public class CampanhaRepository {
     @Value("${campanha.json.path}")
     private String jsonPath;
 
+    // Journal append-only: cada criação/edição/remoção e cada lote de doações é uma linha; o JSON acima vira
+    // o snapshot
+    @Value("${campanha.journal.path:${campanha.json.path}.log}")
+    private String journalPath;
+
+    // Tamanho mínimo do journal (em bytes) antes de compactar (snapshot + truncamento)
+    @Value("${campanha.journal.snapshot-minimo-bytes:1048576}")
+    private long snapshotMinimoBytes;
+
+    // Janela do group commit: registros que chegam dentro dela vão para o journal com um único fsync
+    @Value("${persistencia.group-commit.janela-ms:2}")
+    private long janelaGroupCommitMs;
+
+    @Value("${persistencia.group-commit.max-lote:256}")
+    private int maxLoteGroupCommit;
+
+    // Quantas gerações do arquivo (atual + anteriores) são mantidas para recuperação
+    @Value("${persistencia.geracoes:3}")
+    private int geracoes;
+
     private final AtomicLong idGenerator = new AtomicLong();
 
+    // Índice residente (id -> campanha), reconstruído no startup a partir do snapshot + replay do journal.
+    // Leituras são servidas da memória; só o worker do group commit escreve nele, e uma mudança só fica
+    // visível (no mapa e nos índices) depois de gravada no journal.
+    private final ConcurrentSkipListMap<Long, Campanha> campanhas = new ConcurrentSkipListMap<>();
+
+    // Saldo imutável de uma campanha, trocado por CAS a cada doação admitida. Em centavos: somar e comparar com
+    // a meta não aloca; a meta é o teto em centavos (Long.MAX_VALUE sem meta). Só filtra a entrada: o valor que
+    // vale é o da campanha gravada, e toda publicação descarta o saldo para ele ser refeito a partir dela.
+    private record Saldo(long arrecadado, long meta, int status) {}
+
+    // Um acumulador por campanha: doações em campanhas diferentes nunca disputam o mesmo ponto de sincronização
+    private final ConcurrentHashMap<Long, AtomicReference<Saldo>> saldos = new ConcurrentHashMap<>();
+
+    // Índices ordenados para a listagem paginada (data de criação, valor arrecadado, progresso)
+    private final IndiceCampanhas indice = new IndiceCampanhas();
+
+    // Índice invertido de título e descrição para a busca (?q=)
+    private final IndiceTexto indiceTexto = new IndiceTexto();
+
+    // Registro a gravar, decidido pelo worker sobre a versão mais nova da campanha (a publicada ou a deixada
+    // por um pedido anterior do mesmo lote): checar e alterar é atômico. null = nada a gravar; uma exceção
+    // é a recusa, que vai só para quem pediu.
+    @FunctionalInterface
+    private interface Mudanca {
+        RegistroCampanha registro(Campanha atual);
+    }
+
+    private static final class Pedido {
+        final Long id;
+        final Mudanca mudanca;
+        Campanha resultado;
+        RuntimeException erro;
+
+        Pedido(Long id, Mudanca mudanca) {
+            this.id = id;
+            this.mudanca = mudanca;
+        }
+    }
+
+    private GroupCommitWriter<Pedido> writer;
+
+    private Journal<RegistroCampanha> journal;
+
+    private AtomicJsonFile arquivo;
+
+    // Só são tocados pela thread do group commit (ou no startup/desligamento): o tamanho do último snapshot e
+    // o do journal que dispara a próxima compactação (depois de uma falha, só quando crescer outro limite)
+    private long bytesSnapshot;
+    private long proximaCompactacao;
+
     private final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
@@ -41,64 +129,114 @@ public class CampanhaRepository {
                 System.out.println("Diretório criado: " + parentDir);
             }
             
+            arquivo = new AtomicJsonFile(path, geracoes);
+
             // Cria arquivo vazio se não existir
             if (!Files.exists(path)) {
-                mapper.writeValue(path.toFile(), new ArrayList<Campanha>());
+                arquivo.write(mapper.writeValueAsBytes(new ArrayList<Campanha>()));
                 System.out.println("Arquivo JSON criado: " + jsonPath);
             }
         } catch (IOException e) {
             System.err.println("Erro ao inicializar arquivo JSON: " + e.getMessage());
         }
-        
+
+        loadIndex();
         initializeIdGenerator();
+        proximaCompactacao = limiteCompactacao();
+
+        writer = new GroupCommitWriter<>("campanhas", Duration.ofMillis(janelaGroupCommitMs), maxLoteGroupCommit,
+                this::gravarLote, this::compactarSeNecessario);
+    }
+
+    // No desligamento compacta o journal para que o próximo startup só precise ler o snapshot
+    @PreDestroy
+    public void close() {
+        writer.close();
+        try {
+            if (journal.tamanho() > 0) {
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            // O journal continua íntegro: o próximo startup só vai ter mais registros para reaplicar
+            System.err.println("Erro ao compactar journal de campanhas: " + e.getMessage());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar journal de campanhas: " + e.getMessage());
+        }
+    }
+
+    private void loadIndex() {
+        campanhas.clear();
+        for (Campanha c : loadAll()) {
+            if (c.getId() != null) {
+                prepararListas(c);
+                campanhas.put(c.getId(), c);
+            }
+        }
+        try {
+            journal = new Journal<>("campanhas", Paths.get(journalPath), RegistroCampanha.class, mapper);
+            int registros = journal.replay(registro -> {
+                Campanha nova = aplicar(campanhas.get(registro.getId()), registro);
+                if (nova == null) {
+                    campanhas.remove(registro.getId());
+                } else {
+                    campanhas.put(registro.getId(), nova);
+                }
+            });
+            System.out.println("Journal de campanhas reaplicado: " + registros + " registros");
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao recuperar campanhas do journal", e);
+        }
+
+        indice.limpar();
+        indiceTexto.limpar();
+        for (Campanha c : campanhas.values()) {
+            indice.indexar(c);
+            indexarTexto(c, () -> true);
+        }
+        System.out.println("Índice em memória carregado com " + campanhas.size() + " campanhas");
     }
 
     private void initializeIdGenerator() {
-        List<Campanha> campanhas = loadAll();
-        long maxId = campanhas.stream().mapToLong(Campanha::getId).max().orElse(0L);
-        idGenerator.set(maxId + 1);
+        idGenerator.set((campanhas.isEmpty() ? 0L : campanhas.lastKey()) + 1);
         System.out.println("ID Generator iniciado em: " + idGenerator.get());
     }
 
     private List<Campanha> loadAll() {
         try {
-            File file = new File(jsonPath);
-            
-            if (!file.exists()) {
+            // Lê a geração íntegra mais nova; um arquivo truncado por uma queda cai para a anterior
+            List<Campanha> campanhas = arquivo.read(this::parse).orElseGet(() -> {
                 System.out.println("Arquivo não existe, retornando lista vazia");
                 return new ArrayList<>();
-            }
-            
-            if (file.length() == 0) {
-                System.out.println("Arquivo vazio, retornando lista vazia");
-                return new ArrayList<>();
-            }
-            
-            List<Campanha> campanhas = mapper.readValue(file, new TypeReference<List<Campanha>>(){});
+            });
             System.out.println("JSON lido com " + campanhas.size() + " campanhas");
             return campanhas;
-            
+
         } catch (IOException e) {
+            // Nunca sobe com a lista vazia quando há dados ilegíveis: a próxima escrita os apagaria
             System.err.println("Erro ao ler JSON: " + e.getMessage());
-            e.printStackTrace();
+            throw new IllegalStateException("Erro ao ler campanhas de " + jsonPath, e);
+        }
+    }
+
+    private List<Campanha> parse(byte[] conteudo) throws IOException {
+        bytesSnapshot = conteudo.length;
+        if (conteudo.length == 0) {
+            System.out.println("Arquivo vazio, retornando lista vazia");
             return new ArrayList<>();
         }
+        return mapper.readValue(conteudo, new TypeReference<List<Campanha>>(){});
     }
 
-    private void saveAll(List<Campanha> campanhas) {
+    private void saveAll(Collection<Campanha> campanhas) {
         try {
-            File file = new File(jsonPath);
-            
-            // Garante que o diretório pai existe
-            File parentDir = file.getParentFile();
-            if (parentDir != null && !parentDir.exists()) {
-                parentDir.mkdirs();
-                System.out.println("Diretório criado: " + parentDir.getAbsolutePath());
-            }
-            
-            mapper.writerWithDefaultPrettyPrinter().writeValue(file, campanhas);
-            System.out.println("JSON salvo com " + campanhas.size() + " campanhas em: " + file.getAbsolutePath());
-            
+            byte[] conteudo = mapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(campanhas);
+            arquivo.write(conteudo);
+            bytesSnapshot = conteudo.length;
+            System.out.println("JSON salvo com " + campanhas.size() + " campanhas em: " + arquivo.getPath());
+
         } catch (IOException e) {
             System.err.println("Erro ao salvar JSON: " + e.getMessage());
             e.printStackTrace();
@@ -106,69 +244,418 @@ public class CampanhaRepository {
         }
     }
 
+    // Listas próprias e nunca null; idPagamentos indexada, para as doações vincularem e checarem pagamentos
+    // sem copiar nem percorrer a lista
+    private static void prepararListas(Campanha c) {
+        c.setIdComentarios(new ArrayList<>(c.getIdComentarios() != null ? c.getIdComentarios() : List.of()));
+        c.setIdPagamentos(IdsPagamento.de(c.getIdPagamentos() != null ? c.getIdPagamentos() : List.of()));
+        c.setIdRecompensas(new ArrayList<>(c.getIdRecompensas() != null ? c.getIdRecompensas() : List.of()));
+    }
+
+    // Versão da campanha depois do registro (null = removida), a mesma no worker e no replay do startup.
+    // Nunca altera a atual: ela continua visível para os leitores até o lote ser gravado.
+    private static Campanha aplicar(Campanha atual, RegistroCampanha registro) {
+        switch (registro.getOperacao()) {
+            case SALVAR -> {
+                prepararListas(registro.getCampanha());
+                return registro.getCampanha();
+            }
+            case REMOVER -> {
+                return null;
+            }
+            case DOACOES -> {
+                if (atual == null) {
+                    return null;
+                }
+                Campanha nova = copiar(atual);
+                nova.setValorArrecadado(registro.getValorArrecadado());
+                nova.setStatus(registro.getStatus());
+                IdsPagamento vinculados = (IdsPagamento) atual.getIdPagamentos();
+                for (Long idPagamento : registro.getIdsPagamento()) {
+                    vinculados = vinculados.com(idPagamento);
+                }
+                nova.setIdPagamentos(vinculados);
+                return nova;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida: " + registro.getOperacao());
+    }
+
+    // Decide e grava o lote no journal com um único fsync, e só então publica as versões novas
+    private void gravarLote(List<Pedido> lote) {
+        List<RegistroCampanha> registros = new ArrayList<>(lote.size());
+        // Versão de cada campanha alterada no lote (null = removida); pedidos seguintes da mesma partem dela
+        Map<Long, Campanha> alterados = new HashMap<>();
+        for (Pedido pedido : lote) {
+            Campanha atual = alterados.containsKey(pedido.id) ? alterados.get(pedido.id) : campanhas.get(pedido.id);
+            try {
+                RegistroCampanha registro = pedido.mudanca.registro(atual);
+                if (registro == null) {
+                    pedido.resultado = atual;
+                    continue;
+                }
+                pedido.resultado = aplicar(atual, registro);
+                alterados.put(pedido.id, pedido.resultado);
+                registros.add(registro);
+            } catch (RuntimeException e) {
+                pedido.erro = e;
+            }
+        }
+        if (registros.isEmpty()) {
+            return;
+        }
+
+        // Lança se a escrita falhar: o lote inteiro falha e nada do que foi aplicado acima é publicado
+        try {
+            journal.append(registros);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar campanhas: " + e.getMessage(), e);
+        }
+
+        for (Map.Entry<Long, Campanha> e : alterados.entrySet()) {
+            Long id = e.getKey();
+            Campanha nova = e.getValue();
+            Campanha antiga = nova == null ? campanhas.remove(id) : campanhas.put(id, nova);
+            if (antiga == null && nova == null) {
+                continue;
+            }
+            try {
+                publicado(id, nova);
+            } catch (RuntimeException ex) {
+                // Já está no journal e no mapa; um índice com defeito não pode fazer a escrita parecer perdida
+                System.err.println("Erro ao atualizar índices do id " + id + ": " + ex);
+            }
+        }
+    }
+
+    // Compacta quando o journal fica do tamanho do snapshot: custo amortizado O(1) por byte gravado, mesmo
+    // com campanhas de muitos pagamentos. Roda depois que o lote foi confirmado a quem esperava: os registros
+    // já estão no journal, então uma falha aqui só adia a compactação.
+    private void compactarSeNecessario() {
+        if (journal.tamanho() < proximaCompactacao) {
+            return;
+        }
+        try {
+            snapshot();
+            proximaCompactacao = limiteCompactacao();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao compactar journal de campanhas (nova tentativa mais tarde): " + e.getMessage());
+            proximaCompactacao = journal.tamanho() + limiteCompactacao();
+        }
+    }
+
+    private long limiteCompactacao() {
+        return Math.max(snapshotMinimoBytes, bytesSnapshot);
+    }
+
+    private void snapshot() {
+        saveAll(campanhas.values());
+        try {
+            journal.truncate();
+        } catch (IOException e) {
+            // O snapshot já está salvo; o replay dos registros antigos é idempotente
+            System.err.println("Erro ao truncar journal de campanhas: " + e.getMessage());
+        }
+    }
+
+    // Bloqueia até o registro estar durável no journal; devolve a campanha publicada (null se removida)
+    private Campanha alterar(Long id, Mudanca mudanca) {
+        Pedido pedido = new Pedido(id, mudanca);
+        writer.submitAndWait(pedido);
+        if (pedido.erro != null) {
+            throw pedido.erro;
+        }
+        return pedido.resultado;
+    }
+
     // 1. Listar todas as campanhas
     public List<Campanha> findAll() {
-        return loadAll();
+        return new ArrayList<>(campanhas.values());
+    }
+
+    // 1.1 Percorrer todas as campanhas sem copiar (exportação em streaming); a iteração é fracamente consistente
+    public Iterable<Campanha> iterateAll() {
+        return Collections.unmodifiableCollection(campanhas.values());
     }
 
     // 2. Buscar por Id
     public Optional<Campanha> findById(Long id) {
-    return loadAll().stream()
-        .filter(c -> c.getId() != null && c.getId().equals(id))  
-        .findFirst();
-}
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(campanhas.get(id));
+    }
+
+    // 2.1 Buscar várias campanhas por Id (na ordem pedida, ignorando os inexistentes)
+    public List<Campanha> findAllById(Collection<Long> ids) {
+        List<Campanha> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Campanha encontrado = campanhas.get(id);
+            if (encontrado != null) {
+                encontrados.add(encontrado);
+            }
+        }
+        return encontrados;
+    }
+
+    // 2.2 Página de campanhas pelos índices ordenados: até limite chaves depois do cursor (status null = todos)
+    public List<IndiceCampanhas.Chave> findPagina(Integer status, IndiceCampanhas.Ordem ordem, boolean decrescente,
+                                                 IndiceCampanhas.Chave depoisDe, int limite) {
+        return indice.pagina(status, ordem, decrescente, depoisDe, limite);
+    }
+
+    // 2.3 Busca textual: ids das campanhas que contêm todos os termos, da mais relevante para a menos
+    public List<IndiceTexto.Resultado> search(String consulta, int limite) {
+        return indiceTexto.buscar(consulta, limite);
+    }
+
+    // O título conta em dobro na relevância: um termo no título pesa mais que o mesmo termo na descrição
+    private void indexarTexto(Campanha campanha, BooleanSupplier vigente) {
+        indiceTexto.indexar(campanha.getId(), vigente, campanha.getTitulo(), campanha.getTitulo(), campanha.getDescricao());
+    }
+
+    // Chamado pelo group commit depois de cada campanha gravada e publicada no mapa
+    private void publicado(Long id, Campanha nova) {
+        saldos.remove(id);
+        if (nova == null) {
+            indice.remover(id);
+            indiceTexto.remover(id);
+            return;
+        }
+        indice.indexar(nova);
+        indexarTexto(nova, () -> campanhas.get(id) == nova);
+    }
 
     // 3. Adicionar nova campanha
     public Campanha save(Campanha novaCampanha) {
-        List<Campanha> campanhas = loadAll();
         Long novoId = idGenerator.getAndIncrement();
         novaCampanha.setId(novoId);
-        campanhas.add(novaCampanha);
-        saveAll(campanhas);
-        return novaCampanha;
+        return alterar(novoId, atual -> RegistroCampanha.salvar(novaCampanha));
     }
 
     // 4. Atualizar campanha por Id
     public void update(Long id, Campanha campanhaAtualizada) {
-    List<Campanha> campanhas = loadAll();
-    boolean updated = false;
-    
-    for (int i = 0; i < campanhas.size(); i++) {
-        if (campanhas.get(i).getId() != null && campanhas.get(i).getId().equals(id)) {
-            campanhaAtualizada.setId(id);
-            
-            Campanha antiga = campanhas.get(i);
+        campanhaAtualizada.setId(id);
+        alterar(id, antiga -> {
+            if (antiga == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
+            }
+
             if (campanhaAtualizada.getIdComentarios() == null) {
-                campanhaAtualizada.setIdComentarios(antiga.getIdComentarios() != null ? antiga.getIdComentarios() : new ArrayList<>());
+                campanhaAtualizada.setIdComentarios(antiga.getIdComentarios());
             }
             if (campanhaAtualizada.getIdPagamentos() == null) {
-                campanhaAtualizada.setIdPagamentos(antiga.getIdPagamentos() != null ? antiga.getIdPagamentos() : new ArrayList<>());
+                campanhaAtualizada.setIdPagamentos(antiga.getIdPagamentos());
             }
             if (campanhaAtualizada.getIdRecompensas() == null) {
-                campanhaAtualizada.setIdRecompensas(antiga.getIdRecompensas() != null ? antiga.getIdRecompensas() : new ArrayList<>());
+                campanhaAtualizada.setIdRecompensas(antiga.getIdRecompensas());
             }
-            
-            campanhas.set(i, campanhaAtualizada);
-            updated = true;
-            break;
-        }
+            return RegistroCampanha.salvar(campanhaAtualizada);
+        });
+        System.out.println("✅ Campanha " + id + " atualizada com sucesso!");
     }
-    
-    if (!updated) {
-        throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
-    }
-    
-    saveAll(campanhas);
-    System.out.println("✅ Campanha " + id + " atualizada com sucesso!");
-}
 
     // 5. Remover campanha por ID
     public void deleteById(Long id) {
-        List<Campanha> campanhas = loadAll();
-        boolean removed = campanhas.removeIf(c -> c.getId().equals(id));
-        if (!removed) {
+        alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
+            }
+            return RegistroCampanha.remover(id);
+        });
+    }
+
+    // 6. Registrar doação (valor em centavos): soma ao valorArrecadado e vincula o pagamento.
+    // O saldo em memória é só a admissão: reservado por CAS (sem lock global), recusa na hora doações em
+    // campanha encerrada. Quem decide é o worker do group commit, sobre a última campanha gravada: checa
+    // status == 1, soma e encerra ao atingir a meta no mesmo passo. Só o delta (valor, status e o pagamento)
+    // vai para o journal, e a campanha só é publicada depois de gravada. Se a gravação falhar a reserva é
+    // desfeita e nada da doação fica visível. Um idPagamento já vinculado não é somado de novo, então repetir
+    // a chamada depois de um erro não conta a doação duas vezes.
+    public Campanha registrarDoacao(Long id, long centavos, Long idPagamento) {
+        AtomicReference<Saldo> saldo = saldo(id);
+        if (reservar(saldo, new long[] {centavos}, 1) == 0) {
+            Campanha publicada = campanhas.get(id);
+            if (publicada != null && vinculadas(publicada, Collections.singletonList(idPagamento)) == 1) {
+                return publicada;
+            }
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campanha " + id + " não está em progresso.");
+        }
+
+        AtomicBoolean somada = new AtomicBoolean();
+        Campanha publicada;
+        try {
+            publicada = alterar(id, atual -> {
+                if (atual == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
+                }
+                if (vinculadas(atual, Collections.singletonList(idPagamento)) == 1) {
+                    return null;
+                }
+                if (atual.getStatus() != 1) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campanha " + id + " não está em progresso.");
+                }
+                somada.set(true);
+                return somar(atual, new long[] {centavos}, Collections.singletonList(idPagamento), new AtomicInteger());
+            });
+        } catch (RuntimeException e) {
+            desfazer(saldo, centavos);
+            throw e;
+        }
+        if (!somada.get()) {
+            // Replay: nada foi gravado nem publicado, então o acumulador não foi descartado
+            desfazer(saldo, centavos);
+        } else if (publicada.getStatus() == 0) {
+            System.out.println("🎯 Campanha " + id + " atingiu a meta e foi encerrada");
+        }
+        return publicada;
+    }
+
+    // 6.1 Registrar várias doações de uma vez, na ordem recebida, num único registro do journal: as que
+    // chegam com a campanha em progresso são aceitas; a que atinge a meta encerra a campanha e as seguintes
+    // são recusadas, como aconteceria uma a uma. Retorna quantas doações do início da lista foram aceitas
+    // (o resto foi recusado). Doações com idPagamento já vinculado (replay de um lote) contam como aceitas
+    // sem somar de novo. Uma reindexação e uma escrita durável para o lote inteiro.
+    public int registrarDoacoes(Long id, long[] valores, List<Long> idsPagamento) {
+        AtomicReference<Saldo> saldo = saldo(id);
+        int admitidas = reservar(saldo, valores, valores.length);
+        if (admitidas == 0) {
+            Campanha publicada = campanhas.get(id);
+            return publicada != null ? vinculadas(publicada, idsPagamento) : 0;
+        }
+        long reservado = 0;
+        for (int i = 0; i < admitidas; i++) {
+            reservado += valores[i];
+        }
+
+        AtomicInteger aceitas = new AtomicInteger();
+        AtomicBoolean somadas = new AtomicBoolean();
+        Campanha publicada;
+        try {
+            publicada = alterar(id, atual -> {
+                if (atual == null) {
+                    throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
+                }
+                // Só um prefixo aceito pode ter sido vinculado: o replay pula as doações já somadas
+                int repetidas = vinculadas(atual, idsPagamento);
+                aceitas.set(repetidas);
+                if (repetidas == valores.length || atual.getStatus() != 1) {
+                    return null;
+                }
+                somadas.set(true);
+                return somar(atual, Arrays.copyOfRange(valores, repetidas, valores.length),
+                        idsPagamento.subList(repetidas, valores.length), aceitas);
+            });
+        } catch (RuntimeException e) {
+            desfazer(saldo, reservado);
+            throw e;
+        }
+        if (!somadas.get()) {
+            desfazer(saldo, reservado);
+        } else if (publicada.getStatus() == 0) {
+            System.out.println("🎯 Campanha " + id + " atingiu a meta e foi encerrada");
+        }
+        return aceitas.get();
+    }
+
+    // Acumulador de admissão da campanha, criado a partir da versão publicada. A publicação de qualquer
+    // mudança o descarta; uma doação em andamento continua com o antigo, que só serve para desfazer a reserva.
+    private AtomicReference<Saldo> saldo(Long id) {
+        Campanha campanha = id == null ? null : campanhas.get(id);
+        if (campanha == null) {
             throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha com id " + id + " não encontrada.");
         }
-        saveAll(campanhas);
+        return saldos.computeIfAbsent(id, k -> new AtomicReference<>(saldoInicial(campanha)));
+    }
+
+    // Reserva no acumulador até max doações do início de valores, parando na que atinge a meta.
+    // Devolve quantas foram admitidas (0 = campanha fora de progresso).
+    private static int reservar(AtomicReference<Saldo> saldo, long[] valores, int max) {
+        Saldo atual;
+        Saldo novo;
+        int admitidas;
+        do {
+            atual = saldo.get();
+            long total = atual.arrecadado();
+            int status = atual.status();
+            admitidas = 0;
+            while (admitidas < max && status == 1) {
+                total = Math.addExact(total, valores[admitidas]);
+                admitidas++;
+                if (total >= atual.meta()) {
+                    status = 0;
+                }
+            }
+            novo = new Saldo(total, atual.meta(), status);
+        } while (admitidas > 0 && !saldo.compareAndSet(atual, novo));
+        return admitidas;
+    }
+
+    // Quantas doações do início da lista já estão vinculadas à campanha (pagamentos sem id nunca contam).
+    // idPagamentos é sempre um IdsPagamento: cada contains é uma consulta ao índice, não uma busca na lista.
+    private static int vinculadas(Campanha campanha, List<Long> idsPagamento) {
+        List<Long> vinculados = campanha.getIdPagamentos();
+        int n = 0;
+        while (n < idsPagamento.size() && idsPagamento.get(n) != null && vinculados.contains(idsPagamento.get(n))) {
+            n++;
+        }
+        return n;
+    }
+
+    // Devolve ao acumulador uma reserva que não foi gravada; a campanha volta a aceitar doações se só a
+    // reserva desfeita a tinha levado à meta
+    private static void desfazer(AtomicReference<Saldo> saldo, long centavos) {
+        saldo.updateAndGet(s -> {
+            long total = s.arrecadado() - centavos;
+            return new Saldo(total, s.meta(), s.status() == 0 && total < s.meta() ? 1 : s.status());
+        });
+    }
+
+    // Registro das doações que entram na campanha (em progresso), até a que atinge a meta: valor e status
+    // resultantes e os pagamentos a vincular. Soma a aceitas quantas entraram.
+    // Um valor arrecadado antigo com fração de centavo soma em centavos pelo piso e a fração volta no fim,
+    // então nada do que já estava arrecadado se perde.
+    private static RegistroCampanha somar(Campanha atual, long[] valores, List<Long> idsPagamento, AtomicInteger aceitas) {
+        BigDecimal arrecadado = atual.getValorArrecadado() != null ? atual.getValorArrecadado() : BigDecimal.ZERO;
+        long total = Centavos.piso(arrecadado);
+        BigDecimal fracao = arrecadado.subtract(Centavos.para(total));
+        long meta = atual.getMeta() != null ? Centavos.teto(atual.getMeta()) : Long.MAX_VALUE;
+        int status = atual.getStatus();
+        List<Long> vinculados = new ArrayList<>(valores.length);
+        int n = 0;
+        while (n < valores.length && status == 1) {
+            total = Math.addExact(total, valores[n]);
+            if (idsPagamento.get(n) != null) {
+                vinculados.add(idsPagamento.get(n));
+            }
+            n++;
+            if (total >= meta) {
+                status = 0;
+            }
+        }
+        aceitas.addAndGet(n);
+        BigDecimal valor = fracao.signum() == 0 ? Centavos.para(total) : Centavos.para(total).add(fracao);
+        return RegistroCampanha.doacoes(atual.getId(), valor, status, vinculados);
+    }
+
+    // Nova versão com os mesmos campos. As listas são compartilhadas: nenhuma versão publicada é alterada, e
+    // idPagamentos só cresce numa versão nova (IdsPagamento.com)
+    private static Campanha copiar(Campanha campanha) {
+        Campanha copia = new Campanha(campanha.getId(), campanha.getIdCriador(), campanha.getTitulo(),
+                campanha.getDescricao(), campanha.getMeta(), campanha.getValorArrecadado(),
+                campanha.getDataCriacao(), campanha.getDataEncerramento(), campanha.getStatus());
+        copia.setIdComentarios(campanha.getIdComentarios());
+        copia.setIdPagamentos(campanha.getIdPagamentos());
+        copia.setIdRecompensas(campanha.getIdRecompensas());
+        return copia;
+    }
+
+    // Fração de centavo de dados antigos fica de fora do acumulador (só decide a admissão; o valor gravado vem
+    // de somar)
+    private static Saldo saldoInicial(Campanha campanha) {
+        return new Saldo(
+                campanha.getValorArrecadado() != null ? Centavos.piso(campanha.getValorArrecadado()) : 0,
+                campanha.getMeta() != null ? Centavos.teto(campanha.getMeta()) : Long.MAX_VALUE,
+                campanha.getStatus());
     }
 }
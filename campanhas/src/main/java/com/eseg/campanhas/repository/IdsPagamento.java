@@ -0,0 +1,103 @@
+package com.eseg.campanhas.repository;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+// idPagamentos de uma campanha: lista somente leitura que só cresce no fim. Cada versão publicada da campanha
+// enxerga um prefixo do mesmo array, então vincular um pagamento não copia a lista (O(1) amortizado), e o
+// índice id -> posição responde se um pagamento já está vinculado sem percorrê-la.
+// Só a thread do group commit cria versões novas (com/descartarDepois); qualquer thread pode ler.
+final class IdsPagamento extends AbstractList<Long> implements RandomAccess {
+
+    // Estado compartilhado por todas as versões. Posições < tamanho de uma versão nunca mudam depois que
+    // ela foi criada; as seguintes só são escritas pela thread do group commit.
+    private static final class Base {
+        long[] ids;
+        int tamanho;
+        final ConcurrentHashMap<Long, Integer> posicoes = new ConcurrentHashMap<>();
+
+        Base(int capacidade) {
+            ids = new long[Math.max(capacidade, 4)];
+        }
+    }
+
+    private final Base base;
+    private final long[] ids;
+    private final int tamanho;
+
+    private IdsPagamento(Base base) {
+        this.base = base;
+        this.ids = base.ids;
+        this.tamanho = base.tamanho;
+    }
+
+    // Cópia indexada de uma lista carregada ou enviada numa edição (ids null ficam de fora)
+    static IdsPagamento de(Collection<Long> ids) {
+        if (ids instanceof IdsPagamento lista) {
+            return lista;
+        }
+        Base base = new Base(ids.size());
+        for (Long id : ids) {
+            if (id != null) {
+                acrescentar(base, id);
+            }
+        }
+        return new IdsPagamento(base);
+    }
+
+    // Versão com o pagamento vinculado no fim; um pagamento já vinculado devolve a própria versão
+    IdsPagamento com(Long id) {
+        if (id == null || contains(id)) {
+            return this;
+        }
+        if (base.tamanho != tamanho) {
+            // Há posições de uma versão que nunca foi publicada (lote cuja gravação falhou): são descartadas
+            descartarDepois(tamanho);
+        }
+        acrescentar(base, id);
+        return new IdsPagamento(base);
+    }
+
+    private static void acrescentar(Base base, long id) {
+        if (base.tamanho == base.ids.length) {
+            // As versões anteriores continuam com o array antigo, que não muda mais
+            base.ids = Arrays.copyOf(base.ids, base.ids.length * 2);
+        }
+        base.ids[base.tamanho] = id;
+        base.posicoes.putIfAbsent(id, base.tamanho);
+        base.tamanho++;
+    }
+
+    private void descartarDepois(int n) {
+        for (int i = n; i < base.tamanho; i++) {
+            base.posicoes.remove(base.ids[i], i);
+        }
+        base.tamanho = n;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Long id)) {
+            return false;
+        }
+        // A posição pode ser de uma versão mais nova (ou descartada): só conta se estiver dentro desta
+        Integer posicao = base.posicoes.get(id);
+        return posicao != null && posicao < tamanho && ids[posicao] == id;
+    }
+
+    @Override
+    public Long get(int i) {
+        if (i < 0 || i >= tamanho) {
+            throw new IndexOutOfBoundsException("Índice " + i + " fora de 0.." + tamanho);
+        }
+        return ids[i];
+    }
+
+    @Override
+    public int size() {
+        return tamanho;
+    }
+}
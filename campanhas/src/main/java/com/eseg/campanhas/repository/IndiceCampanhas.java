@@ -0,0 +1,172 @@
+package com.eseg.campanhas.repository;
+
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.infra.dinheiro.Centavos;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Índices ordenados das campanhas para a listagem paginada de GET /campanhas.
+// Um skip list por (status, ordem): todas as campanhas + uma fatia por status, em cada ordenação.
+// Uma página é tailSet(cursor) + limite itens, O(log n + limite), sem percorrer nem ordenar o resto.
+public class IndiceCampanhas {
+
+    public enum Ordem {
+        DATA_CRIACAO("dataCriacao"),
+        VALOR_ARRECADADO("valorArrecadado"),
+        PROGRESSO("progresso");
+
+        private final String nome;
+
+        Ordem(String nome) {
+            this.nome = nome;
+        }
+
+        public String getNome() {
+            return nome;
+        }
+
+        // Ordem pelo nome usado na API, ou null se desconhecido
+        public static Ordem de(String nome) {
+            for (Ordem ordem : values()) {
+                if (ordem.nome.equalsIgnoreCase(nome)) {
+                    return ordem;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Posição de uma campanha num índice: valor da ordenação e id para desempatar. O valor é um long
+    // (instante em nanos, centavos ou milionésimos da meta), comparado sem alocar a cada passo do skip list
+    public record Chave(long valor, long id) {}
+
+    // Valor de quem não tem o campo da ordenação (sem data, sem meta): vem primeiro
+    public static final long SEM_VALOR = Long.MIN_VALUE;
+
+    private static final Comparator<Chave> COMPARADOR = Comparator
+            .comparingLong(Chave::valor)
+            .thenComparingLong(Chave::id);
+
+    private static final long NANOS_POR_SEGUNDO = 1_000_000_000L;
+    private static final long ESCALA_PROGRESSO = 1_000_000L;
+
+    // Fatia com todas as campanhas, independente do status
+    private static final int TODOS = Integer.MIN_VALUE;
+
+    // Chaves atuais de cada campanha, para tirar as antigas quando ela muda
+    private record Posicao(int status, EnumMap<Ordem, Chave> chaves) {}
+
+    private final Map<Integer, EnumMap<Ordem, NavigableSet<Chave>>> indices = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Posicao> posicoes = new ConcurrentHashMap<>();
+
+    // Insere ou reposiciona a campanha. O compute serializa as mudanças da mesma campanha; a campanha
+    // publicada não muda mais depois de indexada (doações e edições publicam uma cópia nova).
+    public void indexar(Campanha campanha) {
+        posicoes.compute(campanha.getId(), (id, antiga) -> {
+            Posicao nova = posicao(campanha);
+            if (antiga != null) {
+                if (antiga.equals(nova)) {
+                    return antiga;
+                }
+                retirar(antiga);
+            }
+            for (Ordem ordem : Ordem.values()) {
+                Chave chave = nova.chaves().get(ordem);
+                fatia(TODOS, ordem).add(chave);
+                fatia(nova.status(), ordem).add(chave);
+            }
+            return nova;
+        });
+    }
+
+    public void remover(Long id) {
+        posicoes.computeIfPresent(id, (k, antiga) -> {
+            retirar(antiga);
+            return null;
+        });
+    }
+
+    public void limpar() {
+        posicoes.clear();
+        indices.clear();
+    }
+
+    // Até limite chaves depois do cursor (exclusivo), na ordem pedida; status null = todos
+    public List<Chave> pagina(Integer status, Ordem ordem, boolean decrescente, Chave depoisDe, int limite) {
+        EnumMap<Ordem, NavigableSet<Chave>> porOrdem = indices.get(status == null ? TODOS : status);
+        if (porOrdem == null) {
+            return List.of();
+        }
+        NavigableSet<Chave> fatia = porOrdem.get(ordem);
+        NavigableSet<Chave> visao = decrescente ? fatia.descendingSet() : fatia;
+        if (depoisDe != null) {
+            visao = visao.tailSet(depoisDe, false);
+        }
+
+        List<Chave> pagina = new ArrayList<>(limite);
+        Iterator<Chave> it = visao.iterator();
+        while (pagina.size() < limite && it.hasNext()) {
+            pagina.add(it.next());
+        }
+        return pagina;
+    }
+
+    private void retirar(Posicao antiga) {
+        for (Ordem ordem : Ordem.values()) {
+            Chave chave = antiga.chaves().get(ordem);
+            fatia(TODOS, ordem).remove(chave);
+            fatia(antiga.status(), ordem).remove(chave);
+        }
+    }
+
+    private NavigableSet<Chave> fatia(int status, Ordem ordem) {
+        return indices.computeIfAbsent(status, s -> {
+            EnumMap<Ordem, NavigableSet<Chave>> porOrdem = new EnumMap<>(Ordem.class);
+            for (Ordem o : Ordem.values()) {
+                porOrdem.put(o, new ConcurrentSkipListSet<>(COMPARADOR));
+            }
+            return porOrdem;
+        }).get(ordem);
+    }
+
+    private static Posicao posicao(Campanha campanha) {
+        long id = campanha.getId();
+        EnumMap<Ordem, Chave> chaves = new EnumMap<>(Ordem.class);
+        chaves.put(Ordem.DATA_CRIACAO, new Chave(instante(campanha.getDataCriacao()), id));
+        chaves.put(Ordem.VALOR_ARRECADADO, new Chave(
+                campanha.getValorArrecadado() != null ? Centavos.piso(campanha.getValorArrecadado()) : SEM_VALOR, id));
+        chaves.put(Ordem.PROGRESSO, new Chave(progresso(campanha.getValorArrecadado(), campanha.getMeta()), id));
+        return new Posicao(campanha.getStatus(), chaves);
+    }
+
+    // Data como nanos desde a época (datas depois de 2262 ou antes de 1677 ficam nos extremos)
+    private static long instante(LocalDateTime data) {
+        if (data == null) {
+            return SEM_VALOR;
+        }
+        long segundos = Math.clamp(data.toEpochSecond(ZoneOffset.UTC),
+                SEM_VALOR / NANOS_POR_SEGUNDO + 1, Long.MAX_VALUE / NANOS_POR_SEGUNDO - 1);
+        return segundos * NANOS_POR_SEGUNDO + data.getNano();
+    }
+
+    // Fração da meta já arrecadada, em milionésimos; sem meta válida fica sem valor (início da ordem)
+    private static long progresso(BigDecimal arrecadado, BigDecimal meta) {
+        if (meta == null || meta.signum() <= 0) {
+            return SEM_VALOR;
+        }
+        long centavos = arrecadado != null ? Centavos.piso(arrecadado) : 0;
+        long alvo = Centavos.teto(meta);
+        if (Math.abs(centavos) <= Long.MAX_VALUE / ESCALA_PROGRESSO) {
+            return Math.floorDiv(centavos * ESCALA_PROGRESSO, alvo);
+        }
+        // Acima de ~92 bilhões arrecadados a multiplicação não cabe num long
+        return BigDecimal.valueOf(centavos).multiply(BigDecimal.valueOf(ESCALA_PROGRESSO))
+                .divide(BigDecimal.valueOf(alvo), 0, RoundingMode.FLOOR).longValue();
+    }
+}
@@ -0,0 +1,94 @@
+package com.eseg.campanhas.repository;
+
+import com.eseg.campanhas.model.Campanha;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+// Uma linha do journal de campanhas. Criação e edição gravam a campanha inteira (SALVAR); uma doação (ou um
+// lote delas) grava só o que mudou: o valor arrecadado e o status resultantes e os pagamentos vinculados.
+// Os valores são absolutos e os pagamentos já vinculados são ignorados, então reaplicar um registro que já
+// está no snapshot não soma nada de novo.
+public class RegistroCampanha {
+
+    public enum Operacao { SALVAR, REMOVER, DOACOES }
+
+    private Operacao operacao;
+    private Long id;
+    private Campanha campanha;
+    private BigDecimal valorArrecadado;
+    private int status;
+    private List<Long> idsPagamento;
+
+    public RegistroCampanha() {}
+
+    public RegistroCampanha(Operacao operacao, Long id, Campanha campanha) {
+        this.operacao = operacao;
+        this.id = id;
+        this.campanha = campanha;
+    }
+
+    public static RegistroCampanha salvar(Campanha campanha) {
+        return new RegistroCampanha(Operacao.SALVAR, campanha.getId(), campanha);
+    }
+
+    public static RegistroCampanha remover(Long id) {
+        return new RegistroCampanha(Operacao.REMOVER, id, null);
+    }
+
+    public static RegistroCampanha doacoes(Long id, BigDecimal valorArrecadado, int status, List<Long> idsPagamento) {
+        RegistroCampanha registro = new RegistroCampanha(Operacao.DOACOES, id, null);
+        registro.setValorArrecadado(valorArrecadado);
+        registro.setStatus(status);
+        registro.setIdsPagamento(idsPagamento);
+        return registro;
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(Operacao operacao) {
+        this.operacao = operacao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Campanha getCampanha() {
+        return campanha;
+    }
+
+    public void setCampanha(Campanha campanha) {
+        this.campanha = campanha;
+    }
+
+    public BigDecimal getValorArrecadado() {
+        return valorArrecadado;
+    }
+
+    public void setValorArrecadado(BigDecimal valorArrecadado) {
+        this.valorArrecadado = valorArrecadado;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public List<Long> getIdsPagamento() {
+        return idsPagamento;
+    }
+
+    public void setIdsPagamento(List<Long> idsPagamento) {
+        this.idsPagamento = idsPagamento;
+    }
+}
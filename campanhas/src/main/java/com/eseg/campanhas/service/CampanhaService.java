@@ -1,19 +1,35 @@
 package com.eseg.campanhas.service;
 
+import com.eseg.campanhas.dto.CampanhaResumoDTO;
 import com.eseg.campanhas.model.Campanha;
 import com.eseg.campanhas.repository.CampanhaRepository;
+import com.eseg.campanhas.repository.IndiceCampanhas;
+import com.eseg.contratos.DoacaoDTO;
+import com.eseg.contratos.LoteDoacoesDTO;
+import com.eseg.contratos.PaginaDTO;
+import com.eseg.infra.busca.IndiceTexto;
+import com.eseg.infra.dinheiro.Centavos;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 @Service
 public class CampanhaService {
     private final CampanhaRepository campanhaRepository;
+    private final VisaoDetalhada visaoDetalhada;
+    private final NotificadorEventos notificadorEventos;
 
-    public CampanhaService(CampanhaRepository campanhaRepository) {
+    public CampanhaService(CampanhaRepository campanhaRepository, VisaoDetalhada visaoDetalhada,
+                           NotificadorEventos notificadorEventos) {
         this.campanhaRepository = campanhaRepository;
+        this.visaoDetalhada = visaoDetalhada;
+        this.notificadorEventos = notificadorEventos;
     }
 
     // 1. Listar todas as campanhas
@@ -21,25 +37,157 @@ public class CampanhaService {
         return campanhaRepository.findAll();
     }
 
+    // 1.1 Listar uma página de campanhas (filtro por status, ordenação e cursor opaco). Os itens são resumos:
+    // o tamanho da página não cresce com os comentários e pagamentos de cada campanha
+    public PaginaDTO<CampanhaResumoDTO> listarPagina(Integer limite, String cursor, Integer status, String ordem, String direcao) {
+        int tamanho = limite == null ? 20 : limite;
+        if (tamanho < 1 || tamanho > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limite deve estar entre 1 e 100");
+        }
+        IndiceCampanhas.Ordem ordenacao = ordem == null ? IndiceCampanhas.Ordem.DATA_CRIACAO : IndiceCampanhas.Ordem.de(ordem);
+        if (ordenacao == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ordem deve ser dataCriacao, valorArrecadado ou progresso");
+        }
+        if (direcao != null && !direcao.equalsIgnoreCase("asc") && !direcao.equalsIgnoreCase("desc")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "direcao deve ser asc ou desc");
+        }
+        boolean decrescente = direcao == null || direcao.equalsIgnoreCase("desc");
+
+        // Pede um item a mais só para saber se existe próxima página
+        List<IndiceCampanhas.Chave> chaves = campanhaRepository.findPagina(status, ordenacao, decrescente,
+                lerCursor(cursor, ordenacao), tamanho + 1);
+
+        List<CampanhaResumoDTO> itens = new ArrayList<>(Math.min(chaves.size(), tamanho));
+        for (IndiceCampanhas.Chave chave : chaves.subList(0, Math.min(chaves.size(), tamanho))) {
+            // Uma campanha removida entre a leitura do índice e esta busca simplesmente fica de fora
+            campanhaRepository.findById(chave.id()).map(CampanhaResumoDTO::de).ifPresent(itens::add);
+        }
+        String proximo = chaves.size() > tamanho ? escreverCursor(chaves.get(tamanho - 1), ordenacao) : null;
+        return new PaginaDTO<>(itens, proximo);
+    }
+
+    // Cursor = posição do último item da página na ordenação pedida, em base64 url-safe ("ordem:valor:id")
+    private String escreverCursor(IndiceCampanhas.Chave chave, IndiceCampanhas.Ordem ordem) {
+        String valor = chave.valor() == IndiceCampanhas.SEM_VALOR ? "" : Long.toString(chave.valor());
+        String bruto = ordem.getNome() + ":" + valor + ":" + chave.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private IndiceCampanhas.Chave lerCursor(String cursor, IndiceCampanhas.Ordem ordem) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String[] partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":", -1);
+            if (partes.length != 3 || !partes[0].equals(ordem.getNome())) {
+                throw new IllegalArgumentException("cursor de outra ordenação");
+            }
+            long valor = partes[1].isEmpty() ? IndiceCampanhas.SEM_VALOR : Long.parseLong(partes[1]);
+            return new IndiceCampanhas.Chave(valor, Long.parseLong(partes[2]));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    // 1.2 Percorrer todas as campanhas sem montar a lista (exportação NDJSON)
+    public Iterable<Campanha> percorrerTodos() {
+        return campanhaRepository.iterateAll();
+    }
+
     // 2. Buscar campanha por Id
     public Campanha buscarPorId(Long id) {
         return campanhaRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada"));
     }
 
+    // 2.1 Buscar várias campanhas por Id (uma chamada no lugar de N)
+    public List<Campanha> buscarPorIds(List<Long> ids) {
+        return campanhaRepository.findAllById(ids);
+    }
+
+    // 2.2 Buscar campanhas por título e descrição (?q=), da mais relevante para a menos; ignora acentos e maiúsculas
+    public List<Campanha> buscarPorTexto(String consulta, Integer limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q é obrigatório");
+        }
+        int tamanho = limite == null ? 20 : limite;
+        if (tamanho < 1 || tamanho > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limite deve estar entre 1 e 100");
+        }
+        List<IndiceTexto.Resultado> resultados = campanhaRepository.search(consulta, tamanho);
+        List<Campanha> encontrados = new ArrayList<>(resultados.size());
+        for (IndiceTexto.Resultado resultado : resultados) {
+            // Uma campanha removida entre a busca no índice e esta leitura simplesmente fica de fora
+            campanhaRepository.findById(resultado.id()).ifPresent(encontrados::add);
+        }
+        return encontrados;
+    }
+
     // 3. Criar campanha
     public Campanha criarCampanha(Campanha novaCampanha) {
-        return campanhaRepository.save(novaCampanha);
+        validarDinheiro(novaCampanha.getMeta(), "meta");
+        validarDinheiro(novaCampanha.getValorArrecadado(), "valorArrecadado");
+        Campanha criada = campanhaRepository.save(novaCampanha);
+        notificadorEventos.salvo(criada);
+        return criada;
     }
 
     // 4. Editar campanha
     public Campanha editarCampanha(Long id, Campanha campanhaAtualizada) {
+        validarDinheiro(campanhaAtualizada.getMeta(), "meta");
+        validarDinheiro(campanhaAtualizada.getValorArrecadado(), "valorArrecadado");
         campanhaRepository.update(id, campanhaAtualizada);
-        return buscarPorId(id);
+        Campanha editada = buscarPorId(id);
+        notificadorEventos.salvo(editada);
+        return editada;
     }
 
     // 5. Deletar campanha
     public void deletarPorId(Long id) {
         campanhaRepository.deleteById(id);
+        visaoDetalhada.descartar(id);
+        notificadorEventos.removido(id);
+    }
+
+    // 6. Registrar doação em campanha em progresso
+    public Campanha registrarDoacao(Long id, DoacaoDTO doacao) {
+        Campanha campanha = campanhaRepository.registrarDoacao(id, centavosDaDoacao(doacao), doacao.getIdPagamento());
+        // Doações seguidas na mesma campanha viram um único evento enquanto o anterior não saiu
+        notificadorEventos.salvo(campanha);
+        return campanha;
+    }
+
+    // 6.1 Registrar um lote de doações (ingestão em massa): uma chamada e uma escrita por campanha
+    public LoteDoacoesDTO registrarDoacoes(Long id, List<DoacaoDTO> doacoes) {
+        if (doacoes == null || doacoes.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lote de doações vazio");
+        }
+        long[] valores = new long[doacoes.size()];
+        List<Long> idsPagamento = new ArrayList<>(doacoes.size());
+        for (int i = 0; i < valores.length; i++) {
+            valores[i] = centavosDaDoacao(doacoes.get(i));
+            idsPagamento.add(doacoes.get(i).getIdPagamento());
+        }
+        int aceitas = campanhaRepository.registrarDoacoes(id, valores, idsPagamento);
+        Campanha campanha = buscarPorId(id);
+        if (aceitas > 0) {
+            notificadorEventos.salvo(campanha);
+        }
+        return new LoteDoacoesDTO(aceitas, campanha.getStatus());
+    }
+
+    // Valor da doação em centavos; precisa ser positivo e ter no máximo 2 casas decimais
+    private static long centavosDaDoacao(DoacaoDTO doacao) {
+        if (doacao == null || doacao.getValor() == null || doacao.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valor da doação deve ser positivo");
+        }
+        validarDinheiro(doacao.getValor(), "Valor da doação");
+        return Centavos.de(doacao.getValor());
+    }
+
+    private static void validarDinheiro(BigDecimal valor, String campo) {
+        if (valor != null && !Centavos.exato(valor)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, campo + " deve ter no máximo 2 casas decimais");
+        }
     }
 }
@@ -0,0 +1,26 @@
+package com.eseg.campanhas.service;
+
+import com.eseg.campanhas.cliente.ClienteServicos;
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.infra.eventos.PublicadorEventos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Avisa o serviço de usuários sobre mudanças em campanhas (perfis de GET /usuarios/{id}).
+// Fusão de eventos pendentes, fila limitada e descarte em falha ficam no PublicadorEventos.
+@Service
+public class NotificadorEventos extends PublicadorEventos<Campanha> {
+
+    public NotificadorEventos(ClienteServicos clienteServicos, ObjectMapper objectMapper,
+                              @Value("${eventos.fila-max:10000}") int filaMax) {
+        super("CAMPANHA", List.of("usuarios"), clienteServicos::enviarEvento, objectMapper, filaMax);
+    }
+
+    // Campanha criada ou editada
+    public void salvo(Campanha campanha) {
+        salvo(campanha.getId(), campanha);
+    }
+}
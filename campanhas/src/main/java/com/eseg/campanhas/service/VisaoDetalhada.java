@@ -0,0 +1,171 @@
+package com.eseg.campanhas.service;
+
+import com.eseg.campanhas.cliente.ClienteServicos;
+import com.eseg.campanhas.dto.*;
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.contratos.*;
+import com.eseg.infra.visao.AgregacaoParalela;
+import com.eseg.infra.visao.IndiceReverso;
+import com.eseg.infra.visao.Parte;
+import com.eseg.infra.visao.VisoesMaterializadas;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Objects;
+
+// Visão materializada de GET /campanhas/{id}: comentários, pagamentos, recompensas e criador de cada campanha
+// ficam em memória e são atualizados pelos eventos dos outros serviços (POST /campanhas/eventos).
+// Carga, TTL, cache e busca em paralelo ficam em VisoesMaterializadas; aqui só o que é da campanha: as partes,
+// o criador (a visão é recarregada se ele mudar) e os eventos de usuário, que vão às visões pelo índice de criadores.
+@Service
+public class VisaoDetalhada extends VisoesMaterializadas<Campanha, VisaoDetalhada.Visao> {
+
+    private final ClienteServicos clienteServicos;
+
+    // Idade máxima de uma visão desde a última sincronização completa
+    @Value("${visao.ttl-ms:60000}")
+    private long ttlMs;
+
+    // Limite de campanhas com visão em memória
+    @Value("${visao.max-visoes:10000}")
+    private int maxVisoes = 10_000;
+
+    // Quem conhece cada id: partes por comentário/pagamento/recompensa e visões por criador
+    private final IndiceReverso<Parte<ComentarioDTO>> comentariosConhecidos = new IndiceReverso<>();
+    private final IndiceReverso<Parte<PagamentoDTO>> pagamentosConhecidos = new IndiceReverso<>();
+    private final IndiceReverso<Parte<RecompensaDTO>> recompensasConhecidas = new IndiceReverso<>();
+    private final IndiceReverso<Visao> visoesPorCriador = new IndiceReverso<>();
+
+    public VisaoDetalhada(ClienteServicos clienteServicos, AgregacaoParalela agregacaoParalela,
+                          ObjectMapper objectMapper, MeterRegistry registry) {
+        super(agregacaoParalela, objectMapper, registry, "campanhas.visao", "Campanhas com visão materializada");
+        this.clienteServicos = clienteServicos;
+    }
+
+    // 1. Montar a visão detalhada: dados da campanha (locais) + partes remotas materializadas
+    public CampanhaDetalhadaDTO montar(Campanha campanha) {
+        Visao visao = ler(campanha.getId(), campanha);
+
+        UsuarioDTO criador = visao.criador;
+        if (criador == null) {
+            criador = new UsuarioDTO();
+            criador.setNome("Desconhecido (Erro ao buscar)");
+        }
+
+        return new CampanhaDetalhadaDTO(
+                campanha.getId(), campanha.getIdCriador(), campanha.getTitulo(), campanha.getDescricao(),
+                campanha.getMeta(), campanha.getValorArrecadado(), campanha.getDataCriacao(),
+                campanha.getDataEncerramento(), campanha.getStatus(),
+                visao.comentarios.listar(campanha.getIdComentarios()),
+                visao.pagamentos.listar(campanha.getIdPagamentos()),
+                visao.recompensas.listar(campanha.getIdRecompensas()),
+                criador
+        );
+    }
+
+    // 2. Aplicar um evento de mudança vindo de outro serviço
+    public void aplicar(EventoDTO evento) {
+        boolean remover = remover(evento);
+
+        switch (evento.getTipo()) {
+            case "COMENTARIO" -> aplicarParte(evento, remover, ComentarioDTO.class, comentariosConhecidos,
+                    v -> v.comentarios, "idCampanha");
+            case "PAGAMENTO" -> aplicarParte(evento, remover, PagamentoDTO.class, pagamentosConhecidos,
+                    v -> v.pagamentos, "idCampanha");
+            case "RECOMPENSA" -> aplicarParte(evento, remover, RecompensaDTO.class, recompensasConhecidas,
+                    v -> v.recompensas, "idCampanha");
+            case "USUARIO" -> {
+                UsuarioDTO usuario = remover ? null : converter(evento, UsuarioDTO.class);
+                for (Visao visao : visoesPorCriador.get(evento.getId())) {
+                    visao.criador = usuario;
+                    visao.criadorAusente = remover;
+                }
+            }
+            default -> throw tipoDesconhecido(evento);
+        }
+    }
+
+    @Override
+    protected long ttlMs() {
+        return ttlMs;
+    }
+
+    @Override
+    protected int maxVisoes() {
+        return maxVisoes;
+    }
+
+    @Override
+    protected Visao nova(Campanha campanha, long sincronizadaEm) {
+        return new Visao(campanha.getIdCriador(), sincronizadaEm,
+                comentariosConhecidos, pagamentosConhecidos, recompensasConhecidas);
+    }
+
+    @Override
+    protected boolean desatualizada(Visao visao, Campanha campanha) {
+        return !Objects.equals(visao.idCriador, campanha.getIdCriador());
+    }
+
+    // Uma chamada em lote por tipo (só com os ids que faltam) e o criador, se ainda não é conhecido
+    @Override
+    protected void buscar(Visao visao, Campanha campanha, Busca busca) {
+        // 1. Comentários
+        busca.parte("comentarios", visao.comentarios, campanha.getIdComentarios(), ComentarioDTO::getId,
+                clienteServicos::buscarComentarios);
+
+        // 2. Pagamentos
+        busca.parte("pagamentos", visao.pagamentos, campanha.getIdPagamentos(), PagamentoDTO::getId,
+                clienteServicos::buscarPagamentos);
+
+        // 3. Recompensas
+        busca.parte("recompensas", visao.recompensas, campanha.getIdRecompensas(), RecompensaDTO::getId,
+                clienteServicos::buscarRecompensas);
+
+        // 4. Usuário criador
+        if (visao.criador == null && !visao.criadorAusente && campanha.getIdCriador() != null) {
+            busca.item("usuarios", () -> clienteServicos.buscarResumoUsuario(campanha.getIdCriador()), usuario -> {
+                if (visao.criador == null) {
+                    visao.criador = usuario;
+                }
+            });
+        }
+    }
+
+    @Override
+    protected void carregada(Visao visao, Campanha campanha) {
+        if (visao.idCriador != null) {
+            visoesPorCriador.registrar(visao.idCriador, visao);
+        }
+    }
+
+    @Override
+    protected void descartada(Visao visao) {
+        visao.comentarios.descartar();
+        visao.pagamentos.descartar();
+        visao.recompensas.descartar();
+        if (visao.idCriador != null) {
+            visoesPorCriador.retirar(visao.idCriador, visao);
+        }
+    }
+
+    // Partes remotas materializadas de uma campanha
+    static final class Visao extends VisoesMaterializadas.Visao {
+        final Long idCriador;
+        final Parte<ComentarioDTO> comentarios;
+        final Parte<PagamentoDTO> pagamentos;
+        final Parte<RecompensaDTO> recompensas;
+        volatile UsuarioDTO criador;
+        volatile boolean criadorAusente;
+
+        Visao(Long idCriador, long sincronizadaEm, IndiceReverso<Parte<ComentarioDTO>> comentarios,
+              IndiceReverso<Parte<PagamentoDTO>> pagamentos, IndiceReverso<Parte<RecompensaDTO>> recompensas) {
+            super(sincronizadaEm);
+            this.idCriador = idCriador;
+            this.comentarios = new Parte<>(comentarios);
+            this.pagamentos = new Parte<>(pagamentos);
+            this.recompensas = new Parte<>(recompensas);
+        }
+    }
+}
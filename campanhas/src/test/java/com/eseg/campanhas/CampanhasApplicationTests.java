@@ -1,8 +1,9 @@
 package com.eseg.campanhas;
 
-import com.eseg.campanhas.dto.*;
 import com.eseg.campanhas.model.Campanha;
 import com.eseg.campanhas.repository.CampanhaRepository;
+import com.eseg.campanhas.repository.IndiceCampanhas;
+import com.eseg.contratos.*;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,9 +25,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -75,18 +79,18 @@ class CampanhasApplicationTests {
         // Mocks dos microsserviços externos
         //Criação do Mock de Comentários e determinação da resposta esperada
         ComentarioDTO comentarioMock = new ComentarioDTO(10L, "Ótima iniciativa!", LocalDateTime.now(), 1L, 50L);
-        Mockito.when(restTemplate.getForObject(contains("/comentarios/10"), eq(ComentarioDTO.class)))
-                .thenReturn(comentarioMock);
+        Mockito.when(restTemplate.getForObject(contains("/comentarios?ids=10"), eq(ComentarioDTO[].class)))
+                .thenReturn(new ComentarioDTO[]{comentarioMock});
 
         //Criação do Mock de Pagamentos e determinação da resposta esperada
         PagamentoDTO pagamentoMock = new PagamentoDTO(20L, new BigDecimal("100.00"), 1L, LocalDateTime.now());
-        Mockito.when(restTemplate.getForObject(contains("/pagamentos/20"), eq(PagamentoDTO.class)))
-                .thenReturn(pagamentoMock);
+        Mockito.when(restTemplate.getForObject(contains("/pagamentos?ids=20"), eq(PagamentoDTO[].class)))
+                .thenReturn(new PagamentoDTO[]{pagamentoMock});
 
         //Criação do Mock de Recompensa e determinação da resposta esperada
         RecompensaDTO recompensaMock = new RecompensaDTO(30L, "Brinde", "Um brinde legal", new BigDecimal("50.00"), 1L);
-        Mockito.when(restTemplate.getForObject(contains("/recompensas/30"), eq(RecompensaDTO.class)))
-                .thenReturn(recompensaMock);
+        Mockito.when(restTemplate.getForObject(contains("/recompensas?ids=30"), eq(RecompensaDTO[].class)))
+                .thenReturn(new RecompensaDTO[]{recompensaMock});
 
         //Criação do Mock de Usuário e determinação da resposta esperada
         UsuarioDTO usuarioMock = new UsuarioDTO(100L, "Maria Criadora", "1199999999", "maria@email.com");
@@ -99,9 +103,49 @@ class CampanhasApplicationTests {
                 .andExpect(jsonPath("$.titulo").value("Campanha de Teste"))
                 .andExpect(jsonPath("$.meta").value(5000.00))
                 .andExpect(jsonPath("$.comentarios[0].texto").value("Ótima iniciativa!"))
+                .andExpect(jsonPath("$.pagamentos[0].valor").value(100.00))
+                .andExpect(jsonPath("$.recompensas[0].titulo").value("Brinde"))
                 .andExpect(jsonPath("$.criador.nome").value("Maria Criadora"));
     }
 
+    @Test
+    @DisplayName("POST /campanhas/eventos - Deve atualizar a visão detalhada sem nova chamada externa")
+    void deveAtualizarVisaoPorEvento() throws Exception {
+        campanhaPadrao.setId(2L);
+        campanhaPadrao.setIdComentarios(new ArrayList<>(List.of(11L)));
+        campanhaPadrao.setIdPagamentos(new ArrayList<>());
+        campanhaPadrao.setIdRecompensas(new ArrayList<>());
+        Mockito.when(campanhaRepository.findById(2L)).thenReturn(Optional.of(campanhaPadrao));
+
+        ComentarioDTO comentarioMock = new ComentarioDTO(11L, "Texto original", LocalDateTime.now(), 2L, 50L);
+        Mockito.when(restTemplate.getForObject(contains("/comentarios?ids=11"), eq(ComentarioDTO[].class)))
+                .thenReturn(new ComentarioDTO[]{comentarioMock});
+        Mockito.when(restTemplate.getForObject(contains("/usuarios/100"), eq(UsuarioDTO.class)))
+                .thenReturn(new UsuarioDTO(100L, "Maria Criadora", "1199999999", "maria@email.com"));
+
+        // Primeira leitura monta a visão pela rede
+        mockMvc.perform(get("/campanhas/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comentarios[0].texto").value("Texto original"));
+
+        // O serviço de comentários avisa que o comentário foi editado
+        ComentarioDTO editado = new ComentarioDTO(11L, "Texto editado", LocalDateTime.now(), 2L, 50L);
+        EventoDTO evento = new EventoDTO("COMENTARIO", "SALVAR", 11L, objectMapper.valueToTree(editado));
+        mockMvc.perform(post("/campanhas/eventos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(evento)))
+                .andExpect(status().isAccepted());
+
+        // Segunda leitura sai da memória, já com a edição
+        mockMvc.perform(get("/campanhas/2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comentarios[0].texto").value("Texto editado"))
+                .andExpect(jsonPath("$.criador.nome").value("Maria Criadora"));
+
+        Mockito.verify(restTemplate, Mockito.times(1))
+                .getForObject(contains("/comentarios?ids=11"), eq(ComentarioDTO[].class));
+    }
+
     @Test
     @DisplayName("POST /campanhas - Deve criar uma campanha com sucesso")
     void deveCriarCampanha() throws Exception {
@@ -138,6 +182,47 @@ class CampanhasApplicationTests {
                 .andExpect(jsonPath("$[0].titulo").value("Campanha de Teste"));
     }
 
+    @Test
+    @DisplayName("GET /campanhas?limite= - Deve retornar uma página resumida com cursor para a próxima")
+    void deveListarPaginaComCursor() throws Exception {
+        // Índice devolve um item a mais que o limite: há próxima página
+        Mockito.when(campanhaRepository.findPagina(eq(1), eq(IndiceCampanhas.Ordem.VALOR_ARRECADADO), eq(true), isNull(), eq(2)))
+                .thenReturn(List.of(new IndiceCampanhas.Chave(10000L, 1L),
+                        new IndiceCampanhas.Chave(5000L, 7L)));
+        Mockito.when(campanhaRepository.findById(1L)).thenReturn(Optional.of(campanhaPadrao));
+
+        String resposta = mockMvc.perform(get("/campanhas")
+                        .param("limite", "1")
+                        .param("status", "1")
+                        .param("ordem", "valorArrecadado"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(1))
+                .andExpect(jsonPath("$.itens[0].totalPagamentos").value(1))
+                .andExpect(jsonPath("$.itens[0].idPagamentos").doesNotExist())
+                .andExpect(jsonPath("$.proximoCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        // A próxima página começa depois do último item entregue
+        String cursor = objectMapper.readTree(resposta).get("proximoCursor").asText();
+        Mockito.when(campanhaRepository.findPagina(eq(1), eq(IndiceCampanhas.Ordem.VALOR_ARRECADADO), eq(true),
+                        eq(new IndiceCampanhas.Chave(10000L, 1L)), eq(2)))
+                .thenReturn(List.of());
+
+        mockMvc.perform(get("/campanhas")
+                        .param("limite", "1")
+                        .param("status", "1")
+                        .param("ordem", "valorArrecadado")
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(0))
+                .andExpect(jsonPath("$.proximoCursor").doesNotExist());
+
+        // Cursor de outra ordenação é recusado
+        mockMvc.perform(get("/campanhas").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     @DisplayName("GET /campanhas/{id} - Deve retornar 404 se não existir")
     void deveRetornarErroSeNaoEncontrar() throws Exception {
@@ -214,4 +299,48 @@ class CampanhasApplicationTests {
         mockMvc.perform(delete("/campanhas/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /campanhas/{id}/doar - Deve somar a doação ao valor arrecadado")
+    void deveRegistrarDoacao() throws Exception {
+        Campanha campanhaAposDoacao = new Campanha(
+                1L, 100L, "Campanha de Teste", "Descricao da campanha de teste",
+                new BigDecimal("5000.00"), new BigDecimal("150.00"),
+                LocalDateTime.now(), LocalDateTime.now().plusDays(30), 1
+        );
+        campanhaAposDoacao.getIdPagamentos().add(21L);
+
+        Mockito.when(campanhaRepository.registrarDoacao(1L, 5000L, 21L))
+                .thenReturn(campanhaAposDoacao);
+
+        mockMvc.perform(post("/campanhas/1/doar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DoacaoDTO(new BigDecimal("50.00"), 21L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.valorArrecadado").value(150.00))
+                .andExpect(jsonPath("$.idPagamentos[0]").value(21));
+    }
+
+    @Test
+    @DisplayName("POST /campanhas/{id}/doar - Deve retornar 400 se a campanha não estiver em progresso")
+    void deveRecusarDoacaoEmCampanhaEncerrada() throws Exception {
+        Mockito.when(campanhaRepository.registrarDoacao(eq(1L), anyLong(), any()))
+                .thenThrow(new ResponseStatusException(HttpStatus.BAD_REQUEST, "Campanha 1 não está em progresso."));
+
+        mockMvc.perform(post("/campanhas/1/doar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DoacaoDTO(new BigDecimal("50.00"), 21L))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("POST /campanhas/{id}/doar - Deve recusar fração de centavo sem tocar no saldo")
+    void deveRecusarDoacaoComFracaoDeCentavo() throws Exception {
+        mockMvc.perform(post("/campanhas/1/doar")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new DoacaoDTO(new BigDecimal("10.005"), 21L))))
+                .andExpect(status().isBadRequest());
+
+        Mockito.verify(campanhaRepository, Mockito.never()).registrarDoacao(any(), anyLong(), any());
+    }
+}
@@ -0,0 +1,164 @@
+package com.eseg.campanhas.repository;
+
+import com.eseg.campanhas.model.Campanha;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CampanhaRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    private CampanhaRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        repository = abrir();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.close();
+    }
+
+    private CampanhaRepository abrir() {
+        CampanhaRepository novo = new CampanhaRepository();
+        ReflectionTestUtils.setField(novo, "jsonPath", dir.resolve("campanhas.json").toString());
+        ReflectionTestUtils.setField(novo, "journalPath", dir.resolve("campanhas.json.log").toString());
+        ReflectionTestUtils.setField(novo, "snapshotMinimoBytes", 1L << 20);
+        ReflectionTestUtils.setField(novo, "janelaGroupCommitMs", 0L);
+        ReflectionTestUtils.setField(novo, "maxLoteGroupCommit", 16);
+        ReflectionTestUtils.setField(novo, "geracoes", 2);
+        novo.init();
+        return novo;
+    }
+
+    private Campanha novaCampanha(String meta) {
+        return repository.save(new Campanha(null, 100L, "Campanha", "Descrição", new BigDecimal(meta),
+                BigDecimal.ZERO, LocalDateTime.now(), LocalDateTime.now().plusDays(30), 1));
+    }
+
+    @Test
+    @DisplayName("Doação publica uma cópia gravada e não altera a campanha que os leitores já tinham")
+    void devePublicarDoacaoNumaCopia() {
+        Campanha antes = novaCampanha("100.00");
+
+        Campanha depois = repository.registrarDoacao(antes.getId(), 4000L, 21L);
+
+        assertNotSame(antes, depois);
+        assertEquals(0, BigDecimal.ZERO.compareTo(antes.getValorArrecadado()));
+        assertTrue(antes.getIdPagamentos().isEmpty());
+        assertEquals(new BigDecimal("40.00"), depois.getValorArrecadado());
+        assertEquals(List.of(21L), depois.getIdPagamentos());
+        assertSame(depois, repository.findById(antes.getId()).orElseThrow());
+
+        repository.close();
+        repository = abrir();
+        assertEquals(new BigDecimal("40.00"), repository.findById(antes.getId()).orElseThrow().getValorArrecadado());
+    }
+
+    @Test
+    @DisplayName("Repetir uma doação com o mesmo idPagamento não soma de novo, nem depois de encerrar a campanha")
+    void naoDeveContarDoacaoRepetida() {
+        Long id = novaCampanha("100.00").getId();
+
+        repository.registrarDoacao(id, 4000L, 21L);
+        assertEquals(new BigDecimal("40.00"), repository.registrarDoacao(id, 4000L, 21L).getValorArrecadado());
+
+        Campanha encerrada = repository.registrarDoacao(id, 6000L, 22L);
+        assertEquals(0, encerrada.getStatus());
+        assertEquals(new BigDecimal("100.00"), repository.registrarDoacao(id, 6000L, 22L).getValorArrecadado());
+        assertThrows(ResponseStatusException.class, () -> repository.registrarDoacao(id, 100L, 23L));
+    }
+
+    @Test
+    @DisplayName("Lote reenviado conta as doações já vinculadas como aceitas sem somá-las de novo")
+    void naoDeveContarLoteRepetido() {
+        Long id = novaCampanha("100.00").getId();
+        long[] valores = {3000L, 5000L, 4000L, 1000L};
+        List<Long> ids = Arrays.asList(31L, 32L, 33L, 34L);
+
+        assertEquals(3, repository.registrarDoacoes(id, valores, ids));
+        assertEquals(3, repository.registrarDoacoes(id, valores, ids));
+
+        Campanha campanha = repository.findById(id).orElseThrow();
+        assertEquals(new BigDecimal("120.00"), campanha.getValorArrecadado());
+        assertEquals(List.of(31L, 32L, 33L), campanha.getIdPagamentos());
+        assertEquals(0, campanha.getStatus());
+    }
+
+    @Test
+    @DisplayName("Doações vão só para o journal: o snapshot não é regravado e o restart as reaplica")
+    void deveGravarDoacoesNoJournal() throws Exception {
+        Long id = novaCampanha("1000.00").getId();
+        byte[] snapshot = Files.readAllBytes(dir.resolve("campanhas.json"));
+
+        for (long i = 0; i < 50; i++) {
+            repository.registrarDoacao(id, 100L, 100 + i);
+        }
+        repository.registrarDoacoes(id, new long[] {200L, 300L}, Arrays.asList(200L, null));
+
+        assertArrayEquals(snapshot, Files.readAllBytes(dir.resolve("campanhas.json")));
+        assertTrue(Files.size(dir.resolve("campanhas.json.log")) > 0);
+
+        // Outra instância sobre os mesmos arquivos, como depois de uma queda sem o snapshot do desligamento
+        CampanhaRepository reaberto = abrir();
+        try {
+            Campanha campanha = reaberto.findById(id).orElseThrow();
+            assertEquals(new BigDecimal("55.00"), campanha.getValorArrecadado());
+            assertEquals(51, campanha.getIdPagamentos().size());
+            assertTrue(campanha.getIdPagamentos().contains(149L));
+            assertEquals(new BigDecimal("55.00"), reaberto.registrarDoacao(id, 100L, 149L).getValorArrecadado());
+        } finally {
+            reaberto.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Reaplicar um journal que já está no snapshot não soma as doações de novo")
+    void deveReaplicarJournalSemSomarDeNovo() throws Exception {
+        Long id = novaCampanha("1000.00").getId();
+        repository.registrarDoacao(id, 2500L, null);
+        repository.registrarDoacao(id, 1000L, 41L);
+        Path journal = dir.resolve("campanhas.json.log");
+        byte[] registros = Files.readAllBytes(journal);
+
+        // Queda entre o snapshot do desligamento e o truncamento do journal
+        repository.close();
+        Files.write(journal, registros);
+        repository = abrir();
+
+        Campanha campanha = repository.findById(id).orElseThrow();
+        assertEquals(new BigDecimal("35.00"), campanha.getValorArrecadado());
+        assertEquals(List.of(41L), campanha.getIdPagamentos());
+    }
+
+    @Test
+    @DisplayName("Campanha antiga com fração de centavo carrega, aceita doações e mantém a fração")
+    void deveAceitarValorArrecadadoComFracaoDeCentavo() {
+        Long id = repository.save(new Campanha(null, 100L, "Antiga", "Descrição", new BigDecimal("20.00"),
+                new BigDecimal("10.005"), LocalDateTime.now(), LocalDateTime.now().plusDays(30), 1)).getId();
+
+        assertEquals(new BigDecimal("15.005"), repository.registrarDoacao(id, 500L, 51L).getValorArrecadado());
+
+        repository.close();
+        repository = abrir();
+        Campanha campanha = repository.registrarDoacao(id, 500L, 52L);
+        assertEquals(new BigDecimal("20.005"), campanha.getValorArrecadado());
+        assertEquals(0, campanha.getStatus());
+    }
+}
@@ -0,0 +1,37 @@
+plugins {
+	java
+	application
+}
+
+group = "com.eseg"
+version = "0.0.1-SNAPSHOT"
+description = "Teste de carga"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	// Mesmas versões dos serviços (BOM do Spring Boot); o gerador em si não usa Spring
+	implementation(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+	implementation("org.hdrhistogram:HdrHistogram:2.2.2")
+	implementation("com.fasterxml.jackson.core:jackson-databind")
+	implementation("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+}
+
+application {
+	mainClass = "com.eseg.carga.TesteCarga"
+}
+
+// ./gradlew :carga:run --args="--taxa=200 --duracao-s=60": sobe os jars dos serviços, então eles são gerados antes
+tasks.named<JavaExec>("run") {
+	dependsOn(":campanhas:bootJar", ":comentarios:bootJar", ":pagamentos:bootJar", ":recompensas:bootJar", ":usuarios:bootJar")
+	workingDir = rootProject.projectDir
+	jvmArgs("-Xmx1g")
+}
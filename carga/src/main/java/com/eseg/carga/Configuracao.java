@@ -0,0 +1,114 @@
+package com.eseg.carga;
+
+import java.nio.file.Path;
+import java.util.*;
+
+// Parâmetros do teste, lidos de argumentos --chave=valor (ex.: --taxa=200 --simulados=recompensas,usuarios).
+// Tudo tem valor padrão: sem argumentos, sobe os cinco serviços reais e roda 60 s a 100 req/s.
+record Configuracao(
+        Set<String> simulados,
+        Map<String, Long> latenciaMs,
+        long jitterMs,
+        double taxa,
+        long duracaoS,
+        long aquecimentoS,
+        Map<Operacao, Integer> mix,
+        int campanhas,
+        int usuarios,
+        int portaBase,
+        long semente,
+        long timeoutMs,
+        String jvmServicos,
+        Path raiz,
+        Path saida) {
+
+    static final List<String> SERVICOS = List.of("campanhas", "comentarios", "pagamentos", "recompensas", "usuarios");
+
+    private static final long LATENCIA_PADRAO_MS = 20;
+
+    static Configuracao de(String[] args) {
+        Map<String, String> valores = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Argumento inválido: " + arg + " (use --chave=valor)");
+            }
+            int igual = arg.indexOf('=');
+            valores.put(arg.substring(2, igual), arg.substring(igual + 1));
+        }
+
+        // --simulados=todos troca os cinco por dublês; por padrão nenhum é simulado
+        Set<String> simulados = new LinkedHashSet<>();
+        String listaSimulados = valores.getOrDefault("simulados", "");
+        if (listaSimulados.equals("todos")) {
+            simulados.addAll(SERVICOS);
+        } else {
+            for (String nome : lista(listaSimulados)) {
+                if (!SERVICOS.contains(nome)) {
+                    throw new IllegalArgumentException("Serviço desconhecido em --simulados: " + nome);
+                }
+                simulados.add(nome);
+            }
+        }
+
+        // --latencia-ms vale para todos os dublês; --latencia.<servico>-ms sobrescreve um deles
+        long latenciaPadrao = numero(valores, "latencia-ms", LATENCIA_PADRAO_MS);
+        Map<String, Long> latencia = new HashMap<>();
+        for (String nome : SERVICOS) {
+            latencia.put(nome, numero(valores, "latencia." + nome + "-ms", latenciaPadrao));
+        }
+
+        Map<Operacao, Integer> mix = new EnumMap<>(Operacao.class);
+        for (String item : lista(valores.getOrDefault("mix", "doacao=60,campanha=30,perfil=10"))) {
+            String[] partes = item.split("=");
+            if (partes.length != 2) {
+                throw new IllegalArgumentException("Item inválido em --mix: " + item + " (use operacao=peso)");
+            }
+            mix.put(Operacao.de(partes[0]), Integer.parseInt(partes[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("--mix precisa de pelo menos uma operação com peso positivo");
+        }
+
+        double taxa = Double.parseDouble(valores.getOrDefault("taxa", "100"));
+        if (taxa <= 0) {
+            throw new IllegalArgumentException("--taxa deve ser maior que zero");
+        }
+
+        String saida = valores.get("saida");
+        return new Configuracao(
+                simulados,
+                latencia,
+                numero(valores, "jitter-ms", 10),
+                taxa,
+                numero(valores, "duracao-s", 60),
+                numero(valores, "aquecimento-s", 10),
+                mix,
+                (int) numero(valores, "campanhas", 100),
+                (int) numero(valores, "usuarios", 1000),
+                (int) numero(valores, "porta-base", 18080),
+                numero(valores, "semente", 42),
+                numero(valores, "timeout-ms", 10_000),
+                valores.getOrDefault("jvm-servicos", "-Xmx512m"),
+                Path.of(valores.getOrDefault("raiz", ".")),
+                saida != null ? Path.of(saida) : null);
+    }
+
+    private static long numero(Map<String, String> valores, String chave, long padrao) {
+        String valor = valores.get(chave);
+        try {
+            return valor != null ? Long.parseLong(valor.trim()) : padrao;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + chave + " deve ser um número: " + valor);
+        }
+    }
+
+    private static List<String> lista(String valor) {
+        List<String> itens = new ArrayList<>();
+        for (String item : valor.split(",")) {
+            if (!item.isBlank()) {
+                itens.add(item.trim());
+            }
+        }
+        return itens;
+    }
+}
@@ -0,0 +1,258 @@
+package com.eseg.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.IntFunction;
+
+// Gerador de carga em modelo aberto: as requisições saem numa taxa fixa (uma a cada 1/taxa s), cada uma na
+// sua virtual thread, sem esperar as anteriores. A latência é medida a partir do instante em que a requisição
+// deveria ter saído, não de quando saiu: se o gerador ou o serviço atrasarem, a fila aparece nos percentis
+// em vez de sumir (coordinated omission). Cada operação tem os seus histogramas (HdrHistogram, em microssegundos):
+// o das respostas esperadas e o de todas as requisições, em que erros e timeouts entram com o tempo que levaram
+// para falhar; sem ele, um serviço que passa a estourar o timeout melhoraria os percentis.
+final class GeradorCarga {
+
+    // Até 1 minuto com 3 dígitos significativos; acima disso a requisição já estourou o timeout
+    private static final long MAIOR_LATENCIA_US = TimeUnit.MINUTES.toMicros(1);
+
+    // Resultado de uma operação numa fase: latências das respostas esperadas, de todas as requisições (erros
+    // inclusive) e os erros por motivo
+    static final class Medicao {
+        final Histogram latencias = new ConcurrentHistogram(MAIOR_LATENCIA_US, 3);
+        final Histogram todas = new ConcurrentHistogram(MAIOR_LATENCIA_US, 3);
+        final LongAdder erros = new LongAdder();
+        final Map<String, LongAdder> motivos = new ConcurrentHashMap<>();
+
+        void ok(long latenciaUs) {
+            latencias.recordValue(latenciaUs);
+            todas.recordValue(latenciaUs);
+        }
+
+        void erro(String motivo, long latenciaUs) {
+            todas.recordValue(latenciaUs);
+            erros.increment();
+            motivos.computeIfAbsent(motivo, k -> new LongAdder()).increment();
+        }
+    }
+
+    private final Configuracao configuracao;
+    private final Servicos servicos;
+    private final HttpClient cliente;
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SplittableRandom random;
+    private final int[] pesos;
+
+    private long[] idsUsuarios;
+    private long[] idsCampanhas;
+
+    GeradorCarga(Configuracao configuracao, Servicos servicos) {
+        this.configuracao = configuracao;
+        this.servicos = servicos;
+        this.random = new SplittableRandom(configuracao.semente());
+        // HTTP/1.1 como o cliente entre serviços (sem tentativa de upgrade para h2c a cada conexão)
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(2))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        // Peso acumulado por operação, na ordem do enum, para sortear com uma busca só
+        this.pesos = new int[Operacao.values().length];
+        int acumulado = 0;
+        for (Operacao operacao : Operacao.values()) {
+            acumulado += configuracao.mix().getOrDefault(operacao, 0);
+            pesos[operacao.ordinal()] = acumulado;
+        }
+    }
+
+    // Massa inicial pela própria API: usuários, campanhas em progresso (meta alta, para não encerrarem durante
+    // o teste) e duas faixas de recompensa por campanha, para que as doações passem pelo outbox de recompensas
+    void semear() throws InterruptedException {
+        idsUsuarios = criarTodos(configuracao.usuarios(), i -> requisicaoCriar("usuarios", Map.of(
+                "nome", "Usuário " + i,
+                "email", "usuario" + i + "@carga.local",
+                "telefone", "11900000000")));
+
+        LocalDateTime agora = LocalDateTime.now();
+        SplittableRandom criadores = new SplittableRandom(configuracao.semente());
+        idsCampanhas = criarTodos(configuracao.campanhas(), i -> requisicaoCriar("campanhas", Map.of(
+                "idCriador", idsUsuarios[criadores.nextInt(idsUsuarios.length)],
+                "titulo", "Campanha " + i,
+                "descricao", "Campanha criada pelo teste de carga",
+                "meta", new BigDecimal("1000000000.00"),
+                "valorArrecadado", BigDecimal.ZERO,
+                "dataCriacao", agora.toString(),
+                "dataEncerramento", agora.plusYears(1).toString(),
+                "status", 1)));
+
+        criarTodos(idsCampanhas.length * 2, i -> requisicaoCriar("recompensas", Map.of(
+                "titulo", i % 2 == 0 ? "Agradecimento" : "Camiseta",
+                "valorMinimo", i % 2 == 0 ? new BigDecimal("5.00") : new BigDecimal("100.00"),
+                "idCampanha", idsCampanhas[i / 2])));
+
+        System.out.println("Massa criada: " + idsUsuarios.length + " usuários, " + idsCampanhas.length
+                + " campanhas, " + idsCampanhas.length * 2 + " recompensas");
+    }
+
+    private HttpRequest requisicaoCriar(String servico, Map<String, Object> corpo) {
+        try {
+            return HttpRequest.newBuilder(URI.create(servicos.url(servico) + "/" + servico))
+                    .timeout(Duration.ofMillis(configuracao.timeoutMs()))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(corpo)))
+                    .build();
+        } catch (IOException e) {
+            throw new IllegalStateException("Corpo inválido para " + servico, e);
+        }
+    }
+
+    // Cria n registros com até 32 requisições simultâneas; devolve os ids na ordem pedida
+    private long[] criarTodos(int n, IntFunction<HttpRequest> requisicao) throws InterruptedException {
+        long[] ids = new long[n];
+        Semaphore vagas = new Semaphore(32);
+        List<String> falhas = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < n; i++) {
+                int indice = i;
+                HttpRequest pedido = requisicao.apply(i);
+                vagas.acquire();
+                executor.execute(() -> {
+                    try {
+                        HttpResponse<byte[]> resposta = cliente.send(pedido, HttpResponse.BodyHandlers.ofByteArray());
+                        if (resposta.statusCode() / 100 != 2) {
+                            falhas.add(pedido.uri() + ": HTTP " + resposta.statusCode());
+                            return;
+                        }
+                        JsonNode criado = mapper.readTree(resposta.body());
+                        ids[indice] = criado.path("id").asLong();
+                    } catch (Exception e) {
+                        falhas.add(pedido.uri() + ": " + e.getMessage());
+                    } finally {
+                        vagas.release();
+                    }
+                });
+            }
+        }
+        if (!falhas.isEmpty()) {
+            throw new IllegalStateException("Falha ao criar a massa inicial (" + falhas.size() + " erros), ex.: " + falhas.get(0));
+        }
+        return ids;
+    }
+
+    // Uma fase do teste: dispara na taxa configurada por "segundos" e espera as requisições em voo terminarem
+    Map<Operacao, Medicao> executar(long segundos) {
+        Map<Operacao, Medicao> medicoes = new EnumMap<>(Operacao.class);
+        for (Operacao operacao : Operacao.values()) {
+            medicoes.put(operacao, new Medicao());
+        }
+        long intervaloNs = Math.max(1, Math.round(1_000_000_000d / configuracao.taxa()));
+        long duracaoNs = TimeUnit.SECONDS.toNanos(segundos);
+        long maiorAtrasoNs = 0;
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            long inicio = System.nanoTime();
+            for (long i = 0; ; i++) {
+                long previsto = inicio + i * intervaloNs;
+                if (previsto - inicio >= duracaoNs) {
+                    break;
+                }
+                long agora;
+                while ((agora = System.nanoTime()) < previsto) {
+                    LockSupport.parkNanos(previsto - agora);
+                }
+                maiorAtrasoNs = Math.max(maiorAtrasoNs, agora - previsto);
+
+                Operacao operacao = sortear();
+                HttpRequest pedido = requisicao(operacao);
+                Medicao medicao = medicoes.get(operacao);
+                executor.execute(() -> enviar(operacao, pedido, previsto, medicao));
+            }
+        }
+
+        long atrasoMs = TimeUnit.NANOSECONDS.toMillis(maiorAtrasoNs);
+        if (atrasoMs > 100) {
+            System.out.println("Aviso: o gerador chegou a atrasar " + atrasoMs + " ms em relação à taxa pedida"
+                    + " (a máquina de carga pode estar saturada; as latências já contam esse atraso)");
+        }
+        return medicoes;
+    }
+
+    private Operacao sortear() {
+        int sorteio = random.nextInt(pesos[pesos.length - 1]);
+        for (Operacao operacao : Operacao.values()) {
+            if (sorteio < pesos[operacao.ordinal()]) {
+                return operacao;
+            }
+        }
+        throw new IllegalStateException("Sorteio fora dos pesos: " + sorteio);
+    }
+
+    private HttpRequest requisicao(Operacao operacao) {
+        Duration timeout = Duration.ofMillis(configuracao.timeoutMs());
+        return switch (operacao) {
+            case DOACAO -> {
+                // R$ 5,00 a R$ 500,00: parte das doações alcança a faixa de R$ 100,00
+                String corpo = "{\"valor\":" + BigDecimal.valueOf(500 + random.nextLong(49_501), 2).toPlainString()
+                        + ",\"idCampanha\":" + qualquer(idsCampanhas)
+                        + ",\"idUsuario\":" + qualquer(idsUsuarios) + "}";
+                yield HttpRequest.newBuilder(URI.create(servicos.url("pagamentos") + "/pagamentos"))
+                        .timeout(timeout)
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(corpo))
+                        .build();
+            }
+            case CAMPANHA -> HttpRequest.newBuilder(URI.create(servicos.url("campanhas") + "/campanhas/" + qualquer(idsCampanhas)))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+            case PERFIL -> HttpRequest.newBuilder(URI.create(servicos.url("usuarios") + "/usuarios/" + qualquer(idsUsuarios)))
+                    .timeout(timeout)
+                    .GET()
+                    .build();
+        };
+    }
+
+    private long qualquer(long[] ids) {
+        return ids[random.nextInt(ids.length)];
+    }
+
+    private void enviar(Operacao operacao, HttpRequest pedido, long previsto, Medicao medicao) {
+        try {
+            HttpResponse<Void> resposta = cliente.send(pedido, HttpResponse.BodyHandlers.discarding());
+            int esperado = operacao == Operacao.DOACAO ? 201 : 200;
+            if (resposta.statusCode() == esperado) {
+                medicao.ok(decorrido(previsto));
+            } else {
+                medicao.erro("HTTP " + resposta.statusCode(), decorrido(previsto));
+            }
+        } catch (HttpTimeoutException e) {
+            medicao.erro("timeout", decorrido(previsto));
+        } catch (IOException e) {
+            medicao.erro(e.getClass().getSimpleName(), decorrido(previsto));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            medicao.erro("interrompida", decorrido(previsto));
+        }
+    }
+
+    // Tempo desde o instante previsto de saída, limitado ao alcance do histograma
+    private static long decorrido(long previsto) {
+        return Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - previsto), MAIOR_LATENCIA_US);
+    }
+}
@@ -0,0 +1,31 @@
+package com.eseg.carga;
+
+// Operações do roteiro de carga: cada uma é uma requisição a um endpoint e tem o próprio histograma
+enum Operacao {
+    // POST /pagamentos: pagamentos -> /campanhas/{id}/doar, e depois (outbox) /recompensas e /usuarios/{id}/ganhar-recompensa
+    DOACAO("POST /pagamentos"),
+    // GET /campanhas/{id}: visão detalhada (comentários, pagamentos, recompensas e criador)
+    CAMPANHA("GET /campanhas/{id}"),
+    // GET /usuarios/{id}: perfil (campanhas, comentários, pagamentos e recompensas do usuário)
+    PERFIL("GET /usuarios/{id}");
+
+    private final String endpoint;
+
+    Operacao(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    // Operação pelo nome usado em --mix (doacao | campanha | perfil)
+    static Operacao de(String nome) {
+        for (Operacao operacao : values()) {
+            if (operacao.name().equalsIgnoreCase(nome.trim())) {
+                return operacao;
+            }
+        }
+        throw new IllegalArgumentException("Operação desconhecida: " + nome + " (use doacao, campanha ou perfil)");
+    }
+}
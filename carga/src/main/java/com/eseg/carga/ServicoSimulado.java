@@ -0,0 +1,130 @@
+package com.eseg.carga;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Dublê de um serviço (HttpServer do JDK): responde às rotas que os outros serviços e o gerador chamam com
+// JSON mínimo, depois de uma latência fixa mais um jitter uniforme. Serve para isolar o serviço medido dos
+// vizinhos, ou para simular um vizinho lento (ex.: --latencia.recompensas-ms=300). Lê corpos em JSON ou Smile
+// (o formato que os serviços enviam entre si) e responde sempre em JSON, que os clientes aceitam como reserva.
+final class ServicoSimulado implements AutoCloseable {
+
+    private final String nome;
+    private final long latenciaMs;
+    private final long jitterMs;
+    private final HttpServer servidor;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper mapperSmile = new ObjectMapper(new SmileFactory());
+    private final AtomicLong proximoId = new AtomicLong(1);
+
+    ServicoSimulado(String nome, int porta, long latenciaMs, long jitterMs) throws IOException {
+        this.nome = nome;
+        this.latenciaMs = latenciaMs;
+        this.jitterMs = jitterMs;
+        this.servidor = HttpServer.create(new InetSocketAddress("localhost", porta), 1024);
+        servidor.createContext("/", this::responder);
+        servidor.setExecutor(executor);
+        servidor.start();
+    }
+
+    private void responder(HttpExchange troca) throws IOException {
+        try (troca) {
+            byte[] corpo;
+            try (InputStream entrada = troca.getRequestBody()) {
+                corpo = entrada.readAllBytes();
+            }
+            esperar();
+            String tipo = troca.getRequestHeaders().getFirst("Content-Type");
+            ObjectMapper leitor = tipo != null && tipo.startsWith("application/x-jackson-smile") ? mapperSmile : mapper;
+
+            String metodo = troca.getRequestMethod();
+            String[] partes = troca.getRequestURI().getPath().split("/");
+            String consulta = troca.getRequestURI().getQuery();
+            JsonNode resposta;
+            int status = 200;
+
+            if (metodo.equals("GET") && consulta != null && consulta.startsWith("ids=")) {
+                // Busca em lote: GET /<recurso>?ids=1,2,3
+                ArrayNode itens = mapper.createArrayNode();
+                for (String id : consulta.substring(4).split(",")) {
+                    if (!id.isBlank()) {
+                        itens.add(objeto(Long.parseLong(id.trim())));
+                    }
+                }
+                resposta = itens;
+            } else if (metodo.equals("GET") && partes.length == 4 && partes[2].equals("campanha")) {
+                // Faixas de recompensa: GET /recompensas/campanha/{id}
+                ObjectNode faixa = objeto(1).put("titulo", "Recompensa simulada")
+                        .put("valorMinimo", BigDecimal.ONE).put("idCampanha", Long.parseLong(partes[3]));
+                resposta = mapper.createArrayNode().add(faixa);
+            } else if (metodo.equals("GET") && partes.length >= 3) {
+                // GET /<recurso>/{id} e GET /<recurso>/{id}/resumo
+                resposta = objeto(Long.parseLong(partes[2]));
+            } else if (metodo.equals("GET")) {
+                resposta = mapper.createArrayNode();
+            } else if (metodo.equals("POST") && partes.length == 4 && partes[3].equals("doar")) {
+                // Doação aceita: a campanha segue em progresso
+                resposta = objeto(Long.parseLong(partes[2])).put("status", 1);
+            } else if (metodo.equals("POST") && partes.length == 4 && partes[3].equals("doar-lote")) {
+                resposta = mapper.createObjectNode().put("aceitas", leitor.readTree(corpo).size());
+            } else if (metodo.equals("POST") && partes.length == 2) {
+                // Criação: devolve o corpo recebido com um id novo
+                ObjectNode criado = corpo.length > 0 ? (ObjectNode) leitor.readTree(corpo) : mapper.createObjectNode();
+                criado.put("id", proximoId.getAndIncrement());
+                resposta = criado;
+                status = 201;
+            } else {
+                // Eventos, ganhar-recompensa, PUT e DELETE: só confirma
+                troca.sendResponseHeaders(204, -1);
+                return;
+            }
+
+            byte[] saida = mapper.writeValueAsBytes(resposta);
+            troca.getResponseHeaders().add("Content-Type", "application/json");
+            troca.sendResponseHeaders(status, saida.length);
+            try (OutputStream corpoResposta = troca.getResponseBody()) {
+                corpoResposta.write(saida);
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Dublê " + nome + " não soube responder " + troca.getRequestURI() + ": " + e.getMessage());
+            troca.sendResponseHeaders(500, -1);
+        }
+    }
+
+    private ObjectNode objeto(long id) {
+        return mapper.createObjectNode().put("id", id);
+    }
+
+    private void esperar() {
+        long espera = latenciaMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (espera > 0) {
+            try {
+                Thread.sleep(espera);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        servidor.stop(0);
+        executor.shutdownNow();
+    }
+}
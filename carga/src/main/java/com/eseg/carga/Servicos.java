@@ -0,0 +1,153 @@
+package com.eseg.carga;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+// Sobe os cinco serviços em localhost, um por porta a partir de portaBase (na ordem de Configuracao.SERVICOS):
+// os reais como processos separados (o bootJar de cada módulo, com dados num diretório temporário e as URLs
+// apontando uns para os outros), os simulados como ServicoSimulado. close() derruba tudo.
+final class Servicos implements AutoCloseable {
+
+    // Prefixo das propriedades de cada serviço (<prefixo>.json.path, <prefixo>.service.url)
+    private static final Map<String, String> PREFIXOS = Map.of(
+            "campanhas", "campanha",
+            "comentarios", "comentario",
+            "pagamentos", "pagamento",
+            "recompensas", "recompensa",
+            "usuarios", "usuario");
+
+    private static final Duration PRAZO_SUBIDA = Duration.ofSeconds(120);
+
+    private final Configuracao configuracao;
+    private final Path diretorio;
+    private final Map<String, Process> processos = new LinkedHashMap<>();
+    private final List<ServicoSimulado> simulados = new ArrayList<>();
+
+    Servicos(Configuracao configuracao) throws IOException {
+        this.configuracao = configuracao;
+        this.diretorio = Files.createTempDirectory("carga");
+    }
+
+    String url(String servico) {
+        return "http://localhost:" + porta(servico);
+    }
+
+    Path diretorio() {
+        return diretorio;
+    }
+
+    private int porta(String servico) {
+        return configuracao.portaBase() + Configuracao.SERVICOS.indexOf(servico);
+    }
+
+    void subir() throws IOException, InterruptedException {
+        for (String servico : Configuracao.SERVICOS) {
+            if (configuracao.simulados().contains(servico)) {
+                simulados.add(new ServicoSimulado(servico, porta(servico),
+                        configuracao.latenciaMs().get(servico), configuracao.jitterMs()));
+                System.out.println(servico + ": simulado em " + url(servico) + " (latência "
+                        + configuracao.latenciaMs().get(servico) + " ms + até " + configuracao.jitterMs() + " ms)");
+            } else {
+                processos.put(servico, iniciar(servico));
+            }
+        }
+        // Os processos sobem em paralelo; aqui só espera cada um responder o health check
+        for (Map.Entry<String, Process> processo : processos.entrySet()) {
+            aguardar(processo.getKey(), processo.getValue());
+            System.out.println(processo.getKey() + ": real em " + url(processo.getKey())
+                    + " (log em " + diretorio.resolve(processo.getKey() + ".log") + ")");
+        }
+    }
+
+    private Process iniciar(String servico) throws IOException {
+        Path jar = jar(servico);
+        Path dados = diretorio.resolve(servico);
+        Files.createDirectories(dados);
+        String prefixo = PREFIXOS.get(servico);
+
+        List<String> comando = new ArrayList<>();
+        comando.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        comando.addAll(Arrays.asList(configuracao.jvmServicos().trim().split("\\s+")));
+        comando.add("-jar");
+        comando.add(jar.toString());
+        comando.add("--server.port=" + porta(servico));
+        comando.add("--" + prefixo + ".json.path=" + dados.resolve(servico + ".json"));
+        if (servico.equals("pagamentos")) {
+            comando.add("--pagamento.journal.path=" + dados.resolve("pagamentos.log"));
+        }
+        for (String outro : Configuracao.SERVICOS) {
+            comando.add("--" + PREFIXOS.get(outro) + ".service.url=" + url(outro));
+        }
+
+        return new ProcessBuilder(comando)
+                .redirectErrorStream(true)
+                .redirectOutput(diretorio.resolve(servico + ".log").toFile())
+                .start();
+    }
+
+    // bootJar do módulo (o jar executável, não o -plain)
+    private Path jar(String servico) throws IOException {
+        Path libs = configuracao.raiz().resolve(servico).resolve("build").resolve("libs");
+        if (Files.isDirectory(libs)) {
+            try (Stream<Path> arquivos = Files.list(libs)) {
+                Optional<Path> jar = arquivos
+                        .filter(p -> p.toString().endsWith(".jar") && !p.toString().endsWith("-plain.jar"))
+                        .findFirst();
+                if (jar.isPresent()) {
+                    return jar.get();
+                }
+            }
+        }
+        throw new IllegalStateException("Jar de " + servico + " não encontrado em " + libs
+                + ": rode ./gradlew :" + servico + ":bootJar (ou use --simulados=" + servico + ")");
+    }
+
+    private void aguardar(String servico, Process processo) throws InterruptedException {
+        HttpClient cliente = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest health = HttpRequest.newBuilder(URI.create(url(servico) + "/actuator/health"))
+                .timeout(Duration.ofSeconds(2)).build();
+        long limite = System.nanoTime() + PRAZO_SUBIDA.toNanos();
+        while (System.nanoTime() < limite) {
+            if (!processo.isAlive()) {
+                throw new IllegalStateException(servico + " terminou ao subir (código " + processo.exitValue()
+                        + "); veja " + diretorio.resolve(servico + ".log"));
+            }
+            try {
+                if (cliente.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Ainda não está ouvindo na porta
+            }
+            Thread.sleep(250);
+        }
+        throw new IllegalStateException(servico + " não respondeu em " + PRAZO_SUBIDA.toSeconds() + " s; veja "
+                + diretorio.resolve(servico + ".log"));
+    }
+
+    @Override
+    public void close() {
+        simulados.forEach(ServicoSimulado::close);
+        // SIGTERM primeiro: o shutdown do Spring termina os lotes de group commit pendentes
+        processos.values().forEach(Process::destroy);
+        for (Process processo : processos.values()) {
+            try {
+                if (!processo.waitFor(15, TimeUnit.SECONDS)) {
+                    processo.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                processo.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
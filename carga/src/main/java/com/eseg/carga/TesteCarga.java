@@ -0,0 +1,106 @@
+package com.eseg.carga;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Teste de carga ponta a ponta: sobe os cinco serviços em localhost (reais ou simulados), cria a massa inicial,
+// aquece e depois mede o mix de doações, visualizações de campanha e de perfil na taxa pedida, com p50/p99/p99,9
+// das respostas esperadas, p99 de todas as requisições (erros e timeouts pelo tempo que levaram) e vazão por
+// endpoint. Exemplos:
+//   ./gradlew :carga:run --args="--taxa=200 --duracao-s=120"
+//   ./gradlew :carga:run --args="--simulados=recompensas,usuarios --latencia.recompensas-ms=150"
+//   ./gradlew :carga:run --args="--mix=doacao=1 --saida=carga/build/resultados"   (.hgrm por endpoint, para plotar)
+public class TesteCarga {
+
+    public static void main(String[] args) throws Exception {
+        Configuracao configuracao;
+        try {
+            configuracao = Configuracao.de(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        try (Servicos servicos = new Servicos(configuracao)) {
+            servicos.subir();
+
+            GeradorCarga gerador = new GeradorCarga(configuracao, servicos);
+            gerador.semear();
+
+            if (configuracao.aquecimentoS() > 0) {
+                System.out.println("Aquecendo por " + configuracao.aquecimentoS() + " s...");
+                gerador.executar(configuracao.aquecimentoS());
+            }
+
+            System.out.println("Medindo por " + configuracao.duracaoS() + " s a " + configuracao.taxa() + " req/s (mix "
+                    + configuracao.mix().entrySet().stream()
+                            .map(e -> e.getKey().name().toLowerCase() + "=" + e.getValue())
+                            .collect(Collectors.joining(",")) + ")...");
+            Map<Operacao, GeradorCarga.Medicao> medicoes = gerador.executar(configuracao.duracaoS());
+
+            relatar(medicoes, configuracao.duracaoS());
+            if (configuracao.saida() != null) {
+                salvar(medicoes, configuracao.saida());
+            }
+            System.out.println("Dados e logs dos serviços em " + servicos.diretorio());
+        }
+    }
+
+    private static void relatar(Map<Operacao, GeradorCarga.Medicao> medicoes, long segundos) {
+        System.out.println();
+        System.out.println(String.format(Locale.ROOT, "%-22s %8s %7s %9s %9s %9s %9s %9s %13s",
+                "endpoint", "ok", "erros", "req/s", "p50 ms", "p99 ms", "p99,9 ms", "max ms", "p99 todas ms"));
+        for (Map.Entry<Operacao, GeradorCarga.Medicao> entrada : medicoes.entrySet()) {
+            GeradorCarga.Medicao medicao = entrada.getValue();
+            Histogram latencias = medicao.latencias;
+            long ok = latencias.getTotalCount();
+            if (ok == 0 && medicao.erros.sum() == 0) {
+                continue;
+            }
+            System.out.println(String.format(Locale.ROOT, "%-22s %8d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %13.2f",
+                    entrada.getKey().endpoint(), ok, medicao.erros.sum(), (double) ok / segundos,
+                    ms(latencias.getValueAtPercentile(50)), ms(latencias.getValueAtPercentile(99)),
+                    ms(latencias.getValueAtPercentile(99.9)), ms(latencias.getMaxValue()),
+                    ms(medicao.todas.getValueAtPercentile(99))));
+            if (!medicao.motivos.isEmpty()) {
+                System.out.println("    erros: " + medicao.motivos.entrySet().stream()
+                        .map(e -> e.getKey() + " x" + e.getValue().sum())
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        System.out.println();
+    }
+
+    // Distribuição completa de cada endpoint no formato .hgrm (em ms), para comparar execuções num gráfico:
+    // <operacao>.hgrm com as respostas esperadas e <operacao>-todas.hgrm com os erros inclusive
+    private static void salvar(Map<Operacao, GeradorCarga.Medicao> medicoes, Path saida) throws IOException {
+        Files.createDirectories(saida);
+        for (Map.Entry<Operacao, GeradorCarga.Medicao> entrada : medicoes.entrySet()) {
+            String nome = entrada.getKey().name().toLowerCase();
+            salvar(entrada.getValue().latencias, saida.resolve(nome + ".hgrm"), entrada.getKey().endpoint());
+            salvar(entrada.getValue().todas, saida.resolve(nome + "-todas.hgrm"), entrada.getKey().endpoint() + " (todas)");
+        }
+    }
+
+    private static void salvar(Histogram latencias, Path arquivo, String descricao) throws IOException {
+        if (latencias.getTotalCount() == 0) {
+            return;
+        }
+        try (PrintStream saidaArquivo = new PrintStream(Files.newOutputStream(arquivo))) {
+            latencias.outputPercentileDistribution(saidaArquivo, 1000.0);
+        }
+        System.out.println("Histograma de " + descricao + " em " + arquivo);
+    }
+
+    private static double ms(long microssegundos) {
+        return microssegundos / 1000.0;
+    }
+}
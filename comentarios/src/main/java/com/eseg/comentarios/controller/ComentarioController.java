@@ -1,11 +1,14 @@
 package com.eseg.comentarios.controller;
 
-import com.eseg.comentarios.dto.*;
 import com.eseg.comentarios.model.Comentario;
 import com.eseg.comentarios.service.ComentarioService;
+import com.eseg.contratos.PaginaDTO;
+import com.eseg.infra.web.Ndjson;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -16,8 +19,11 @@ public class ComentarioController {
 
     private final ComentarioService comentarioService;
 
-    public ComentarioController(ComentarioService comentarioService) {
+    private final ObjectMapper objectMapper;
+
+    public ComentarioController(ComentarioService comentarioService, ObjectMapper objectMapper) {
         this.comentarioService = comentarioService;
+        this.objectMapper = objectMapper;
     }
 
     // Listar todas as campanhas: retorna lista simples com objetos Usuário (não expandido)
@@ -28,6 +34,36 @@ public class ComentarioController {
         return comentarios;
     }
 
+    // Exportar todos os comentários em streaming (Accept: application/x-ndjson): um comentário por linha, direto da memória
+    // para a resposta, sem montar a lista; o heap não cresce com o volume exportado
+    @GetMapping(produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.MEDIA_TYPE)
+                .body(Ndjson.de(objectMapper, comentarioService.percorrerTodos()));
+    }
+
+    // Buscar vários comentários de uma vez: GET /comentarios?ids=1,2,3
+    @GetMapping(params = "ids")
+    public List<Comentario> buscarPorIds(@RequestParam List<Long> ids) {
+        return comentarioService.buscarPorIds(ids);
+    }
+
+    // Comentários de uma campanha, do mais novo para o mais antigo: ?limite= (padrão 20, máx. 100) e ?cursor=
+    // com o proximoCursor da página anterior; retorna { itens, proximoCursor }
+    @GetMapping("/campanha/{idCampanha}")
+    public PaginaDTO<Comentario> listarPorCampanha(@PathVariable Long idCampanha,
+                                                  @RequestParam(required = false) Integer limite,
+                                                  @RequestParam(required = false) String cursor) {
+        return comentarioService.listarPorCampanha(idCampanha, limite, cursor);
+    }
+
+    // Busca textual nos comentários: GET /comentarios/busca?q=...&limite= (mais relevantes primeiro)
+    @GetMapping("/busca")
+    public List<Comentario> buscarPorTexto(@RequestParam String q, @RequestParam(required = false) Integer limite) {
+        return comentarioService.buscarPorTexto(q, limite);
+    }
+
     // Buscar usuário detalhado por Id (com dados expandidos dos microsserviços)
     @GetMapping("/{id}")
     public ResponseEntity<Comentario> buscarPorId(@PathVariable Long id) {
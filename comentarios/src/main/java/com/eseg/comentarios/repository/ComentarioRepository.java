@@ -1,20 +1,24 @@
 package com.eseg.comentarios.repository;
 
 import com.eseg.comentarios.model.Comentario;
+import com.eseg.infra.busca.IndiceTexto;
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.persistencia.MapaDuravel;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.atomic.AtomicLong;
@@ -24,38 +28,87 @@ public class ComentarioRepository {
     @Value("${comentario.json.path}")
     private String jsonPath;
 
+    // Janela do group commit: escritas que chegam dentro dela viram uma única gravação do arquivo
+    @Value("${persistencia.group-commit.janela-ms:2}")
+    private long janelaGroupCommitMs;
+
+    @Value("${persistencia.group-commit.max-lote:256}")
+    private int maxLoteGroupCommit;
+
+    // Quantas gerações do arquivo (atual + anteriores) são mantidas para recuperação
+    @Value("${persistencia.geracoes:3}")
+    private int geracoes;
+
     private final AtomicLong idGenerator = new AtomicLong();
 
     private final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
+    // Estado em memória (id -> comentario), carregado uma única vez no @PostConstruct.
+    // Mudanças só ficam visíveis (no mapa e nos índices) depois de gravadas
+    private MapaDuravel<Comentario> comentarios;
+
+    // Comentários de cada campanha em ordem de postagem (mais novo primeiro), mantido junto com o mapa
+    private final IndiceComentarios indice = new IndiceComentarios();
+
+    // Índice invertido do texto dos comentários para a busca (?q=)
+    private final IndiceTexto indiceTexto = new IndiceTexto();
+
+    private AtomicJsonFile arquivo;
+
     @PostConstruct
     public void init() {
+        arquivo = new AtomicJsonFile(Paths.get(jsonPath), geracoes);
+        comentarios = new MapaDuravel<>("comentarios", Duration.ofMillis(janelaGroupCommitMs), maxLoteGroupCommit,
+                this::saveAll, this::publicado);
+        for (Comentario item : loadAll()) {
+            if (item.getId() != null) {
+                comentarios.carregar(item.getId(), item);
+                indice.indexar(item);
+                indiceTexto.indexar(item.getId(), item.getTexto());
+            }
+        }
         initializeIdGenerator();
     }
 
+    @PreDestroy
+    public void close() {
+        comentarios.close();
+    }
+
     private void initializeIdGenerator() {
-        List<Comentario> comentarios = loadAll();
-        long maxId = comentarios.stream().mapToLong(Comentario::getId).max().orElse(0L);
-        idGenerator.set(maxId + 1);
+        idGenerator.set(comentarios.ultimoId() + 1);
+    }
+
+    // Chamado pelo group commit depois de cada comentário gravado e publicado no mapa
+    private void publicado(Long id, Comentario antigo, Comentario novo) {
+        if (novo == null) {
+            indice.remover(id);
+            indiceTexto.remover(id);
+            return;
+        }
+        indice.indexar(novo, () -> comentarios.get(id) == novo);
+        indiceTexto.indexar(id, () -> comentarios.get(id) == novo, novo.getTexto());
     }
 
     private List<Comentario> loadAll() {
         try {
-            File file = new File(jsonPath);
-            if (!file.exists() || file.length() == 0) return new ArrayList<>();
-            List<Comentario> comentarios = mapper.readValue(file, new TypeReference<List<Comentario>>(){});
+            // Lê a geração íntegra mais nova; um arquivo truncado por uma queda cai para a anterior
+            List<Comentario> comentarios = arquivo.read(conteudo -> conteudo.length == 0
+                    ? new ArrayList<Comentario>()
+                    : mapper.readValue(conteudo, new TypeReference<List<Comentario>>(){}))
+                    .orElseGet(ArrayList::new);
             System.out.println("DEBUG: JSON lido com " + comentarios.size() + " comentarios");
             return comentarios;
         } catch (IOException e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+            // Nunca sobe com a lista vazia quando há dados ilegíveis: a próxima escrita os apagaria
+            throw new IllegalStateException("Erro ao ler " + jsonPath, e);
         }
     }
 
-    private void saveAll(List<Comentario> comentarios) {
+    private void saveAll(Collection<Comentario> comentarios) {
         try {
-            mapper.writeValue(new File(jsonPath), comentarios);
+            arquivo.write(mapper.writeValueAsBytes(comentarios));
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar comentário", e);
         }
@@ -63,50 +116,70 @@ public class ComentarioRepository {
 
     // 1. Listar todos os comentarios
     public List<Comentario> findAll() {
-        return loadAll();
+        return new ArrayList<>(comentarios.values());
+    }
+
+    // 1.1 Percorrer todos os comentários sem copiar (exportação em streaming); a iteração é fracamente consistente
+    public Iterable<Comentario> iterateAll() {
+        return comentarios.values();
     }
 
     // 2. Buscar por Id
     public Optional<Comentario> findById(Long id) {
-        return loadAll().stream().filter(c -> c.getId().equals(id)).findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(comentarios.get(id));
+    }
+
+    // 2.1 Buscar vários comentários por Id (na ordem pedida, ignorando os inexistentes)
+    public List<Comentario> findAllById(Collection<Long> ids) {
+        List<Comentario> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Comentario encontrado = comentarios.get(id);
+            if (encontrado != null) {
+                encontrados.add(encontrado);
+            }
+        }
+        return encontrados;
+    }
+
+    // 2.2 Página dos comentários de uma campanha: até limite chaves depois do cursor, mais novo primeiro
+    public List<IndiceComentarios.Chave> findPaginaPorCampanha(Long idCampanha, IndiceComentarios.Chave depoisDe, int limite) {
+        return indice.pagina(idCampanha, depoisDe, limite);
+    }
+
+    // 2.3 Busca textual: ids dos comentários que contêm todos os termos, do mais relevante para o menos
+    public List<IndiceTexto.Resultado> search(String consulta, int limite) {
+        return indiceTexto.buscar(consulta, limite);
     }
 
     // 3. Adcionar novo comentário
     public Comentario save(Comentario novoComentario) {
-        List<Comentario> comentarios = loadAll();
         Long novoId = idGenerator.getAndIncrement();
         novoComentario.setId(novoId);
-        comentarios.add(novoComentario);
-        saveAll(comentarios);
+        comentarios.alterar(novoId, atual -> novoComentario);
         return novoComentario;
     }
 
     // 4. Atualizar comentário por Id
     public void update(Long id, Comentario comentarioAtualizado) {
-        List<Comentario> comentarios = loadAll();
-        boolean updated = false;
-        for (int i = 0; i < comentarios.size(); i++) {
-            if (comentarios.get(i).getId().equals(id)) {
-                comentarios.set(i, comentarioAtualizado);
-                updated = true;
-                break;
+        comentarioAtualizado.setId(id);
+        comentarios.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comentário não encontrado");
             }
-        }
-        if (!updated) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(comentarios);
+            return comentarioAtualizado;
+        });
     }
 
     // 5. Remover comentário por ID
     public void deleteById(Long id) {
-        List<Comentario> comentarios = loadAll();
-        boolean removed = comentarios.removeIf(c -> c.getId().equals(id));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(comentarios);
+        comentarios.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Comentário não encontrado");
+            }
+            return null;
+        });
     }
-
-
 }
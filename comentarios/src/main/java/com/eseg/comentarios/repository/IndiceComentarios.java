@@ -0,0 +1,89 @@
+package com.eseg.comentarios.repository;
+
+import com.eseg.comentarios.model.Comentario;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.BooleanSupplier;
+
+// Índice dos comentários de cada campanha para GET /comentarios/campanha/{idCampanha}.
+// Um skip list por campanha, já na ordem de exibição (mais novo primeiro): uma página é tailSet(cursor)
+// + limite itens, O(log n + limite), sem percorrer os outros comentários nem ordenar nada.
+public class IndiceComentarios {
+
+    // Posição de um comentário no índice da campanha: data de postagem (sem data vai para o fim) e id para desempatar
+    public record Chave(LocalDateTime data, long id) {}
+
+    // Mais novo primeiro; no empate de data, o id maior (postado depois) vem antes
+    private static final Comparator<Chave> COMPARADOR = Comparator
+            .comparing(Chave::data, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()))
+            .thenComparing(Chave::id, Comparator.reverseOrder());
+
+    // Onde cada comentário está indexado, para tirar a chave antiga quando ele muda
+    private record Posicao(Long idCampanha, Chave chave) {}
+
+    private final ConcurrentHashMap<Long, NavigableSet<Chave>> porCampanha = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Posicao> posicoes = new ConcurrentHashMap<>();
+
+    public void indexar(Comentario comentario) {
+        indexar(comentario, () -> true);
+    }
+
+    // Só indexa se o comentário ainda for o vigente (checado dentro do compute): um update que termina
+    // depois de outro update ou de um delete do mesmo comentário não recoloca o objeto antigo no índice
+    public void indexar(Comentario comentario, BooleanSupplier vigente) {
+        posicoes.compute(comentario.getId(), (id, antiga) -> {
+            if (!vigente.getAsBoolean()) {
+                return antiga;
+            }
+            Posicao nova = new Posicao(comentario.getIdCampanha(), new Chave(comentario.getDataPostagem(), id));
+            if (antiga != null) {
+                if (antiga.equals(nova)) {
+                    return antiga;
+                }
+                retirar(antiga);
+            }
+            // Comentário sem campanha não aparece em nenhuma listagem por campanha
+            if (nova.idCampanha() != null) {
+                porCampanha.computeIfAbsent(nova.idCampanha(), c -> new ConcurrentSkipListSet<>(COMPARADOR))
+                        .add(nova.chave());
+            }
+            return nova;
+        });
+    }
+
+    public void remover(Long id) {
+        posicoes.computeIfPresent(id, (k, antiga) -> {
+            retirar(antiga);
+            return null;
+        });
+    }
+
+    // Até limite chaves da campanha depois do cursor (exclusivo), do mais novo para o mais antigo
+    public List<Chave> pagina(Long idCampanha, Chave depoisDe, int limite) {
+        NavigableSet<Chave> fatia = porCampanha.get(idCampanha);
+        if (fatia == null) {
+            return List.of();
+        }
+        NavigableSet<Chave> visao = depoisDe == null ? fatia : fatia.tailSet(depoisDe, false);
+
+        List<Chave> pagina = new ArrayList<>(limite);
+        Iterator<Chave> it = visao.iterator();
+        while (pagina.size() < limite && it.hasNext()) {
+            pagina.add(it.next());
+        }
+        return pagina;
+    }
+
+    private void retirar(Posicao antiga) {
+        if (antiga.idCampanha() == null) {
+            return;
+        }
+        NavigableSet<Chave> fatia = porCampanha.get(antiga.idCampanha());
+        if (fatia != null) {
+            fatia.remove(antiga.chave());
+        }
+    }
+}
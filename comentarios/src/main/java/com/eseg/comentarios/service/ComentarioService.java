@@ -2,24 +2,41 @@ package com.eseg.comentarios.service;
 
 import com.eseg.comentarios.model.Comentario;
 import com.eseg.comentarios.repository.ComentarioRepository;
+import com.eseg.comentarios.repository.IndiceComentarios;
+import com.eseg.contratos.PaginaDTO;
+import com.eseg.infra.busca.IndiceTexto;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
 
 
 @Service
 public class ComentarioService {
     private final ComentarioRepository comentarioRepository;
+    private final NotificadorEventos notificadorEventos;
 
-    public ComentarioService(ComentarioRepository comentarioRepository) {this.comentarioRepository = comentarioRepository;}
+    public ComentarioService(ComentarioRepository comentarioRepository, NotificadorEventos notificadorEventos) {
+        this.comentarioRepository = comentarioRepository;
+        this.notificadorEventos = notificadorEventos;
+    }
 
     //1. Carregar os comentários de uma campanha
     public List<Comentario> listarTodos() {
             return comentarioRepository.findAll();
     }
 
+    //1.1 Percorrer todos os comentários sem montar a lista (exportação NDJSON)
+    public Iterable<Comentario> percorrerTodos() {
+        return comentarioRepository.iterateAll();
+    }
+
 
     //2. Carregar os comentários por usuário
     public Comentario comentarioPorID(Long id){
@@ -27,20 +44,94 @@ public class ComentarioService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada"));
     }
 
+    //2.1 Buscar vários comentários por Id (uma chamada no lugar de N)
+    public List<Comentario> buscarPorIds(List<Long> ids) {
+        return comentarioRepository.findAllById(ids);
+    }
+
+    //2.2 Comentários de uma campanha, do mais novo para o mais antigo, em páginas por cursor
+    public PaginaDTO<Comentario> listarPorCampanha(Long idCampanha, Integer limite, String cursor) {
+        int tamanho = limite == null ? 20 : limite;
+        if (tamanho < 1 || tamanho > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limite deve estar entre 1 e 100");
+        }
+
+        // Pede um item a mais só para saber se existe próxima página
+        List<IndiceComentarios.Chave> chaves = comentarioRepository.findPaginaPorCampanha(idCampanha,
+                lerCursor(cursor), tamanho + 1);
+
+        List<Comentario> itens = new ArrayList<>(Math.min(chaves.size(), tamanho));
+        for (IndiceComentarios.Chave chave : chaves.subList(0, Math.min(chaves.size(), tamanho))) {
+            // Um comentário removido entre a leitura do índice e esta busca simplesmente fica de fora
+            comentarioRepository.findById(chave.id()).ifPresent(itens::add);
+        }
+        String proximo = chaves.size() > tamanho ? escreverCursor(chaves.get(tamanho - 1)) : null;
+        return new PaginaDTO<>(itens, proximo);
+    }
+
+    // Cursor = posição do último comentário da página, em base64 url-safe ("dataPostagem:id")
+    private String escreverCursor(IndiceComentarios.Chave chave) {
+        String data = chave.data() == null ? "" : chave.data().toString();
+        String bruto = data + ":" + chave.id();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bruto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private IndiceComentarios.Chave lerCursor(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            // A data tem ':' no meio, então o id é o que vem depois do último
+            String bruto = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separador = bruto.lastIndexOf(':');
+            if (separador < 0) {
+                throw new IllegalArgumentException("cursor sem id");
+            }
+            String data = bruto.substring(0, separador);
+            return new IndiceComentarios.Chave(data.isEmpty() ? null : LocalDateTime.parse(data),
+                    Long.parseLong(bruto.substring(separador + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+
+    //2.3 Buscar comentários pelo texto (?q=), do mais relevante para o menos; ignora acentos e maiúsculas
+    public List<Comentario> buscarPorTexto(String consulta, Integer limite) {
+        if (consulta == null || consulta.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "q é obrigatório");
+        }
+        int tamanho = limite == null ? 20 : limite;
+        if (tamanho < 1 || tamanho > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "limite deve estar entre 1 e 100");
+        }
+        List<IndiceTexto.Resultado> resultados = comentarioRepository.search(consulta, tamanho);
+        List<Comentario> encontrados = new ArrayList<>(resultados.size());
+        for (IndiceTexto.Resultado resultado : resultados) {
+            // Um comentário removido entre a busca no índice e esta leitura simplesmente fica de fora
+            comentarioRepository.findById(resultado.id()).ifPresent(encontrados::add);
+        }
+        return encontrados;
+    }
+
     //3. Criar novo Comentário
     public Comentario criarComentario(Comentario novoComentario) {
-        return comentarioRepository.save(novoComentario);
+        Comentario criado = comentarioRepository.save(novoComentario);
+        notificadorEventos.salvo(criado);
+        return criado;
     }
 
     // 4. Editar Comentario
     public Comentario editarComentario(Long id, Comentario comentarioAtualizado) {
         comentarioRepository.update(id, comentarioAtualizado);
-        return comentarioPorID(id);
+        Comentario editado = comentarioPorID(id);
+        notificadorEventos.salvo(editado);
+        return editado;
     }
 
     // 5. Deletar usuário
     public void deletarPorId(Long id) {
         comentarioRepository.deleteById(id);
+        notificadorEventos.removido(id);
     }
 
 }
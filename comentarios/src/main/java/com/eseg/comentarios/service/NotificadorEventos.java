@@ -0,0 +1,26 @@
+package com.eseg.comentarios.service;
+
+import com.eseg.comentarios.cliente.ClienteServicos;
+import com.eseg.comentarios.model.Comentario;
+import com.eseg.infra.eventos.PublicadorEventos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Avisa os serviços de campanhas e usuários sobre mudanças em comentários (GET /campanhas/{id} e GET /usuarios/{id}).
+// Fusão de eventos pendentes, fila limitada e descarte em falha ficam no PublicadorEventos.
+@Service
+public class NotificadorEventos extends PublicadorEventos<Comentario> {
+
+    public NotificadorEventos(ClienteServicos clienteServicos, ObjectMapper objectMapper,
+                              @Value("${eventos.fila-max:10000}") int filaMax) {
+        super("COMENTARIO", List.of("campanhas", "usuarios"), clienteServicos::enviarEvento, objectMapper, filaMax);
+    }
+
+    // Comentário criado ou editado
+    public void salvo(Comentario comentario) {
+        salvo(comentario.getId(), comentario);
+    }
+}
@@ -2,6 +2,8 @@ package com.eseg.comentarios;
 
 import com.eseg.comentarios.model.Comentario;
 import com.eseg.comentarios.repository.ComentarioRepository;
+import com.eseg.comentarios.repository.IndiceComentarios;
+import com.eseg.infra.busca.IndiceTexto;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -23,7 +25,10 @@ import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -97,6 +102,18 @@ class ComentariosApplicationTests {
                 .andExpect(jsonPath("$.idUsuario").value(100));
     }
 
+    @Test
+    @DisplayName("GET /comentarios?ids= - Deve buscar vários comentários em uma chamada")
+    void deveBuscarComentariosPorIds() throws Exception {
+        // Busca em lote: ids inexistentes são ignorados
+        Mockito.when(comentarioRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(comentarioPadrao));
+
+        mockMvc.perform(get("/comentarios").param("ids", "1,2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].texto").value("Texto padrão de teste"));
+    }
+
     @ParameterizedTest(name = "Teste {index}: Criando comentário \"{0}\"")
     @CsvSource({
             "Adorei o projeto!, 10, 1",
@@ -179,4 +196,61 @@ class ComentariosApplicationTests {
         mockMvc.perform(delete("/comentarios/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /comentarios/campanha/{id} - Deve paginar do mais novo para o mais antigo pelo cursor")
+    void deveListarComentariosDaCampanhaPorCursor() throws Exception {
+        LocalDateTime agora = LocalDateTime.of(2025, 5, 10, 12, 30, 15);
+        IndiceComentarios.Chave maisNovo = new IndiceComentarios.Chave(agora, 3L);
+        IndiceComentarios.Chave meio = new IndiceComentarios.Chave(agora.minusMinutes(1), 2L);
+        IndiceComentarios.Chave maisAntigo = new IndiceComentarios.Chave(agora.minusMinutes(2), 1L);
+
+        // O índice devolve limite + 1 chaves na primeira página: existe próxima
+        Mockito.when(comentarioRepository.findPaginaPorCampanha(eq(50L), isNull(), eq(3)))
+                .thenReturn(List.of(maisNovo, meio, maisAntigo));
+        Mockito.when(comentarioRepository.findById(anyLong())).thenAnswer(inv -> {
+            Long id = inv.getArgument(0);
+            return Optional.of(new Comentario(id, "Comentário " + id, agora, 50L, 100L));
+        });
+
+        String corpo = mockMvc.perform(get("/comentarios/campanha/50").param("limite", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(2))
+                .andExpect(jsonPath("$.itens[0].id").value(3))
+                .andExpect(jsonPath("$.itens[1].id").value(2))
+                .andExpect(jsonPath("$.proximoCursor").isNotEmpty())
+                .andReturn().getResponse().getContentAsString();
+
+        // O cursor devolvido aponta exatamente para o último item entregue
+        String cursor = objectMapper.readTree(corpo).get("proximoCursor").asText();
+        Mockito.when(comentarioRepository.findPaginaPorCampanha(eq(50L), eq(meio), eq(3)))
+                .thenReturn(List.of(maisAntigo));
+
+        mockMvc.perform(get("/comentarios/campanha/50").param("limite", "2").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itens.length()").value(1))
+                .andExpect(jsonPath("$.itens[0].id").value(1))
+                .andExpect(jsonPath("$.proximoCursor").isEmpty());
+
+        mockMvc.perform(get("/comentarios/campanha/50").param("cursor", "@@@"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("GET /comentarios/busca - Deve devolver os comentários na ordem de relevância do índice")
+    void deveBuscarComentariosPorTexto() throws Exception {
+        Mockito.when(comentarioRepository.search("doação", 20))
+                .thenReturn(List.of(new IndiceTexto.Resultado(7L, 2.5), new IndiceTexto.Resultado(1L, 0.8)));
+        Mockito.when(comentarioRepository.findById(7L))
+                .thenReturn(Optional.of(new Comentario(7L, "Doação feita!", LocalDateTime.now(), 50L, 100L)));
+        Mockito.when(comentarioRepository.findById(1L)).thenReturn(Optional.of(comentarioPadrao));
+
+        mockMvc.perform(get("/comentarios/busca").param("q", "doação"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(7))
+                .andExpect(jsonPath("$[1].id").value(1));
+
+        mockMvc.perform(get("/comentarios/busca").param("q", " "))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,31 @@
+plugins {
+	`java-library`
+}
+
+group = "com.eseg"
+version = "0.0.1-SNAPSHOT"
+description = "Contratos trocados entre os serviços"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	// Mesma versão do Jackson dos serviços (BOM do Spring Boot); api porque os DTOs expõem JsonNode e as anotações
+	api(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+	api("com.fasterxml.jackson.core:jackson-databind")
+	// Smile (JSON binário) nas chamadas entre serviços; com ele no classpath o Spring MVC já aceita e produz o formato
+	api("com.fasterxml.jackson.dataformat:jackson-dataformat-smile")
+	testImplementation("org.junit.jupiter:junit-jupiter")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.withType<Test> {
+	useJUnitPlatform()
+}
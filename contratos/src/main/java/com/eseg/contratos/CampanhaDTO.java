@@ -1,10 +1,16 @@
-package com.eseg.comentarios.dto;
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.CampanhaCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.ArrayList;
 
+@JsonSerialize(using = CampanhaCodec.Escrita.class)
+@JsonDeserialize(using = CampanhaCodec.Leitura.class)
 public class CampanhaDTO {
     private Long id;
     private String titulo;
@@ -1,7 +1,13 @@
-package com.eseg.campanhas.dto;
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.ComentarioCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.time.LocalDateTime;
 
+@JsonSerialize(using = ComentarioCodec.Escrita.class)
+@JsonDeserialize(using = ComentarioCodec.Leitura.class)
 public class ComentarioDTO {
     private Long id;
     private String texto;
@@ -0,0 +1,38 @@
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.DoacaoCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+import java.math.BigDecimal;
+
+// Corpo de POST /campanhas/{id}/doar: valor doado e o pagamento que originou a doação
+@JsonSerialize(using = DoacaoCodec.Escrita.class)
+@JsonDeserialize(using = DoacaoCodec.Leitura.class)
+public class DoacaoDTO {
+    private BigDecimal valor;
+    private Long idPagamento;
+
+    public DoacaoDTO() {}
+
+    public DoacaoDTO(BigDecimal valor, Long idPagamento) {
+        this.valor = valor;
+        this.idPagamento = idPagamento;
+    }
+
+    public BigDecimal getValor() {
+        return valor;
+    }
+
+    public void setValor(BigDecimal valor) {
+        this.valor = valor;
+    }
+
+    public Long getIdPagamento() {
+        return idPagamento;
+    }
+
+    public void setIdPagamento(Long idPagamento) {
+        this.idPagamento = idPagamento;
+    }
+}
@@ -0,0 +1,57 @@
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.EventoCodec;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Aviso de mudança trocado entre os microsserviços (POST /campanhas/eventos, POST /usuarios/eventos)
+@JsonSerialize(using = EventoCodec.Escrita.class)
+@JsonDeserialize(using = EventoCodec.Leitura.class)
+public class EventoDTO {
+    private String tipo;      // CAMPANHA | COMENTARIO | PAGAMENTO | RECOMPENSA | USUARIO
+    private String operacao;  // SALVAR | REMOVER
+    private Long id;
+    private JsonNode dados;   // entidade salva (vazio em REMOVER)
+
+    public EventoDTO() {}
+
+    public EventoDTO(String tipo, String operacao, Long id, JsonNode dados) {
+        this.tipo = tipo;
+        this.operacao = operacao;
+        this.id = id;
+        this.dados = dados;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public void setTipo(String tipo) {
+        this.tipo = tipo;
+    }
+
+    public String getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(String operacao) {
+        this.operacao = operacao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public JsonNode getDados() {
+        return dados;
+    }
+
+    public void setDados(JsonNode dados) {
+        this.dados = dados;
+    }
+}
@@ -0,0 +1,37 @@
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.LoteDoacoesCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
+// Resposta de POST /campanhas/{id}/doar-lote: as primeiras "aceitas" doações do lote entraram na campanha,
+// as demais foram recusadas (a campanha já tinha encerrado); status é o da campanha depois do lote
+@JsonSerialize(using = LoteDoacoesCodec.Escrita.class)
+@JsonDeserialize(using = LoteDoacoesCodec.Leitura.class)
+public class LoteDoacoesDTO {
+    private int aceitas;
+    private int status;
+
+    public LoteDoacoesDTO() {}
+
+    public LoteDoacoesDTO(int aceitas, int status) {
+        this.aceitas = aceitas;
+        this.status = status;
+    }
+
+    public int getAceitas() {
+        return aceitas;
+    }
+
+    public void setAceitas(int aceitas) {
+        this.aceitas = aceitas;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+}
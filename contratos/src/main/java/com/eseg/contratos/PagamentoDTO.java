@@ -1,8 +1,14 @@
-package com.eseg.pagamentos.dto;
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.PagamentoCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+@JsonSerialize(using = PagamentoCodec.Escrita.class)
+@JsonDeserialize(using = PagamentoCodec.Leitura.class)
 public class PagamentoDTO {
     private Long id;
     private BigDecimal valor;
@@ -1,7 +1,13 @@
-package com.eseg.pagamentos.dto;
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.RecompensaCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.math.BigDecimal;
 
+@JsonSerialize(using = RecompensaCodec.Escrita.class)
+@JsonDeserialize(using = RecompensaCodec.Leitura.class)
 public class RecompensaDTO {
     private Long id;
     private String titulo;
@@ -1,8 +1,14 @@
-package com.eseg.comentarios.dto;
+package com.eseg.contratos;
+
+import com.eseg.contratos.json.UsuarioCodec;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 
 import java.util.List;
 import java.util.ArrayList;
 
+@JsonSerialize(using = UsuarioCodec.Escrita.class)
+@JsonDeserialize(using = UsuarioCodec.Leitura.class)
 public class UsuarioDTO {
     private Long id;
     private String nome;
@@ -0,0 +1,66 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.CampanhaDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Campanha vista pelos outros serviços (GET /campanhas?ids=, dados dos eventos CAMPANHA)
+public final class CampanhaCodec {
+
+    private CampanhaCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<CampanhaDTO> {
+        public Escrita() {
+            super(CampanhaDTO.class);
+        }
+
+        @Override
+        protected void campos(CampanhaDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverLong(gen, "id", valor.getId());
+            Campos.escreverTexto(gen, "titulo", valor.getTitulo());
+            Campos.escreverTexto(gen, "descricao", valor.getDescricao());
+            Campos.escreverDecimal(gen, "meta", valor.getMeta());
+            Campos.escreverDecimal(gen, "valorArrecadado", valor.getValorArrecadado());
+            Campos.escreverDataHora(gen, "dataCriacao", valor.getDataCriacao());
+            Campos.escreverDataHora(gen, "dataEncerramento", valor.getDataEncerramento());
+            gen.writeNumberField("status", valor.getStatus());
+            Campos.escreverIds(gen, "idPagamentos", valor.getIdPagamentos());
+            Campos.escreverIds(gen, "idComentarios", valor.getIdComentarios());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<CampanhaDTO> {
+        public Leitura() {
+            super(CampanhaDTO.class);
+        }
+
+        @Override
+        protected CampanhaDTO novo() {
+            return new CampanhaDTO();
+        }
+
+        @Override
+        protected boolean campo(CampanhaDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "titulo" -> alvo.setTitulo(Campos.lerTexto(p, ctxt));
+                case "descricao" -> alvo.setDescricao(Campos.lerTexto(p, ctxt));
+                case "meta" -> alvo.setMeta(Campos.lerDecimal(p, ctxt));
+                case "valorArrecadado" -> alvo.setValorArrecadado(Campos.lerDecimal(p, ctxt));
+                case "dataCriacao" -> alvo.setDataCriacao(Campos.lerDataHora(p, ctxt));
+                case "dataEncerramento" -> alvo.setDataEncerramento(Campos.lerDataHora(p, ctxt));
+                case "status" -> alvo.setStatus(Campos.lerInt(p, ctxt));
+                case "idPagamentos" -> alvo.setIdPagamentos(Campos.lerIds(p, ctxt));
+                case "idComentarios" -> alvo.setIdComentarios(Campos.lerIds(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.eseg.contratos.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+// Leitura e escrita dos tipos de campo dos contratos, no mesmo formato do ObjectMapper do Spring Boot:
+// datas como texto ISO-8601 ("2025-01-10T08:00:00"), BigDecimal como número e null escrito explicitamente.
+// Na leitura aceita as mesmas coerções que o Jackson aceita por padrão (número em texto, data em array).
+final class Campos {
+
+    private static final DateTimeFormatter DATA_HORA = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private Campos() {}
+
+    static void escreverLong(JsonGenerator gen, String nome, Long valor) throws IOException {
+        if (valor == null) {
+            gen.writeNullField(nome);
+        } else {
+            gen.writeNumberField(nome, valor);
+        }
+    }
+
+    static void escreverTexto(JsonGenerator gen, String nome, String valor) throws IOException {
+        gen.writeStringField(nome, valor);
+    }
+
+    static void escreverDecimal(JsonGenerator gen, String nome, BigDecimal valor) throws IOException {
+        if (valor == null) {
+            gen.writeNullField(nome);
+        } else {
+            gen.writeNumberField(nome, valor);
+        }
+    }
+
+    static void escreverDataHora(JsonGenerator gen, String nome, LocalDateTime valor) throws IOException {
+        if (valor == null) {
+            gen.writeNullField(nome);
+        } else {
+            gen.writeStringField(nome, DATA_HORA.format(valor));
+        }
+    }
+
+    static void escreverIds(JsonGenerator gen, String nome, List<Long> ids) throws IOException {
+        gen.writeFieldName(nome);
+        if (ids == null) {
+            gen.writeNull();
+            return;
+        }
+        gen.writeStartArray(ids, ids.size());
+        for (Long id : ids) {
+            if (id == null) {
+                gen.writeNull();
+            } else {
+                gen.writeNumber(id);
+            }
+        }
+        gen.writeEndArray();
+    }
+
+    static Long lerLong(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getLongValue();
+            case VALUE_STRING -> {
+                String texto = p.getText().trim();
+                if (texto.isEmpty()) {
+                    yield null;
+                }
+                try {
+                    yield Long.valueOf(texto);
+                } catch (NumberFormatException e) {
+                    yield (Long) ctxt.handleWeirdStringValue(Long.class, texto, "não é um número inteiro");
+                }
+            }
+            default -> (Long) ctxt.handleUnexpectedToken(Long.class, p);
+        };
+    }
+
+    // int primitivo: null vira 0, como no Jackson com FAIL_ON_NULL_FOR_PRIMITIVES desligado (o padrão)
+    static int lerInt(JsonParser p, DeserializationContext ctxt) throws IOException {
+        Long valor = lerLong(p, ctxt);
+        return valor == null ? 0 : valor.intValue();
+    }
+
+    static String lerTexto(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token.isScalarValue()) {
+            return p.getText();
+        }
+        return (String) ctxt.handleUnexpectedToken(String.class, p);
+    }
+
+    static BigDecimal lerDecimal(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> p.getDecimalValue();
+            case VALUE_STRING -> {
+                String texto = p.getText().trim();
+                if (texto.isEmpty()) {
+                    yield null;
+                }
+                try {
+                    yield new BigDecimal(texto);
+                } catch (NumberFormatException e) {
+                    yield (BigDecimal) ctxt.handleWeirdStringValue(BigDecimal.class, texto, "não é um número");
+                }
+            }
+            default -> (BigDecimal) ctxt.handleUnexpectedToken(BigDecimal.class, p);
+        };
+    }
+
+    static LocalDateTime lerDataHora(JsonParser p, DeserializationContext ctxt) throws IOException {
+        return switch (p.currentToken()) {
+            case VALUE_NULL -> null;
+            case VALUE_STRING -> {
+                String texto = p.getText().trim();
+                if (texto.isEmpty()) {
+                    yield null;
+                }
+                try {
+                    // Instante em UTC ("...Z"): o JavaTimeModule também aceita e converte para a hora em UTC
+                    yield texto.endsWith("Z")
+                            ? LocalDateTime.ofInstant(Instant.parse(texto), ZoneOffset.UTC)
+                            : LocalDateTime.parse(texto, DATA_HORA);
+                } catch (DateTimeParseException e) {
+                    yield (LocalDateTime) ctxt.handleWeirdStringValue(LocalDateTime.class, texto, e.getMessage());
+                }
+            }
+            case START_ARRAY -> lerDataHoraArray(p, ctxt);
+            case VALUE_EMBEDDED_OBJECT -> p.getEmbeddedObject() instanceof LocalDateTime data
+                    ? data
+                    : (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+            default -> (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        };
+    }
+
+    // [ano, mês, dia, hora, minuto(, segundo(, nanos))], o formato com WRITE_DATES_AS_TIMESTAMPS ligado
+    private static LocalDateTime lerDataHoraArray(JsonParser p, DeserializationContext ctxt) throws IOException {
+        int[] partes = new int[7];
+        int n = 0;
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            if (n == partes.length || !p.currentToken().isNumeric()) {
+                return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+            }
+            partes[n++] = p.getIntValue();
+        }
+        if (n < 5) {
+            return (LocalDateTime) ctxt.handleUnexpectedToken(LocalDateTime.class, p);
+        }
+        return LocalDateTime.of(partes[0], partes[1], partes[2], partes[3], partes[4], partes[5], partes[6]);
+    }
+
+    static List<Long> lerIds(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            @SuppressWarnings("unchecked")
+            List<Long> inesperado = (List<Long>) ctxt.handleUnexpectedToken(List.class, p);
+            return inesperado;
+        }
+        List<Long> ids = new ArrayList<>();
+        while (p.nextToken() != JsonToken.END_ARRAY) {
+            ids.add(lerLong(p, ctxt));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,56 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.ComentarioDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Comentário visto pelos outros serviços (GET /comentarios?ids=, dados dos eventos COMENTARIO)
+public final class ComentarioCodec {
+
+    private ComentarioCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<ComentarioDTO> {
+        public Escrita() {
+            super(ComentarioDTO.class);
+        }
+
+        @Override
+        protected void campos(ComentarioDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverLong(gen, "id", valor.getId());
+            Campos.escreverTexto(gen, "texto", valor.getTexto());
+            Campos.escreverDataHora(gen, "dataPostagem", valor.getDataPostagem());
+            Campos.escreverLong(gen, "idCampanha", valor.getIdCampanha());
+            Campos.escreverLong(gen, "idUsuario", valor.getIdUsuario());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<ComentarioDTO> {
+        public Leitura() {
+            super(ComentarioDTO.class);
+        }
+
+        @Override
+        protected ComentarioDTO novo() {
+            return new ComentarioDTO();
+        }
+
+        @Override
+        protected boolean campo(ComentarioDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "texto" -> alvo.setTexto(Campos.lerTexto(p, ctxt));
+                case "dataPostagem" -> alvo.setDataPostagem(Campos.lerDataHora(p, ctxt));
+                case "idCampanha" -> alvo.setIdCampanha(Campos.lerLong(p, ctxt));
+                case "idUsuario" -> alvo.setIdUsuario(Campos.lerLong(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
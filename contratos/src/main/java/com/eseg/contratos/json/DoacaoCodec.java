@@ -0,0 +1,50 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.DoacaoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Corpo de POST /campanhas/{id}/doar e de cada item de /doar-lote
+public final class DoacaoCodec {
+
+    private DoacaoCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<DoacaoDTO> {
+        public Escrita() {
+            super(DoacaoDTO.class);
+        }
+
+        @Override
+        protected void campos(DoacaoDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverDecimal(gen, "valor", valor.getValor());
+            Campos.escreverLong(gen, "idPagamento", valor.getIdPagamento());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<DoacaoDTO> {
+        public Leitura() {
+            super(DoacaoDTO.class);
+        }
+
+        @Override
+        protected DoacaoDTO novo() {
+            return new DoacaoDTO();
+        }
+
+        @Override
+        protected boolean campo(DoacaoDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "valor" -> alvo.setValor(Campos.lerDecimal(p, ctxt));
+                case "idPagamento" -> alvo.setIdPagamento(Campos.lerLong(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.eseg.contratos.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+// Serializador escrito à mão de um contrato: os campos saem na ordem declarada no DTO, direto no gerador,
+// sem o BeanSerializer (nada de introspecção de getters nem de chamadas por reflexão)
+public abstract class EscritaObjeto<T> extends StdSerializer<T> {
+
+    protected EscritaObjeto(Class<T> tipo) {
+        super(tipo);
+    }
+
+    @Override
+    public final void serialize(T valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(valor);
+        campos(valor, gen, provider);
+        gen.writeEndObject();
+    }
+
+    protected abstract void campos(T valor, JsonGenerator gen, SerializerProvider provider) throws IOException;
+}
@@ -0,0 +1,59 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.EventoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// POST /<servico>/eventos. "dados" é a entidade como árvore: vai e volta sem passar por classe nenhuma
+public final class EventoCodec {
+
+    private EventoCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<EventoDTO> {
+        public Escrita() {
+            super(EventoDTO.class);
+        }
+
+        @Override
+        protected void campos(EventoDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverTexto(gen, "tipo", valor.getTipo());
+            Campos.escreverTexto(gen, "operacao", valor.getOperacao());
+            Campos.escreverLong(gen, "id", valor.getId());
+            gen.writeFieldName("dados");
+            if (valor.getDados() == null) {
+                gen.writeNull();
+            } else {
+                valor.getDados().serialize(gen, provider);
+            }
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<EventoDTO> {
+        public Leitura() {
+            super(EventoDTO.class);
+        }
+
+        @Override
+        protected EventoDTO novo() {
+            return new EventoDTO();
+        }
+
+        @Override
+        protected boolean campo(EventoDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "tipo" -> alvo.setTipo(Campos.lerTexto(p, ctxt));
+                case "operacao" -> alvo.setOperacao(Campos.lerTexto(p, ctxt));
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "dados" -> alvo.setDados(ctxt.readTree(p));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.eseg.contratos.json;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+
+// Desserializador escrito à mão de um contrato: percorre os campos do objeto e cada DTO decide, num switch pelo
+// nome, o que fazer com o valor. Campo desconhecido é pulado (como o ObjectMapper do Spring, que não falha neles):
+// um serviço pode mandar a entidade completa (ex.: os dados de um evento) para quem só conhece o contrato.
+public abstract class LeituraObjeto<T> extends StdDeserializer<T> {
+
+    protected LeituraObjeto(Class<T> tipo) {
+        super(tipo);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final T deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+        JsonToken token = p.currentToken();
+        if (token == JsonToken.START_OBJECT) {
+            token = p.nextToken();
+        } else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+            return (T) ctxt.handleUnexpectedToken(handledType(), p);
+        }
+        T alvo = novo();
+        for (; token == JsonToken.FIELD_NAME; token = p.nextToken()) {
+            String nome = p.currentName();
+            p.nextToken();
+            if (!campo(alvo, nome, p, ctxt)) {
+                p.skipChildren();
+            }
+        }
+        return alvo;
+    }
+
+    protected abstract T novo();
+
+    // Lê o valor atual do parser no campo "nome"; false se o campo não faz parte do contrato
+    protected abstract boolean campo(T alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException;
+}
@@ -0,0 +1,50 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.LoteDoacoesDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Resposta de POST /campanhas/{id}/doar-lote
+public final class LoteDoacoesCodec {
+
+    private LoteDoacoesCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<LoteDoacoesDTO> {
+        public Escrita() {
+            super(LoteDoacoesDTO.class);
+        }
+
+        @Override
+        protected void campos(LoteDoacoesDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeNumberField("aceitas", valor.getAceitas());
+            gen.writeNumberField("status", valor.getStatus());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<LoteDoacoesDTO> {
+        public Leitura() {
+            super(LoteDoacoesDTO.class);
+        }
+
+        @Override
+        protected LoteDoacoesDTO novo() {
+            return new LoteDoacoesDTO();
+        }
+
+        @Override
+        protected boolean campo(LoteDoacoesDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "aceitas" -> alvo.setAceitas(Campos.lerInt(p, ctxt));
+                case "status" -> alvo.setStatus(Campos.lerInt(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.PagamentoDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Pagamento visto pelos outros serviços (GET /pagamentos?ids=, dados dos eventos PAGAMENTO)
+public final class PagamentoCodec {
+
+    private PagamentoCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<PagamentoDTO> {
+        public Escrita() {
+            super(PagamentoDTO.class);
+        }
+
+        @Override
+        protected void campos(PagamentoDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverLong(gen, "id", valor.getId());
+            Campos.escreverDecimal(gen, "valor", valor.getValor());
+            Campos.escreverLong(gen, "idCampanha", valor.getIdCampanha());
+            Campos.escreverDataHora(gen, "dataPagamento", valor.getDataPagamento());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<PagamentoDTO> {
+        public Leitura() {
+            super(PagamentoDTO.class);
+        }
+
+        @Override
+        protected PagamentoDTO novo() {
+            return new PagamentoDTO();
+        }
+
+        @Override
+        protected boolean campo(PagamentoDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "valor" -> alvo.setValor(Campos.lerDecimal(p, ctxt));
+                case "idCampanha" -> alvo.setIdCampanha(Campos.lerLong(p, ctxt));
+                case "dataPagamento" -> alvo.setDataPagamento(Campos.lerDataHora(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
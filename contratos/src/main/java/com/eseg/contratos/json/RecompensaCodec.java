@@ -0,0 +1,57 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.RecompensaDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Recompensa vista pelos outros serviços (GET /recompensas?ids=, GET /recompensas/campanha/{id}).
+// "descricao" sai por último, como o Jackson fazia: o campo do DTO se chama Descricao e só o getter define a propriedade
+public final class RecompensaCodec {
+
+    private RecompensaCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<RecompensaDTO> {
+        public Escrita() {
+            super(RecompensaDTO.class);
+        }
+
+        @Override
+        protected void campos(RecompensaDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverLong(gen, "id", valor.getId());
+            Campos.escreverTexto(gen, "titulo", valor.getTitulo());
+            Campos.escreverDecimal(gen, "valorMinimo", valor.getValorMinimo());
+            Campos.escreverLong(gen, "idCampanha", valor.getIdCampanha());
+            Campos.escreverTexto(gen, "descricao", valor.getDescricao());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<RecompensaDTO> {
+        public Leitura() {
+            super(RecompensaDTO.class);
+        }
+
+        @Override
+        protected RecompensaDTO novo() {
+            return new RecompensaDTO();
+        }
+
+        @Override
+        protected boolean campo(RecompensaDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "titulo" -> alvo.setTitulo(Campos.lerTexto(p, ctxt));
+                case "valorMinimo" -> alvo.setValorMinimo(Campos.lerDecimal(p, ctxt));
+                case "idCampanha" -> alvo.setIdCampanha(Campos.lerLong(p, ctxt));
+                case "descricao" -> alvo.setDescricao(Campos.lerTexto(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
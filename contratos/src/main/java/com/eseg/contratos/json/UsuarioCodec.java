@@ -0,0 +1,62 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.UsuarioDTO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+
+import java.io.IOException;
+
+// Usuário visto pelos outros serviços (GET /usuarios/{id}/resumo, dados dos eventos USUARIO)
+public final class UsuarioCodec {
+
+    private UsuarioCodec() {}
+
+    public static final class Escrita extends EscritaObjeto<UsuarioDTO> {
+        public Escrita() {
+            super(UsuarioDTO.class);
+        }
+
+        @Override
+        protected void campos(UsuarioDTO valor, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Campos.escreverLong(gen, "id", valor.getId());
+            Campos.escreverTexto(gen, "nome", valor.getNome());
+            Campos.escreverTexto(gen, "telefone", valor.getTelefone());
+            Campos.escreverTexto(gen, "email", valor.getEmail());
+            Campos.escreverIds(gen, "idCampanhasCriadas", valor.getIdCampanhasCriadas());
+            Campos.escreverIds(gen, "idComentariosFeitos", valor.getIdComentariosFeitos());
+            Campos.escreverIds(gen, "idPagamentosFeitos", valor.getIdPagamentosFeitos());
+            Campos.escreverIds(gen, "idRecompensasRecebidas", valor.getIdRecompensasRecebidas());
+        }
+    }
+
+    public static final class Leitura extends LeituraObjeto<UsuarioDTO> {
+        public Leitura() {
+            super(UsuarioDTO.class);
+        }
+
+        @Override
+        protected UsuarioDTO novo() {
+            return new UsuarioDTO();
+        }
+
+        @Override
+        protected boolean campo(UsuarioDTO alvo, String nome, JsonParser p, DeserializationContext ctxt) throws IOException {
+            switch (nome) {
+                case "id" -> alvo.setId(Campos.lerLong(p, ctxt));
+                case "nome" -> alvo.setNome(Campos.lerTexto(p, ctxt));
+                case "telefone" -> alvo.setTelefone(Campos.lerTexto(p, ctxt));
+                case "email" -> alvo.setEmail(Campos.lerTexto(p, ctxt));
+                case "idCampanhasCriadas" -> alvo.setIdCampanhasCriadas(Campos.lerIds(p, ctxt));
+                case "idComentariosFeitos" -> alvo.setIdComentariosFeitos(Campos.lerIds(p, ctxt));
+                case "idPagamentosFeitos" -> alvo.setIdPagamentosFeitos(Campos.lerIds(p, ctxt));
+                case "idRecompensasRecebidas" -> alvo.setIdRecompensasRecebidas(Campos.lerIds(p, ctxt));
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.eseg.contratos.json;
+
+import com.eseg.contratos.*;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CodecsTests {
+
+    // Todo DTO com codec escrito à mão. Um contrato novo entra aqui junto com o seu codec
+    private static final List<Class<?>> CONTRATOS = List.of(CampanhaDTO.class, ComentarioDTO.class, DoacaoDTO.class,
+            EventoDTO.class, LoteDoacoesDTO.class, PagamentoDTO.class, RecompensaDTO.class, UsuarioDTO.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Cada codec deve escrever exatamente as propriedades do seu DTO")
+    void deveEscreverTodasAsPropriedades() throws Exception {
+        for (Class<?> tipo : CONTRATOS) {
+            Object exemplo = exemplo(tipo);
+            JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(exemplo));
+
+            Set<String> escritos = new TreeSet<>();
+            json.fieldNames().forEachRemaining(escritos::add);
+            Set<String> esperados = new TreeSet<>();
+            for (BeanPropertyDefinition propriedade : propriedades(tipo)) {
+                esperados.add(propriedade.getName());
+            }
+            assertEquals(esperados, escritos, tipo.getSimpleName());
+        }
+    }
+
+    @Test
+    @DisplayName("Cada codec deve ler de volta todas as propriedades que escreveu")
+    void deveLerTodasAsPropriedades() throws Exception {
+        for (Class<?> tipo : CONTRATOS) {
+            Object exemplo = exemplo(tipo);
+            Object lido = objectMapper.readValue(objectMapper.writeValueAsBytes(exemplo), tipo);
+
+            for (BeanPropertyDefinition propriedade : propriedades(tipo)) {
+                assertEquals(propriedade.getGetter().callOn(exemplo), propriedade.getGetter().callOn(lido),
+                        tipo.getSimpleName() + "." + propriedade.getName());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Codecs devem manter os nomes, datas ISO e decimais do JSON e ignorar campos desconhecidos")
+    void deveManterFormatoJsonDosContratos() throws Exception {
+        LocalDateTime criacao = LocalDateTime.of(2025, 3, 1, 10, 30, 15);
+        CampanhaDTO campanha = new CampanhaDTO(7L, "Título", "Descrição", new BigDecimal("5000.00"),
+                new BigDecimal("100.50"), criacao, criacao.plusDays(30), 1);
+        campanha.setIdPagamentos(List.of(20L, 21L));
+
+        String texto = objectMapper.writeValueAsString(campanha);
+        JsonNode json = objectMapper.readTree(texto);
+        assertEquals("2025-03-01T10:30:15", json.get("dataCriacao").asText());
+        assertTrue(texto.contains("\"meta\":5000.00,"), texto);
+        assertEquals(2, json.get("idPagamentos").size());
+
+        CampanhaDTO lida = objectMapper.readValue("{\"id\":7,\"campoNovo\":{\"a\":[1,2]},\"valorArrecadado\":100.50,"
+                + "\"dataEncerramento\":\"2025-03-31T10:30:15\",\"status\":1,\"idComentarios\":[10]}", CampanhaDTO.class);
+        assertEquals(7L, lida.getId());
+        assertEquals(new BigDecimal("100.50"), lida.getValorArrecadado());
+        assertEquals(criacao.plusDays(30), lida.getDataEncerramento());
+        assertEquals(List.of(10L), lida.getIdComentarios());
+
+        RecompensaDTO recompensa = objectMapper.readValue(objectMapper.writeValueAsString(
+                new RecompensaDTO(30L, "Camiseta", "Tamanho único", new BigDecimal("100.00"), 7L)), RecompensaDTO.class);
+        assertEquals("Tamanho único", recompensa.getDescricao());
+        assertEquals(new BigDecimal("100.00"), recompensa.getValorMinimo());
+    }
+
+    @Test
+    @DisplayName("Campos nulos devem ir explícitos no JSON e voltar nulos")
+    void deveManterCamposNulos() throws Exception {
+        for (Class<?> tipo : CONTRATOS) {
+            Object vazio = tipo.getDeclaredConstructor().newInstance();
+            JsonNode json = objectMapper.readTree(objectMapper.writeValueAsBytes(vazio));
+            Object lido = objectMapper.readValue(objectMapper.writeValueAsBytes(vazio), tipo);
+
+            for (BeanPropertyDefinition propriedade : propriedades(tipo)) {
+                assertTrue(json.has(propriedade.getName()), tipo.getSimpleName() + "." + propriedade.getName());
+                // JsonNode nulo volta como NullNode, como no desserializador padrão do Jackson
+                Object valor = propriedade.getGetter().callOn(lido);
+                assertEquals(propriedade.getGetter().callOn(vazio), valor instanceof JsonNode no && no.isNull() ? null : valor,
+                        tipo.getSimpleName() + "." + propriedade.getName());
+            }
+        }
+    }
+
+    // Propriedades do DTO como o Jackson as enxerga (getter + setter), sem passar pelo codec
+    private List<BeanPropertyDefinition> propriedades(Class<?> tipo) {
+        List<BeanPropertyDefinition> propriedades = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(tipo)).findProperties();
+        for (BeanPropertyDefinition propriedade : propriedades) {
+            assertTrue(propriedade.hasGetter() && propriedade.hasSetter(),
+                    tipo.getSimpleName() + "." + propriedade.getName() + " precisa de getter e setter");
+        }
+        return propriedades;
+    }
+
+    // DTO com todas as propriedades preenchidas, cada uma com um valor diferente do padrão
+    private Object exemplo(Class<?> tipo) throws Exception {
+        Object exemplo = tipo.getDeclaredConstructor().newInstance();
+        int i = 0;
+        for (BeanPropertyDefinition propriedade : propriedades(tipo)) {
+            propriedade.getSetter().callOnWith(exemplo, valor(tipo, propriedade, ++i));
+        }
+        return exemplo;
+    }
+
+    private Object valor(Class<?> tipo, BeanPropertyDefinition propriedade, int i) {
+        JavaType tipoPropriedade = propriedade.getPrimaryType();
+        Class<?> classe = tipoPropriedade.getRawClass();
+        if (classe == Long.class || classe == long.class) {
+            return 100L + i;
+        }
+        if (classe == Integer.class || classe == int.class) {
+            return i;
+        }
+        if (classe == String.class) {
+            return "Valor de " + propriedade.getName() + " çã";
+        }
+        if (classe == BigDecimal.class) {
+            return BigDecimal.valueOf(500_000 + i, 2);
+        }
+        if (classe == LocalDateTime.class) {
+            return LocalDateTime.of(2025, 3, 1, 10, 30, 15, 123_000_000).plusDays(i);
+        }
+        if (classe == List.class && tipoPropriedade.getContentType().getRawClass() == Long.class) {
+            return List.of(10L + i, 20L + i);
+        }
+        if (classe == JsonNode.class) {
+            ObjectNode dados = objectMapper.createObjectNode().put("id", i).put("titulo", "Título");
+            dados.putArray("idPagamentos").add(1).add(2);
+            return dados;
+        }
+        return fail("Sem valor de exemplo para " + tipo.getSimpleName() + "." + propriedade.getName()
+                + " (" + tipoPropriedade + "); inclua o tipo aqui e no codec");
+    }
+}
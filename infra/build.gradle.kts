@@ -0,0 +1,34 @@
+plugins {
+	`java-library`
+}
+
+group = "com.eseg"
+version = "0.0.1-SNAPSHOT"
+description = "Infraestrutura comum aos serviços (persistência, HTTP entre serviços, eventos, dinheiro, visões materializadas, busca textual)"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+dependencies {
+	// Mesmas versões dos serviços (BOM do Spring Boot); o Spring fica implementation, cada serviço já traz o seu
+	implementation(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+	testImplementation(platform("org.springframework.boot:spring-boot-dependencies:3.5.7"))
+	// api porque PublicadorEventos recebe e envia EventoDTO
+	api(project(":contratos"))
+	implementation("org.springframework.boot:spring-boot-starter-web")
+	implementation("org.apache.httpcomponents.client5:httpclient5")
+	implementation("io.micrometer:micrometer-core")
+	testImplementation("org.springframework.boot:spring-boot-starter-test")
+	testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+}
+
+tasks.withType<Test> {
+	useJUnitPlatform()
+}
@@ -0,0 +1,171 @@
+package com.eseg.infra.busca;
+
+import java.text.Normalizer;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.regex.Pattern;
+
+// Índice invertido para a busca textual (?q=): termo -> (id -> ocorrências), mantido a cada save/update/delete.
+// Os termos são normalizados sem acento e em minúsculas ("Doação" e "doacao" são o mesmo termo) e as palavras
+// vazias do português ficam de fora. Uma busca só visita as listas dos termos pedidos, começando pela menor,
+// e ordena os resultados por BM25 (frequência do termo x raridade, ajustada pelo tamanho do texto).
+public class IndiceTexto {
+
+    // Resultado de uma busca: id e pontuação (maior = mais relevante)
+    public record Resultado(long id, double pontuacao) {}
+
+    // Parâmetros usuais do BM25: saturação da frequência e peso da normalização pelo tamanho
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Pattern ACENTOS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> PALAVRAS_VAZIAS = Set.of(
+            "a", "o", "as", "os", "e", "de", "da", "do", "das", "dos", "em", "na", "no", "nas", "nos",
+            "um", "uma", "uns", "umas", "para", "pra", "por", "pelo", "pela", "com", "sem", "que", "se",
+            "ao", "aos", "ou", "mas", "como", "mais", "muito", "ja", "foi", "ser", "sao", "eu", "voce", "isso");
+
+    // Termos distintos de um documento indexado (as ocorrências ficam só nas postagens) e tamanho total em termos;
+    // arrays em vez de mapas porque são milhões de documentos em memória
+    private record Documento(String[] termos, int tamanho) {}
+
+    private final ConcurrentHashMap<String, ConcurrentHashMap<Long, Integer>> postagens = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Documento> documentos = new ConcurrentHashMap<>();
+    private final AtomicLong tamanhoTotal = new AtomicLong();
+
+    public void indexar(Long id, String... textos) {
+        indexar(id, () -> true, textos);
+    }
+
+    // Troca os termos do documento pelos do texto atual. Só indexa se o objeto ainda for o vigente
+    // (checado dentro do compute do id): um update ou delete que terminou antes não é desfeito.
+    public void indexar(Long id, BooleanSupplier vigente, String... textos) {
+        documentos.compute(id, (k, antigo) -> {
+            if (!vigente.getAsBoolean()) {
+                return antigo;
+            }
+            Map<String, Integer> frequencias = new HashMap<>();
+            int tamanho = 0;
+            for (String texto : textos) {
+                for (String termo : termos(texto)) {
+                    frequencias.merge(termo, 1, Integer::sum);
+                    tamanho++;
+                }
+            }
+            if (antigo != null) {
+                retirar(id, antigo);
+            }
+            for (Map.Entry<String, Integer> e : frequencias.entrySet()) {
+                postagens.compute(e.getKey(), (termo, ids) -> {
+                    if (ids == null) {
+                        ids = new ConcurrentHashMap<>();
+                    }
+                    ids.put(id, e.getValue());
+                    return ids;
+                });
+            }
+            tamanhoTotal.addAndGet(tamanho);
+            return new Documento(frequencias.keySet().toArray(new String[0]), tamanho);
+        });
+    }
+
+    public void remover(Long id) {
+        documentos.computeIfPresent(id, (k, antigo) -> {
+            retirar(id, antigo);
+            return null;
+        });
+    }
+
+    public void limpar() {
+        documentos.clear();
+        postagens.clear();
+        tamanhoTotal.set(0);
+    }
+
+    // Até limite documentos que contêm todos os termos da consulta, do mais relevante para o menos
+    public List<Resultado> buscar(String consulta, int limite) {
+        Set<String> pedidos = new LinkedHashSet<>(termos(consulta));
+        if (pedidos.isEmpty()) {
+            return List.of();
+        }
+        List<Map<Long, Integer>> listas = new ArrayList<>(pedidos.size());
+        for (String termo : pedidos) {
+            Map<Long, Integer> ids = postagens.get(termo);
+            if (ids == null) {
+                return List.of();
+            }
+            listas.add(ids);
+        }
+        // A menor lista dirige a interseção; as outras só respondem get()
+        listas.sort(Comparator.comparingInt(Map::size));
+
+        int total = Math.max(documentos.size(), 1);
+        double tamanhoMedio = Math.max(1.0, (double) tamanhoTotal.get() / total);
+        double[] idf = new double[listas.size()];
+        for (int i = 0; i < listas.size(); i++) {
+            int n = listas.get(i).size();
+            idf[i] = Math.log(1 + (total - n + 0.5) / (n + 0.5));
+        }
+
+        // Min-heap com os limite melhores: O(candidatos x log limite), sem ordenar todos os candidatos
+        PriorityQueue<Resultado> melhores = new PriorityQueue<>(Comparator.comparingDouble(Resultado::pontuacao)
+                .thenComparing(Resultado::id, Comparator.reverseOrder()));
+        candidatos:
+        for (Map.Entry<Long, Integer> candidato : listas.get(0).entrySet()) {
+            Long id = candidato.getKey();
+            Documento documento = documentos.get(id);
+            if (documento == null) {
+                continue;
+            }
+            double norma = K1 * (1 - B + B * documento.tamanho() / tamanhoMedio);
+            double pontuacao = 0;
+            for (int i = 0; i < listas.size(); i++) {
+                Integer tf = i == 0 ? candidato.getValue() : listas.get(i).get(id);
+                if (tf == null) {
+                    continue candidatos;
+                }
+                pontuacao += idf[i] * tf * (K1 + 1) / (tf + norma);
+            }
+            // Com o heap cheio, só entra quem supera o pior dos melhores (evita alocar para os descartados)
+            if (melhores.size() < limite) {
+                melhores.offer(new Resultado(id, pontuacao));
+            } else if (pontuacao > melhores.peek().pontuacao()) {
+                melhores.poll();
+                melhores.offer(new Resultado(id, pontuacao));
+            }
+        }
+
+        List<Resultado> resultado = new ArrayList<>(melhores);
+        resultado.sort(melhores.comparator().reversed());
+        return resultado;
+    }
+
+    // Tokeniza o texto: sem acentos, minúsculas, quebrado em letras/dígitos, sem palavras vazias
+    public static List<String> termos(String texto) {
+        if (texto == null || texto.isBlank()) {
+            return List.of();
+        }
+        String normalizado = ACENTOS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        List<String> termos = new ArrayList<>();
+        for (String termo : SEPARADORES.split(normalizado)) {
+            if (!termo.isEmpty() && !PALAVRAS_VAZIAS.contains(termo)) {
+                termos.add(termo);
+            }
+        }
+        return termos;
+    }
+
+    private void retirar(Long id, Documento antigo) {
+        for (String termo : antigo.termos()) {
+            postagens.computeIfPresent(termo, (t, ids) -> {
+                ids.remove(id);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+        tamanhoTotal.addAndGet(-antigo.tamanho());
+    }
+}
@@ -0,0 +1,58 @@
+package com.eseg.infra.dinheiro;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+// Dinheiro em centavos (long) para contadores e índices: somar e comparar sem alocar.
+// A API continua em BigDecimal; a conversão é exata nas duas direções para valores com até 2 casas decimais.
+// Dados gravados antes da validação de 2 casas podem ter fração de centavo: índices e agregados usam teto/piso,
+// que arredondam e nunca lançam.
+public final class Centavos {
+
+    private static final BigDecimal MAXIMO = BigDecimal.valueOf(Long.MAX_VALUE, 2);
+    private static final BigDecimal MINIMO = BigDecimal.valueOf(Long.MIN_VALUE, 2);
+
+    private Centavos() {}
+
+    // Valor exato em centavos; mais de 2 casas decimais (ou fora do alcance de um long) lança ArithmeticException
+    public static long de(BigDecimal valor) {
+        return valor.movePointRight(2).longValueExact();
+    }
+
+    // Menor quantidade de centavos que alcança o valor: total >= limite equivale a centavos(total) >= teto(limite).
+    // Fora do alcance de um long fica no extremo (Long.MIN_VALUE ou Long.MAX_VALUE), assim como piso.
+    public static long teto(BigDecimal valor) {
+        return arredondar(valor, RoundingMode.CEILING);
+    }
+
+    // Maior quantidade de centavos contida no valor
+    public static long piso(BigDecimal valor) {
+        return arredondar(valor, RoundingMode.FLOOR);
+    }
+
+    // Volta para a API, sempre com 2 casas
+    public static BigDecimal para(long centavos) {
+        return BigDecimal.valueOf(centavos, 2);
+    }
+
+    // true se o valor cabe em centavos sem arredondar (o que de() aceita)
+    public static boolean exato(BigDecimal valor) {
+        return valor.stripTrailingZeros().scale() <= 2 && cabe(valor);
+    }
+
+    // true se teto/piso do valor não ficam presos nos extremos de um long
+    public static boolean cabe(BigDecimal valor) {
+        return valor.abs().compareTo(MAXIMO) <= 0;
+    }
+
+    // Compara antes de mover a vírgula: expoentes enormes (1E+2147483647) estourariam a escala
+    private static long arredondar(BigDecimal valor, RoundingMode modo) {
+        if (valor.compareTo(MAXIMO) > 0) {
+            return Long.MAX_VALUE;
+        }
+        if (valor.compareTo(MINIMO) < 0) {
+            return Long.MIN_VALUE;
+        }
+        return valor.movePointRight(2).setScale(0, modo).longValueExact();
+    }
+}
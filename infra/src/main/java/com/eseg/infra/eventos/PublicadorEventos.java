@@ -0,0 +1,95 @@
+package com.eseg.infra.eventos;
+
+import com.eseg.contratos.EventoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+// Avisa outros serviços sobre mudanças nas entidades de um serviço, para as visões materializadas deles
+// serem atualizadas sem recalcular tudo a cada leitura. Cada serviço estende com o tipo do evento e os destinos.
+// Envio assíncrono e em ordem (uma thread). Eventos pendentes do mesmo id se fundem: só o estado
+// mais recente é enviado (serializado na hora do envio). Se a fila encher ou o envio falhar o evento é descartado:
+// as visões se corrigem sozinhas na próxima sincronização completa (TTL).
+public class PublicadorEventos<T> implements AutoCloseable {
+
+    private final String tipo;
+    private final List<String> destinos;
+    private final BiConsumer<String, EventoDTO> envio;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolExecutor executor;
+
+    // Último evento ainda não enviado de cada id
+    private final Map<Long, Pendente<T>> pendentes = new ConcurrentHashMap<>();
+
+    // tipo: CAMPANHA, COMENTARIO...; envio recebe o nome do serviço de destino e o evento
+    protected PublicadorEventos(String tipo, List<String> destinos, BiConsumer<String, EventoDTO> envio,
+                                ObjectMapper objectMapper, int filaMax) {
+        this.tipo = tipo;
+        this.destinos = List.copyOf(destinos);
+        this.envio = envio;
+        this.objectMapper = objectMapper;
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(filaMax),
+                Thread.ofPlatform().name("notificador-eventos").daemon().factory());
+    }
+
+    // Entidade criada ou editada
+    protected void salvo(Long id, T entidade) {
+        agendar(id, new Pendente<>("SALVAR", entidade));
+    }
+
+    // Entidade removida
+    public void removido(Long id) {
+        agendar(id, new Pendente<>("REMOVER", null));
+    }
+
+    private void agendar(Long id, Pendente<T> pendente) {
+        if (pendentes.put(id, pendente) != null) {
+            return; // já há um envio agendado para esse id; ele levará o estado mais novo
+        }
+        try {
+            executor.execute(() -> enviar(id));
+        } catch (RejectedExecutionException e) {
+            // Tira o id inteiro, não só o pendente deste agendar: quem trocou o pendente enquanto isso viu a entrada
+            // e não agendou, e o que ele deixou ficaria no mapa sem tarefa, bloqueando os eventos do id para sempre
+            pendentes.remove(id);
+            System.err.println("Fila de eventos cheia, descartando " + tipo + " " + id);
+        }
+    }
+
+    private void enviar(Long id) {
+        Pendente<T> pendente = pendentes.remove(id);
+        if (pendente == null) {
+            return;
+        }
+        try {
+            EventoDTO evento = new EventoDTO(tipo, pendente.operacao(), id,
+                    pendente.entidade() == null ? null : objectMapper.valueToTree(pendente.entidade()));
+            for (String destino : destinos) {
+                try {
+                    envio.accept(destino, evento);
+                } catch (Exception e) {
+                    System.err.println("Falha ao enviar evento " + tipo + " " + id + " para " + destino + ": " + e.getMessage());
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Falha ao montar evento " + tipo + " " + id + ": " + e.getMessage());
+        }
+    }
+
+    // Chamado pelo Spring ao encerrar o contexto (AutoCloseable)
+    @Override
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(2, TimeUnit.SECONDS);
+    }
+
+    private record Pendente<T>(String operacao, T entidade) {}
+}
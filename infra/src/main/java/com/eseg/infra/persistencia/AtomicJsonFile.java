@@ -0,0 +1,157 @@
+package com.eseg.infra.persistencia;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+import java.util.zip.CRC32;
+
+// Persistência crash-safe de um arquivo de dados.
+// Cada escrita vai para <arquivo>.tmp, recebe fsync e só então substitui o arquivo com um rename atômico.
+// A versão anterior é preservada como geração (<arquivo>.1, <arquivo>.2, ...) e toda geração tem um
+// sidecar <arquivo>[.n].crc32 com checksum e tamanho. Na leitura vence a geração mais nova que estiver íntegra.
+public class AtomicJsonFile {
+
+    @FunctionalInterface
+    public interface Leitor<T> {
+        T ler(byte[] conteudo) throws IOException;
+    }
+
+    private static final String SUFIXO_CRC = ".crc32";
+
+    private final Path path;
+    private final int geracoes;
+
+    public AtomicJsonFile(Path path, int geracoes) {
+        this.path = path.toAbsolutePath();
+        this.geracoes = Math.max(1, geracoes);
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    // Devolve o conteúdo da geração íntegra mais nova (vazio se ainda não existe nenhuma).
+    // Falha se existem gerações mas nenhuma é legível, para nunca confundir dados corrompidos com "sem dados".
+    public <T> Optional<T> read(Leitor<T> leitor) throws IOException {
+        boolean encontrouAlguma = false;
+        for (int geracao = 0; geracao < geracoes; geracao++) {
+            Path dados = geracao(geracao);
+            if (!Files.exists(dados)) {
+                continue;
+            }
+            encontrouAlguma = true;
+
+            byte[] conteudo = Files.readAllBytes(dados);
+            if (!checksumConfere(dados, conteudo)) {
+                System.err.println("Checksum inválido, ignorando geração: " + dados);
+                continue;
+            }
+            try {
+                T valor = leitor.ler(conteudo);
+                if (geracao > 0) {
+                    System.err.println("Arquivo " + path + " recuperado a partir da geração " + dados);
+                }
+                return Optional.of(valor);
+            } catch (IOException e) {
+                System.err.println("Geração ilegível, ignorando: " + dados + " (" + e.getMessage() + ")");
+            }
+        }
+        if (encontrouAlguma) {
+            throw new IOException("Nenhuma geração íntegra de " + path);
+        }
+        return Optional.empty();
+    }
+
+    // Grava o conteúdo de forma atômica: tmp + fsync, rotação das gerações e rename para o arquivo final
+    public synchronized void write(byte[] conteudo) throws IOException {
+        Path dir = path.getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        escreverComFsync(tmp, conteudo);
+        escreverComFsync(crc(tmp), linhaChecksum(conteudo).getBytes(StandardCharsets.US_ASCII));
+
+        // Rotaciona: .n-1 -> .n, ..., arquivo atual -> .1
+        for (int geracao = geracoes - 1; geracao >= 1; geracao--) {
+            mover(geracao(geracao - 1), geracao(geracao));
+        }
+        mover(tmp, path);
+        fsyncDiretorio(dir);
+    }
+
+    private Path geracao(int n) {
+        return n == 0 ? path : path.resolveSibling(path.getFileName() + "." + n);
+    }
+
+    private static Path crc(Path dados) {
+        return dados.resolveSibling(dados.getFileName() + SUFIXO_CRC);
+    }
+
+    private static String linhaChecksum(byte[] conteudo) {
+        CRC32 crc = new CRC32();
+        crc.update(conteudo);
+        return String.format("%08x %d%n", crc.getValue(), conteudo.length);
+    }
+
+    private static boolean checksumConfere(Path dados, byte[] conteudo) throws IOException {
+        Path sidecar = crc(dados);
+        if (!Files.exists(sidecar)) {
+            // Arquivo legado (gravado antes dos checksums): aceito se o leitor conseguir interpretá-lo
+            return true;
+        }
+        return Files.readString(sidecar, StandardCharsets.US_ASCII).equals(linhaChecksum(conteudo));
+    }
+
+    // Move os dados e o sidecar de checksum; uma geração que não existe não apaga a de destino
+    private static void mover(Path origem, Path destino) throws IOException {
+        if (!Files.exists(origem)) {
+            return;
+        }
+        moverAtomico(origem, destino);
+        if (Files.exists(crc(origem))) {
+            moverAtomico(crc(origem), crc(destino));
+        } else {
+            Files.deleteIfExists(crc(destino));
+        }
+    }
+
+    private static void moverAtomico(Path origem, Path destino) throws IOException {
+        try {
+            Files.move(origem, destino, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(origem, destino, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void escreverComFsync(Path destino, byte[] conteudo) throws IOException {
+        try (FileChannel channel = FileChannel.open(destino, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(conteudo);
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    // Garante que os renames sobrevivam a uma queda de energia (não suportado em todo sistema operacional)
+    private static void fsyncDiretorio(Path dir) {
+        if (dir == null) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Windows não permite abrir diretórios; o rename já é atômico
+        }
+    }
+}
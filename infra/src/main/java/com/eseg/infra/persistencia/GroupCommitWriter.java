@@ -0,0 +1,153 @@
+package com.eseg.infra.persistencia;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+// Group commit: junta as mutações que chegam dentro de uma janela curta (ou até maxLote itens)
+// e as persiste com uma única escrita durável. Quem chamou só é liberado depois que o lote
+// inteiro foi gravado, então a garantia de durabilidade é a mesma de uma escrita por requisição.
+public class GroupCommitWriter<T> implements Closeable {
+
+    private record Pendente<T>(T item, CompletableFuture<Void> concluido) {}
+
+    private final long janelaNanos;
+    private final int maxLote;
+    private final Consumer<List<T>> persistir;
+    private final Runnable manutencao;
+    private final LinkedBlockingQueue<Pendente<T>> fila = new LinkedBlockingQueue<>();
+    private final Thread worker;
+    private volatile boolean ativo = true;
+
+    // manutencao roda na thread do worker depois de cada lote gravado, com quem esperava já liberado
+    // (ex.: compactar o journal). Uma falha nela só é registrada: o lote já está no disco.
+    public GroupCommitWriter(String nome, Duration janela, int maxLote, Consumer<List<T>> persistir,
+                             Runnable manutencao) {
+        this.janelaNanos = janela.toNanos();
+        this.maxLote = Math.max(1, maxLote);
+        this.persistir = persistir;
+        this.manutencao = manutencao;
+        this.worker = new Thread(this::executar, "group-commit-" + nome);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public GroupCommitWriter(String nome, Duration janela, int maxLote, Consumer<List<T>> persistir) {
+        this(nome, janela, maxLote, persistir, () -> {});
+    }
+
+    // Enfileira o item para o próximo lote; o future completa quando o lote estiver no disco.
+    // Verificação e enfileiramento sob o mesmo lock de close(): nada entra na fila depois que o worker pode ter saído.
+    public CompletableFuture<Void> submit(T item) {
+        CompletableFuture<Void> concluido = new CompletableFuture<>();
+        synchronized (this) {
+            if (!ativo) {
+                throw new IllegalStateException("GroupCommitWriter já foi encerrado");
+            }
+            fila.add(new Pendente<>(item, concluido));
+        }
+        return concluido;
+    }
+
+    // Enfileira e bloqueia até o lote ser persistido, propagando a falha da escrita
+    public void submitAndWait(T item) {
+        try {
+            submit(item).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw new IllegalStateException("Falha ao gravar o lote", e.getCause());
+        }
+    }
+
+    private void executar() {
+        List<Pendente<T>> lote = new ArrayList<>();
+        try {
+            loop(lote);
+        } finally {
+            // Saída inesperada (ou fim normal): ninguém fica esperando um lote que não será gravado
+            synchronized (this) {
+                ativo = false;
+            }
+            fila.drainTo(lote);
+            IllegalStateException encerrado = new IllegalStateException("GroupCommitWriter encerrado antes de gravar o lote");
+            lote.forEach(p -> p.concluido().completeExceptionally(encerrado));
+        }
+    }
+
+    private void loop(List<Pendente<T>> lote) {
+        while (ativo || !fila.isEmpty()) {
+            try {
+                Pendente<T> primeiro = fila.poll(100, TimeUnit.MILLISECONDS);
+                if (primeiro == null) {
+                    continue;
+                }
+                lote.add(primeiro);
+
+                // Espera pela janela configurada (ou até o lote encher) para agrupar escritas concorrentes
+                long prazo = System.nanoTime() + janelaNanos;
+                while (lote.size() < maxLote) {
+                    long restante = prazo - System.nanoTime();
+                    Pendente<T> proximo = restante > 0 ? fila.poll(restante, TimeUnit.NANOSECONDS) : fila.poll();
+                    if (proximo == null) {
+                        break;
+                    }
+                    lote.add(proximo);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                synchronized (this) {
+                    ativo = false;
+                }
+                fila.drainTo(lote);
+            }
+            if (!lote.isEmpty()) {
+                gravar(lote);
+                lote.clear();
+            }
+        }
+    }
+
+    private void gravar(List<Pendente<T>> lote) {
+        try {
+            List<T> itens = new ArrayList<>(lote.size());
+            for (Pendente<T> p : lote) {
+                itens.add(p.item());
+            }
+            persistir.accept(itens);
+            lote.forEach(p -> p.concluido().complete(null));
+        } catch (Throwable e) {
+            // Inclui Error (OutOfMemoryError, StackOverflowError): falha só este lote e o worker segue vivo
+            if (e instanceof Error) {
+                System.err.println("Erro grave ao gravar lote de " + lote.size() + " itens: " + e);
+            }
+            lote.forEach(p -> p.concluido().completeExceptionally(e));
+            return;
+        }
+        try {
+            manutencao.run();
+        } catch (Throwable e) {
+            System.err.println("Erro na manutenção depois do lote: " + e);
+        }
+    }
+
+    // Para de aceitar escritas, grava o que ainda está na fila e encerra a thread
+    @Override
+    public void close() {
+        synchronized (this) {
+            ativo = false;
+        }
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.eseg.infra.persistencia;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+// Log append-only de registros R. Cada linha tem o formato "<crc32 em hex> <registro em JSON>".
+// Uma linha incompleta ou com CRC inválido (queda no meio de uma escrita) encerra o replay
+// e é descartada, junto com tudo o que vier depois dela.
+public class Journal<R> implements Closeable {
+    private final String nome;
+    private final Path path;
+    private final Class<R> tipo;
+    private final ObjectMapper mapper;
+    private FileChannel channel;
+    private long tamanho;
+
+    // nome só aparece nas mensagens (ex.: "pagamentos")
+    public Journal(String nome, Path path, Class<R> tipo, ObjectMapper mapper) {
+        this.nome = nome;
+        this.path = path;
+        this.tipo = tipo;
+        this.mapper = mapper;
+    }
+
+    // Relê o journal aplicando cada registro válido e abre o arquivo para novas escritas.
+    // Retorna a quantidade de registros aplicados.
+    public int replay(Consumer<R> aplicar) throws IOException {
+        long bytesValidos = 0;
+        int registros = 0;
+
+        if (Files.exists(path)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                ByteArrayOutputStream linha = new ByteArrayOutputStream();
+                int b;
+                while ((b = in.read()) != -1) {
+                    if (b != '\n') {
+                        linha.write(b);
+                        continue;
+                    }
+                    R registro = decode(linha.toByteArray());
+                    if (registro == null) {
+                        break;
+                    }
+                    aplicar.accept(registro);
+                    bytesValidos += linha.size() + 1;
+                    registros++;
+                    linha.reset();
+                }
+            }
+        }
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        if (channel.size() > bytesValidos) {
+            System.err.println("Journal de " + nome + " com cauda inválida, descartando " + (channel.size() - bytesValidos) + " bytes");
+            channel.truncate(bytesValidos);
+            channel.force(true);
+        }
+        channel.position(bytesValidos);
+        tamanho = bytesValidos;
+        return registros;
+    }
+
+    // Acrescenta os registros ao fim do log com uma única escrita e um único fsync
+    public synchronized void append(List<R> registros) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        for (R registro : registros) {
+            buffer.write(encode(registro));
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(buffer.toByteArray());
+        try {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            // Uma linha pela metade no meio do log encerraria o replay antes dos registros gravados depois dela
+            channel.truncate(tamanho);
+            channel.position(tamanho);
+            throw e;
+        }
+        tamanho += buffer.size();
+    }
+
+    // Bytes no log desde o último truncamento (o que o próximo startup vai reler)
+    public synchronized long tamanho() {
+        return tamanho;
+    }
+
+    // Descarta todo o conteúdo do log (chamado logo após um snapshot completo)
+    public synchronized void truncate() throws IOException {
+        channel.truncate(0);
+        channel.position(0);
+        channel.force(true);
+        tamanho = 0;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    private byte[] encode(R registro) throws IOException {
+        byte[] json = mapper.writeValueAsBytes(registro);
+        CRC32 crc = new CRC32();
+        crc.update(json);
+        byte[] prefixo = String.format("%08x ", crc.getValue()).getBytes(StandardCharsets.US_ASCII);
+
+        byte[] linha = new byte[prefixo.length + json.length + 1];
+        System.arraycopy(prefixo, 0, linha, 0, prefixo.length);
+        System.arraycopy(json, 0, linha, prefixo.length, json.length);
+        linha[linha.length - 1] = '\n';
+        return linha;
+    }
+
+    private R decode(byte[] linha) {
+        if (linha.length < 10 || linha[8] != ' ') {
+            return null;
+        }
+        try {
+            long esperado = Long.parseLong(new String(linha, 0, 8, StandardCharsets.US_ASCII), 16);
+            CRC32 crc = new CRC32();
+            crc.update(linha, 9, linha.length - 9);
+            if (crc.getValue() != esperado) {
+                return null;
+            }
+            return mapper.readValue(linha, 9, linha.length - 9, tipo);
+        } catch (NumberFormatException | IOException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.eseg.infra.persistencia;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+
+// Estado residente (id -> entidade) de um repositório gravado inteiro a cada lote do group commit.
+// As mudanças são aplicadas pelo worker do group commit, em ordem, e só entram no mapa que as requisições
+// leem depois que o arquivo com elas foi gravado: se a escrita falhar, quem pediu recebe o erro e nenhum
+// leitor chegou a ver a mudança (nem a perde depois de um restart).
+public class MapaDuravel<V> implements Closeable {
+
+    // Nova versão de uma entidade a partir da atual (null = não existe); devolver null remove e devolver a
+    // própria atual deixa tudo como está, sem gravar.
+    // Roda na thread do worker, uma de cada vez, então checar e alterar é atômico. Não pode alterar a
+    // entidade atual: ela continua visível para os leitores até o lote ser gravado.
+    @FunctionalInterface
+    public interface Mudanca<V> {
+        V aplicar(V atual);
+    }
+
+    // Avisada de cada entidade publicada (antiga null = criada, nova null = removida), na thread do worker
+    // e na ordem das mudanças, para os índices secundários acompanharem o mapa
+    @FunctionalInterface
+    public interface Publicacao<V> {
+        void publicado(Long id, V antiga, V nova);
+    }
+
+    private static final class Pedido<V> {
+        final Long id;
+        final Mudanca<V> mudanca;
+        V resultado;
+        RuntimeException erro;
+
+        Pedido(Long id, Mudanca<V> mudanca) {
+            this.id = id;
+            this.mudanca = mudanca;
+        }
+    }
+
+    // Só o worker escreve no mapa depois da carga inicial
+    private final ConcurrentSkipListMap<Long, V> mapa = new ConcurrentSkipListMap<>();
+    private final Consumer<Collection<V>> escrita;
+    private final Publicacao<V> publicacao;
+    private final GroupCommitWriter<Pedido<V>> writer;
+
+    // escrita grava a coleção inteira (em ordem de id) de forma durável e lança se não conseguir
+    public MapaDuravel(String nome, Duration janela, int maxLote, Consumer<Collection<V>> escrita,
+                       Publicacao<V> publicacao) {
+        this.escrita = escrita;
+        this.publicacao = publicacao;
+        this.writer = new GroupCommitWriter<>(nome, janela, maxLote, this::aplicar);
+    }
+
+    public MapaDuravel(String nome, Duration janela, int maxLote, Consumer<Collection<V>> escrita) {
+        this(nome, janela, maxLote, escrita, (id, antiga, nova) -> {});
+    }
+
+    // Carga inicial, antes de qualquer mudança: entra direto, sem gravar nem avisar a publicação
+    public void carregar(Long id, V entidade) {
+        mapa.put(id, entidade);
+    }
+
+    public V get(Long id) {
+        return id == null ? null : mapa.get(id);
+    }
+
+    // Visão somente leitura, em ordem de id; a iteração é fracamente consistente
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(mapa.values());
+    }
+
+    public int size() {
+        return mapa.size();
+    }
+
+    // Maior id existente, 0 se vazio
+    public long ultimoId() {
+        return mapa.isEmpty() ? 0L : mapa.lastKey();
+    }
+
+    // Aplica a mudança no próximo lote e espera a gravação. Devolve a entidade publicada (null se removida);
+    // uma exceção lançada pela mudança volta para quem chamou e não afeta as outras mudanças do lote.
+    public V alterar(Long id, Mudanca<V> mudanca) {
+        Pedido<V> pedido = new Pedido<>(id, mudanca);
+        writer.submitAndWait(pedido);
+        if (pedido.erro != null) {
+            throw pedido.erro;
+        }
+        return pedido.resultado;
+    }
+
+    private void aplicar(List<Pedido<V>> lote) {
+        // Resultado de cada id alterado no lote (null = removido); mudanças seguintes do mesmo id partem dele
+        Map<Long, V> alterados = new HashMap<>();
+        for (Pedido<V> pedido : lote) {
+            V atual = alterados.containsKey(pedido.id) ? alterados.get(pedido.id) : get(pedido.id);
+            try {
+                V resultado = pedido.mudanca.aplicar(atual);
+                if (pedido.id == null) {
+                    // Sem id não há o que gravar: a mudança só decide a resposta (ex.: 404)
+                    if (resultado != null) {
+                        throw new IllegalArgumentException("Entidade sem id");
+                    }
+                    continue;
+                }
+                pedido.resultado = resultado;
+                if (resultado == atual) {
+                    continue;
+                }
+                alterados.put(pedido.id, resultado);
+            } catch (RuntimeException e) {
+                pedido.erro = e;
+            }
+        }
+        if (alterados.isEmpty()) {
+            return;
+        }
+
+        // Lança se a escrita falhar: o lote inteiro falha e nada do que foi aplicado acima é publicado
+        escrita.accept(comAlterados(alterados));
+
+        for (Map.Entry<Long, V> e : alterados.entrySet()) {
+            Long id = e.getKey();
+            V nova = e.getValue();
+            V antiga = nova == null ? mapa.remove(id) : mapa.put(id, nova);
+            if (antiga == null && nova == null) {
+                continue;
+            }
+            try {
+                publicacao.publicado(id, antiga, nova);
+            } catch (RuntimeException ex) {
+                // Já está no disco e no mapa; um índice com defeito não pode fazer a escrita parecer perdida
+                System.err.println("Erro ao atualizar índices do id " + id + ": " + ex);
+            }
+        }
+    }
+
+    // Estado que o arquivo deve ter: o mapa atual com as entidades alteradas trocadas, as removidas fora e as
+    // novas no fim (em ordem de id)
+    private List<V> comAlterados(Map<Long, V> alterados) {
+        List<V> todos = new ArrayList<>(mapa.size() + alterados.size());
+        TreeMap<Long, V> novos = new TreeMap<>(alterados);
+        for (Map.Entry<Long, V> e : mapa.entrySet()) {
+            if (!novos.containsKey(e.getKey())) {
+                todos.add(e.getValue());
+            } else {
+                V nova = novos.remove(e.getKey());
+                if (nova != null) {
+                    todos.add(nova);
+                }
+            }
+        }
+        for (V nova : novos.values()) {
+            if (nova != null) {
+                todos.add(nova);
+            }
+        }
+        return todos;
+    }
+
+    // Para de aceitar mudanças, grava o que ainda está na fila e encerra o worker
+    @Override
+    public void close() {
+        writer.close();
+    }
+}
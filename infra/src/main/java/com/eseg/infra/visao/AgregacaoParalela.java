@@ -0,0 +1,100 @@
+package com.eseg.infra.visao;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+// Executa as buscas remotas de uma agregação em virtual threads.
+// Cada serviço de destino tem um limite próprio de chamadas simultâneas e toda a agregação
+// respeita um prazo único: o que não responder até lá é descartado, como já acontecia com erros.
+// Fica fora do pacote varrido dos serviços: quem usa VisoesMaterializadas a traz com @Import.
+@Service
+public class AgregacaoParalela {
+
+    @Value("${agregacao.max-concorrencia:16}")
+    private int maxConcorrencia;
+
+    @Value("${agregacao.prazo-ms:2000}")
+    private long prazoMs;
+
+    // Máximo de ids por chamada em lote (mantém a URL de GET ?ids= num tamanho seguro)
+    @Value("${agregacao.tamanho-lote:200}")
+    private int tamanhoLote;
+
+    // Limite de chamadas em voo por destino, compartilhado entre todas as requisições
+    private final Map<String, Semaphore> limites = new ConcurrentHashMap<>();
+
+    public Execucao iniciar() {
+        return new Execucao(System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(prazoMs));
+    }
+
+    public class Execucao implements AutoCloseable {
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final long prazoNanos;
+
+        private Execucao(long prazoNanos) {
+            this.prazoNanos = prazoNanos;
+        }
+
+        public <T> Future<T> buscar(String destino, Callable<T> chamada) {
+            Semaphore limite = limites.computeIfAbsent(destino, d -> new Semaphore(maxConcorrencia));
+            return executor.submit(() -> {
+                if (!limite.tryAcquire(restanteNanos(), TimeUnit.NANOSECONDS)) {
+                    return null;
+                }
+                try {
+                    return chamada.call();
+                } finally {
+                    limite.release();
+                }
+            });
+        }
+
+        // Busca os ids em lotes de até tamanhoLote: uma chamada por lote, todas em paralelo.
+        // Na prática uma lista de ids vira uma única requisição.
+        public <T> List<Future<T[]>> buscarEmLotes(String destino, List<Long> ids, Function<List<Long>, T[]> chamada) {
+            if (ids == null || ids.isEmpty()) {
+                return List.of();
+            }
+            List<Future<T[]>> futuros = new ArrayList<>();
+            for (int inicio = 0; inicio < ids.size(); inicio += tamanhoLote) {
+                List<Long> lote = List.copyOf(ids.subList(inicio, Math.min(ids.size(), inicio + tamanhoLote)));
+                futuros.add(buscar(destino, () -> chamada.apply(lote)));
+            }
+            return futuros;
+        }
+
+        // Resultado da busca, ou null se falhou ou estourou o prazo
+        public <T> T aguardar(Future<T> futuro) {
+            try {
+                return futuro.get(Math.max(0, restanteNanos()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } catch (Exception e) {
+                futuro.cancel(true);
+                return null;
+            }
+        }
+
+        private long restanteNanos() {
+            return prazoNanos - System.nanoTime();
+        }
+
+        @Override
+        public void close() {
+            executor.shutdownNow();
+        }
+    }
+}
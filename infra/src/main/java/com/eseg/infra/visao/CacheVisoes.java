@@ -0,0 +1,86 @@
+package com.eseg.infra.visao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+
+// Visões materializadas por id, com no máximo maximo() visões: passando do limite sai a carregada há mais tempo
+// (elas são recarregadas a cada TTL, então a ordem de carga aproxima a de uso). Toda visão que sai, por
+// despejo, troca ou descarte, passa por aoDescartar para limpar os índices reversos.
+public class CacheVisoes<V> {
+
+    private record Entrada<V>(Long id, V visao) {}
+
+    private final ConcurrentHashMap<Long, V> visoes = new ConcurrentHashMap<>();
+    // Ordem de carga; entradas de visões já trocadas ou descartadas são puladas no despejo e limpas de tempos em tempos
+    private final ConcurrentLinkedQueue<Entrada<V>> ordem = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger naFila = new AtomicInteger();
+    private final IntSupplier maximo;
+    private final Consumer<V> aoDescartar;
+
+    // maximo é lido a cada inserção: pode vir de uma propriedade injetada depois do construtor
+    public CacheVisoes(IntSupplier maximo, Consumer<V> aoDescartar) {
+        this.maximo = maximo;
+        this.aoDescartar = aoDescartar;
+    }
+
+    public V get(Long id) {
+        return id == null ? null : visoes.get(id);
+    }
+
+    public void guardar(Long id, V visao) {
+        V antiga = visoes.put(id, visao);
+        if (antiga != null && antiga != visao) {
+            aoDescartar.accept(antiga);
+        }
+        ordem.add(new Entrada<>(id, visao));
+        int limite = Math.max(1, maximo.getAsInt());
+
+        while (visoes.size() > limite) {
+            Entrada<V> maisAntiga = ordem.poll();
+            if (maisAntiga == null) {
+                break;
+            }
+            naFila.decrementAndGet();
+            if (visoes.remove(maisAntiga.id(), maisAntiga.visao())) {
+                aoDescartar.accept(maisAntiga.visao());
+            }
+        }
+        if (naFila.incrementAndGet() > 2 * limite) {
+            limparFila();
+        }
+    }
+
+    public void descartar(Long id) {
+        V visao = id == null ? null : visoes.remove(id);
+        if (visao != null) {
+            aoDescartar.accept(visao);
+        }
+    }
+
+    // Visão somente leitura; a iteração é fracamente consistente
+    public Collection<V> values() {
+        return Collections.unmodifiableCollection(visoes.values());
+    }
+
+    public int size() {
+        return visoes.size();
+    }
+
+    // Recargas a cada TTL deixam na fila entradas de visões trocadas: custo amortizado O(1) por inserção
+    private void limparFila() {
+        Iterator<Entrada<V>> it = ordem.iterator();
+        while (it.hasNext()) {
+            Entrada<V> entrada = it.next();
+            if (visoes.get(entrada.id()) != entrada.visao()) {
+                it.remove();
+                naFila.decrementAndGet();
+            }
+        }
+    }
+}
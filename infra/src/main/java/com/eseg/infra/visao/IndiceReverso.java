@@ -0,0 +1,40 @@
+package com.eseg.infra.visao;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Índice reverso de visões materializadas: id de uma entidade remota -> quem a guarda (partes ou visões).
+// Um evento chega só a quem conhece o id, em vez de percorrer todas as visões em memória.
+// Quem guarda é comparado por identidade: uma visão recarregada registra os seus ids de novo.
+public class IndiceReverso<P> {
+
+    private final ConcurrentHashMap<Long, Set<P>> porId = new ConcurrentHashMap<>();
+
+    // compute nos dois sentidos: um registro nunca se perde num conjunto que acabou de ser retirado por vazio
+    public void registrar(Long id, P dono) {
+        porId.compute(id, (k, donos) -> {
+            Set<P> conjunto = donos != null ? donos : ConcurrentHashMap.newKeySet();
+            conjunto.add(dono);
+            return conjunto;
+        });
+    }
+
+    public void retirar(Long id, P dono) {
+        porId.computeIfPresent(id, (k, donos) -> {
+            donos.remove(dono);
+            return donos.isEmpty() ? null : donos;
+        });
+    }
+
+    // Cópia de quem conhece o id (vazia se ninguém)
+    public List<P> get(Long id) {
+        Set<P> donos = id == null ? null : porId.get(id);
+        return donos == null ? List.of() : new ArrayList<>(donos);
+    }
+
+    public int size() {
+        return porId.size();
+    }
+}
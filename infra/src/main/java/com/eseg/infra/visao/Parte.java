@@ -0,0 +1,106 @@
+package com.eseg.infra.visao;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+// Itens de um tipo por id numa visão materializada, mais os ids que o serviço de origem confirmou não
+// existirem (não são buscados de novo até a próxima sincronização completa ou um evento SALVAR).
+// Todo id conhecido fica registrado no índice reverso do tipo, para os eventos acharem a parte direto.
+public class Parte<T> {
+
+    private final Map<Long, T> itens = new ConcurrentHashMap<>();
+    private final Set<Long> ausentes = ConcurrentHashMap.newKeySet();
+    private final IndiceReverso<Parte<T>> indice;
+    private volatile boolean descartada;
+
+    public Parte(IndiceReverso<Parte<T>> indice) {
+        this.indice = indice;
+    }
+
+    public boolean conhece(Long id) {
+        return itens.containsKey(id) || ausentes.contains(id);
+    }
+
+    public void salvar(Long id, T item) {
+        itens.put(id, item);
+        ausentes.remove(id);
+        registrar(id);
+    }
+
+    // Continua conhecido (como ausente): um SALVAR posterior do mesmo id ainda chega aqui
+    public void remover(Long id) {
+        if (itens.remove(id) != null) {
+            ausentes.add(id);
+        }
+    }
+
+    public List<Long> faltando(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        List<Long> faltando = new ArrayList<>();
+        for (Long id : ids) {
+            if (id != null && !conhece(id)) {
+                faltando.add(id);
+            }
+        }
+        return faltando;
+    }
+
+    public List<T> listar(List<Long> ids) {
+        List<T> lista = new ArrayList<>();
+        if (ids != null) {
+            for (Long id : ids) {
+                T item = id == null ? null : itens.get(id);
+                if (item != null) {
+                    lista.add(item);
+                }
+            }
+        }
+        return lista;
+    }
+
+    // Guarda o resultado de uma busca; um evento mais novo que já tenha chegado prevalece sobre ela.
+    // Com completa, os ids pedidos e não devolvidos viram ausentes; sem (algum lote falhou ou atrasou),
+    // ficam para a próxima leitura tentar de novo.
+    public void receber(Collection<Long> pedidos, Iterable<T> encontrados, Function<T, Long> id, boolean completa) {
+        Set<Long> recebidos = new HashSet<>();
+        for (T item : encontrados) {
+            Long chave = item == null ? null : id.apply(item);
+            if (chave != null) {
+                itens.putIfAbsent(chave, item);
+                recebidos.add(chave);
+                registrar(chave);
+            }
+        }
+        if (completa) {
+            for (Long pedido : pedidos) {
+                if (!recebidos.contains(pedido)) {
+                    ausentes.add(pedido);
+                    registrar(pedido);
+                }
+            }
+        }
+    }
+
+    // Visão fora do cache: tira do índice reverso tudo o que esta parte conhecia
+    public void descartar() {
+        descartada = true;
+        itens.keySet().forEach(id -> indice.retirar(id, this));
+        ausentes.forEach(id -> indice.retirar(id, this));
+    }
+
+    private void registrar(Long id) {
+        indice.registrar(id, this);
+        // Descartada enquanto registrava: não deixa referência para trás no índice
+        if (descartada) {
+            indice.retirar(id, this);
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.eseg.infra.visao;
+
+import com.eseg.contratos.EventoDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Visões materializadas das partes remotas de uma entidade local E (ex.: comentários e pagamentos de uma
+// campanha), em memória e atualizadas pelos eventos dos outros serviços. A leitura só vai à rede para o que
+// ainda não conhece (ids novos nas listas da entidade), quando a visão não existe (cache miss) ou quando passa
+// de ttlMs() sem sincronização completa: eventos perdidos nunca deixam a visão mais velha que isso.
+// Toda busca vai pela AgregacaoParalela: em paralelo, com limite por destino e um prazo único por leitura.
+// Cada evento vai direto às visões afetadas (a da entidade dona e as que já conheciam o id, pelo índice
+// reverso), e o cache guarda no máximo maxVisoes() entidades.
+public abstract class VisoesMaterializadas<E, V extends VisoesMaterializadas.Visao> {
+
+    // Partes remotas de uma entidade, sincronizadas por completo em sincronizadaEm
+    public abstract static class Visao {
+        private final long sincronizadaEm;
+
+        protected Visao(long sincronizadaEm) {
+            this.sincronizadaEm = sincronizadaEm;
+        }
+
+        public long sincronizadaEm() {
+            return sincronizadaEm;
+        }
+    }
+
+    private final AgregacaoParalela agregacaoParalela;
+    private final ObjectMapper objectMapper;
+
+    private final CacheVisoes<V> visoes = new CacheVisoes<>(this::maxVisoes, this::descartada);
+
+    // Uma única carga completa por entidade por vez; leituras simultâneas esperam a mesma carga
+    private final Map<Long, CompletableFuture<V>> carregando = new ConcurrentHashMap<>();
+
+    private final DistributionSummary idade;
+    private final Counter leiturasMemoria;
+    private final Counter leiturasParciais;
+    private final Counter leiturasCompletas;
+
+    // Métricas em <prefixo>.idade, .idade.maxima, .tamanho e .leituras (ex.: "campanhas.visao")
+    protected VisoesMaterializadas(AgregacaoParalela agregacaoParalela, ObjectMapper objectMapper,
+                                   MeterRegistry registry, String prefixo, String descricaoTamanho) {
+        this.agregacaoParalela = agregacaoParalela;
+        this.objectMapper = objectMapper;
+
+        this.idade = DistributionSummary.builder(prefixo + ".idade")
+                .description("Tempo desde a última sincronização completa da visão servida")
+                .baseUnit("milliseconds")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        Gauge.builder(prefixo + ".idade.maxima", this, VisoesMaterializadas::idadeMaxima)
+                .description("Maior idade entre as visões em memória")
+                .baseUnit("milliseconds")
+                .register(registry);
+        Gauge.builder(prefixo + ".tamanho", visoes, CacheVisoes::size)
+                .description(descricaoTamanho)
+                .register(registry);
+        this.leiturasMemoria = leituras(registry, prefixo, "memoria");
+        this.leiturasParciais = leituras(registry, prefixo, "parcial");
+        this.leiturasCompletas = leituras(registry, prefixo, "completa");
+    }
+
+    // Idade máxima de uma visão desde a última sincronização completa; lidos a cada uso, podem vir de
+    // propriedades injetadas depois do construtor
+    protected abstract long ttlMs();
+
+    protected abstract int maxVisoes();
+
+    // Visão vazia da entidade, ainda sem nenhuma parte buscada
+    protected abstract V nova(E entidade, long sincronizadaEm);
+
+    // Pede à busca as partes da entidade (cada uma só busca os ids que a visão ainda não conhece)
+    protected abstract void buscar(V visao, E entidade, Busca busca);
+
+    // Visão que saiu do cache (despejada, recarregada ou descartada): tem de sair também dos índices reversos
+    protected abstract void descartada(V visao);
+
+    // Visão que não serve mais para a entidade mesmo dentro do TTL (ex.: o criador da campanha mudou)
+    protected boolean desatualizada(V visao, E entidade) {
+        return false;
+    }
+
+    // Visão recém-carregada, prestes a entrar no cache
+    protected void carregada(V visao, E entidade) {
+    }
+
+    // 1. Visão da entidade para montar a resposta: da memória, completada com o que falta ou carregada do zero
+    protected V ler(Long id, E entidade) {
+        long agora = System.currentTimeMillis();
+        V visao = visoes.get(id);
+
+        if (visao == null || agora - visao.sincronizadaEm() > ttlMs() || desatualizada(visao, entidade)) {
+            visao = carregar(id, entidade);
+            leiturasCompletas.increment();
+        } else if (completar(visao, entidade)) {
+            leiturasParciais.increment();
+        } else {
+            leiturasMemoria.increment();
+        }
+        idade.record(Math.max(0, System.currentTimeMillis() - visao.sincronizadaEm()));
+        return visao;
+    }
+
+    // 2. Descartar a visão (entidade removida)
+    public void descartar(Long id) {
+        visoes.descartar(id);
+    }
+
+    // Evento sem tipo ou id é recusado; REMOVER = true
+    protected static boolean remover(EventoDTO evento) {
+        if (evento.getTipo() == null || evento.getId() == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Evento sem tipo ou id");
+        }
+        return "REMOVER".equals(evento.getOperacao());
+    }
+
+    protected static ResponseStatusException tipoDesconhecido(EventoDTO evento) {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Tipo de evento desconhecido: " + evento.getTipo());
+    }
+
+    // Aplica um evento de um item: a visão da entidade dona (campoDono nos dados, null = sem dono) recebe o
+    // item, e as outras que já o conheciam (ex.: o item mudou de dono) também são atualizadas
+    protected <T> void aplicarParte(EventoDTO evento, boolean remover, Class<T> tipo, IndiceReverso<Parte<T>> conhecidos,
+                                    Function<V, Parte<T>> parte, String campoDono) {
+        Long id = evento.getId();
+        if (remover) {
+            for (Parte<T> p : conhecidos.get(id)) {
+                p.remover(id);
+            }
+            return;
+        }
+
+        T item = converter(evento, tipo);
+        JsonNode dados = evento.getDados();
+        Long dono = campoDono != null && dados.hasNonNull(campoDono) ? dados.get(campoDono).asLong() : null;
+        V visaoDona = visoes.get(dono);
+        if (visaoDona != null) {
+            parte.apply(visaoDona).salvar(id, item);
+        }
+        for (Parte<T> p : conhecidos.get(id)) {
+            p.salvar(id, item);
+        }
+    }
+
+    protected <T> T converter(EventoDTO evento, Class<T> tipo) {
+        if (evento.getDados() == null || evento.getDados().isNull()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Evento SALVAR sem dados");
+        }
+        try {
+            return objectMapper.treeToValue(evento.getDados(), tipo);
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Dados do evento inválidos: " + e.getOriginalMessage());
+        }
+    }
+
+    private V carregar(Long id, E entidade) {
+        CompletableFuture<V> nova = new CompletableFuture<>();
+        CompletableFuture<V> emAndamento = carregando.putIfAbsent(id, nova);
+        if (emAndamento != null) {
+            return emAndamento.join();
+        }
+        V visao = nova(entidade, System.currentTimeMillis());
+        try {
+            completar(visao, entidade);
+            carregada(visao, entidade);
+            visoes.guardar(id, visao);
+            nova.complete(visao);
+            return visao;
+        } catch (RuntimeException e) {
+            descartada(visao);
+            nova.completeExceptionally(e);
+            throw e;
+        } finally {
+            carregando.remove(id, nova);
+        }
+    }
+
+    // Busca só o que falta, em paralelo. Retorna false se nada faltava.
+    private boolean completar(V visao, E entidade) {
+        try (Busca busca = new Busca()) {
+            buscar(visao, entidade, busca);
+            if (busca.recebimentos.isEmpty()) {
+                return false;
+            }
+            for (Runnable receber : busca.recebimentos) {
+                receber.run();
+            }
+            return true;
+        }
+    }
+
+    // Buscas de uma leitura: todas disparam na hora, em paralelo, e só depois são esperadas (até o prazo da
+    // agregação). O que falhar ou não responder a tempo fica para a próxima leitura tentar de novo.
+    protected final class Busca implements AutoCloseable {
+        private AgregacaoParalela.Execucao execucao;
+        private final List<Runnable> recebimentos = new ArrayList<>();
+
+        // Os ids que a parte ainda não conhece, em lotes (uma chamada por lote)
+        public <T> void parte(String destino, Parte<T> parte, List<Long> ids, Function<T, Long> id,
+                              Function<List<Long>, T[]> chamada) {
+            List<Long> faltando = parte.faltando(ids);
+            if (faltando.isEmpty()) {
+                return;
+            }
+            List<Future<T[]>> lotes = execucao().buscarEmLotes(destino, faltando, chamada);
+            recebimentos.add(() -> preencher(parte, lotes, faltando, id));
+        }
+
+        // Um item avulso (ex.: o criador da campanha); receber só é chamado se ele chegou
+        public <T> void item(String destino, Callable<T> chamada, Consumer<T> receber) {
+            Future<T> futuro = execucao().buscar(destino, chamada);
+            recebimentos.add(() -> {
+                T item = execucao.aguardar(futuro);
+                if (item != null) {
+                    receber.accept(item);
+                }
+            });
+        }
+
+        // Guarda o que chegou; ids pedidos e não devolvidos só viram ausentes se todos os lotes responderam
+        private <T> void preencher(Parte<T> parte, List<Future<T[]>> lotes, List<Long> pedidos, Function<T, Long> id) {
+            boolean todosResponderam = true;
+            List<T> recebidos = new ArrayList<>();
+            for (Future<T[]> lote : lotes) {
+                T[] encontrados = execucao.aguardar(lote);
+                if (encontrados == null) {
+                    todosResponderam = false;
+                    continue;
+                }
+                Collections.addAll(recebidos, encontrados);
+            }
+            parte.receber(pedidos, recebidos, id, todosResponderam);
+        }
+
+        private AgregacaoParalela.Execucao execucao() {
+            if (execucao == null) {
+                execucao = agregacaoParalela.iniciar();
+            }
+            return execucao;
+        }
+
+        @Override
+        public void close() {
+            if (execucao != null) {
+                execucao.close();
+            }
+        }
+    }
+
+    private double idadeMaxima() {
+        long agora = System.currentTimeMillis();
+        long maior = 0;
+        for (V visao : visoes.values()) {
+            maior = Math.max(maior, agora - visao.sincronizadaEm());
+        }
+        return maior;
+    }
+
+    private static Counter leituras(MeterRegistry registry, String prefixo, String resultado) {
+        return Counter.builder(prefixo + ".leituras")
+                .description("Leituras da visão: só memória, completadas em parte ou carregadas do zero")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+}
@@ -0,0 +1,152 @@
+package com.eseg.infra.web;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolConcurrencyPolicy;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.URI;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Cliente HTTP compartilhado para as chamadas entre microsserviços.
+// Pool de conexões keep-alive (sem handshake TCP/TLS a cada chamada), timeouts de conexão,
+// leitura e espera pelo pool, e métricas do pool em /actuator/metrics (httpcomponents.httpclient.pool.*).
+// Cada destino (<nome>.service.url) pode ter seus próprios timeouts: <nome>.service.conexao-ms / leitura-ms.
+@Configuration
+public class ClienteHttpConfig {
+
+    // Serviços conhecidos; as URLs vêm de <nome>.service.url
+    private static final List<String> DESTINOS = List.of("campanha", "comentario", "pagamento", "recompensa", "usuario");
+
+    @Value("${http.cliente.max-conexoes:200}")
+    private int maxConexoes;
+
+    @Value("${http.cliente.max-por-destino:50}")
+    private int maxPorDestino;
+
+    @Value("${http.cliente.conexao-ms:1000}")
+    private long conexaoMs;
+
+    @Value("${http.cliente.leitura-ms:3000}")
+    private long leituraMs;
+
+    @Value("${http.cliente.espera-pool-ms:500}")
+    private long esperaPoolMs;
+
+    @Value("${http.cliente.ocioso-ms:30000}")
+    private long ociosoMs;
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager gerenciadorConexoes(Environment env) {
+        Map<HttpHost, ConnectionConfig> porDestino = new HashMap<>();
+        for (String destino : DESTINOS) {
+            HttpHost host = hostDe(env.getProperty(destino + ".service.url"));
+            if (host != null) {
+                porDestino.put(host, configConexao(env.getProperty(destino + ".service.conexao-ms", Long.class, conexaoMs)));
+            }
+        }
+        ConnectionConfig padrao = configConexao(conexaoMs);
+
+        return PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConexoes)
+                .setMaxConnPerRoute(maxPorDestino)
+                // LAX: sem lock global no pool, cada rota tem o seu (menos contenção com muitas virtual threads)
+                .setPoolConcurrencyPolicy(PoolConcurrencyPolicy.LAX)
+                .setConnectionConfigResolver(rota -> porDestino.getOrDefault(rota.getTargetHost(), padrao))
+                .build();
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient clienteHttp(PoolingHttpClientConnectionManager gerenciadorConexoes) {
+        return HttpClients.custom()
+                .setConnectionManager(gerenciadorConexoes)
+                .setDefaultRequestConfig(configRequisicao(leituraMs))
+                // Fecha conexões ociosas ou expiradas antes que o outro lado (ou um proxy) as derrube
+                .evictIdleConnections(TimeValue.ofMilliseconds(ociosoMs))
+                .evictExpiredConnections()
+                .build();
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder, CloseableHttpClient clienteHttp, Environment env) {
+        Map<HttpHost, RequestConfig> porDestino = new HashMap<>();
+        for (String destino : DESTINOS) {
+            HttpHost host = hostDe(env.getProperty(destino + ".service.url"));
+            if (host != null) {
+                porDestino.put(host, configRequisicao(env.getProperty(destino + ".service.leitura-ms", Long.class, leituraMs)));
+            }
+        }
+
+        HttpComponentsClientHttpRequestFactory fabrica = new HttpComponentsClientHttpRequestFactory(clienteHttp);
+        // Timeout de leitura escolhido pelo destino de cada requisição; destinos desconhecidos usam o padrão do cliente
+        fabrica.setHttpContextFactory((metodo, uri) -> {
+            RequestConfig config = porDestino.get(hostDe(uri.toString()));
+            if (config == null) {
+                return null;
+            }
+            HttpClientContext contexto = HttpClientContext.create();
+            contexto.setRequestConfig(config);
+            return contexto;
+        });
+
+        // Pelo builder o RestTemplate também ganha as métricas http.client.requests do actuator
+        return builder.requestFactory(() -> fabrica).build();
+    }
+
+    @Bean
+    public MeterBinder metricasPoolHttp(PoolingHttpClientConnectionManager gerenciadorConexoes) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(gerenciadorConexoes, "inter-servicos");
+    }
+
+    private ConnectionConfig configConexao(long conexaoMs) {
+        return ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.ofMilliseconds(conexaoMs))
+                .setSocketTimeout(Timeout.ofMilliseconds(leituraMs))
+                // Revalida conexões paradas há mais de 2s antes de reutilizá-las
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build();
+    }
+
+    private RequestConfig configRequisicao(long leituraMs) {
+        return RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.ofMilliseconds(esperaPoolMs))
+                .setResponseTimeout(Timeout.ofMilliseconds(leituraMs))
+                .build();
+    }
+
+    // host:porta (com a porta padrão do esquema) de uma URL, ou null se inválida
+    private static HttpHost hostDe(String url) {
+        if (url == null || url.isBlank()) {
+            return null;
+        }
+        try {
+            URI uri = URI.create(url.trim());
+            if (uri.getHost() == null) {
+                return null;
+            }
+            String esquema = uri.getScheme() == null ? "http" : uri.getScheme().toLowerCase();
+            int porta = uri.getPort() != -1 ? uri.getPort() : ("https".equals(esquema) ? 443 : 80);
+            return new HttpHost(esquema, uri.getHost().toLowerCase(), porta);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.eseg.infra.web;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import java.util.List;
+import java.util.Map;
+
+// Smile (JSON binário do Jackson) nas chamadas entre serviços. Os controllers aceitam e produzem
+// application/x-jackson-smile por negociação de conteúdo; quem não pede (navegador, curl) continua recebendo JSON,
+// porque o conversor JSON vem antes na lista. Do lado cliente, o RestTemplate envia os corpos em Smile e pede
+// Smile com JSON de reserva (q=0,9). http.cliente.smile=false volta ao JSON puro, ex.: durante um deploy em que
+// o destino ainda não aceita Smile.
+@Configuration
+public class FormatoBinarioConfig {
+
+    static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    private static final List<MediaType> ACEITOS = List.of(SMILE, new MediaType(MediaType.APPLICATION_JSON, Map.of("q", "0.9")));
+
+    // Mesma configuração do ObjectMapper JSON do Spring Boot (spring.jackson.*, módulos), só trocando a fábrica;
+    // substitui o conversor Smile padrão do Spring MVC na mesma posição
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter conversorSmile(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "http.cliente.smile", havingValue = "true", matchIfMissing = true)
+    public RestTemplateCustomizer preferirSmile(MappingJackson2SmileHttpMessageConverter conversorSmile) {
+        return restTemplate -> {
+            // Corpo sem Content-Type explícito vai pelo primeiro conversor que sabe escrevê-lo: Smile logo antes do
+            // JSON (String e byte[] continuam com os conversores deles, que vêm antes)
+            List<HttpMessageConverter<?>> conversores = restTemplate.getMessageConverters();
+            conversores.removeIf(c -> c instanceof MappingJackson2SmileHttpMessageConverter);
+            int json = 0;
+            while (json < conversores.size() && !(conversores.get(json) instanceof MappingJackson2HttpMessageConverter)) {
+                json++;
+            }
+            conversores.add(json, conversorSmile);
+
+            // O Accept montado pelo RestTemplate lista todos os tipos legíveis com o mesmo peso e o servidor escolheria
+            // JSON; quando a resposta pode vir em Smile, deixa a preferência explícita
+            restTemplate.getInterceptors().add((requisicao, corpo, execucao) -> {
+                if (requisicao.getHeaders().getAccept().stream().anyMatch(SMILE::equalsTypeAndSubtype)) {
+                    requisicao.getHeaders().setAccept(ACEITOS);
+                }
+                return execucao.execute(requisicao, corpo);
+            });
+        };
+    }
+}
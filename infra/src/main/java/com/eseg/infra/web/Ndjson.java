@@ -0,0 +1,33 @@
+package com.eseg.infra.web;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+// Respostas em NDJSON (um objeto JSON por linha) escritas item a item com um JsonGenerator:
+// nada é acumulado em memória além do buffer do gerador, qualquer que seja o número de itens.
+public final class Ndjson {
+
+    public static final String TIPO = "application/x-ndjson";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TIPO);
+
+    private Ndjson() {}
+
+    public static StreamingResponseBody de(ObjectMapper objectMapper, Iterable<?> itens) {
+        return saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                gerador.setRootValueSeparator(new SerializedString("\n"));
+                boolean algum = false;
+                for (Object item : itens) {
+                    gerador.writeObject(item);
+                    algum = true;
+                }
+                if (algum) {
+                    gerador.writeRaw('\n');
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package com.eseg.infra.busca;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IndiceTextoTests {
+
+    @Test
+    @DisplayName("Deve ignorar acentos, exigir todos os termos e acompanhar update e delete")
+    void deveManterIndiceTextoIncremental() {
+        IndiceTexto indice = new IndiceTexto();
+        indice.indexar(1L, "Que campanha linda, parabéns pela iniciativa");
+        indice.indexar(2L, "Fiz minha doação! Parabéns, parabéns!");
+        indice.indexar(3L, "Doacao recebida");
+
+        // "Parabéns" casa com "parabens"; o comentário com mais ocorrências vem primeiro
+        assertEquals(List.of(2L, 1L), indice.buscar("PARABENS", 10).stream().map(IndiceTexto.Resultado::id).toList());
+        // Todos os termos precisam aparecer
+        assertEquals(List.of(2L), indice.buscar("doação parabéns", 10).stream().map(IndiceTexto.Resultado::id).toList());
+        // Só palavras vazias não casa nada
+        assertEquals(List.of(), indice.buscar("de que para", 10));
+
+        indice.indexar(3L, "Texto editado");
+        indice.remover(2L);
+        assertEquals(List.of(), indice.buscar("doacao", 10));
+        assertEquals(List.of(3L), indice.buscar("editado", 10).stream().map(IndiceTexto.Resultado::id).toList());
+    }
+}
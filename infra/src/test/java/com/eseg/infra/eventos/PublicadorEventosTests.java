@@ -0,0 +1,79 @@
+package com.eseg.infra.eventos;
+
+import com.eseg.contratos.EventoDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PublicadorEventosTests {
+
+    private static final class Publicador extends PublicadorEventos<String> {
+        Publicador(BiConsumer<String, EventoDTO> envio, int filaMax) {
+            super("TESTE", List.of("destino"), envio, new ObjectMapper(), filaMax);
+        }
+
+        void salvar(Long id, String entidade) {
+            salvo(id, entidade);
+        }
+    }
+
+    @Test
+    @DisplayName("Com a fila cheia os eventos são descartados, mas nenhum id fica sem envio depois que ela esvazia")
+    void naoDevePerderIdDepoisDeFilaCheia() throws Exception {
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Set<Long> enviados = ConcurrentHashMap.newKeySet();
+        try (Publicador publicador = new Publicador((destino, evento) -> {
+            if (evento.getId() == 0L) {
+                ocupado.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            enviados.add(evento.getId());
+        }, 1)) {
+            // O worker fica preso no id 0 e a fila (1 vaga) é ocupada pelo id 99: o resto é recusado
+            publicador.salvar(0L, "bloqueia");
+            assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+            publicador.salvar(99L, "ocupa a fila");
+
+            // Várias threads disputam os mesmos ids enquanto a fila está cheia
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                threads.add(Thread.ofPlatform().start(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        publicador.salvar(1L + i % 4, "v" + i);
+                    }
+                }));
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            liberar.countDown();
+
+            // Com a fila livre de novo, um evento novo de cada id tem de ser enviado (um de cada vez: a fila tem 1 vaga)
+            long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            for (long id : List.of(99L, 1L, 2L, 3L, 4L)) {
+                if (id != 99L) {
+                    publicador.salvar(id, "final");
+                }
+                while (!enviados.contains(id) && System.nanoTime() < limite) {
+                    Thread.sleep(10);
+                }
+            }
+            assertTrue(enviados.containsAll(Set.of(0L, 99L, 1L, 2L, 3L, 4L)), enviados.toString());
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.eseg.infra.persistencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GroupCommitWriterTests {
+
+    @Test
+    @DisplayName("Error na escrita falha só o lote e o worker continua gravando os próximos")
+    void deveSobreviverAErrorNaEscrita() throws Exception {
+        AtomicBoolean primeira = new AtomicBoolean(true);
+        List<String> gravados = Collections.synchronizedList(new ArrayList<>());
+        try (GroupCommitWriter<String> writer = new GroupCommitWriter<>("teste", Duration.ZERO, 10, itens -> {
+            if (primeira.getAndSet(false)) {
+                throw new StackOverflowError("simulado");
+            }
+            gravados.addAll(itens);
+        })) {
+            CompletableFuture<Void> falhou = writer.submit("a");
+            ExecutionException erro = assertThrows(ExecutionException.class, () -> falhou.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(StackOverflowError.class, erro.getCause());
+
+            writer.submit("b").get(5, TimeUnit.SECONDS);
+            assertEquals(List.of("b"), gravados);
+        }
+    }
+
+    @Test
+    @DisplayName("Depois de close() novas escritas são recusadas e as já enfileiradas são gravadas")
+    void deveRecusarDepoisDeEncerrado() throws Exception {
+        List<String> gravados = Collections.synchronizedList(new ArrayList<>());
+        GroupCommitWriter<String> writer = new GroupCommitWriter<>("teste", Duration.ofMillis(50), 10, gravados::addAll);
+        CompletableFuture<Void> pendente = writer.submit("a");
+        writer.close();
+
+        pendente.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a"), gravados);
+        assertThrows(IllegalStateException.class, () -> writer.submit("b"));
+    }
+
+    @Test
+    @DisplayName("Falha na manutenção depois do lote não falha quem esperava a gravação")
+    void naoDeveFalharOLotePorCausaDaManutencao() throws Exception {
+        List<String> gravados = Collections.synchronizedList(new ArrayList<>());
+        try (GroupCommitWriter<String> writer = new GroupCommitWriter<>("teste", Duration.ZERO, 10, gravados::addAll,
+                () -> {
+                    throw new IllegalStateException("snapshot falhou");
+                })) {
+            writer.submit("a").get(5, TimeUnit.SECONDS);
+            writer.submitAndWait("b");
+            assertEquals(List.of("a", "b"), gravados);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.eseg.infra.persistencia;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaDuravelTests {
+
+    @Test
+    @DisplayName("Mudança só fica visível depois de gravada; se a escrita falha ninguém a vê")
+    void naoDevePublicarQuandoAEscritaFalha() {
+        AtomicBoolean falhar = new AtomicBoolean(false);
+        List<List<String>> gravados = new ArrayList<>();
+        List<String> publicados = new ArrayList<>();
+        try (MapaDuravel<String> mapa = new MapaDuravel<>("teste", Duration.ZERO, 10, (Collection<String> todos) -> {
+            if (falhar.get()) {
+                throw new IllegalStateException("disco cheio");
+            }
+            gravados.add(List.copyOf(todos));
+        }, (id, antiga, nova) -> publicados.add(id + ":" + antiga + "->" + nova))) {
+            mapa.carregar(1L, "a");
+
+            assertEquals("b", mapa.alterar(2L, atual -> "b"));
+            assertEquals(List.of("a", "b"), gravados.get(0));
+            assertEquals("b", mapa.get(2L));
+
+            falhar.set(true);
+            assertThrows(IllegalStateException.class, () -> mapa.alterar(1L, atual -> atual + "!"));
+            assertThrows(IllegalStateException.class, () -> mapa.alterar(2L, atual -> null));
+            assertEquals("a", mapa.get(1L));
+            assertEquals("b", mapa.get(2L));
+            assertEquals(List.of("2:null->b"), publicados);
+        }
+    }
+
+    @Test
+    @DisplayName("Exceção numa mudança volta só para quem a pediu, sem gravar nada")
+    void deveIsolarErroDaMudanca() {
+        List<List<String>> gravados = new ArrayList<>();
+        try (MapaDuravel<String> mapa = new MapaDuravel<>("teste", Duration.ZERO, 10,
+                todos -> gravados.add(List.copyOf(todos)))) {
+            assertThrows(IllegalArgumentException.class, () -> mapa.alterar(1L, atual -> {
+                if (atual == null) {
+                    throw new IllegalArgumentException("não existe");
+                }
+                return atual;
+            }));
+            assertNull(mapa.get(1L));
+            assertTrue(gravados.isEmpty());
+
+            mapa.alterar(1L, atual -> "a");
+            mapa.alterar(1L, atual -> null);
+            assertNull(mapa.get(1L));
+            assertEquals(List.of(List.of("a"), List.of()), gravados);
+        }
+    }
+
+    @Test
+    @DisplayName("Mudança que devolve a entidade atual não grava nem republica")
+    void naoDeveGravarMudancaSemEfeito() {
+        List<List<String>> gravados = new ArrayList<>();
+        List<String> publicados = new ArrayList<>();
+        try (MapaDuravel<String> mapa = new MapaDuravel<>("teste", Duration.ZERO, 10,
+                (Collection<String> todos) -> gravados.add(List.copyOf(todos)),
+                (id, antiga, nova) -> publicados.add(id + ":" + antiga + "->" + nova))) {
+            mapa.carregar(1L, "a");
+
+            assertEquals("a", mapa.alterar(1L, atual -> atual));
+            assertTrue(gravados.isEmpty());
+            assertTrue(publicados.isEmpty());
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.eseg.infra.visao;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheVisoesTests {
+
+    @Test
+    @DisplayName("Passando do limite sai a visão carregada há mais tempo, e ela some do índice reverso")
+    void deveDespejarAMaisAntigaELimparOIndice() {
+        IndiceReverso<Parte<String>> indice = new IndiceReverso<>();
+        List<Parte<String>> descartadas = new ArrayList<>();
+        CacheVisoes<Parte<String>> cache = new CacheVisoes<>(() -> 2, parte -> {
+            parte.descartar();
+            descartadas.add(parte);
+        });
+
+        Parte<String> a = new Parte<>(indice);
+        Parte<String> b = new Parte<>(indice);
+        Parte<String> c = new Parte<>(indice);
+        a.salvar(10L, "x");
+        b.salvar(10L, "x");
+        c.receber(List.of(10L, 11L), List.of("x"), item -> 10L, true);
+        cache.guardar(1L, a);
+        cache.guardar(2L, b);
+        cache.guardar(3L, c);
+
+        assertEquals(2, cache.size());
+        assertNull(cache.get(1L));
+        assertEquals(List.of(a), descartadas);
+        assertEquals(2, indice.get(10L).size());
+        assertFalse(indice.get(10L).contains(a));
+        // Ausente confirmado também é conhecido: um SALVAR posterior chega à parte
+        assertEquals(List.of(c), indice.get(11L));
+    }
+
+    @Test
+    @DisplayName("Recarregar ou descartar uma visão tira a antiga do índice, e a fila não cresce com as recargas")
+    void deveDescartarVisaoTrocada() {
+        IndiceReverso<Parte<String>> indice = new IndiceReverso<>();
+        CacheVisoes<Parte<String>> cache = new CacheVisoes<>(() -> 3, Parte::descartar);
+
+        Parte<String> ultima = null;
+        for (int i = 0; i < 100; i++) {
+            ultima = new Parte<>(indice);
+            ultima.salvar(20L, "v" + i);
+            cache.guardar(1L, ultima);
+        }
+        assertEquals(List.of(ultima), indice.get(20L));
+        assertSame(ultima, cache.get(1L));
+
+        cache.descartar(1L);
+        assertEquals(0, cache.size());
+        assertEquals(0, indice.size());
+    }
+}
@@ -0,0 +1,43 @@
+plugins {
+	java
+	id("org.springframework.boot") version "3.5.7"
+	id("io.spring.dependency-management") version "1.1.7"
+}
+
+group = "com.eseg"
+version = "0.0.1-SNAPSHOT"
+description = "Os cinco serviços numa JVM só"
+
+java {
+	toolchain {
+		languageVersion = JavaLanguageVersion.of(21)
+	}
+}
+
+repositories {
+	mavenCentral()
+}
+
+val modulos = listOf("campanhas", "comentarios", "pagamentos", "recompensas", "usuarios")
+
+dependencies {
+	implementation(project(":contratos"))
+	modulos.forEach { implementation(project(":$it")) }
+	// Os módulos não exportam o Spring (implementation); o launcher usa o SpringApplicationBuilder e os controllers
+	implementation("org.springframework.boot:spring-boot-starter-web")
+}
+
+// Todo módulo tem um application.properties na raiz do classpath e só o primeiro seria lido:
+// no jar do monolito cada um vai com o próprio nome (monolito-<modulo>.properties)
+tasks.processResources {
+	modulos.forEach { modulo ->
+		from(project(":$modulo").file("src/main/resources/application.properties")) {
+			rename { "monolito-$modulo.properties" }
+		}
+	}
+}
+
+// ./gradlew :monolito:bootRun a partir da raiz usa os mesmos ./data/*.json dos serviços separados
+tasks.named<JavaExec>("bootRun") {
+	workingDir = rootProject.projectDir
+}
@@ -0,0 +1,66 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.cliente.ClienteServicos;
+import com.eseg.comentarios.controller.ComentarioController;
+import com.eseg.contratos.*;
+import com.eseg.pagamentos.controller.PagamentoController;
+import com.eseg.recompensas.controller.RecompensaController;
+import com.eseg.usuarios.controller.UsuarioController;
+import com.eseg.usuarios.model.Usuario;
+
+import java.util.List;
+
+// Chamadas do módulo de campanhas aos outros, na mesma JVM: o modelo devolvido pelo controller de lá é copiado
+// campo a campo para o contrato (nenhum objeto guardado num módulo vaza para outro, como se tivesse vindo por HTTP).
+// Eventos e doações já são contratos e passam direto.
+class ClienteCampanhasLocal implements ClienteServicos {
+
+    private final Modulos modulos;
+
+    ClienteCampanhasLocal(Modulos modulos) {
+        this.modulos = modulos;
+    }
+
+    @Override
+    public ComentarioDTO[] buscarComentarios(List<Long> ids) {
+        return modulos.bean("comentarios", ComentarioController.class).buscarPorIds(ids).stream()
+                .map(c -> new ComentarioDTO(c.getId(), c.getTexto(), c.getDataPostagem(), c.getIdCampanha(), c.getIdUsuario()))
+                .toArray(ComentarioDTO[]::new);
+    }
+
+    @Override
+    public PagamentoDTO[] buscarPagamentos(List<Long> ids) {
+        return modulos.bean("pagamentos", PagamentoController.class).buscarPorIds(ids).stream()
+                .map(p -> new PagamentoDTO(p.getId(), p.getValor(), p.getIdCampanha(), p.getDataPagamento()))
+                .toArray(PagamentoDTO[]::new);
+    }
+
+    @Override
+    public RecompensaDTO[] buscarRecompensas(List<Long> ids) {
+        return modulos.bean("recompensas", RecompensaController.class).buscarPorIds(ids).stream()
+                .map(r -> new RecompensaDTO(r.getId(), r.getTitulo(), r.getDescricao(), r.getValorMinimo(), r.getIdCampanha()))
+                .toArray(RecompensaDTO[]::new);
+    }
+
+    @Override
+    public UsuarioDTO buscarResumoUsuario(Long id) {
+        Usuario usuario = Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).buscarResumo(id));
+        if (usuario == null) {
+            return null;
+        }
+        UsuarioDTO dto = new UsuarioDTO(usuario.getId(), usuario.getNome(), usuario.getTelefone(), usuario.getEmail());
+        dto.setIdCampanhasCriadas(Modulos.copia(usuario.getIdCampanhasCriadas()));
+        dto.setIdComentariosFeitos(Modulos.copia(usuario.getIdComentariosFeitos()));
+        dto.setIdPagamentosFeitos(Modulos.copia(usuario.getIdPagamentosFeitos()));
+        dto.setIdRecompensasRecebidas(Modulos.copia(usuario.getIdRecompensasRecebidas()));
+        return dto;
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        if (!servico.equals("usuarios")) {
+            throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+        Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).receberEvento(evento));
+    }
+}
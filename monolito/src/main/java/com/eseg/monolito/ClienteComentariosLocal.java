@@ -0,0 +1,25 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.controller.CampanhaController;
+import com.eseg.comentarios.cliente.ClienteServicos;
+import com.eseg.contratos.EventoDTO;
+import com.eseg.usuarios.controller.UsuarioController;
+
+// Eventos do módulo de comentários para as visões de campanhas e usuários, na mesma JVM
+class ClienteComentariosLocal implements ClienteServicos {
+
+    private final Modulos modulos;
+
+    ClienteComentariosLocal(Modulos modulos) {
+        this.modulos = modulos;
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).receberEvento(evento));
+            case "usuarios" -> Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).receberEvento(evento));
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.controller.CampanhaController;
+import com.eseg.contratos.*;
+import com.eseg.pagamentos.cliente.ClienteServicos;
+import com.eseg.recompensas.controller.RecompensaController;
+import com.eseg.usuarios.controller.UsuarioController;
+
+import java.util.List;
+
+// Chamadas do módulo de pagamentos aos outros, na mesma JVM: doações para campanhas, faixas de recompensa e
+// atribuição ao usuário. As recusas (ex.: campanha encerrada) chegam como a mesma exceção que o HTTP daria.
+class ClientePagamentosLocal implements ClienteServicos {
+
+    private final Modulos modulos;
+
+    ClientePagamentosLocal(Modulos modulos) {
+        this.modulos = modulos;
+    }
+
+    @Override
+    public void registrarDoacao(Long idCampanha, DoacaoDTO doacao) {
+        Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).doar(idCampanha, doacao));
+    }
+
+    @Override
+    public LoteDoacoesDTO registrarDoacoes(Long idCampanha, List<DoacaoDTO> doacoes) {
+        return Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).doarEmLote(idCampanha, doacoes));
+    }
+
+    @Override
+    public RecompensaDTO[] buscarFaixasRecompensa(Long idCampanha) {
+        return modulos.bean("recompensas", RecompensaController.class).listarFaixasDaCampanha(idCampanha).stream()
+                .map(r -> new RecompensaDTO(r.getId(), r.getTitulo(), r.getDescricao(), r.getValorMinimo(), r.getIdCampanha()))
+                .toArray(RecompensaDTO[]::new);
+    }
+
+    @Override
+    public void atribuirRecompensa(Long idUsuario, Long idRecompensa) {
+        Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).adcionarRecompensa(idUsuario, idRecompensa));
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).receberEvento(evento));
+            case "usuarios" -> Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).receberEvento(evento));
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.controller.CampanhaController;
+import com.eseg.contratos.EventoDTO;
+import com.eseg.recompensas.cliente.ClienteServicos;
+import com.eseg.usuarios.controller.UsuarioController;
+
+// Eventos do módulo de recompensas para as visões de campanhas e usuários, na mesma JVM
+class ClienteRecompensasLocal implements ClienteServicos {
+
+    private final Modulos modulos;
+
+    ClienteRecompensasLocal(Modulos modulos) {
+        this.modulos = modulos;
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).receberEvento(evento));
+            case "usuarios" -> Modulos.corpo(modulos.bean("usuarios", UsuarioController.class).receberEvento(evento));
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+}
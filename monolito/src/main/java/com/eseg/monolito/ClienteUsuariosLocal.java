@@ -0,0 +1,65 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.controller.CampanhaController;
+import com.eseg.campanhas.model.Campanha;
+import com.eseg.comentarios.controller.ComentarioController;
+import com.eseg.contratos.*;
+import com.eseg.pagamentos.controller.PagamentoController;
+import com.eseg.recompensas.controller.RecompensaController;
+import com.eseg.usuarios.cliente.ClienteServicos;
+
+import java.util.List;
+
+// Chamadas do módulo de usuários aos outros, na mesma JVM (modelos copiados campo a campo para os contratos)
+class ClienteUsuariosLocal implements ClienteServicos {
+
+    private final Modulos modulos;
+
+    ClienteUsuariosLocal(Modulos modulos) {
+        this.modulos = modulos;
+    }
+
+    @Override
+    public CampanhaDTO[] buscarCampanhas(List<Long> ids) {
+        return modulos.bean("campanhas", CampanhaController.class).buscarPorIds(ids).stream()
+                .map(ClienteUsuariosLocal::campanha)
+                .toArray(CampanhaDTO[]::new);
+    }
+
+    @Override
+    public ComentarioDTO[] buscarComentarios(List<Long> ids) {
+        return modulos.bean("comentarios", ComentarioController.class).buscarPorIds(ids).stream()
+                .map(c -> new ComentarioDTO(c.getId(), c.getTexto(), c.getDataPostagem(), c.getIdCampanha(), c.getIdUsuario()))
+                .toArray(ComentarioDTO[]::new);
+    }
+
+    @Override
+    public PagamentoDTO[] buscarPagamentos(List<Long> ids) {
+        return modulos.bean("pagamentos", PagamentoController.class).buscarPorIds(ids).stream()
+                .map(p -> new PagamentoDTO(p.getId(), p.getValor(), p.getIdCampanha(), p.getDataPagamento()))
+                .toArray(PagamentoDTO[]::new);
+    }
+
+    @Override
+    public RecompensaDTO[] buscarRecompensas(List<Long> ids) {
+        return modulos.bean("recompensas", RecompensaController.class).buscarPorIds(ids).stream()
+                .map(r -> new RecompensaDTO(r.getId(), r.getTitulo(), r.getDescricao(), r.getValorMinimo(), r.getIdCampanha()))
+                .toArray(RecompensaDTO[]::new);
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        if (!servico.equals("campanhas")) {
+            throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+        Modulos.corpo(modulos.bean("campanhas", CampanhaController.class).receberEvento(evento));
+    }
+
+    private static CampanhaDTO campanha(Campanha c) {
+        CampanhaDTO dto = new CampanhaDTO(c.getId(), c.getTitulo(), c.getDescricao(), c.getMeta(),
+                c.getValorArrecadado(), c.getDataCriacao(), c.getDataEncerramento(), c.getStatus());
+        dto.setIdPagamentos(Modulos.copia(c.getIdPagamentos()));
+        dto.setIdComentarios(Modulos.copia(c.getIdComentarios()));
+        return dto;
+    }
+}
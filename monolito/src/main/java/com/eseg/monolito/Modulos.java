@@ -0,0 +1,43 @@
+package com.eseg.monolito;
+
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Contextos dos módulos que já estão no ar, por nome. Os clientes locais buscam aqui o controller do outro
+// módulo a cada chamada: um módulo que ainda está subindo (ou já parou) falha como um serviço fora do ar,
+// e quem chamou trata do mesmo jeito que trataria um erro de conexão.
+public class Modulos {
+
+    private final Map<String, ConfigurableApplicationContext> contextos = new ConcurrentHashMap<>();
+
+    void registrar(String modulo, ConfigurableApplicationContext contexto) {
+        contextos.put(modulo, contexto);
+    }
+
+    public <T> T bean(String modulo, Class<T> tipo) {
+        ConfigurableApplicationContext contexto = contextos.get(modulo);
+        if (contexto == null || !contexto.isActive()) {
+            throw new IllegalStateException("Módulo " + modulo + " não está no ar");
+        }
+        return contexto.getBean(tipo);
+    }
+
+    // Mesma regra do RestTemplate: resposta fora de 2xx vira exceção para quem chamou
+    public static <T> T corpo(ResponseEntity<T> resposta) {
+        if (!resposta.getStatusCode().is2xxSuccessful()) {
+            throw new ResponseStatusException(resposta.getStatusCode());
+        }
+        return resposta.getBody();
+    }
+
+    // Cópia da lista de ids, para o chamador nunca segurar a lista guardada no outro módulo
+    static List<Long> copia(List<Long> ids) {
+        return ids == null ? null : new ArrayList<>(ids);
+    }
+}
@@ -0,0 +1,70 @@
+package com.eseg.monolito;
+
+import com.eseg.campanhas.CampanhasApplication;
+import com.eseg.comentarios.ComentariosApplication;
+import com.eseg.pagamentos.PagamentosApplication;
+import com.eseg.recompensas.RecompensasApplication;
+import com.eseg.usuarios.UsuariosApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Sobe os cinco módulos numa JVM só. Cada módulo é um contexto Spring filho, com o próprio Tomcat na porta de
+// sempre e a própria configuração (monolito-<modulo>.properties, cópia do application.properties do módulo),
+// e todos enxergam o contexto pai com os ClienteServicos locais: as chamadas entre módulos viram chamadas
+// diretas aos controllers, sem HTTP nem JSON. Os serviços continuam rodando separados como antes; este
+// launcher só troca a implementação dos clientes (servicos.em-processo=true, em monolito.properties).
+//   ./gradlew :monolito:bootRun
+//   java -jar monolito/build/libs/monolito-0.0.1-SNAPSHOT.jar --eventos.fila-max=50000   (argumentos valem para todos)
+// Para mudar algo de um módulo só (ex.: a porta), um ./monolito-<modulo>.properties no diretório de trabalho
+// tem precedência sobre o do jar.
+public class MonolitoApplication {
+
+    // Ordem de subida: os que só respondem primeiro, depois quem chama os outros ao subir (o outbox de
+    // pagamentos já tenta atribuir recompensas). Uma chamada a um módulo que ainda não subiu falha e é repetida.
+    private static final Map<String, Class<?>> MODULOS = new LinkedHashMap<>();
+
+    static {
+        MODULOS.put("recompensas", RecompensasApplication.class);
+        MODULOS.put("comentarios", ComentariosApplication.class);
+        MODULOS.put("usuarios", UsuariosApplication.class);
+        MODULOS.put("campanhas", CampanhasApplication.class);
+        MODULOS.put("pagamentos", PagamentosApplication.class);
+    }
+
+    public static void main(String[] args) {
+        Modulos modulos = new Modulos();
+
+        AnnotationConfigApplicationContext pai = new AnnotationConfigApplicationContext();
+        pai.registerBean(Modulos.class, () -> modulos);
+        pai.registerBean(ClienteCampanhasLocal.class, () -> new ClienteCampanhasLocal(modulos));
+        pai.registerBean(ClienteComentariosLocal.class, () -> new ClienteComentariosLocal(modulos));
+        pai.registerBean(ClientePagamentosLocal.class, () -> new ClientePagamentosLocal(modulos));
+        pai.registerBean(ClienteRecompensasLocal.class, () -> new ClienteRecompensasLocal(modulos));
+        pai.registerBean(ClienteUsuariosLocal.class, () -> new ClienteUsuariosLocal(modulos));
+        pai.refresh();
+        // Os filhos fecham junto com o pai (SIGTERM fecha o pai), então o group commit de cada um termina antes de sair
+        pai.registerShutdownHook();
+
+        long inicio = System.nanoTime();
+        for (Map.Entry<String, Class<?>> modulo : MODULOS.entrySet()) {
+            try {
+                ConfigurableApplicationContext contexto = new SpringApplicationBuilder(modulo.getValue())
+                        .parent(pai)
+                        .properties("spring.config.name=monolito-" + modulo.getKey() + ",monolito")
+                        .run(args);
+                modulos.registrar(modulo.getKey(), contexto);
+                System.out.println(modulo.getKey() + " no ar na porta "
+                        + contexto.getEnvironment().getProperty("local.server.port"));
+            } catch (RuntimeException e) {
+                System.err.println("Falha ao subir " + modulo.getKey() + ": " + e.getMessage());
+                pai.close();
+                System.exit(1);
+            }
+        }
+        System.out.println("Monolito no ar em " + (System.nanoTime() - inicio) / 1_000_000 + " ms");
+    }
+}
@@ -1,18 +1,16 @@
 package com.eseg.pagamentos;
 
+import com.eseg.infra.web.ClienteHttpConfig;
+import com.eseg.infra.web.FormatoBinarioConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.context.annotation.Import;
 
+// Cliente HTTP entre serviços e formato Smile vêm do módulo infra, fora do pacote varrido
 @SpringBootApplication
+@Import({ClienteHttpConfig.class, FormatoBinarioConfig.class})
 public class PagamentosApplication {
 
-  @Bean
-  public RestTemplate restTemplate() {
-    return new RestTemplate();
-  }
-
 	public static void main(String[] args) {
 		SpringApplication.run(PagamentosApplication.class, args);
 	}
@@ -0,0 +1,36 @@
+package com.eseg.pagamentos.cliente;
+
+import com.eseg.contratos.*;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+// Chamadas de pagamentos aos outros serviços. Separados (padrão), cada uma é uma requisição HTTP
+// (ClienteServicosHttp); no modo monolito (servicos.em-processo=true) o launcher fornece uma implementação
+// que chama o controller do outro módulo na mesma JVM, sem rede e sem JSON.
+// As falhas seguem o contrato do RestTemplate: exceção quando o outro lado recusa ou não responde.
+public interface ClienteServicos {
+
+    // POST /campanhas/{id}/doar: soma a doação ao arrecadado (exceção se a campanha não está em progresso)
+    void registrarDoacao(Long idCampanha, DoacaoDTO doacao);
+
+    // POST /campanhas/{id}/doar-lote: aceita as primeiras doações até a campanha encerrar
+    LoteDoacoesDTO registrarDoacoes(Long idCampanha, List<DoacaoDTO> doacoes);
+
+    // GET /recompensas/campanha/{id}: faixas da campanha em ordem crescente de valorMinimo
+    RecompensaDTO[] buscarFaixasRecompensa(Long idCampanha);
+
+    // POST /usuarios/{id}/ganhar-recompensa/{idRecompensa} (idempotente)
+    void atribuirRecompensa(Long idUsuario, Long idRecompensa);
+
+    // POST /{servico}/eventos (servico = campanhas | usuarios)
+    void enviarEvento(String servico, EventoDTO evento);
+
+    // O outro serviço respondeu e recusou o pedido: 4xx pelo HTTP, ou a ResponseStatusException 4xx do controller
+    // na mesma JVM. Qualquer outra falha (timeout, conexão, 5xx) deixa o resultado indeterminado
+    static boolean recusado(Exception e) {
+        return e instanceof HttpClientErrorException
+                || e instanceof ResponseStatusException r && r.getStatusCode().is4xxClientError();
+    }
+}
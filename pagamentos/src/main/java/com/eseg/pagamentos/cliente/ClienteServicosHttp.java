@@ -0,0 +1,60 @@
+package com.eseg.pagamentos.cliente;
+
+import com.eseg.contratos.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+
+// Implementação padrão (serviços separados): HTTP pelo RestTemplate com pool keep-alive do ClienteHttpConfig
+@Component
+@ConditionalOnProperty(name = "servicos.em-processo", havingValue = "false", matchIfMissing = true)
+public class ClienteServicosHttp implements ClienteServicos {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${campanha.service.url:http://localhost:8080}")
+    private String campanhaServiceUrl;
+
+    @Value("${recompensa.service.url:http://localhost:8083}")
+    private String recompensaServiceUrl;
+
+    @Value("${usuario.service.url:http://localhost:8084}")
+    private String usuarioServiceUrl;
+
+
+    public ClienteServicosHttp(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public void registrarDoacao(Long idCampanha, DoacaoDTO doacao) {
+        restTemplate.postForEntity(campanhaServiceUrl + "/campanhas/" + idCampanha + "/doar", doacao, Object.class);
+    }
+
+    @Override
+    public LoteDoacoesDTO registrarDoacoes(Long idCampanha, List<DoacaoDTO> doacoes) {
+        return restTemplate.postForObject(campanhaServiceUrl + "/campanhas/{id}/doar-lote", doacoes, LoteDoacoesDTO.class, idCampanha);
+    }
+
+    @Override
+    public RecompensaDTO[] buscarFaixasRecompensa(Long idCampanha) {
+        return restTemplate.getForObject(recompensaServiceUrl + "/recompensas/campanha/{idCampanha}", RecompensaDTO[].class, idCampanha);
+    }
+
+    @Override
+    public void atribuirRecompensa(Long idUsuario, Long idRecompensa) {
+        restTemplate.postForEntity(usuarioServiceUrl + "/usuarios/" + idUsuario + "/ganhar-recompensa/" + idRecompensa, null, Void.class);
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> restTemplate.postForLocation(campanhaServiceUrl + "/campanhas/eventos", evento);
+            case "usuarios" -> restTemplate.postForLocation(usuarioServiceUrl + "/usuarios/eventos", evento);
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+}
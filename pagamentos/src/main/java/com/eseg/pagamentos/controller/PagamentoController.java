@@ -1,39 +1,63 @@
 package com.eseg.pagamentos.controller;
 
-import com.eseg.pagamentos.dto.RecompensaDTO;
+import com.eseg.contratos.DoacaoDTO;
+import com.eseg.infra.web.Ndjson;
+import com.eseg.pagamentos.cliente.ClienteServicos;
+import com.eseg.pagamentos.dto.ResultadoLoteDTO;
 import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.EstatisticasPagamentos;
+import com.eseg.pagamentos.service.IngestaoLote;
 import com.eseg.pagamentos.service.PagamentoService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional; 
-import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 
 @RestController
 @RequestMapping("/pagamentos")
 @CrossOrigin("*")
 public class PagamentoController {
     private final PagamentoService pagamentoService;
-    private final RestTemplate restTemplate;
+    private final IngestaoLote ingestaoLote;
+    private final ClienteServicos clienteServicos;
+    private final ObjectMapper objectMapper;
 
-    @Value("${campanha.service.url:http://localhost:8080}")
-    private String campanhaServiceUrl;
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
 
-    @Value("${recompensa.service.url:http://localhost:8083}")
-    private String recompensaServiceUrl;
-    
-    @Value("${usuario.service.url:http://localhost:8084}")
-    private String usuarioServiceUrl;
+    // Criações em andamento por Idempotency-Key, para a repetição simultânea esperar em vez de duplicar
+    private final Map<String, CompletableFuture<ResponseEntity<?>>> emAndamento = new ConcurrentHashMap<>();
 
+    // Maior quantidade de registros aceita em um POST /pagamentos/bulk
+    @Value("${pagamentos.bulk.max-registros:100000}")
+    private int maxRegistrosLote;
 
-    public PagamentoController(PagamentoService pagamentoService, RestTemplate restTemplate) {
+    public PagamentoController(PagamentoService pagamentoService, IngestaoLote ingestaoLote,
+                               ClienteServicos clienteServicos, ObjectMapper objectMapper) {
         this.pagamentoService = pagamentoService;
-        this.restTemplate = restTemplate;
+        this.ingestaoLote = ingestaoLote;
+        this.clienteServicos = clienteServicos;
+        this.objectMapper = objectMapper;
     }
 
     // Listar todos os pagamentos
@@ -42,6 +66,43 @@ public class PagamentoController {
         return pagamentoService.listarTodos();
     }
 
+    // Exportar todos os pagamentos em streaming (Accept: application/x-ndjson): um pagamento por linha, direto da memória
+    // para a resposta, sem montar a lista; o heap não cresce com o volume exportado
+    @GetMapping(produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.MEDIA_TYPE)
+                .body(Ndjson.de(objectMapper, pagamentoService.percorrerTodos()));
+    }
+
+    // Buscar vários pagamentos de uma vez: GET /pagamentos?ids=1,2,3
+    @GetMapping(params = "ids")
+    public List<Pagamento> buscarPorIds(@RequestParam List<Long> ids) {
+        return pagamentoService.buscarPorIds(ids);
+    }
+
+    // Painel da campanha: total arrecadado, quantidade de pagamentos e doadores distintos
+    @GetMapping("/campanha/{idCampanha}/estatisticas")
+    public EstatisticasPagamentos.Resumo estatisticas(@PathVariable Long idCampanha) {
+        return pagamentoService.resumoDaCampanha(idCampanha);
+    }
+
+    // Maiores doadores da campanha: GET /pagamentos/campanha/{id}/top-doadores?n=10
+    @GetMapping("/campanha/{idCampanha}/top-doadores")
+    public List<EstatisticasPagamentos.Doador> topDoadores(@PathVariable Long idCampanha,
+                                                           @RequestParam(required = false) Integer n) {
+        return pagamentoService.topDoadores(idCampanha, n);
+    }
+
+    // Total doado por período: GET /pagamentos/campanha/{id}/serie?intervalo=dia|hora&de=...&ate=... (ISO 8601)
+    @GetMapping("/campanha/{idCampanha}/serie")
+    public List<EstatisticasPagamentos.Balde> serie(@PathVariable Long idCampanha,
+                                                    @RequestParam(required = false) String intervalo,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime de,
+                                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime ate) {
+        return pagamentoService.serieDaCampanha(idCampanha, intervalo, de, ate);
+    }
+
     // Buscar pagamento por ID
     @GetMapping("/{id}")
     public ResponseEntity<Pagamento> buscarPorId(@PathVariable Long id) {
@@ -50,54 +111,152 @@ public class PagamentoController {
     }
 
     // Criar novo pagamento
+    // Com o header Idempotency-Key, repetir a mesma doação (ex.: retry após timeout) devolve o pagamento
+    // original sem chamar a campanha de novo; pedidos simultâneos com a mesma chave esperam o primeiro.
+    // A chave é reservada com o id do pagamento antes da chamada à campanha: se a criação não terminou, a
+    // repetição reenvia o mesmo id e a campanha não soma a doação outra vez.
     @PostMapping
-    public ResponseEntity<?> criar(@RequestBody Pagamento novoPagamento) {
-        try {
+    public ResponseEntity<?> criar(@RequestBody Pagamento novoPagamento,
+                                   @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String chave) {
+        if (chave == null || chave.isBlank()) {
+            return processar(novoPagamento, null);
+        }
+        if (chave.length() > 255) {
+            return ResponseEntity.badRequest().body(IDEMPOTENCY_KEY + " deve ter no máximo 255 caracteres");
+        }
+
+        CompletableFuture<ResponseEntity<?>> minha = new CompletableFuture<>();
+        CompletableFuture<ResponseEntity<?>> outra = emAndamento.putIfAbsent(chave, minha);
+        if (outra != null) {
             try {
-                restTemplate.postForEntity(
-                    campanhaServiceUrl + "/campanhas/" + novoPagamento.getIdCampanha() + "/doar",
-                    novoPagamento.getValor(),
-                    Object.class
-                );
+                return outra.join();
+            } catch (CompletionException e) {
+                return ResponseEntity.internalServerError().body("Erro interno: " + e.getCause().getMessage());
+            }
+        }
+        try {
+            ResponseEntity<?> resposta = pagamentoService.buscarPorChaveIdempotencia(chave)
+                    .<ResponseEntity<?>>map(original -> repetir(original, novoPagamento))
+                    .orElseGet(() -> processarComChave(novoPagamento, chave));
+            minha.complete(resposta);
+            return resposta;
+        } catch (RuntimeException e) {
+            minha.completeExceptionally(e);
+            throw e;
+        } finally {
+            emAndamento.remove(chave, minha);
+        }
+    }
+
+    // Repetição de uma chave já usada: mesma resposta da criação, ou 422 se a chave veio com outra doação
+    private ResponseEntity<?> repetir(Pagamento original, Pagamento pedido) {
+        if (!mesmaDoacao(original, pedido)) {
+            return ResponseEntity.unprocessableEntity().body(IDEMPOTENCY_KEY + " já usada em outro pagamento");
+        }
+        return ResponseEntity.status(HttpStatus.CREATED).header("Idempotent-Replayed", "true").body(original);
+    }
+
+    // Chave sem pagamento gravado: reusa o id de uma reserva pendente (a campanha pode já ter somado a doação
+    // com ele) ou reserva um novo, durável antes de chamar a campanha
+    private ResponseEntity<?> processarComChave(Pagamento novoPagamento, String chave) {
+        try {
+            Optional<Pagamento> pendente = pagamentoService.buscarPendentePorChaveIdempotencia(chave);
+            if (pendente.isPresent() && !mesmaDoacao(pendente.get(), novoPagamento)) {
+                return ResponseEntity.unprocessableEntity().body(IDEMPOTENCY_KEY + " já usada em outro pagamento");
+            }
+            novoPagamento.setId(pendente.isPresent()
+                    ? pendente.get().getId()
+                    : pagamentoService.reservarId(chave, novoPagamento));
         } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                .body("Não foi possível processar a doação na campanha. Verifique se ela esta ativa");
+            return ResponseEntity.internalServerError().body("Erro interno: " + e.getMessage());
         }
+        return processar(novoPagamento, chave);
+    }
 
-        Pagamento criado = pagamentoService.criarPagamento(novoPagamento);
+    private static boolean mesmaDoacao(Pagamento original, Pagamento pedido) {
+        return Objects.equals(original.getIdCampanha(), pedido.getIdCampanha())
+                && Objects.equals(original.getIdUsuario(), pedido.getIdUsuario())
+                && original.getValor() != null && pedido.getValor() != null
+                && original.getValor().compareTo(pedido.getValor()) == 0;
+    }
 
+    private ResponseEntity<?> processar(Pagamento novoPagamento, String chave) {
         try {
-            RecompensaDTO[] todasRecompensas = restTemplate.getForObject(
-                recompensaServiceUrl + "/recompensas",
-                RecompensaDTO[].class
-                );
-
-            if (todasRecompensas != null) {
-                Arrays.stream(todasRecompensas)
-                    .filter(r -> r.getIdCampanha().equals(novoPagamento.getIdCampanha()))
-                    .filter(r -> novoPagamento.getValor().compareTo(r.getValorMinimo()) >= 0)
-                    .max((r1, r2) -> r1.getValorMinimo().compareTo(r2.getValorMinimo()))
-                    .ifPresent(recompensaGanha -> {
-                        Long idUsuario = novoPagamento.getIdUsuario();
-
-                        restTemplate.postForEntity(
-                            usuarioServiceUrl + "/usuarios/" + idUsuario + "/ganhar-recompensa/" + recompensaGanha.getId(),
-                            null,
-                            Void.class
-                        );
-                        System.out.println("Recompensa " + recompensaGanha.getTitulo() + " atribuida!");
-                    });
+            // O id é reservado antes para que a campanha já registre o pagamento em idPagamentos
+            // (com Idempotency-Key, processarComChave já o reservou)
+            if (chave == null) {
+                novoPagamento.setId(pagamentoService.reservarId());
             }
+            try {
+                clienteServicos.registrarDoacao(novoPagamento.getIdCampanha(),
+                    new DoacaoDTO(novoPagamento.getValor(), novoPagamento.getId()));
         } catch (Exception e) {
-            System.err.println("Erro ao processar recompensa: " + e.getMessage());
+            if (ClienteServicos.recusado(e)) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Não foi possível processar a doação na campanha. Verifique se ela esta ativa");
+            }
+            // Sem resposta da campanha (timeout, 5xx): ela pode ter somado a doação
+            System.err.println("Resultado indeterminado da doação " + novoPagamento.getId() + " na campanha "
+                    + novoPagamento.getIdCampanha() + ": " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_GATEWAY).body(chave != null
+                    ? "INDETERMINADO: a campanha não respondeu; repita com a mesma " + IDEMPOTENCY_KEY
+                    : "INDETERMINADO: a campanha não respondeu e pode ter registrado a doação " + novoPagamento.getId());
         }
 
+        // Responde assim que o pagamento está durável; a recompensa sai do outbox em segundo plano
+        Pagamento criado = pagamentoService.criarPagamento(novoPagamento, chave);
+
         return ResponseEntity.status(HttpStatus.CREATED).body(criado);
 
       } catch (Exception e) {
           return ResponseEntity.internalServerError().body("Erro interno: " + e.getMessage());
       }
     }
+
+    // Criar pagamentos em massa (arquivo de liquidação do gateway): um array JSON ou NDJSON (um pagamento por linha).
+    // Uma chamada à campanha e uma gravação em lote por campanha, em vez de uma de cada por pagamento.
+    // A resposta é NDJSON com um ResultadoLoteDTO por registro, escrito à medida que cada campanha termina.
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, Ndjson.TIPO}, produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> criarEmLote(InputStream corpo) {
+        List<Pagamento> registros = lerLote(corpo);
+        StreamingResponseBody resposta = saida -> {
+            try (JsonGenerator gerador = objectMapper.getFactory().createGenerator(saida)) {
+                // Sem separador automático: cada linha termina com \n e o grupo é enviado (flush) ao terminar
+                gerador.setRootValueSeparator(null);
+                ingestaoLote.processar(registros, resultados -> {
+                    try {
+                        for (ResultadoLoteDTO resultado : resultados) {
+                            gerador.writeObject(resultado);
+                            gerador.writeRaw('\n');
+                        }
+                        gerador.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(Ndjson.MEDIA_TYPE).body(resposta);
+    }
+
+    // Lê o lote inteiro antes de começar a resposta: um erro de formato vira 400 sem nenhum pagamento criado.
+    // O MappingIterator percorre tanto os elementos de um array na raiz quanto os objetos de um NDJSON.
+    private List<Pagamento> lerLote(InputStream corpo) {
+        List<Pagamento> registros = new ArrayList<>();
+        try (MappingIterator<Pagamento> it = objectMapper.readerFor(Pagamento.class).readValues(corpo)) {
+            while (it.hasNextValue()) {
+                if (registros.size() >= maxRegistrosLote) {
+                    throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                            "O lote deve ter no máximo " + maxRegistrosLote + " registros");
+                }
+                registros.add(it.nextValue());
+            }
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Lote inválido: " + e.getMessage());
+        }
+        return registros;
+    }
+
     // Atualizar pagamento existente
     @PutMapping("/{id}")
     public ResponseEntity<Pagamento> atualizar(@PathVariable Long id, @RequestBody Pagamento atualizacao) {
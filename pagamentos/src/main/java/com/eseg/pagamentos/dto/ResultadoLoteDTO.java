@@ -0,0 +1,60 @@
+package com.eseg.pagamentos.dto;
+
+// Uma linha da resposta de POST /pagamentos/bulk: o que aconteceu com o registro na posição "indice" da entrada
+public class ResultadoLoteDTO {
+    private int indice;
+    private String status;  // CRIADO | RECUSADO | INVALIDO | INDETERMINADO
+    private Long id;        // id do pagamento criado (em INDETERMINADO, o id com que a campanha pode tê-lo registrado)
+    private Long idCampanha;
+    private String erro;
+
+    public ResultadoLoteDTO() {}
+
+    public ResultadoLoteDTO(int indice, String status, Long id, Long idCampanha, String erro) {
+        this.indice = indice;
+        this.status = status;
+        this.id = id;
+        this.idCampanha = idCampanha;
+        this.erro = erro;
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public void setIndice(int indice) {
+        this.indice = indice;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getIdCampanha() {
+        return idCampanha;
+    }
+
+    public void setIdCampanha(Long idCampanha) {
+        this.idCampanha = idCampanha;
+    }
+
+    public String getErro() {
+        return erro;
+    }
+
+    public void setErro(String erro) {
+        this.erro = erro;
+    }
+}
@@ -0,0 +1,79 @@
+package com.eseg.pagamentos.repository;
+
+import com.eseg.pagamentos.model.Pagamento;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Tabela de Idempotency-Key -> pagamento criado, limitada em quantidade e com expiração.
+// As chaves entram pelo mesmo caminho dos registros do journal (uma thread só escreve), então a ordem de
+// chegada fica numa fila simples: as mais antigas saem primeiro quando expiram ou quando a tabela enche.
+// As leituras são concorrentes e ignoram chaves já expiradas que ainda não foram retiradas.
+// Uma chave é reservada antes da chamada à campanha (pedido != null) e concluída quando o pagamento é gravado.
+public class ChavesIdempotencia {
+
+    // Uma chave usada: o pagamento que ela criou e quando (epoch ms). Enquanto reservada, pedido guarda a doação
+    // pedida: o id já pode ter ido para a campanha, mas o pagamento ainda não foi gravado
+    public record Chave(String chave, Long idPagamento, long registradaEm, Pagamento pedido) {}
+
+    // Lugar de uma chave na fila de expiração
+    private record Entrada(String chave, long registradaEm) {}
+
+    private final int maxChaves;
+    private final long ttlMs;
+
+    private final Map<String, Chave> porChave = new ConcurrentHashMap<>();
+    private final Deque<Entrada> ordem = new ArrayDeque<>();
+
+    public ChavesIdempotencia(int maxChaves, long ttlMs) {
+        this.maxChaves = maxChaves;
+        this.ttlMs = ttlMs;
+    }
+
+    // Só a thread de escrita chama (replay, snapshot carregado ou group commit)
+    public void registrar(Chave chave) {
+        Chave anterior = porChave.put(chave.chave(), chave);
+        if (anterior != null && anterior.registradaEm() == chave.registradaEm()) {
+            // Reserva concluída: a chave mantém o lugar na fila
+            return;
+        }
+        if (anterior != null) {
+            ordem.remove(new Entrada(anterior.chave(), anterior.registradaEm()));
+        }
+        ordem.addLast(new Entrada(chave.chave(), chave.registradaEm()));
+        expirar(System.currentTimeMillis());
+    }
+
+    // A chave (concluída ou reservada), ou null se ela nunca foi usada ou já expirou
+    public Chave buscar(String chave) {
+        Chave encontrada = porChave.get(chave);
+        if (encontrada == null || System.currentTimeMillis() - encontrada.registradaEm() > ttlMs) {
+            return null;
+        }
+        return encontrada;
+    }
+
+    // Chaves ainda válidas, da mais antiga para a mais nova (para o snapshot)
+    public List<Chave> vigentes() {
+        expirar(System.currentTimeMillis());
+        List<Chave> vigentes = new ArrayList<>(ordem.size());
+        for (Entrada entrada : ordem) {
+            Chave chave = porChave.get(entrada.chave());
+            if (chave != null) {
+                vigentes.add(chave);
+            }
+        }
+        return vigentes;
+    }
+
+    private void expirar(long agora) {
+        while (!ordem.isEmpty() && (ordem.size() > maxChaves || agora - ordem.peekFirst().registradaEm() > ttlMs)) {
+            Entrada velha = ordem.pollFirst();
+            porChave.computeIfPresent(velha.chave(), (k, atual) -> atual.registradaEm() == velha.registradaEm() ? null : atual);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.eseg.pagamentos.repository;
+
+import com.eseg.infra.dinheiro.Centavos;
+import com.eseg.pagamentos.model.Pagamento;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Agregados por campanha mantidos a cada pagamento aplicado: total e quantidade, ranking de doadores e
+// séries por dia/hora sobre dataPagamento. Cada mudança tira a contribuição da versão antiga do pagamento e
+// soma a da nova, então criar, editar e remover custam O(log n) e as leituras não percorrem os pagamentos.
+// Só uma thread escreve (a do group commit, ou o startup); as leituras são concorrentes e fracamente consistentes.
+public class EstatisticasPagamentos {
+
+    public enum Intervalo {
+        DIA(ChronoUnit.DAYS),
+        HORA(ChronoUnit.HOURS);
+
+        private final ChronoUnit unidade;
+
+        Intervalo(ChronoUnit unidade) {
+            this.unidade = unidade;
+        }
+
+        // Intervalo pelo nome usado na API (dia | hora), ou null se desconhecido
+        public static Intervalo de(String nome) {
+            for (Intervalo intervalo : values()) {
+                if (intervalo.name().equalsIgnoreCase(nome)) {
+                    return intervalo;
+                }
+            }
+            return null;
+        }
+    }
+
+    public record Resumo(Long idCampanha, BigDecimal total, long quantidade, int doadores) {}
+
+    public record Doador(Long idUsuario, BigDecimal total, long quantidade) {}
+
+    public record Balde(LocalDateTime inicio, BigDecimal total, long quantidade) {}
+
+    // Por dentro tudo fica em centavos (long): cada pagamento aplicado soma e reposiciona no ranking sem
+    // alocar BigDecimal, e comparar dois doadores é comparar dois longs. Os records públicos são montados na leitura.
+    private record Totais(long centavos, long quantidade, int doadores) {}
+
+    private record Soma(Long idUsuario, long centavos, long quantidade) {}
+
+    private record Acumulado(long centavos, long quantidade) {}
+
+    // Maior total primeiro; no empate, o menor idUsuario
+    private static final Comparator<Soma> RANKING = Comparator
+            .comparingLong(Soma::centavos).reversed()
+            .thenComparing(Soma::idUsuario);
+
+    private static final class Agregado {
+        volatile Totais totais = new Totais(0, 0, 0);
+        final Map<Long, Soma> doadores = new ConcurrentHashMap<>();
+        final NavigableSet<Soma> ranking = new ConcurrentSkipListSet<>(RANKING);
+        final Map<Intervalo, NavigableMap<LocalDateTime, Acumulado>> series = new EnumMap<>(Intervalo.class);
+
+        Agregado() {
+            for (Intervalo intervalo : Intervalo.values()) {
+                series.put(intervalo, new ConcurrentSkipListMap<>());
+            }
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Agregado> campanhas = new ConcurrentHashMap<>();
+
+    // Troca a contribuição da versão antiga do pagamento (null se novo) pela da atual (null se removido)
+    public void trocar(Pagamento antigo, Pagamento atual) {
+        if (antigo != null) {
+            somar(antigo, -1);
+        }
+        if (atual != null) {
+            somar(atual, 1);
+        }
+    }
+
+    // O(1): total, quantidade e doadores distintos da campanha
+    public Resumo resumo(Long idCampanha) {
+        Agregado campanha = campanhas.get(idCampanha);
+        Totais totais = campanha != null ? campanha.totais : new Totais(0, 0, 0);
+        return new Resumo(idCampanha, Centavos.para(totais.centavos()), totais.quantidade(), totais.doadores());
+    }
+
+    // O(n): os n maiores doadores da campanha, lidos do começo do ranking
+    public List<Doador> topDoadores(Long idCampanha, int n) {
+        Agregado campanha = campanhas.get(idCampanha);
+        if (campanha == null) {
+            return List.of();
+        }
+        List<Doador> top = new ArrayList<>(n);
+        Iterator<Soma> it = campanha.ranking.iterator();
+        while (top.size() < n && it.hasNext()) {
+            Soma soma = it.next();
+            top.add(new Doador(soma.idUsuario(), Centavos.para(soma.centavos()), soma.quantidade()));
+        }
+        return top;
+    }
+
+    // Baldes com pagamentos entre de e ate (inclusivos, null = sem limite), em ordem cronológica
+    public List<Balde> serie(Long idCampanha, Intervalo intervalo, LocalDateTime de, LocalDateTime ate) {
+        Agregado campanha = campanhas.get(idCampanha);
+        if (campanha == null) {
+            return List.of();
+        }
+        NavigableMap<LocalDateTime, Acumulado> baldes = campanha.series.get(intervalo);
+        if (de != null && ate != null) {
+            baldes = baldes.subMap(de.truncatedTo(intervalo.unidade), true, ate, true);
+        } else if (de != null) {
+            baldes = baldes.tailMap(de.truncatedTo(intervalo.unidade), true);
+        } else if (ate != null) {
+            baldes = baldes.headMap(ate, true);
+        }
+        List<Balde> serie = new ArrayList<>(baldes.size());
+        for (Map.Entry<LocalDateTime, Acumulado> balde : baldes.entrySet()) {
+            serie.add(new Balde(balde.getKey(), Centavos.para(balde.getValue().centavos()), balde.getValue().quantidade()));
+        }
+        return serie;
+    }
+
+    private void somar(Pagamento pagamento, int sinal) {
+        // Pagamento sem campanha não entra em nenhum agregado
+        if (pagamento.getIdCampanha() == null) {
+            return;
+        }
+        // Pagamento antigo com fração de centavo entra arredondado para baixo (a soma nunca passa do pago)
+        long valor = pagamento.getValor() != null ? Centavos.piso(pagamento.getValor()) : 0;
+        long delta = sinal > 0 ? valor : -valor;
+        Agregado campanha = campanhas.computeIfAbsent(pagamento.getIdCampanha(), k -> new Agregado());
+
+        int doadores = campanha.totais.doadores();
+        if (pagamento.getIdUsuario() != null) {
+            Soma antes = campanha.doadores.get(pagamento.getIdUsuario());
+            long quantidade = (antes != null ? antes.quantidade() : 0) + sinal;
+            Soma depois = quantidade > 0
+                    ? new Soma(pagamento.getIdUsuario(), (antes != null ? antes.centavos() : 0) + delta, quantidade)
+                    : null;
+            // Reposiciona no ranking; quem lê no meio da troca pode não ver este doador por um instante
+            if (antes != null) {
+                campanha.ranking.remove(antes);
+                doadores--;
+            }
+            if (depois != null) {
+                campanha.doadores.put(depois.idUsuario(), depois);
+                campanha.ranking.add(depois);
+                doadores++;
+            } else {
+                campanha.doadores.remove(pagamento.getIdUsuario());
+            }
+        }
+
+        Totais totais = campanha.totais;
+        campanha.totais = new Totais(totais.centavos() + delta, totais.quantidade() + sinal, doadores);
+
+        if (pagamento.getDataPagamento() != null) {
+            for (Intervalo intervalo : Intervalo.values()) {
+                LocalDateTime inicio = pagamento.getDataPagamento().truncatedTo(intervalo.unidade);
+                NavigableMap<LocalDateTime, Acumulado> baldes = campanha.series.get(intervalo);
+                Acumulado balde = baldes.get(inicio);
+                long quantidade = (balde != null ? balde.quantidade() : 0) + sinal;
+                if (quantidade > 0) {
+                    baldes.put(inicio, new Acumulado((balde != null ? balde.centavos() : 0) + delta, quantidade));
+                } else {
+                    baldes.remove(inicio);
+                }
+            }
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package com.eseg.pagamentos.repository;
 
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.persistencia.GroupCommitWriter;
+import com.eseg.infra.persistencia.Journal;
 import com.eseg.pagamentos.model.Pagamento;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
@@ -24,87 +37,447 @@ public class PagamentoRepository {
     @Value("${pagamento.json.path}")
     private String jsonPath;
 
+    // Journal append-only: cada criação/edição/remoção é uma linha; o JSON acima vira o snapshot
+    @Value("${pagamento.journal.path:${pagamento.json.path}.log}")
+    private String journalPath;
+
+    // Snapshot do outbox de recompensas (pendências que ainda não foram atribuídas), gravado junto com o do JSON
+    @Value("${pagamento.outbox.path:${pagamento.json.path}.outbox}")
+    private String outboxPath;
+
+    // Snapshot das Idempotency-Keys ainda válidas, gravado junto com os outros
+    @Value("${pagamento.idempotencia.path:${pagamento.json.path}.chaves}")
+    private String chavesPath;
+
+    // Limite de chaves guardadas e por quanto tempo uma repetição ainda devolve o pagamento original
+    @Value("${pagamento.idempotencia.max-chaves:100000}")
+    private int maxChaves;
+
+    @Value("${pagamento.idempotencia.ttl-ms:86400000}")
+    private long ttlChavesMs;
+
+    // Quantidade mínima de registros no journal antes de compactar (snapshot + truncamento)
+    @Value("${pagamento.journal.snapshot-minimo:1000}")
+    private int snapshotMinimo;
+
+    // Janela do group commit: registros que chegam dentro dela vão para o journal com um único fsync
+    @Value("${persistencia.group-commit.janela-ms:2}")
+    private long janelaGroupCommitMs;
+
+    @Value("${persistencia.group-commit.max-lote:256}")
+    private int maxLoteGroupCommit;
+
+    // Quantas gerações do arquivo (atual + anteriores) são mantidas para recuperação
+    @Value("${persistencia.geracoes:3}")
+    private int geracoes;
+
     private final AtomicLong idGenerator = new AtomicLong();
 
     private final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
+    // Estado em memória, reconstruído no startup a partir do snapshot + replay do journal
+    private final ConcurrentSkipListMap<Long, Pagamento> pagamentos = new ConcurrentSkipListMap<>();
+
+    // Agregados por campanha (totais, ranking de doadores, séries por dia/hora), atualizados junto com o mapa
+    private final EstatisticasPagamentos estatisticas = new EstatisticasPagamentos();
+
+    // Outbox: pagamentos criados cuja recompensa ainda não foi atribuída (id -> pagamento como foi criado)
+    private final ConcurrentSkipListMap<Long, Pagamento> recompensasPendentes = new ConcurrentSkipListMap<>();
+
+    private ChavesIdempotencia chaves;
+
+    private Journal<RegistroJournal> journal;
+
+    // Registro a gravar; exigeExistente = edição/remoção, que só vale se o pagamento existir quando o lote
+    // for aplicado (checado no worker, na ordem do journal). A recusa vai só para quem pediu.
+    private static final class Pedido {
+        final RegistroJournal registro;
+        final boolean exigeExistente;
+        RuntimeException erro;
+
+        Pedido(RegistroJournal registro, boolean exigeExistente) {
+            this.registro = registro;
+            this.exigeExistente = exigeExistente;
+        }
+    }
+
+    private GroupCommitWriter<Pedido> writer;
+
+    private AtomicJsonFile arquivo;
+
+    private AtomicJsonFile arquivoOutbox;
+
+    private AtomicJsonFile arquivoChaves;
+
+    // Só são tocados pela thread do group commit (ou no startup/desligamento)
+    private int registrosDesdeSnapshot;
+
+    // Tamanho do journal que dispara a próxima compactação; depois de uma falha, só tenta de novo quando
+    // o journal crescer outro limite inteiro
+    private long proximaCompactacao;
+
     @PostConstruct
     public void init() {
+        try {
+            Path parentDir = Paths.get(jsonPath).toAbsolutePath().getParent();
+            if (parentDir != null && !Files.exists(parentDir)) {
+                Files.createDirectories(parentDir);
+            }
+            arquivo = new AtomicJsonFile(Paths.get(jsonPath), geracoes);
+            arquivoOutbox = new AtomicJsonFile(Paths.get(outboxPath), geracoes);
+            arquivoChaves = new AtomicJsonFile(Paths.get(chavesPath), geracoes);
+            chaves = new ChavesIdempotencia(maxChaves, ttlChavesMs);
+
+            for (Pagamento p : loadAll()) {
+                if (p.getId() != null) {
+                    estatisticas.trocar(pagamentos.put(p.getId(), p), p);
+                }
+            }
+            for (Pagamento p : loadOutbox()) {
+                recompensasPendentes.put(p.getId(), p);
+            }
+            for (ChavesIdempotencia.Chave chave : loadChaves()) {
+                chaves.registrar(chave);
+            }
+
+            journal = new Journal<>("pagamentos", Paths.get(journalPath), RegistroJournal.class, mapper);
+            registrosDesdeSnapshot = journal.replay(this::aplicar);
+            System.out.println("Journal de pagamentos reaplicado: " + registrosDesdeSnapshot + " registros");
+        } catch (IOException e) {
+            throw new IllegalStateException("Erro ao recuperar pagamentos do journal", e);
+        }
         initializeIdGenerator();
+        proximaCompactacao = limiteCompactacao();
+
+        writer = new GroupCommitWriter<>("pagamentos", Duration.ofMillis(janelaGroupCommitMs), maxLoteGroupCommit,
+                this::gravarLote, this::compactarSeNecessario);
+    }
+
+    // No desligamento compacta o journal para que o próximo startup só precise ler o snapshot
+    @PreDestroy
+    public void close() {
+        writer.close();
+        try {
+            if (registrosDesdeSnapshot > 0) {
+                snapshot();
+            }
+        } catch (RuntimeException e) {
+            // O journal continua íntegro: o próximo startup só vai ter mais registros para reaplicar
+            System.err.println("Erro ao compactar journal de pagamentos: " + e.getMessage());
+        }
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar journal de pagamentos: " + e.getMessage());
+        }
     }
 
+    // Depois do maior id gravado ou reservado por uma Idempotency-Key (a reserva já pode estar na campanha)
     private void initializeIdGenerator() {
-        List<Pagamento> pagamentos = loadAll();
-        long maxId = pagamentos.stream().mapToLong(Pagamento::getId).max().orElse(0L);
+        long maxId = pagamentos.isEmpty() ? 0L : pagamentos.lastKey();
+        for (ChavesIdempotencia.Chave chave : chaves.vigentes()) {
+            if (chave.idPagamento() != null) {
+                maxId = Math.max(maxId, chave.idPagamento());
+            }
+        }
         idGenerator.set(maxId + 1);
     }
 
     private List<Pagamento> loadAll() {
         try {
-            File file = new File(jsonPath);
-            if (!file.exists() || file.length() == 0) return new ArrayList<>();
-            List<Pagamento> pagamentos = mapper.readValue(file, new TypeReference<List<Pagamento>>(){});
+            // Lê a geração íntegra mais nova; um arquivo truncado por uma queda cai para a anterior
+            List<Pagamento> pagamentos = arquivo.read(conteudo -> conteudo.length == 0
+                    ? new ArrayList<Pagamento>()
+                    : mapper.readValue(conteudo, new TypeReference<List<Pagamento>>(){}))
+                    .orElseGet(ArrayList::new);
             System.out.println("DEBUG: JSON lido com " + pagamentos.size() + " pagamentos");
             return pagamentos;
         } catch (IOException e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+            // Nunca sobe com a lista vazia quando há dados ilegíveis: a próxima escrita os apagaria
+            throw new IllegalStateException("Erro ao ler " + jsonPath, e);
         }
     }
 
-    private void saveAll(List<Pagamento> pagamentos) {
+    private List<Pagamento> loadOutbox() throws IOException {
+        return arquivoOutbox.read(conteudo -> conteudo.length == 0
+                ? new ArrayList<Pagamento>()
+                : mapper.readValue(conteudo, new TypeReference<List<Pagamento>>(){}))
+                .orElseGet(ArrayList::new);
+    }
+
+    private List<ChavesIdempotencia.Chave> loadChaves() throws IOException {
+        return arquivoChaves.read(conteudo -> conteudo.length == 0
+                ? new ArrayList<ChavesIdempotencia.Chave>()
+                : mapper.readValue(conteudo, new TypeReference<List<ChavesIdempotencia.Chave>>(){}))
+                .orElseGet(ArrayList::new);
+    }
+
+    private void saveAll(Collection<Pagamento> pagamentos) {
         try {
-            mapper.writeValue(new File(jsonPath), pagamentos);
+            arquivo.write(mapper.writeValueAsBytes(pagamentos));
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar pagamento", e);
         }
     }
 
+    private void aplicar(RegistroJournal registro) {
+        switch (registro.getOperacao()) {
+            case SALVAR -> {
+                estatisticas.trocar(pagamentos.put(registro.getId(), registro.getPagamento()), registro.getPagamento());
+                if (registro.isRecompensaPendente()) {
+                    recompensasPendentes.put(registro.getId(), registro.getPagamento());
+                }
+                if (registro.getChaveIdempotencia() != null) {
+                    chaves.registrar(chave(registro, null));
+                }
+            }
+            case REMOVER -> {
+                estatisticas.trocar(pagamentos.remove(registro.getId()), null);
+                recompensasPendentes.remove(registro.getId());
+            }
+            case RECOMPENSA_CONCLUIDA -> recompensasPendentes.remove(registro.getId());
+            case RESERVAR_CHAVE -> chaves.registrar(chave(registro, registro.getPagamento()));
+        }
+    }
+
+    private static ChavesIdempotencia.Chave chave(RegistroJournal registro, Pagamento pedido) {
+        return new ChavesIdempotencia.Chave(registro.getChaveIdempotencia(), registro.getId(),
+                registro.getChaveRegistradaEm() != null ? registro.getChaveRegistradaEm() : System.currentTimeMillis(), pedido);
+    }
+
+    // Grava o lote no journal com um único fsync e só então o aplica ao estado em memória. Edições e remoções
+    // de um pagamento que não existe mais (nem foi criado antes no mesmo lote) são recusadas aqui, antes do journal.
+    private void gravarLote(List<Pedido> lote) {
+        List<RegistroJournal> registros = new ArrayList<>(lote.size());
+        Map<Long, Boolean> existeNoLote = new HashMap<>();
+        for (Pedido pedido : lote) {
+            RegistroJournal registro = pedido.registro;
+            if (pedido.exigeExistente
+                    && !existeNoLote.getOrDefault(registro.getId(), pagamentos.containsKey(registro.getId()))) {
+                pedido.erro = new ResponseStatusException(HttpStatus.NOT_FOUND, "Pagamento não encontrado");
+                continue;
+            }
+            switch (registro.getOperacao()) {
+                case SALVAR -> existeNoLote.put(registro.getId(), true);
+                case REMOVER -> existeNoLote.put(registro.getId(), false);
+                case RECOMPENSA_CONCLUIDA, RESERVAR_CHAVE -> {}
+            }
+            registros.add(registro);
+        }
+        if (registros.isEmpty()) {
+            return;
+        }
+        try {
+            journal.append(registros);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar pagamento", e);
+        }
+        registros.forEach(this::aplicar);
+        registrosDesdeSnapshot += registros.size();
+    }
+
+    // Compacta quando o journal fica do tamanho do próprio estado: custo amortizado O(1) por escrita.
+    // Roda depois que o lote foi confirmado a quem esperava: os registros já estão no journal, então uma falha
+    // aqui só adia a compactação e nunca devolve erro (e um retry duplicado) para pagamentos já gravados.
+    private void compactarSeNecessario() {
+        if (registrosDesdeSnapshot < proximaCompactacao) {
+            return;
+        }
+        try {
+            snapshot();
+            proximaCompactacao = limiteCompactacao();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao compactar journal de pagamentos (nova tentativa mais tarde): " + e.getMessage());
+            proximaCompactacao = registrosDesdeSnapshot + limiteCompactacao();
+        }
+    }
+
+    private long limiteCompactacao() {
+        return Math.max(snapshotMinimo, pagamentos.size());
+    }
+
+    // Bloqueia até o registro estar durável no journal; a recusa do worker (404) volta para quem chamou
+    private void registrar(RegistroJournal registro, boolean exigeExistente) {
+        Pedido pedido = new Pedido(registro, exigeExistente);
+        writer.submitAndWait(pedido);
+        if (pedido.erro != null) {
+            throw pedido.erro;
+        }
+    }
+
+    // Outbox e chaves vão primeiro: se a queda vier antes do truncamento, o journal ainda reconstrói tudo por cima dele
+    private void snapshot() {
+        try {
+            arquivoOutbox.write(mapper.writeValueAsBytes(recompensasPendentes.values()));
+            arquivoChaves.write(mapper.writeValueAsBytes(chaves.vigentes()));
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar outbox e chaves de idempotência", e);
+        }
+        saveAll(pagamentos.values());
+        try {
+            journal.truncate();
+        } catch (IOException e) {
+            // O snapshot já está salvo; o replay dos registros antigos é idempotente
+            System.err.println("Erro ao truncar journal de pagamentos: " + e.getMessage());
+        }
+        registrosDesdeSnapshot = 0;
+    }
+
     // 1. Listar todos os pagamentos
     public List<Pagamento> findAll() {
-        return loadAll();
+        return new ArrayList<>(pagamentos.values());
+    }
+
+    // 1.1 Percorrer todos os pagamentos sem copiar (exportação em streaming); a iteração é fracamente consistente
+    public Iterable<Pagamento> iterateAll() {
+        return Collections.unmodifiableCollection(pagamentos.values());
     }
 
     // 2. Buscar por Id
     public Optional<Pagamento> findById(Long id) {
-        return loadAll().stream().filter(p -> p.getId().equals(id)).findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(pagamentos.get(id));
+    }
+
+    // 2.2 Buscar vários pagamentos por Id (na ordem pedida, ignorando os inexistentes)
+    public List<Pagamento> findAllById(Collection<Long> ids) {
+        List<Pagamento> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Pagamento encontrado = id == null ? null : pagamentos.get(id);
+            if (encontrado != null) {
+                encontrados.add(encontrado);
+            }
+        }
+        return encontrados;
+    }
+
+    // 2.3 Agregados de uma campanha, servidos sem percorrer os pagamentos
+    public EstatisticasPagamentos.Resumo findResumo(Long idCampanha) {
+        return estatisticas.resumo(idCampanha);
+    }
+
+    public List<EstatisticasPagamentos.Doador> findTopDoadores(Long idCampanha, int n) {
+        return estatisticas.topDoadores(idCampanha, n);
+    }
+
+    public List<EstatisticasPagamentos.Balde> findSerie(Long idCampanha, EstatisticasPagamentos.Intervalo intervalo,
+                                                        LocalDateTime de, LocalDateTime ate) {
+        return estatisticas.serie(idCampanha, intervalo, de, ate);
+    }
+
+    // 2.1 Reservar o id do próximo pagamento
+    public Long reserveId() {
+        return idGenerator.getAndIncrement();
+    }
+
+    // 2.1.1 Reservar o id de uma doação com Idempotency-Key, durável antes da chamada à campanha: se a criação
+    // não terminar (timeout, queda), a repetição com a mesma chave reusa o id e a campanha não soma de novo
+    public Long reserveId(String chaveIdempotencia, Pagamento pedido) {
+        Long id = idGenerator.getAndIncrement();
+        Pagamento reservado = new Pagamento(id, pedido.getValor(), pedido.getIdCampanha(), pedido.getIdUsuario(),
+                pedido.getDataPagamento());
+        registrar(RegistroJournal.reservarChave(reservado, chaveIdempotencia), false);
+        return id;
     }
 
     // 3. Adcionar novo pagamento
     public Pagamento save(Pagamento novoPagamento) {
-        List<Pagamento> pagamentos = loadAll();
-        Long novoId = idGenerator.getAndIncrement();
-        novoPagamento.setId(novoId);
-        pagamentos.add(novoPagamento);
-        saveAll(pagamentos);
+        // Mantém o id já reservado com reserveId() (a doação na campanha é registrada antes de salvar)
+        if (novoPagamento.getId() == null) {
+            novoPagamento.setId(idGenerator.getAndIncrement());
+        }
+        registrar(RegistroJournal.criar(novoPagamento), false);
         return novoPagamento;
     }
 
-    // 4. Atualizar pagamento por Id
-    public void update(Long id, Pagamento pagamentoAtualizado) {
-        List<Pagamento> pagamentos = loadAll();
-        boolean updated = false;
-        for (int i = 0; i < pagamentos.size(); i++) {
-            if (pagamentos.get(i).getId().equals(id)) {
-                pagamentos.set(i, pagamentoAtualizado);
-                updated = true;
-                break;
+    // 3.1 Criar pagamento com Idempotency-Key: a chave fica durável no mesmo registro do pagamento e conclui a
+    // reserva feita com o mesmo id (que mantém o instante em que a chave foi usada)
+    public Pagamento save(Pagamento novoPagamento, String chaveIdempotencia) {
+        if (novoPagamento.getId() == null) {
+            novoPagamento.setId(idGenerator.getAndIncrement());
+        }
+        ChavesIdempotencia.Chave reservada = chaves.buscar(chaveIdempotencia);
+        long registradaEm = reservada != null && reservada.pedido() != null
+                && novoPagamento.getId().equals(reservada.idPagamento())
+                ? reservada.registradaEm()
+                : System.currentTimeMillis();
+        registrar(RegistroJournal.criar(novoPagamento, chaveIdempotencia, registradaEm), false);
+        return novoPagamento;
+    }
+
+    // 3.2 Criar vários pagamentos (ingestão em massa): todos os registros entram na fila do group commit
+    // de uma vez, então viram poucas escritas com fsync (uma por max-lote) em vez de uma por pagamento
+    public List<Pagamento> saveBatch(List<Pagamento> novos) {
+        List<CompletableFuture<Void>> gravacoes = new ArrayList<>(novos.size());
+        for (Pagamento novo : novos) {
+            if (novo.getId() == null) {
+                novo.setId(idGenerator.getAndIncrement());
             }
+            gravacoes.add(writer.submit(new Pedido(RegistroJournal.criar(novo), false)));
         }
-        if (!updated) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
+        aguardar(gravacoes);
+        return novos;
+    }
+
+    // 3.3 Pagamento criado por uma Idempotency-Key ainda válida
+    public Optional<Pagamento> findByChaveIdempotencia(String chaveIdempotencia) {
+        ChavesIdempotencia.Chave chave = chaves.buscar(chaveIdempotencia);
+        return chave == null || chave.pedido() != null ? Optional.empty() : findById(chave.idPagamento());
+    }
+
+    // 3.3.1 Doação reservada por uma Idempotency-Key e ainda não gravada (o id pode já ter ido para a campanha)
+    public Optional<Pagamento> findPendenteByChaveIdempotencia(String chaveIdempotencia) {
+        ChavesIdempotencia.Chave chave = chaves.buscar(chaveIdempotencia);
+        return chave == null ? Optional.empty() : Optional.ofNullable(chave.pedido());
+    }
+
+    // 3.4 Pagamentos com recompensa ainda pendente, em ordem de id; a iteração é fracamente consistente
+    public Iterable<Pagamento> iterateRecompensasPendentes() {
+        return Collections.unmodifiableCollection(recompensasPendentes.values());
+    }
+
+    public int countRecompensasPendentes() {
+        return recompensasPendentes.size();
+    }
+
+    // 3.5 Fechar as pendências de recompensa: um registro por pagamento, todos no mesmo group commit
+    public void concluirRecompensas(Collection<Long> ids) {
+        List<CompletableFuture<Void>> gravacoes = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            gravacoes.add(writer.submit(new Pedido(RegistroJournal.recompensaConcluida(id), false)));
+        }
+        aguardar(gravacoes);
+    }
+
+    // Espera as gravações do lote, propagando a falha da escrita como no submitAndWait
+    private static void aguardar(List<CompletableFuture<Void>> gravacoes) {
+        try {
+            CompletableFuture.allOf(gravacoes.toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    // 4. Atualizar pagamento por Id (a existência é checada no group commit, na ordem das outras escritas)
+    public void update(Long id, Pagamento pagamentoAtualizado) {
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pagamento não encontrado");
         }
-        saveAll(pagamentos);
+        pagamentoAtualizado.setId(id);
+        registrar(RegistroJournal.salvar(pagamentoAtualizado), true);
     }
 
     // 5. Remover pagamento por ID
     public void deleteById(Long id) {
-        List<Pagamento> pagamentos = loadAll();
-        boolean removed = pagamentos.removeIf(p -> p.getId().equals(id));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Pagamento não encontrado");
         }
-        saveAll(pagamentos);
+        registrar(RegistroJournal.remover(id), true);
     }
 }
@@ -0,0 +1,110 @@
+package com.eseg.pagamentos.repository;
+
+import com.eseg.pagamentos.model.Pagamento;
+
+// Uma linha do journal de pagamentos: cada criação/edição/remoção vira um registro.
+// A criação também abre a atribuição de recompensa no outbox (recompensaPendente), no mesmo registro,
+// e RECOMPENSA_CONCLUIDA a fecha: pagamento e pendência ficam duráveis juntos, sem janela entre os dois.
+// Quando a criação veio com Idempotency-Key, a chave (e quando foi usada) vai no mesmo registro; antes dela,
+// RESERVAR_CHAVE grava a chave com o id reservado e a doação pedida, sem criar pagamento.
+public class RegistroJournal {
+
+    public enum Operacao { SALVAR, REMOVER, RECOMPENSA_CONCLUIDA, RESERVAR_CHAVE }
+
+    private Operacao operacao;
+    private Long id;
+    private Pagamento pagamento;
+    private boolean recompensaPendente;
+    private String chaveIdempotencia;
+    private Long chaveRegistradaEm;
+
+    public RegistroJournal() {}
+
+    public RegistroJournal(Operacao operacao, Long id, Pagamento pagamento) {
+        this.operacao = operacao;
+        this.id = id;
+        this.pagamento = pagamento;
+    }
+
+    public static RegistroJournal salvar(Pagamento pagamento) {
+        return new RegistroJournal(Operacao.SALVAR, pagamento.getId(), pagamento);
+    }
+
+    // Novo pagamento: salva e deixa a recompensa pendente para o AtribuidorRecompensas
+    public static RegistroJournal criar(Pagamento pagamento) {
+        RegistroJournal registro = salvar(pagamento);
+        registro.setRecompensaPendente(true);
+        return registro;
+    }
+
+    public static RegistroJournal criar(Pagamento pagamento, String chaveIdempotencia, long chaveRegistradaEm) {
+        RegistroJournal registro = criar(pagamento);
+        registro.setChaveIdempotencia(chaveIdempotencia);
+        registro.setChaveRegistradaEm(chaveRegistradaEm);
+        return registro;
+    }
+
+    // Chave reservada para o pedido (já com o id que vai para a campanha)
+    public static RegistroJournal reservarChave(Pagamento pedido, String chaveIdempotencia) {
+        RegistroJournal registro = new RegistroJournal(Operacao.RESERVAR_CHAVE, pedido.getId(), pedido);
+        registro.setChaveIdempotencia(chaveIdempotencia);
+        registro.setChaveRegistradaEm(System.currentTimeMillis());
+        return registro;
+    }
+
+    public static RegistroJournal recompensaConcluida(Long id) {
+        return new RegistroJournal(Operacao.RECOMPENSA_CONCLUIDA, id, null);
+    }
+
+    public static RegistroJournal remover(Long id) {
+        return new RegistroJournal(Operacao.REMOVER, id, null);
+    }
+
+    public Operacao getOperacao() {
+        return operacao;
+    }
+
+    public void setOperacao(Operacao operacao) {
+        this.operacao = operacao;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Pagamento getPagamento() {
+        return pagamento;
+    }
+
+    public void setPagamento(Pagamento pagamento) {
+        this.pagamento = pagamento;
+    }
+
+    public boolean isRecompensaPendente() {
+        return recompensaPendente;
+    }
+
+    public void setRecompensaPendente(boolean recompensaPendente) {
+        this.recompensaPendente = recompensaPendente;
+    }
+
+    public String getChaveIdempotencia() {
+        return chaveIdempotencia;
+    }
+
+    public void setChaveIdempotencia(String chaveIdempotencia) {
+        this.chaveIdempotencia = chaveIdempotencia;
+    }
+
+    public Long getChaveRegistradaEm() {
+        return chaveRegistradaEm;
+    }
+
+    public void setChaveRegistradaEm(Long chaveRegistradaEm) {
+        this.chaveRegistradaEm = chaveRegistradaEm;
+    }
+}
@@ -0,0 +1,209 @@
+package com.eseg.pagamentos.service;
+
+import com.eseg.contratos.RecompensaDTO;
+import com.eseg.pagamentos.cliente.ClienteServicos;
+import com.eseg.infra.dinheiro.Centavos;
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.PagamentoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Atribui as recompensas das doações fora da requisição, a partir do outbox durável do PagamentoRepository.
+// Cada rodada pega até maxLote pendências vencidas, agrupa por campanha, busca as faixas de cada campanha
+// uma única vez (GET /recompensas/campanha/{id}) e escolhe a faixa de cada doação localmente; depois avisa
+// o serviço de usuários. Só o que deu certo (ou não tinha recompensa) é fechado no journal. O resto volta com
+// backoff exponencial com jitter, sem limite de tentativas: uma pendência nunca é descartada.
+// A atribuição no serviço de usuários é idempotente, então repetir depois de uma queda não duplica nada.
+@Service
+public class AtribuidorRecompensas {
+
+    private final PagamentoRepository pagamentoRepository;
+    private final ClienteServicos clienteServicos;
+
+    // Intervalo entre rodadas quando ninguém avisa de pendência nova
+    @Value("${recompensas.outbox.intervalo-ms:1000}")
+    private long intervaloMs;
+
+    @Value("${recompensas.outbox.max-lote:200}")
+    private int maxLote;
+
+    @Value("${recompensas.outbox.backoff-inicial-ms:1000}")
+    private long backoffInicialMs;
+
+    @Value("${recompensas.outbox.backoff-max-ms:300000}")
+    private long backoffMaxMs;
+
+    // Falhas seguidas e próxima tentativa de cada pendência (só em memória: após um restart tenta de novo já)
+    private final Map<Long, Tentativa> tentativas = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("atribuidor-recompensas").daemon().factory());
+
+    // Evita empilhar rodadas quando muitas doações chegam juntas: um aviso basta até a rodada começar
+    private final AtomicBoolean avisado = new AtomicBoolean();
+
+    private final Counter atribuidas;
+    private final Counter semRecompensa;
+    private final Counter falhas;
+
+    public AtribuidorRecompensas(PagamentoRepository pagamentoRepository, ClienteServicos clienteServicos, MeterRegistry registry) {
+        this.pagamentoRepository = pagamentoRepository;
+        this.clienteServicos = clienteServicos;
+
+        Gauge.builder("pagamentos.recompensas.pendentes", pagamentoRepository, PagamentoRepository::countRecompensasPendentes)
+                .description("Doações com atribuição de recompensa ainda pendente no outbox")
+                .register(registry);
+        this.atribuidas = resultados(registry, "atribuida");
+        this.semRecompensa = resultados(registry, "sem_recompensa");
+        this.falhas = resultados(registry, "falha");
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        // Também drena o que sobrou no outbox de uma execução anterior
+        executor.scheduleWithFixedDelay(this::rodada, 0, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    // Chamado depois que um pagamento novo ficou durável: processa sem esperar o próximo intervalo
+    public void avisar() {
+        if (avisado.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::rodada);
+            } catch (RuntimeException e) {
+                avisado.set(false); // encerrando; a pendência continua no outbox
+            }
+        }
+    }
+
+    private void rodada() {
+        avisado.set(false);
+        try {
+            if (processarLote() >= maxLote) {
+                avisar(); // ainda há pendências vencidas: segue sem esperar o intervalo
+            }
+        } catch (Exception e) {
+            // Nunca deixa a exceção matar o agendamento; as pendências continuam no outbox
+            System.err.println("Erro ao processar outbox de recompensas: " + e.getMessage());
+        }
+    }
+
+    // Uma rodada: retorna quantas pendências foram tentadas
+    private int processarLote() {
+        long agora = System.currentTimeMillis();
+        Map<Long, List<Pagamento>> porCampanha = new LinkedHashMap<>();
+        int tentadas = 0;
+        for (Pagamento pagamento : pagamentoRepository.iterateRecompensasPendentes()) {
+            if (tentadas >= maxLote) {
+                break;
+            }
+            Tentativa tentativa = tentativas.get(pagamento.getId());
+            if (tentativa != null && tentativa.proximaEm() > agora) {
+                continue;
+            }
+            porCampanha.computeIfAbsent(pagamento.getIdCampanha(), k -> new ArrayList<>()).add(pagamento);
+            tentadas++;
+        }
+        if (tentadas == 0) {
+            return 0;
+        }
+
+        List<Long> concluidas = new ArrayList<>(tentadas);
+        for (Map.Entry<Long, List<Pagamento>> grupo : porCampanha.entrySet()) {
+            List<RecompensaDTO> faixas;
+            try {
+                faixas = buscarFaixas(grupo.getKey());
+            } catch (Exception e) {
+                System.err.println("Erro ao buscar recompensas da campanha " + grupo.getKey() + ": " + e.getMessage());
+                grupo.getValue().forEach(p -> adiar(p.getId(), agora));
+                continue;
+            }
+            for (Pagamento pagamento : grupo.getValue()) {
+                RecompensaDTO recompensa = faixaAlcancada(faixas, pagamento.getValor());
+                if (recompensa == null || pagamento.getIdUsuario() == null) {
+                    semRecompensa.increment();
+                    concluidas.add(pagamento.getId());
+                    continue;
+                }
+                try {
+                    clienteServicos.atribuirRecompensa(pagamento.getIdUsuario(), recompensa.getId());
+                    System.out.println("Recompensa " + recompensa.getTitulo() + " atribuida!");
+                    atribuidas.increment();
+                    concluidas.add(pagamento.getId());
+                } catch (Exception e) {
+                    System.err.println("Erro ao atribuir recompensa do pagamento " + pagamento.getId() + ": " + e.getMessage());
+                    adiar(pagamento.getId(), agora);
+                }
+            }
+        }
+
+        if (!concluidas.isEmpty()) {
+            pagamentoRepository.concluirRecompensas(concluidas);
+            concluidas.forEach(tentativas::remove);
+        }
+        return tentadas;
+    }
+
+    private List<RecompensaDTO> buscarFaixas(Long idCampanha) {
+        if (idCampanha == null) {
+            return List.of();
+        }
+        RecompensaDTO[] faixas = clienteServicos.buscarFaixasRecompensa(idCampanha);
+        return faixas == null ? List.of() : Arrays.asList(faixas);
+    }
+
+    // Maior faixa com valorMinimo <= valor (as faixas chegam em ordem crescente), a mesma regra de /elegivel.
+    // Comparado em centavos: o piso do valor alcança o teto do mínimo exatamente quando valor >= valorMinimo
+    private static RecompensaDTO faixaAlcancada(List<RecompensaDTO> faixas, BigDecimal valor) {
+        RecompensaDTO alcancada = null;
+        if (valor == null) {
+            return null;
+        }
+        long centavos = Centavos.piso(valor);
+        for (RecompensaDTO faixa : faixas) {
+            if (faixa.getValorMinimo() != null && Centavos.teto(faixa.getValorMinimo()) <= centavos) {
+                alcancada = faixa;
+            }
+        }
+        return alcancada;
+    }
+
+    // Backoff exponencial (inicial * 2^falhas, até o máximo) com jitter de até 50% para não sincronizar as tentativas
+    private void adiar(Long id, long agora) {
+        falhas.increment();
+        tentativas.compute(id, (k, anterior) -> {
+            int seguidas = anterior == null ? 1 : anterior.falhas() + 1;
+            long espera = Math.min(backoffMaxMs, backoffInicialMs << Math.min(seguidas - 1, 20));
+            espera += ThreadLocalRandom.current().nextLong(espera / 2 + 1);
+            return new Tentativa(seguidas, agora + espera);
+        });
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(2, TimeUnit.SECONDS);
+    }
+
+    private static Counter resultados(MeterRegistry registry, String resultado) {
+        return Counter.builder("pagamentos.recompensas.processadas")
+                .description("Pendências de recompensa processadas pelo outbox, por resultado")
+                .tag("resultado", resultado)
+                .register(registry);
+    }
+
+    private record Tentativa(int falhas, long proximaEm) {}
+}
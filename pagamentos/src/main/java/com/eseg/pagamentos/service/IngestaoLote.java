@@ -0,0 +1,194 @@
+package com.eseg.pagamentos.service;
+
+import com.eseg.contratos.DoacaoDTO;
+import com.eseg.contratos.LoteDoacoesDTO;
+import com.eseg.pagamentos.cliente.ClienteServicos;
+import com.eseg.pagamentos.dto.ResultadoLoteDTO;
+import com.eseg.infra.dinheiro.Centavos;
+import com.eseg.pagamentos.model.Pagamento;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+// Ingestão em massa (POST /pagamentos/bulk), em estágios: valida cada registro, agrupa os válidos por campanha e
+// processa as campanhas em paralelo (virtual threads, até "paralelismo" ao mesmo tempo). Em cada campanha os
+// pagamentos vão para POST /campanhas/{id}/doar-lote em blocos de até maxPorChamada, e o prefixo aceito é gravado
+// num único lote do group commit; as recompensas saem do outbox, que já agrupa as pendências por campanha.
+// Os resultados são entregues por campanha assim que ela termina, então a resposta pode ser escrita em streaming.
+// Sem resposta da campanha a chamada é repetida com os mesmos ids de pagamento (ela não soma de novo um id que já
+// registrou); o que continuar sem resposta, ou foi somado na campanha sem gravar aqui, sai como INDETERMINADO.
+@Service
+public class IngestaoLote {
+
+    private final PagamentoService pagamentoService;
+    private final ClienteServicos clienteServicos;
+
+    // Campanhas processadas ao mesmo tempo (cada uma ocupa uma chamada HTTP por vez)
+    @Value("${pagamentos.bulk.paralelismo:8}")
+    private int paralelismo;
+
+    @Value("${pagamentos.bulk.max-por-chamada:1000}")
+    private int maxPorChamada;
+
+    // Chamadas a /doar-lote por bloco enquanto a campanha não responde (timeout, 5xx)
+    @Value("${pagamentos.bulk.tentativas:3}")
+    private int tentativas;
+
+    public IngestaoLote(PagamentoService pagamentoService, ClienteServicos clienteServicos) {
+        this.pagamentoService = pagamentoService;
+        this.clienteServicos = clienteServicos;
+    }
+
+    // Processa o lote inteiro; saida recebe um resultado por registro, um grupo de cada vez (nunca em paralelo)
+    public void processar(List<Pagamento> registros, Consumer<List<ResultadoLoteDTO>> saida) {
+        Consumer<List<ResultadoLoteDTO>> entregar = resultados -> {
+            synchronized (saida) {
+                saida.accept(resultados);
+            }
+        };
+
+        // 1. Validação: os inválidos respondem já, os demais são agrupados por campanha na ordem de chegada
+        List<ResultadoLoteDTO> invalidos = new ArrayList<>();
+        Map<Long, List<Integer>> porCampanha = new LinkedHashMap<>();
+        for (int i = 0; i < registros.size(); i++) {
+            String erro = validar(registros.get(i));
+            if (erro != null) {
+                invalidos.add(new ResultadoLoteDTO(i, "INVALIDO", null,
+                        registros.get(i) != null ? registros.get(i).getIdCampanha() : null, erro));
+            } else {
+                porCampanha.computeIfAbsent(registros.get(i).getIdCampanha(), k -> new ArrayList<>()).add(i);
+            }
+        }
+        if (!invalidos.isEmpty()) {
+            entregar.accept(invalidos);
+        }
+
+        // 2. Uma tarefa por campanha; o close() do executor espera todas terminarem
+        Semaphore vagas = new Semaphore(Math.max(1, paralelismo));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (Map.Entry<Long, List<Integer>> grupo : porCampanha.entrySet()) {
+                executor.execute(() -> {
+                    vagas.acquireUninterruptibly();
+                    try {
+                        entregar.accept(processarCampanha(grupo.getKey(), grupo.getValue(), registros));
+                    } finally {
+                        vagas.release();
+                    }
+                });
+            }
+        }
+    }
+
+    private List<ResultadoLoteDTO> processarCampanha(Long idCampanha, List<Integer> indices, List<Pagamento> registros) {
+        List<ResultadoLoteDTO> resultados = new ArrayList<>(indices.size());
+        int inicio = 0;
+        boolean encerrada = false;
+        while (inicio < indices.size()) {
+            List<Integer> bloco = indices.subList(inicio, Math.min(indices.size(), inicio + maxPorChamada));
+            inicio += bloco.size();
+            if (encerrada) {
+                recusar(resultados, bloco, idCampanha, "Campanha encerrada durante o lote");
+                continue;
+            }
+
+            // Ids reservados antes para que a campanha já registre os pagamentos em idPagamentos
+            List<Pagamento> pagamentos = new ArrayList<>(bloco.size());
+            List<DoacaoDTO> doacoes = new ArrayList<>(bloco.size());
+            for (int indice : bloco) {
+                Pagamento pagamento = registros.get(indice);
+                pagamento.setId(pagamentoService.reservarId());
+                pagamentos.add(pagamento);
+                doacoes.add(new DoacaoDTO(pagamento.getValor(), pagamento.getId()));
+            }
+
+            int aceitas;
+            try {
+                LoteDoacoesDTO resposta = registrarDoacoes(idCampanha, doacoes);
+                aceitas = resposta != null ? Math.min(Math.max(resposta.getAceitas(), 0), bloco.size()) : 0;
+            } catch (Exception e) {
+                if (ClienteServicos.recusado(e)) {
+                    // A campanha respondeu e recusou o bloco (inexistente, encerrada): nada foi somado
+                    System.err.println("Campanha " + idCampanha + " recusou as doações: " + e.getMessage());
+                    recusar(resultados, indices.subList(inicio - bloco.size(), indices.size()), idCampanha,
+                            "Não foi possível processar a doação na campanha. Verifique se ela esta ativa");
+                    break;
+                }
+                // Sem resposta: a campanha pode ter somado o bloco. Os blocos seguintes nem foram enviados
+                System.err.println("Erro ao registrar doações na campanha " + idCampanha + ": " + e.getMessage());
+                for (int i = 0; i < bloco.size(); i++) {
+                    resultados.add(new ResultadoLoteDTO(bloco.get(i), "INDETERMINADO", pagamentos.get(i).getId(), idCampanha,
+                            "A campanha não respondeu; a doação pode ter sido registrada com este id de pagamento"));
+                }
+                recusar(resultados, indices.subList(inicio, indices.size()), idCampanha,
+                        "Não enviado: a campanha não respondeu durante o lote");
+                break;
+            }
+
+            if (aceitas > 0) {
+                try {
+                    List<Pagamento> criados = pagamentoService.criarPagamentos(pagamentos.subList(0, aceitas));
+                    for (int i = 0; i < criados.size(); i++) {
+                        resultados.add(new ResultadoLoteDTO(bloco.get(i), "CRIADO", criados.get(i).getId(), idCampanha, null));
+                    }
+                } catch (Exception e) {
+                    // A campanha já somou estas doações; o pagamento pode ou não ter chegado ao journal
+                    System.err.println("Erro ao gravar lote da campanha " + idCampanha + ": " + e.getMessage());
+                    for (int i = 0; i < aceitas; i++) {
+                        resultados.add(new ResultadoLoteDTO(bloco.get(i), "INDETERMINADO", pagamentos.get(i).getId(), idCampanha,
+                                "Doação registrada na campanha, mas a gravação do pagamento falhou: " + e.getMessage()));
+                    }
+                }
+            }
+            if (aceitas < bloco.size()) {
+                encerrada = true;
+                recusar(resultados, bloco.subList(aceitas, bloco.size()), idCampanha, "Campanha encerrada durante o lote");
+            }
+        }
+        return resultados;
+    }
+
+    // Repete a chamada com as mesmas doações enquanto a campanha não responde. Uma resposta 4xx é a decisão
+    // da campanha e não se repete
+    private LoteDoacoesDTO registrarDoacoes(Long idCampanha, List<DoacaoDTO> doacoes) {
+        for (int tentativa = 1; ; tentativa++) {
+            try {
+                return clienteServicos.registrarDoacoes(idCampanha, doacoes);
+            } catch (RuntimeException e) {
+                if (ClienteServicos.recusado(e) || tentativa >= Math.max(1, tentativas)) {
+                    throw e;
+                }
+                System.err.println("Tentativa " + tentativa + " de registrar doações na campanha " + idCampanha
+                        + " falhou: " + e.getMessage());
+            }
+        }
+    }
+
+    private static void recusar(List<ResultadoLoteDTO> resultados, List<Integer> indices, Long idCampanha, String erro) {
+        for (int indice : indices) {
+            resultados.add(new ResultadoLoteDTO(indice, "RECUSADO", null, idCampanha, erro));
+        }
+    }
+
+    // Mensagem do problema do registro, ou null se ele pode seguir para a campanha
+    private static String validar(Pagamento pagamento) {
+        if (pagamento == null) {
+            return "Registro vazio";
+        }
+        if (pagamento.getIdCampanha() == null) {
+            return "idCampanha é obrigatório";
+        }
+        if (pagamento.getValor() == null || pagamento.getValor().compareTo(BigDecimal.ZERO) <= 0) {
+            return "valor deve ser maior que zero";
+        }
+        if (!Centavos.exato(pagamento.getValor())) {
+            return "valor deve ter no máximo 2 casas decimais";
+        }
+        return null;
+    }
+}
@@ -0,0 +1,26 @@
+package com.eseg.pagamentos.service;
+
+import com.eseg.pagamentos.cliente.ClienteServicos;
+import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.infra.eventos.PublicadorEventos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Avisa os serviços de campanhas e usuários sobre mudanças em pagamentos (GET /campanhas/{id} e GET /usuarios/{id}).
+// Fusão de eventos pendentes, fila limitada e descarte em falha ficam no PublicadorEventos.
+@Service
+public class NotificadorEventos extends PublicadorEventos<Pagamento> {
+
+    public NotificadorEventos(ClienteServicos clienteServicos, ObjectMapper objectMapper,
+                              @Value("${eventos.fila-max:10000}") int filaMax) {
+        super("PAGAMENTO", List.of("campanhas", "usuarios"), clienteServicos::enviarEvento, objectMapper, filaMax);
+    }
+
+    // Pagamento criado ou editado
+    public void salvo(Pagamento pagamento) {
+        salvo(pagamento.getId(), pagamento);
+    }
+}
@@ -1,19 +1,28 @@
 package com.eseg.pagamentos.service;
 
+import com.eseg.infra.dinheiro.Centavos;
 import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.EstatisticasPagamentos;
 import com.eseg.pagamentos.repository.PagamentoRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class PagamentoService {
     private final PagamentoRepository pagamentoRepository;
+    private final NotificadorEventos notificadorEventos;
+    private final AtribuidorRecompensas atribuidorRecompensas;
 
-    public PagamentoService(PagamentoRepository pagamentoRepository) {
+    public PagamentoService(PagamentoRepository pagamentoRepository, NotificadorEventos notificadorEventos,
+                            AtribuidorRecompensas atribuidorRecompensas) {
         this.pagamentoRepository = pagamentoRepository;
+        this.notificadorEventos = notificadorEventos;
+        this.atribuidorRecompensas = atribuidorRecompensas;
     }
 
     // 1. Listar todos os pagamentos
@@ -21,25 +30,115 @@ public class PagamentoService {
         return pagamentoRepository.findAll();
     }
 
+    // 1.1 Percorrer todos os pagamentos sem montar a lista (exportação NDJSON)
+    public Iterable<Pagamento> percorrerTodos() {
+        return pagamentoRepository.iterateAll();
+    }
+
     // 2. Buscar pagamento por Id
     public Pagamento buscarPorId(Long id) {
         return pagamentoRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada"));
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pagamento não encontrado"));
+    }
+
+    // 2.2 Buscar vários pagamentos por Id (uma chamada no lugar de N)
+    public List<Pagamento> buscarPorIds(List<Long> ids) {
+        return pagamentoRepository.findAllById(ids);
+    }
+
+    // 2.3 Total, quantidade e doadores distintos de uma campanha (O(1))
+    public EstatisticasPagamentos.Resumo resumoDaCampanha(Long idCampanha) {
+        return pagamentoRepository.findResumo(idCampanha);
+    }
+
+    // 2.4 Os n maiores doadores de uma campanha (O(n))
+    public List<EstatisticasPagamentos.Doador> topDoadores(Long idCampanha, Integer n) {
+        int tamanho = n == null ? 10 : n;
+        if (tamanho < 1 || tamanho > 100) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "n deve estar entre 1 e 100");
+        }
+        return pagamentoRepository.findTopDoadores(idCampanha, tamanho);
+    }
+
+    // 2.5 Total doado por dia ou por hora numa campanha, entre de e ate (opcionais)
+    public List<EstatisticasPagamentos.Balde> serieDaCampanha(Long idCampanha, String intervalo, LocalDateTime de, LocalDateTime ate) {
+        EstatisticasPagamentos.Intervalo unidade = intervalo == null
+                ? EstatisticasPagamentos.Intervalo.DIA
+                : EstatisticasPagamentos.Intervalo.de(intervalo);
+        if (unidade == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "intervalo deve ser dia ou hora");
+        }
+        if (de != null && ate != null && de.isAfter(ate)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "de deve ser anterior a ate");
+        }
+        return pagamentoRepository.findSerie(idCampanha, unidade, de, ate);
+    }
+
+    // 2.1 Reservar id para um pagamento que ainda será criado
+    public Long reservarId() {
+        return pagamentoRepository.reserveId();
     }
 
-    // 3. Criar pagamento
+    // 2.1.1 Reservar o id de uma doação com Idempotency-Key; a reserva fica durável antes de chamar a campanha
+    public Long reservarId(String chaveIdempotencia, Pagamento pedido) {
+        return pagamentoRepository.reserveId(chaveIdempotencia, pedido);
+    }
+
+    // 3. Criar pagamento: a recompensa fica pendente no outbox (no mesmo registro durável) e é atribuída em segundo plano
     public Pagamento criarPagamento(Pagamento novoPagamento) {
-        return pagamentoRepository.save(novoPagamento);
+        return criarPagamento(novoPagamento, null);
+    }
+
+    // 3.1 Criar pagamento guardando a Idempotency-Key junto (null = sem chave)
+    public Pagamento criarPagamento(Pagamento novoPagamento, String chaveIdempotencia) {
+        validarValor(novoPagamento);
+        Pagamento criado = chaveIdempotencia == null
+                ? pagamentoRepository.save(novoPagamento)
+                : pagamentoRepository.save(novoPagamento, chaveIdempotencia);
+        notificadorEventos.salvo(criado);
+        atribuidorRecompensas.avisar();
+        return criado;
+    }
+
+    // 3.2 Pagamento já criado com esta Idempotency-Key (vazio se a chave é nova ou expirou)
+    public Optional<Pagamento> buscarPorChaveIdempotencia(String chaveIdempotencia) {
+        return pagamentoRepository.findByChaveIdempotencia(chaveIdempotencia);
+    }
+
+    // 3.2.1 Doação reservada com esta Idempotency-Key cuja criação não terminou (vazio se não há reserva pendente)
+    public Optional<Pagamento> buscarPendentePorChaveIdempotencia(String chaveIdempotencia) {
+        return pagamentoRepository.findPendenteByChaveIdempotencia(chaveIdempotencia);
+    }
+
+    // 3.3 Criar vários pagamentos já aceitos pela campanha (ingestão em massa): uma gravação em lote e
+    // um único aviso ao outbox, que resolve as recompensas agrupadas por campanha
+    public List<Pagamento> criarPagamentos(List<Pagamento> novos) {
+        novos.forEach(PagamentoService::validarValor);
+        List<Pagamento> criados = pagamentoRepository.saveBatch(novos);
+        criados.forEach(notificadorEventos::salvo);
+        atribuidorRecompensas.avisar();
+        return criados;
     }
 
     // 4. Editar pagamento
     public Pagamento editarPagamento(Long id, Pagamento pagamentoAtualizado) {
+        validarValor(pagamentoAtualizado);
         pagamentoRepository.update(id, pagamentoAtualizado);
-        return buscarPorId(id);
+        Pagamento editado = buscarPorId(id);
+        notificadorEventos.salvo(editado);
+        return editado;
     }
 
     // 5. Deletar campanha
     public void deletarPorId(Long id) {
         pagamentoRepository.deleteById(id);
+        notificadorEventos.removido(id);
+    }
+
+    // As estatísticas somam em centavos: um valor com fração de centavo não entra no journal
+    private static void validarValor(Pagamento pagamento) {
+        if (pagamento.getValor() != null && !Centavos.exato(pagamento.getValor())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "valor deve ter no máximo 2 casas decimais");
+        }
     }
 }
@@ -1,11 +1,17 @@
 package com.eseg.pagamentos;
 
+import com.eseg.contratos.DoacaoDTO;
+import com.eseg.contratos.LoteDoacoesDTO;
+import com.eseg.contratos.RecompensaDTO;
+import com.eseg.pagamentos.dto.ResultadoLoteDTO;
 import com.eseg.pagamentos.model.Pagamento;
+import com.eseg.pagamentos.repository.EstatisticasPagamentos;
 import com.eseg.pagamentos.repository.PagamentoRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -13,16 +19,27 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.HttpStatus;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -190,4 +207,273 @@ class PagamentosApplicationTests {
         mockMvc.perform(delete("/pagamentos/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("GET /pagamentos/campanha/{id}/top-doadores - Deve devolver o ranking sem listar os pagamentos")
+    void deveListarTopDoadores() throws Exception {
+        Mockito.when(pagamentoRepository.findTopDoadores(5L, 3)).thenReturn(List.of(
+                new EstatisticasPagamentos.Doador(20L, new BigDecimal("300.00"), 2),
+                new EstatisticasPagamentos.Doador(10L, new BigDecimal("50.00"), 1)));
+
+        mockMvc.perform(get("/pagamentos/campanha/5/top-doadores").param("n", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].idUsuario").value(20))
+                .andExpect(jsonPath("$[0].total").value(300.00))
+                .andExpect(jsonPath("$[1].idUsuario").value(10));
+
+        mockMvc.perform(get("/pagamentos/campanha/5/serie").param("intervalo", "semana"))
+                .andExpect(status().isBadRequest());
+        Mockito.verify(pagamentoRepository, Mockito.never()).findAll();
+    }
+
+    @Test
+    @DisplayName("EstatisticasPagamentos - Deve acompanhar criação, edição e remoção de pagamentos")
+    void deveManterEstatisticasIncrementais() {
+        EstatisticasPagamentos estatisticas = new EstatisticasPagamentos();
+        LocalDateTime manha = LocalDateTime.of(2025, 3, 1, 9, 15);
+        Pagamento p1 = new Pagamento(1L, new BigDecimal("100.00"), 5L, 10L, manha);
+        Pagamento p2 = new Pagamento(2L, new BigDecimal("40.00"), 5L, 20L, manha.plusMinutes(30));
+        Pagamento p3 = new Pagamento(3L, new BigDecimal("80.00"), 5L, 20L, manha.plusDays(1));
+        estatisticas.trocar(null, p1);
+        estatisticas.trocar(null, p2);
+        estatisticas.trocar(null, p3);
+
+        assertEquals(new EstatisticasPagamentos.Resumo(5L, new BigDecimal("220.00"), 3, 2), estatisticas.resumo(5L));
+        assertEquals(List.of(20L, 10L), estatisticas.topDoadores(5L, 10).stream()
+                .map(EstatisticasPagamentos.Doador::idUsuario).toList());
+        assertEquals(List.of(new BigDecimal("140.00"), new BigDecimal("80.00")),
+                estatisticas.serie(5L, EstatisticasPagamentos.Intervalo.DIA, null, null).stream()
+                        .map(EstatisticasPagamentos.Balde::total).toList());
+
+        // Edição troca a contribuição antiga pela nova; remoção tira a do pagamento
+        estatisticas.trocar(p1, new Pagamento(1L, new BigDecimal("500.00"), 5L, 10L, manha));
+        estatisticas.trocar(p3, null);
+
+        assertEquals(new EstatisticasPagamentos.Resumo(5L, new BigDecimal("540.00"), 2, 2), estatisticas.resumo(5L));
+        assertEquals(List.of(10L, 20L), estatisticas.topDoadores(5L, 10).stream()
+                .map(EstatisticasPagamentos.Doador::idUsuario).toList());
+        assertEquals(1, estatisticas.serie(5L, EstatisticasPagamentos.Intervalo.DIA, null, null).size());
+        assertEquals(1, estatisticas.serie(5L, EstatisticasPagamentos.Intervalo.HORA, manha, manha.plusHours(1)).size());
+    }
+
+    @Test
+    @DisplayName("Outbox de recompensas - Deve atribuir em segundo plano e fechar a pendência no journal")
+    void deveAtribuirRecompensaPeloOutbox() {
+        // Doação de 120 na campanha 5, ainda com a recompensa pendente
+        Pagamento pendente = new Pagamento(9L, new BigDecimal("120.00"), 5L, 10L, LocalDateTime.now());
+        Mockito.when(pagamentoRepository.iterateRecompensasPendentes()).thenReturn(List.of(pendente));
+
+        RecompensaDTO bronze = new RecompensaDTO();
+        bronze.setId(1L);
+        bronze.setValorMinimo(new BigDecimal("50.00"));
+        RecompensaDTO ouro = new RecompensaDTO();
+        ouro.setId(2L);
+        ouro.setValorMinimo(new BigDecimal("100.00"));
+        Mockito.when(restTemplate.getForObject(contains("/recompensas/campanha/"), eq(RecompensaDTO[].class), eq(5L)))
+                .thenReturn(new RecompensaDTO[]{bronze, ouro});
+
+        // Ganha a maior faixa alcançada e só então a pendência é concluída
+        Mockito.verify(restTemplate, Mockito.timeout(3000).atLeastOnce())
+                .postForEntity(contains("/usuarios/10/ganhar-recompensa/2"), isNull(), eq(Void.class));
+        Mockito.verify(pagamentoRepository, Mockito.timeout(3000).atLeastOnce()).concluirRecompensas(List.of(9L));
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos com Idempotency-Key - Repetição devolve o original sem doar de novo")
+    void deveRepetirPagamentoComMesmaChave() throws Exception {
+        Pagamento doacao = new Pagamento(null, new BigDecimal("75.00"), 5L, 10L, null);
+        Mockito.when(pagamentoRepository.reserveId(eq("chave-1"), any(Pagamento.class))).thenReturn(3L);
+        Mockito.when(pagamentoRepository.save(any(Pagamento.class), eq("chave-1"))).thenAnswer(inv -> {
+            Pagamento p = inv.getArgument(0);
+            Mockito.when(pagamentoRepository.findByChaveIdempotencia("chave-1")).thenReturn(Optional.of(p));
+            return p;
+        });
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3));
+
+        // O cliente repete (ex.: timeout): mesma resposta, marcada como repetida
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(3));
+
+        // A mesma chave com outra doação é recusada
+        doacao.setValor(new BigDecimal("80.00"));
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "chave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isUnprocessableEntity());
+
+        Mockito.verify(restTemplate, Mockito.times(1)).postForEntity(contains("/doar"), any(), eq(Object.class));
+        Mockito.verify(pagamentoRepository, Mockito.times(1)).save(any(Pagamento.class), eq("chave-1"));
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos com Idempotency-Key - Campanha sem resposta dá 502 e a repetição reusa o id reservado")
+    void deveReusarIdReservadoDepoisDeTimeout() throws Exception {
+        Pagamento doacao = new Pagamento(null, new BigDecimal("75.00"), 5L, 10L, null);
+        Mockito.when(pagamentoRepository.reserveId(eq("chave-2"), any(Pagamento.class))).thenAnswer(inv -> {
+            Pagamento pedido = inv.getArgument(1);
+            Pagamento reservado = new Pagamento(7L, pedido.getValor(), pedido.getIdCampanha(), pedido.getIdUsuario(), null);
+            Mockito.when(pagamentoRepository.findPendenteByChaveIdempotencia("chave-2")).thenReturn(Optional.of(reservado));
+            return 7L;
+        });
+        Mockito.when(pagamentoRepository.save(any(Pagamento.class), eq("chave-2"))).thenAnswer(inv -> inv.getArgument(0));
+        // A campanha soma a doação mas a resposta não chega; na repetição ela responde
+        Mockito.when(restTemplate.postForEntity(contains("/doar"), any(), eq(Object.class)))
+                .thenThrow(new ResourceAccessException("Read timed out"))
+                .thenReturn(ResponseEntity.ok().build());
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "chave-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isBadGateway());
+
+        mockMvc.perform(post("/pagamentos")
+                        .header("Idempotency-Key", "chave-2")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(7));
+
+        // As duas chamadas à campanha levam o mesmo idPagamento, que ela não soma duas vezes
+        ArgumentCaptor<DoacaoDTO> doacoes = ArgumentCaptor.forClass(DoacaoDTO.class);
+        Mockito.verify(restTemplate, Mockito.times(2)).postForEntity(contains("/doar"), doacoes.capture(), eq(Object.class));
+        assertEquals(List.of(7L, 7L), doacoes.getAllValues().stream().map(DoacaoDTO::getIdPagamento).toList());
+        Mockito.verify(pagamentoRepository, Mockito.times(1)).reserveId(eq("chave-2"), any(Pagamento.class));
+        Mockito.verify(pagamentoRepository, Mockito.never()).reserveId();
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos - Recusa da campanha é 400, campanha sem resposta é 502")
+    void deveSepararRecusaDeResultadoIndeterminado() throws Exception {
+        Pagamento doacao = new Pagamento(null, new BigDecimal("75.00"), 5L, 10L, null);
+        Mockito.when(pagamentoRepository.reserveId()).thenReturn(1L, 2L);
+        Mockito.when(restTemplate.postForEntity(contains("/doar"), any(), eq(Object.class)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+
+        mockMvc.perform(post("/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(post("/pagamentos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(doacao)))
+                .andExpect(status().isBadGateway());
+
+        Mockito.verify(pagamentoRepository, Mockito.never()).save(any(Pagamento.class));
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos/bulk - Uma doação agregada por campanha e um resultado por registro")
+    void deveCriarPagamentosEmLote() throws Exception {
+        String lote = """
+                {"valor": 10.00, "idCampanha": 5, "idUsuario": 1}
+                {"valor": 20.00, "idCampanha": 5, "idUsuario": 2}
+                {"valor": 0, "idCampanha": 5, "idUsuario": 3}
+                """;
+        Mockito.when(pagamentoRepository.reserveId()).thenReturn(1L, 2L);
+        // A campanha só aceita a primeira doação do lote (a meta foi atingida)
+        Mockito.when(restTemplate.postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(5L)))
+                .thenReturn(new LoteDoacoesDTO(1, 0));
+        Mockito.when(pagamentoRepository.saveBatch(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<ResultadoLoteDTO> linhas = enviarLote(lote);
+        assertEquals(3, linhas.size());
+        assertEquals("CRIADO", linhas.get(0).getStatus());
+        assertEquals(1L, linhas.get(0).getId());
+        assertEquals("RECUSADO", linhas.get(1).getStatus());
+        assertEquals("INVALIDO", linhas.get(2).getStatus());
+
+        Mockito.verify(restTemplate, Mockito.times(1))
+                .postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(5L));
+        Mockito.verify(pagamentoRepository, Mockito.times(1)).saveBatch(any());
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos/bulk - Sem resposta da campanha repete a chamada com os mesmos ids")
+    void deveRepetirDoacoesSemResposta() throws Exception {
+        String lote = """
+                {"valor": 10.00, "idCampanha": 5, "idUsuario": 1}
+                {"valor": 20.00, "idCampanha": 5, "idUsuario": 2}
+                """;
+        Mockito.when(pagamentoRepository.reserveId()).thenReturn(1L, 2L);
+        Mockito.when(restTemplate.postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(5L)))
+                .thenThrow(new ResourceAccessException("Read timed out"))
+                .thenReturn(new LoteDoacoesDTO(2, 1));
+        Mockito.when(pagamentoRepository.saveBatch(any())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<ResultadoLoteDTO> linhas = enviarLote(lote);
+        assertEquals(List.of("CRIADO", "CRIADO"), linhas.stream().map(ResultadoLoteDTO::getStatus).toList());
+
+        ArgumentCaptor<Object> doacoes = ArgumentCaptor.forClass(Object.class);
+        Mockito.verify(restTemplate, Mockito.times(2))
+                .postForObject(contains("/doar-lote"), doacoes.capture(), eq(LoteDoacoesDTO.class), eq(5L));
+        assertSame(doacoes.getAllValues().get(0), doacoes.getAllValues().get(1));
+    }
+
+    @Test
+    @DisplayName("POST /pagamentos/bulk - Campanha sem resposta ou pagamento não gravado ficam INDETERMINADO com o id")
+    void deveMarcarIndeterminado() throws Exception {
+        String lote = """
+                {"valor": 10.00, "idCampanha": 5, "idUsuario": 1}
+                {"valor": 20.00, "idCampanha": 6, "idUsuario": 2}
+                {"valor": 30.00, "idCampanha": 7, "idUsuario": 3}
+                """;
+        Mockito.when(pagamentoRepository.reserveId()).thenReturn(1L, 2L, 3L);
+        Mockito.when(restTemplate.postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(5L)))
+                .thenThrow(new ResourceAccessException("Read timed out"));
+        Mockito.when(restTemplate.postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(6L)))
+                .thenReturn(new LoteDoacoesDTO(1, 1));
+        Mockito.when(restTemplate.postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(7L)))
+                .thenThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+        Mockito.when(pagamentoRepository.saveBatch(any())).thenThrow(new IllegalStateException("disco cheio"));
+
+        List<ResultadoLoteDTO> linhas = enviarLote(lote);
+        assertEquals(List.of("INDETERMINADO", "INDETERMINADO", "RECUSADO"),
+                linhas.stream().map(ResultadoLoteDTO::getStatus).toList());
+        assertEquals(List.of(5L, 6L, 7L), linhas.stream().map(ResultadoLoteDTO::getIdCampanha).toList());
+        assertNotNull(linhas.get(0).getId());
+        assertNotNull(linhas.get(1).getId());
+
+        // Timeout repete até o limite de tentativas; a recusa da campanha não se repete
+        Mockito.verify(restTemplate, Mockito.times(3))
+                .postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(5L));
+        Mockito.verify(restTemplate, Mockito.times(1))
+                .postForObject(contains("/doar-lote"), any(), eq(LoteDoacoesDTO.class), eq(7L));
+    }
+
+    // Envia o lote em NDJSON e devolve as linhas da resposta na ordem da entrada
+    private List<ResultadoLoteDTO> enviarLote(String lote) throws Exception {
+        MvcResult resultado = mockMvc.perform(post("/pagamentos/bulk")
+                        .contentType("application/x-ndjson")
+                        .content(lote))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        return Arrays.stream(corpo.split("\n"))
+                .map(linha -> {
+                    try {
+                        return objectMapper.readValue(linha, ResultadoLoteDTO.class);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .sorted(Comparator.comparingInt(ResultadoLoteDTO::getIndice))
+                .toList();
+    }
+}
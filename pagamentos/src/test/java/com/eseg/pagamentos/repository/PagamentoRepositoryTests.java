@@ -0,0 +1,125 @@
+package com.eseg.pagamentos.repository;
+
+import com.eseg.pagamentos.model.Pagamento;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagamentoRepositoryTests {
+
+    @TempDir
+    Path dir;
+
+    private PagamentoRepository abrir(Path outbox, int snapshotMinimo) {
+        Path arquivo = dir.resolve("pagamentos.json");
+        PagamentoRepository repository = new PagamentoRepository();
+        ReflectionTestUtils.setField(repository, "jsonPath", arquivo.toString());
+        ReflectionTestUtils.setField(repository, "journalPath", arquivo + ".log");
+        ReflectionTestUtils.setField(repository, "outboxPath", outbox.toString());
+        ReflectionTestUtils.setField(repository, "chavesPath", arquivo + ".chaves");
+        ReflectionTestUtils.setField(repository, "maxChaves", 100);
+        ReflectionTestUtils.setField(repository, "ttlChavesMs", 60_000L);
+        ReflectionTestUtils.setField(repository, "snapshotMinimo", snapshotMinimo);
+        ReflectionTestUtils.setField(repository, "janelaGroupCommitMs", 0L);
+        ReflectionTestUtils.setField(repository, "maxLoteGroupCommit", 16);
+        ReflectionTestUtils.setField(repository, "geracoes", 1);
+        repository.init();
+        return repository;
+    }
+
+    private static Pagamento pagamento() {
+        return new Pagamento(null, new BigDecimal("10.00"), 1L, 2L, LocalDateTime.now());
+    }
+
+    @Test
+    @DisplayName("Edição de um pagamento removido é recusada no group commit e não o ressuscita")
+    void naoDeveRessuscitarPagamentoRemovido() {
+        PagamentoRepository repository = abrir(dir.resolve("pagamentos.json.outbox"), 1000);
+        try {
+            Long id = repository.save(pagamento()).getId();
+            repository.deleteById(id);
+
+            ResponseStatusException erro = assertThrows(ResponseStatusException.class,
+                    () -> repository.update(id, pagamento()));
+            assertEquals(HttpStatus.NOT_FOUND, erro.getStatusCode());
+            assertThrows(ResponseStatusException.class, () -> repository.deleteById(id));
+            assertTrue(repository.findById(id).isEmpty());
+        } finally {
+            repository.close();
+        }
+
+        PagamentoRepository reaberto = abrir(dir.resolve("pagamentos.json.outbox"), 1000);
+        try {
+            assertTrue(reaberto.findAll().isEmpty());
+        } finally {
+            reaberto.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Falha ao compactar o journal não falha os pagamentos já gravados nele")
+    void naoDeveFalharPagamentoQuandoOSnapshotFalha() throws IOException {
+        // O outbox fica "dentro" de um arquivo comum: toda compactação falha ao gravá-lo
+        Path bloqueio = Files.createFile(dir.resolve("bloqueio"));
+        PagamentoRepository repository = abrir(bloqueio.resolve("outbox"), 1);
+        try {
+            Pagamento primeiro = repository.save(pagamento());
+            Pagamento segundo = repository.save(pagamento());
+            assertEquals(2, repository.findAll().size());
+            assertTrue(repository.findById(primeiro.getId()).isPresent());
+            assertTrue(repository.findById(segundo.getId()).isPresent());
+        } finally {
+            repository.close();
+        }
+
+        PagamentoRepository reaberto = abrir(dir.resolve("pagamentos.json.outbox"), 1);
+        try {
+            assertEquals(2, reaberto.findAll().size());
+        } finally {
+            reaberto.close();
+        }
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key reservada sobrevive ao restart e a criação reusa o id reservado")
+    void deveManterReservaDaChaveAteACriacao() {
+        Long id;
+        PagamentoRepository repository = abrir(dir.resolve("pagamentos.json.outbox"), 1000);
+        try {
+            id = repository.reserveId("chave-1", pagamento());
+            assertEquals(id, repository.findPendenteByChaveIdempotencia("chave-1").orElseThrow().getId());
+            assertTrue(repository.findByChaveIdempotencia("chave-1").isEmpty());
+            assertTrue(repository.findById(id).isEmpty());
+        } finally {
+            repository.close();
+        }
+
+        PagamentoRepository reaberto = abrir(dir.resolve("pagamentos.json.outbox"), 1000);
+        try {
+            Pagamento pendente = reaberto.findPendenteByChaveIdempotencia("chave-1").orElseThrow();
+            assertEquals(id, pendente.getId());
+            assertEquals(new BigDecimal("10.00"), pendente.getValor());
+
+            Pagamento novo = pagamento();
+            novo.setId(pendente.getId());
+            reaberto.save(novo, "chave-1");
+            assertEquals(id, reaberto.findByChaveIdempotencia("chave-1").orElseThrow().getId());
+            assertTrue(reaberto.findPendenteByChaveIdempotencia("chave-1").isEmpty());
+            // O próximo id reservado não repete o da chave
+            assertNotEquals(id, reaberto.reserveId());
+        } finally {
+            reaberto.close();
+        }
+    }
+}
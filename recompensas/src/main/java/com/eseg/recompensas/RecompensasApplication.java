@@ -1,9 +1,14 @@
 package com.eseg.recompensas;
 
+import com.eseg.infra.web.ClienteHttpConfig;
+import com.eseg.infra.web.FormatoBinarioConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
+// Cliente HTTP entre serviços e formato Smile vêm do módulo infra, fora do pacote varrido
 @SpringBootApplication
+@Import({ClienteHttpConfig.class, FormatoBinarioConfig.class})
 public class RecompensasApplication {
 
     public static void main(String[] args) {
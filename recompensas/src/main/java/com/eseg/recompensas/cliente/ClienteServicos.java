@@ -0,0 +1,13 @@
+package com.eseg.recompensas.cliente;
+
+import com.eseg.contratos.*;
+
+// Chamadas de recompensas aos outros serviços. Separados (padrão), cada uma é uma requisição HTTP
+// (ClienteServicosHttp); no modo monolito (servicos.em-processo=true) o launcher fornece uma implementação
+// que chama o controller do outro módulo na mesma JVM, sem rede e sem JSON.
+// As falhas seguem o contrato do RestTemplate: exceção quando o outro lado recusa ou não responde.
+public interface ClienteServicos {
+
+    // POST /{servico}/eventos (servico = campanhas | usuarios)
+    void enviarEvento(String servico, EventoDTO evento);
+}
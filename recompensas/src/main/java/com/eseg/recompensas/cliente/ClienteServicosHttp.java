@@ -0,0 +1,35 @@
+package com.eseg.recompensas.cliente;
+
+import com.eseg.contratos.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+// Implementação padrão (serviços separados): HTTP pelo RestTemplate com pool keep-alive do ClienteHttpConfig
+@Component
+@ConditionalOnProperty(name = "servicos.em-processo", havingValue = "false", matchIfMissing = true)
+public class ClienteServicosHttp implements ClienteServicos {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${campanha.service.url:http://localhost:8080}")
+    private String campanhaServiceUrl;
+
+    @Value("${usuario.service.url:http://localhost:8084}")
+    private String usuarioServiceUrl;
+
+
+    public ClienteServicosHttp(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> restTemplate.postForLocation(campanhaServiceUrl + "/campanhas/eventos", evento);
+            case "usuarios" -> restTemplate.postForLocation(usuarioServiceUrl + "/usuarios/eventos", evento);
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+}
@@ -1,11 +1,15 @@
 package com.eseg.recompensas.controller;
 
+import com.eseg.infra.web.Ndjson;
 import com.eseg.recompensas.model.Recompensa;
 import com.eseg.recompensas.service.RecompensaService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -14,8 +18,11 @@ import java.util.List;
 public class RecompensaController {
     private final RecompensaService recompensaService;
 
-    public RecompensaController(RecompensaService recompensaService) {
+    private final ObjectMapper objectMapper;
+
+    public RecompensaController(RecompensaService recompensaService, ObjectMapper objectMapper) {
         this.recompensaService = recompensaService;
+        this.objectMapper = objectMapper;
     }
 
     //Listar todas as recompensas
@@ -24,6 +31,21 @@ public class RecompensaController {
         return recompensaService.listarTodos();
     }
 
+    // Exportar todas as recompensas em streaming (Accept: application/x-ndjson): uma recompensa por linha, direto da memória
+    // para a resposta, sem montar a lista; o heap não cresce com o volume exportado
+    @GetMapping(produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> exportarTodas() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.MEDIA_TYPE)
+                .body(Ndjson.de(objectMapper, recompensaService.percorrerTodos()));
+    }
+
+    //Buscar várias recompensas de uma vez: GET /recompensas?ids=1,2,3
+    @GetMapping(params = "ids")
+    public List<Recompensa> buscarPorIds(@RequestParam List<Long> ids) {
+        return recompensaService.buscarPorIds(ids);
+    }
+
     //Buscar recompensa por ID
     @GetMapping("/{id}")
     public ResponseEntity<Recompensa> buscarPorId(@PathVariable Long id) {
@@ -31,6 +53,21 @@ public class RecompensaController {
         return recompensa != null ? ResponseEntity.ok(recompensa) : ResponseEntity.notFound().build();
     }
 
+    //Faixas de recompensa da campanha em ordem crescente de valorMinimo: quem resolve várias doações
+    //da mesma campanha busca as faixas uma vez e escolhe localmente, em vez de uma chamada por doação
+    @GetMapping("/campanha/{idCampanha}")
+    public List<Recompensa> listarFaixasDaCampanha(@PathVariable Long idCampanha) {
+        return recompensaService.listarFaixasDaCampanha(idCampanha);
+    }
+
+    //Buscar a melhor recompensa da campanha para um valor (204 se nenhuma faixa for alcançada)
+    @GetMapping("/campanha/{idCampanha}/elegivel")
+    public ResponseEntity<Recompensa> buscarElegivel(@PathVariable Long idCampanha, @RequestParam BigDecimal valor) {
+        return recompensaService.buscarElegivel(idCampanha, valor)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
     //Criar recompensa
     @PostMapping
     public ResponseEntity<Recompensa> criar(@RequestBody Recompensa novaRecompensa){
@@ -1,22 +1,32 @@
 package com.eseg.recompensas.repository;
 
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.persistencia.MapaDuravel;
+import com.eseg.infra.dinheiro.Centavos;
 import com.eseg.recompensas.model.Recompensa;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
@@ -24,87 +34,218 @@ public class RecompensaRepository {
     @Value("${recompensa.json.path}")
     private String jsonPath;
 
+    // Janela do group commit: escritas que chegam dentro dela viram uma única gravação do arquivo
+    @Value("${persistencia.group-commit.janela-ms:2}")
+    private long janelaGroupCommitMs;
+
+    @Value("${persistencia.group-commit.max-lote:256}")
+    private int maxLoteGroupCommit;
+
+    // Quantas gerações do arquivo (atual + anteriores) são mantidas para recuperação
+    @Value("${persistencia.geracoes:3}")
+    private int geracoes;
+
     private final AtomicLong idGenerator = new AtomicLong();
 
     private final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
+    // Estado em memória (id -> recompensa), carregado uma única vez no @PostConstruct.
+    // Mudanças só ficam visíveis (no mapa e nas faixas) depois de gravadas
+    private MapaDuravel<Recompensa> recompensas;
+
+    // Faixas de uma campanha, imutáveis: valorMinimo em centavos (crescente) e a recompensa de cada um.
+    // A faixa de um valor é uma busca binária num long[], sem comparar BigDecimal nem alocar.
+    private record Faixas(long[] minimos, Recompensa[] recompensas) {}
+
+    // Índice secundário por campanha, trocado inteiro a cada mudança nas recompensas da campanha
+    private final Map<Long, Faixas> faixasPorCampanha = new ConcurrentHashMap<>();
+
+    // Ids de cada campanha, para reconstruir as faixas de uma campanha sem varrer todas as recompensas
+    private final Map<Long, Set<Long>> idsPorCampanha = new ConcurrentHashMap<>();
+
+    private AtomicJsonFile arquivo;
+
     @PostConstruct
     public void init() {
+        arquivo = new AtomicJsonFile(Paths.get(jsonPath), geracoes);
+        recompensas = new MapaDuravel<>("recompensas", Duration.ofMillis(janelaGroupCommitMs), maxLoteGroupCommit,
+                this::saveAll, this::publicado);
+        for (Recompensa item : loadAll()) {
+            if (item.getId() != null) {
+                recompensas.carregar(item.getId(), item);
+                indexar(item);
+            }
+        }
         initializeIdGenerator();
     }
 
+    @PreDestroy
+    public void close() {
+        recompensas.close();
+    }
+
     private void initializeIdGenerator() {
-        List<Recompensa> recompensas = loadAll();
-        long maxId = recompensas.stream().mapToLong(Recompensa::getId).max().orElse(0L);
-        idGenerator.set(maxId + 1);
+        idGenerator.set(recompensas.ultimoId() + 1);
+    }
+
+    // Chamado pelo group commit depois de cada recompensa gravada e publicada no mapa; sempre na thread
+    // do worker, então as faixas de uma campanha nunca são reconstruídas por duas threads ao mesmo tempo
+    private void publicado(Long id, Recompensa antiga, Recompensa nova) {
+        if (antiga != null) {
+            desindexar(antiga);
+        }
+        if (nova != null) {
+            indexar(nova);
+        }
     }
 
     private List<Recompensa> loadAll() {
         try {
-            File file = new File(jsonPath);
-            if (!file.exists() || file.length() == 0) return new ArrayList<>();
-            List<Recompensa> recompensas = mapper.readValue(file, new TypeReference<List<Recompensa>>(){});
+            // Lê a geração íntegra mais nova; um arquivo truncado por uma queda cai para a anterior
+            List<Recompensa> recompensas = arquivo.read(conteudo -> conteudo.length == 0
+                    ? new ArrayList<Recompensa>()
+                    : mapper.readValue(conteudo, new TypeReference<List<Recompensa>>(){}))
+                    .orElseGet(ArrayList::new);
             System.out.println("DEBUG: JSON lido com " + recompensas.size() + " recompensas");
             return recompensas;
         } catch (IOException e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+            // Nunca sobe com a lista vazia quando há dados ilegíveis: a próxima escrita os apagaria
+            throw new IllegalStateException("Erro ao ler " + jsonPath, e);
         }
     }
 
-    private void saveAll(List<Recompensa> recompensas) {
+    private void saveAll(Collection<Recompensa> recompensas) {
         try {
-            mapper.writeValue(new File(jsonPath), recompensas);
+            arquivo.write(mapper.writeValueAsBytes(recompensas));
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar recompensa", e);
         }
     }
 
+    private void indexar(Recompensa recompensa) {
+        Long idCampanha = recompensa.getIdCampanha();
+        if (idCampanha == null) {
+            return;
+        }
+        idsPorCampanha.computeIfAbsent(idCampanha, k -> ConcurrentHashMap.newKeySet()).add(recompensa.getId());
+        reconstruirFaixas(idCampanha);
+    }
+
+    private void desindexar(Recompensa recompensa) {
+        Long idCampanha = recompensa.getIdCampanha();
+        if (idCampanha == null) {
+            return;
+        }
+        Set<Long> ids = idsPorCampanha.get(idCampanha);
+        if (ids != null) {
+            ids.remove(recompensa.getId());
+        }
+        reconstruirFaixas(idCampanha);
+    }
+
+    // Refaz as faixas de uma campanha em O(recompensas da campanha) e publica o mapa novo de uma vez.
+    // Em empate de valorMinimo vence a recompensa mais antiga (menor id).
+    private void reconstruirFaixas(Long idCampanha) {
+        TreeMap<Long, Recompensa> faixas = new TreeMap<>();
+        for (Long id : idsPorCampanha.getOrDefault(idCampanha, Set.of())) {
+            Recompensa r = recompensas.get(id);
+            if (r != null && r.getValorMinimo() != null) {
+                faixas.merge(Centavos.teto(r.getValorMinimo()), r, (atual, nova) -> atual.getId() <= nova.getId() ? atual : nova);
+            }
+        }
+        if (faixas.isEmpty()) {
+            faixasPorCampanha.remove(idCampanha);
+            idsPorCampanha.remove(idCampanha);
+        } else {
+            long[] minimos = new long[faixas.size()];
+            int i = 0;
+            for (Long minimo : faixas.keySet()) {
+                minimos[i++] = minimo;
+            }
+            faixasPorCampanha.put(idCampanha, new Faixas(minimos, faixas.values().toArray(new Recompensa[0])));
+        }
+    }
+
     // 1. Listar todas as recompensas
     public List<Recompensa> findAll() {
-        return loadAll();
+        return new ArrayList<>(recompensas.values());
+    }
+
+    // 1.1 Percorrer todas as recompensas sem copiar (exportação em streaming); a iteração é fracamente consistente
+    public Iterable<Recompensa> iterateAll() {
+        return recompensas.values();
     }
 
     // 2. Buscar por Id
     public Optional<Recompensa> findById(Long id) {
-        return loadAll().stream().filter(p -> p.getId().equals(id)).findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(recompensas.get(id));
+    }
+
+    // 2.2 Buscar várias recompensas por Id (na ordem pedida, ignorando os inexistentes)
+    public List<Recompensa> findAllById(Collection<Long> ids) {
+        List<Recompensa> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Recompensa encontrado = recompensas.get(id);
+            if (encontrado != null) {
+                encontrados.add(encontrado);
+            }
+        }
+        return encontrados;
+    }
+
+    // 2.3 Faixas de uma campanha em ordem crescente de valorMinimo (as mesmas usadas por findElegivel)
+    public List<Recompensa> findFaixasPorCampanha(Long idCampanha) {
+        Faixas faixas = idCampanha == null ? null : faixasPorCampanha.get(idCampanha);
+        return faixas == null ? List.of() : List.of(faixas.recompensas());
+    }
+
+    // 2.1 Buscar a maior faixa da campanha com valorMinimo <= valor
+    public Optional<Recompensa> findElegivel(Long idCampanha, BigDecimal valor) {
+        return valor == null ? Optional.empty() : findElegivel(idCampanha, Centavos.piso(valor));
+    }
+
+    // 2.1.1 O mesmo com o valor já em centavos (valor >= valorMinimo exatamente quando piso(valor) >= teto(valorMinimo))
+    public Optional<Recompensa> findElegivel(Long idCampanha, long centavos) {
+        Faixas faixas = idCampanha == null ? null : faixasPorCampanha.get(idCampanha);
+        if (faixas == null) {
+            return Optional.empty();
+        }
+        int posicao = Arrays.binarySearch(faixas.minimos(), centavos);
+        // Não encontrado: binarySearch devolve -(ponto de inserção) - 1; a faixa é a anterior ao ponto
+        int faixa = posicao >= 0 ? posicao : -posicao - 2;
+        return faixa < 0 ? Optional.empty() : Optional.of(faixas.recompensas()[faixa]);
     }
 
     // 3. Adcionar nova recompensa
     public Recompensa save(Recompensa novaRecompensa) {
-        List<Recompensa> recompensas = loadAll();
         Long novoId = idGenerator.getAndIncrement();
         novaRecompensa.setId(novoId);
-        recompensas.add(novaRecompensa);
-        saveAll(recompensas);
+        recompensas.alterar(novoId, atual -> novaRecompensa);
         return novaRecompensa;
     }
 
     // 4. Atualizar recompensa por Id
     public void update(Long id, Recompensa recompensaAtualizada) {
-        List<Recompensa> recompensas = loadAll();
-        boolean updated = false;
-        for (int i = 0; i < recompensas.size(); i++) {
-            if (recompensas.get(i).getId().equals(id)) {
-                recompensas.set(i, recompensaAtualizada);
-                updated = true;
-                break;
+        recompensaAtualizada.setId(id);
+        recompensas.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recompensa não encontrada");
             }
-        }
-        if (!updated) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(recompensas);
+            return recompensaAtualizada;
+        });
     }
 
     // 5. Remover recompensa por ID
     public void deleteById(Long id) {
-        List<Recompensa> recompensas = loadAll();
-        boolean removed = recompensas.removeIf(p -> p.getId().equals(id));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(recompensas);
+        recompensas.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Recompensa não encontrada");
+            }
+            return null;
+        });
     }
 }
@@ -0,0 +1,26 @@
+package com.eseg.recompensas.service;
+
+import com.eseg.recompensas.cliente.ClienteServicos;
+import com.eseg.recompensas.model.Recompensa;
+import com.eseg.infra.eventos.PublicadorEventos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Avisa os serviços de campanhas e usuários sobre mudanças em recompensas (GET /campanhas/{id} e GET /usuarios/{id}).
+// Fusão de eventos pendentes, fila limitada e descarte em falha ficam no PublicadorEventos.
+@Service
+public class NotificadorEventos extends PublicadorEventos<Recompensa> {
+
+    public NotificadorEventos(ClienteServicos clienteServicos, ObjectMapper objectMapper,
+                              @Value("${eventos.fila-max:10000}") int filaMax) {
+        super("RECOMPENSA", List.of("campanhas", "usuarios"), clienteServicos::enviarEvento, objectMapper, filaMax);
+    }
+
+    // Recompensa criada ou editada
+    public void salvo(Recompensa recompensa) {
+        salvo(recompensa.getId(), recompensa);
+    }
+}
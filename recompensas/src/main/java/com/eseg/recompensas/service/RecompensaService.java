@@ -1,20 +1,25 @@
 package com.eseg.recompensas.service;
 
+import com.eseg.infra.dinheiro.Centavos;
 import com.eseg.recompensas.model.Recompensa;
 import com.eseg.recompensas.repository.RecompensaRepository;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class RecompensaService {
 
     private final RecompensaRepository recompensaRepository;
+    private final NotificadorEventos notificadorEventos;
 
-    public RecompensaService(RecompensaRepository recompensaRepository) {
+    public RecompensaService(RecompensaRepository recompensaRepository, NotificadorEventos notificadorEventos) {
         this.recompensaRepository = recompensaRepository;
+        this.notificadorEventos = notificadorEventos;
     }
 
     //Listar todas as recompensas
@@ -22,26 +27,62 @@ public class RecompensaService {
         return recompensaRepository.findAll();
     }
 
+    //Percorrer todas as recompensas sem montar a lista (exportação NDJSON)
+    public Iterable<Recompensa> percorrerTodos() {
+        return recompensaRepository.iterateAll();
+    }
+
     //Recompensa por ID
     public Recompensa buscaPorId(Long id) {
         return recompensaRepository.findById(id).
                 orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada"));
     }
 
+    //Buscar várias recompensas por Id (uma chamada no lugar de N)
+    public List<Recompensa> buscarPorIds(List<Long> ids) {
+        return recompensaRepository.findAllById(ids);
+    }
+
+    //Faixas de recompensa da campanha, da menor para a maior
+    public List<Recompensa> listarFaixasDaCampanha(Long idCampanha) {
+        return recompensaRepository.findFaixasPorCampanha(idCampanha);
+    }
+
+    //Maior faixa de recompensa da campanha alcançada pelo valor doado
+    public Optional<Recompensa> buscarElegivel(Long idCampanha, BigDecimal valor) {
+        if (valor != null && !Centavos.cabe(valor)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "valor fora do intervalo aceito");
+        }
+        return recompensaRepository.findElegivel(idCampanha, valor);
+    }
+
     //Criar Recompensa
     public Recompensa criarRecompensa(Recompensa novaRecompensa) {
-        return recompensaRepository.save(novaRecompensa);
+        validarValorMinimo(novaRecompensa);
+        Recompensa criada = recompensaRepository.save(novaRecompensa);
+        notificadorEventos.salvo(criada);
+        return criada;
     }
 
     //Editar Recompensa
     public Recompensa editarRecompensa(Long id, Recompensa recompensaEditada) {
+        validarValorMinimo(recompensaEditada);
         recompensaRepository.update(id, recompensaEditada);
-        return buscaPorId(id);
+        Recompensa editada = buscaPorId(id);
+        notificadorEventos.salvo(editada);
+        return editada;
     }
 
     //Deletar Recompensa
     public void deletarPorId(Long id) {
         recompensaRepository.deleteById(id);
+        notificadorEventos.removido(id);
     }
 
+    //As faixas são indexadas em centavos: valorMinimo com fração de centavo é recusado
+    private static void validarValorMinimo(Recompensa recompensa) {
+        if (recompensa.getValorMinimo() != null && !Centavos.exato(recompensa.getValorMinimo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "valorMinimo deve ter no máximo 2 casas decimais");
+        }
+    }
 }
@@ -2,7 +2,10 @@ package com.eseg.recompensas;
 
 import com.eseg.recompensas.model.Recompensa;
 import com.eseg.recompensas.repository.RecompensaRepository;
+import com.eseg.contratos.EventoDTO;
+import com.eseg.contratos.RecompensaDTO;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,18 +15,26 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.client.MockRestServiceServer;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.client.RestTemplate;
 import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withNoContent;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -37,6 +48,9 @@ class RecompensasApplicationTests {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private RestTemplateBuilder restTemplateBuilder;
+
     // Mockamos o repositório de recompensas
     @MockitoBean
     private RecompensaRepository recompensaRepository;
@@ -95,6 +109,27 @@ class RecompensasApplicationTests {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @DisplayName("GET /recompensas/campanha/{id}/elegivel - Deve retornar a maior faixa alcançada pelo valor")
+    void deveBuscarRecompensaElegivel() throws Exception {
+        Mockito.when(recompensaRepository.findElegivel(eq(10L), eq(new BigDecimal("75.00"))))
+                .thenReturn(Optional.of(recompensaPadrao));
+
+        mockMvc.perform(get("/recompensas/campanha/10/elegivel").param("valor", "75.00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1))
+                .andExpect(jsonPath("$.valorMinimo").value(50.00));
+    }
+
+    @Test
+    @DisplayName("GET /recompensas/campanha/{id}/elegivel - Deve retornar 204 se nenhuma faixa for alcançada")
+    void deveRetornar204SemRecompensaElegivel() throws Exception {
+        Mockito.when(recompensaRepository.findElegivel(eq(10L), any(BigDecimal.class))).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/recompensas/campanha/10/elegivel").param("valor", "10.00"))
+                .andExpect(status().isNoContent());
+    }
+
     // --- TESTES DE CRIAÇÃO (POST) ---
 
     @Test
@@ -218,4 +253,71 @@ class RecompensasApplicationTests {
         mockMvc.perform(delete("/recompensas/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    // --- FORMATO BINÁRIO (SMILE) ENTRE SERVIÇOS ---
+
+    @Test
+    @DisplayName("GET /recompensas/campanha/{id} - Deve responder em Smile para serviços e em JSON para navegadores")
+    void deveNegociarSmileOuJson() throws Exception {
+        Mockito.when(recompensaRepository.findFaixasPorCampanha(10L)).thenReturn(List.of(recompensaPadrao));
+
+        byte[] smile = mockMvc.perform(get("/recompensas/campanha/10")
+                        .accept("application/x-jackson-smile, application/json;q=0.9"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-jackson-smile"))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        RecompensaDTO[] faixas = new ObjectMapper(new SmileFactory()).readValue(smile, RecompensaDTO[].class);
+        assertEquals(1, faixas.length);
+        assertEquals("Camiseta Exclusiva", faixas[0].getTitulo());
+        assertEquals("Uma camiseta de algodão com a logo do projeto", faixas[0].getDescricao());
+        assertEquals(new BigDecimal("50.00"), faixas[0].getValorMinimo());
+
+        // Accept típico de navegador: */* casa primeiro com o JSON
+        mockMvc.perform(get("/recompensas/campanha/10")
+                        .accept("text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$[0].valorMinimo").value(50.00));
+    }
+
+    @Test
+    @DisplayName("POST /recompensas - Deve aceitar corpo em Smile")
+    void deveCriarRecompensaComCorpoSmile() throws Exception {
+        Mockito.when(recompensaRepository.save(any(Recompensa.class))).thenAnswer(invocation -> {
+            Recompensa r = invocation.getArgument(0);
+            r.setId(3L);
+            return r;
+        });
+
+        mockMvc.perform(post("/recompensas")
+                        .contentType("application/x-jackson-smile")
+                        .content(new ObjectMapper(new SmileFactory()).writeValueAsBytes(
+                                new RecompensaDTO(null, "Caneca", "Caneca esmaltada", new BigDecimal("35.00"), 10L))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(3))
+                .andExpect(jsonPath("$.descricao").value("Caneca esmaltada"))
+                .andExpect(jsonPath("$.valorMinimo").value(35.00));
+    }
+
+    @Test
+    @DisplayName("Cliente HTTP - Deve enviar Smile e pedir Smile com JSON de reserva")
+    void clienteDevePreferirSmile() {
+        // RestTemplate novo pelo builder do contexto (com os mesmos customizadores), para não mexer no compartilhado
+        RestTemplate restTemplate = restTemplateBuilder.build();
+        MockRestServiceServer servidor = MockRestServiceServer.bindTo(restTemplate).build();
+
+        servidor.expect(requestTo("http://campanhas/campanhas/eventos"))
+                .andExpect(header("Content-Type", "application/x-jackson-smile"))
+                .andRespond(withNoContent());
+        servidor.expect(requestTo("http://recompensas/recompensas/campanha/10"))
+                .andExpect(header("Accept", "application/x-jackson-smile, application/json;q=0.9"))
+                .andRespond(withSuccess("[{\"id\":1,\"titulo\":\"Camiseta\",\"valorMinimo\":50.00}]", MediaType.APPLICATION_JSON));
+
+        restTemplate.postForLocation("http://campanhas/campanhas/eventos", new EventoDTO("RECOMPENSA", "REMOVER", 1L, null));
+        RecompensaDTO[] faixas = restTemplate.getForObject("http://recompensas/recompensas/campanha/10", RecompensaDTO[].class);
+
+        servidor.verify();
+        assertEquals(new BigDecimal("50.00"), faixas[0].getValorMinimo());
+    }
+}
@@ -1,3 +1,7 @@
 rootProject.name = "crowdfunding-microservices"
-include("pagamentos", "usuarios", "campanhas", "comentarios", "recompensas")
+include("contratos", "infra", "pagamentos", "usuarios", "campanhas", "comentarios", "recompensas", "carga", "monolito")
 
+// Benchmarks JMH: fora do build normal (e do CI de cada push); entram com ./gradlew -Pbenchmarks :benchmarks:jmh
+if (providers.gradleProperty("benchmarks").isPresent) {
+	include("benchmarks")
+}
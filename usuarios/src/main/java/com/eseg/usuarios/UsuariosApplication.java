@@ -1,18 +1,18 @@
 package com.eseg.usuarios;
 
+import com.eseg.infra.visao.AgregacaoParalela;
+import com.eseg.infra.web.ClienteHttpConfig;
+import com.eseg.infra.web.FormatoBinarioConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.context.annotation.Bean;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.context.annotation.Import;
 
+// Cliente HTTP entre serviços, formato Smile e a agregação paralela das visões vêm do módulo infra, fora do
+// pacote varrido
 @SpringBootApplication
+@Import({ClienteHttpConfig.class, FormatoBinarioConfig.class, AgregacaoParalela.class})
 public class UsuariosApplication {
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
     public static void main(String[] args) {
         SpringApplication.run(UsuariosApplication.class, args);
     }
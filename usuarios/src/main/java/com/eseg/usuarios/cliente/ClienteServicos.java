@@ -0,0 +1,27 @@
+package com.eseg.usuarios.cliente;
+
+import com.eseg.contratos.*;
+
+import java.util.List;
+
+// Chamadas de usuarios aos outros serviços. Separados (padrão), cada uma é uma requisição HTTP
+// (ClienteServicosHttp); no modo monolito (servicos.em-processo=true) o launcher fornece uma implementação
+// que chama o controller do outro módulo na mesma JVM, sem rede e sem JSON.
+// As falhas seguem o contrato do RestTemplate: exceção quando o outro lado recusa ou não responde.
+public interface ClienteServicos {
+
+    // GET /campanhas?ids=...
+    CampanhaDTO[] buscarCampanhas(List<Long> ids);
+
+    // GET /comentarios?ids=...
+    ComentarioDTO[] buscarComentarios(List<Long> ids);
+
+    // GET /pagamentos?ids=...
+    PagamentoDTO[] buscarPagamentos(List<Long> ids);
+
+    // GET /recompensas?ids=...
+    RecompensaDTO[] buscarRecompensas(List<Long> ids);
+
+    // POST /{servico}/eventos (servico = campanhas)
+    void enviarEvento(String servico, EventoDTO evento);
+}
@@ -0,0 +1,68 @@
+package com.eseg.usuarios.cliente;
+
+import com.eseg.contratos.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+// Implementação padrão (serviços separados): HTTP pelo RestTemplate com pool keep-alive do ClienteHttpConfig
+@Component
+@ConditionalOnProperty(name = "servicos.em-processo", havingValue = "false", matchIfMissing = true)
+public class ClienteServicosHttp implements ClienteServicos {
+
+    private final RestTemplate restTemplate;
+
+    @Value("${campanha.service.url:http://localhost:8080}")
+    private String campanhaServiceUrl;
+
+    @Value("${comentario.service.url:http://localhost:8081}")
+    private String comentarioServiceUrl;
+
+    @Value("${pagamento.service.url:http://localhost:8082}")
+    private String pagamentoServiceUrl;
+
+    @Value("${recompensa.service.url:http://localhost:8083}")
+    private String recompensaServiceUrl;
+
+
+    public ClienteServicosHttp(RestTemplate restTemplate) {
+        this.restTemplate = restTemplate;
+    }
+
+    @Override
+    public CampanhaDTO[] buscarCampanhas(List<Long> ids) {
+        return restTemplate.getForObject(campanhaServiceUrl + "/campanhas?ids=" + juntar(ids), CampanhaDTO[].class);
+    }
+
+    @Override
+    public ComentarioDTO[] buscarComentarios(List<Long> ids) {
+        return restTemplate.getForObject(comentarioServiceUrl + "/comentarios?ids=" + juntar(ids), ComentarioDTO[].class);
+    }
+
+    @Override
+    public PagamentoDTO[] buscarPagamentos(List<Long> ids) {
+        return restTemplate.getForObject(pagamentoServiceUrl + "/pagamentos?ids=" + juntar(ids), PagamentoDTO[].class);
+    }
+
+    @Override
+    public RecompensaDTO[] buscarRecompensas(List<Long> ids) {
+        return restTemplate.getForObject(recompensaServiceUrl + "/recompensas?ids=" + juntar(ids), RecompensaDTO[].class);
+    }
+
+    @Override
+    public void enviarEvento(String servico, EventoDTO evento) {
+        switch (servico) {
+            case "campanhas" -> restTemplate.postForLocation(campanhaServiceUrl + "/campanhas/eventos", evento);
+            default -> throw new IllegalArgumentException("Destino de eventos desconhecido: " + servico);
+        }
+    }
+
+    // "1,2,3" para o parâmetro ?ids=
+    private static String juntar(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+}
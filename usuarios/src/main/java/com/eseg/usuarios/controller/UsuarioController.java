@@ -1,16 +1,18 @@
 package com.eseg.usuarios.controller;
 
+import com.eseg.contratos.*;
+import com.eseg.infra.web.Ndjson;
 import com.eseg.usuarios.dto.*;
 import com.eseg.usuarios.model.Usuario;
+import com.eseg.usuarios.service.PerfilDetalhado;
 import com.eseg.usuarios.service.UsuarioService;
-import org.springframework.beans.factory.annotation.Value;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/usuarios")
@@ -19,24 +21,14 @@ public class UsuarioController {
 
     private final UsuarioService usuarioService;
 
-    private RestTemplate restTemplate = new RestTemplate();
+    private final PerfilDetalhado perfilDetalhado;
 
-    // URLs base dos outros microsserviços, configuráveis via application.properties
-    @Value("${campanha.service.url:http://localhost:8080}")
-    private String campanhaServiceUrl;
+    private final ObjectMapper objectMapper;
 
-    @Value("${comentario.service.url:http://localhost:8081}")
-    private String comentarioServiceUrl;
-
-    @Value("${pagamento.service.url:http://localhost:8082}")
-    private String pagamentoServiceUrl;
-
-    @Value("${recompensa.service.url:http://localhost:8083}")
-    private String recompensaServiceUrl;
-
-    public UsuarioController(UsuarioService usuarioService, RestTemplate restTemplate) {
+    public UsuarioController(UsuarioService usuarioService, PerfilDetalhado perfilDetalhado, ObjectMapper objectMapper) {
         this.usuarioService = usuarioService;
-        this.restTemplate = restTemplate;
+        this.perfilDetalhado = perfilDetalhado;
+        this.objectMapper = objectMapper;
     }
 
     // Listar todas as campanhas: retorna lista simples com objetos Usuário (não expandido)
@@ -45,65 +37,28 @@ public class UsuarioController {
         return usuarioService.listarTodos();
     }
 
+    // Exportar todos os usuários em streaming (Accept: application/x-ndjson): um usuário por linha, direto da memória
+    // para a resposta, sem montar a lista; o heap não cresce com o volume exportado
+    @GetMapping(produces = Ndjson.TIPO)
+    public ResponseEntity<StreamingResponseBody> exportarTodos() {
+        return ResponseEntity.ok()
+                .contentType(Ndjson.MEDIA_TYPE)
+                .body(Ndjson.de(objectMapper, usuarioService.percorrerTodos()));
+    }
+
+    // Buscar vários usuários de uma vez: GET /usuarios?ids=1,2,3 (formato resumido)
+    @GetMapping(params = "ids")
+    public List<Usuario> buscarPorIds(@RequestParam List<Long> ids) {
+        return usuarioService.buscarPorIds(ids);
+    }
+
     // Buscar usuário detalhado por Id (com dados expandidos dos microsserviços)
     @GetMapping("/{id}")
     public ResponseEntity<UsuarioDetalhadoDTO> listarPorId(@PathVariable Long id) {
         Usuario usuario = usuarioService.buscarPorId(id);
 
-        // Buscar detalhes das campanhas - como List<CampanhaDTO>
-        List<CampanhaDTO> campanhas = usuario.getIdCampanhasCriadas() == null ? List.of() :
-                usuario.getIdCampanhasCriadas().stream()
-                        .map(cid -> {
-                            try {
-                                return restTemplate.getForObject(campanhaServiceUrl + "/campanhas/" + cid + "/resumo", CampanhaDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // Buscar detalhes dos comentários - como List<ComentarioDTO>
-        List<ComentarioDTO> comentarios = usuario.getIdComentariosFeitos() == null ? List.of() :
-                usuario.getIdComentariosFeitos().stream()
-                        .map(coid -> {
-                            try {
-                                return restTemplate.getForObject(comentarioServiceUrl + "/comentarios/" + coid, ComentarioDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // Buscar detalhes dos pagamentos - como List<PagamentoDTO>
-        List<PagamentoDTO> pagamentos = usuario.getIdPagamentosFeitos() == null ? List.of() :
-                usuario.getIdPagamentosFeitos().stream()
-                        .map(pid -> {
-                            try {
-                                return restTemplate.getForObject(pagamentoServiceUrl + "/pagamentos/" + pid, PagamentoDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        // Buscar detalhes das recompensas - como List<RecompensaDTO>
-        List<RecompensaDTO> recompensas = usuario.getIdRecompensasRecebidas() == null ? List.of() :
-                usuario.getIdRecompensasRecebidas().stream()
-                        .map(cid -> {
-                            try {
-                                return restTemplate.getForObject(recompensaServiceUrl + "/recompensas/" + cid, RecompensaDTO.class);
-                            } catch (Exception e) { return null; }
-                        })
-                        .filter(java.util.Objects::nonNull)
-                        .collect(Collectors.toList());
-
-        UsuarioDetalhadoDTO dto = new UsuarioDetalhadoDTO(
-            usuario.getId(),
-            usuario.getNome(),
-            usuario.getTelefone(),
-            usuario.getEmail(),
-            campanhas,
-            comentarios,
-            pagamentos,
-            recompensas
-        );
+        // Perfil pré-calculado: em regra só memória; vai à rede apenas no cache miss, para ids novos ou se expirou
+        UsuarioDetalhadoDTO dto = perfilDetalhado.montar(usuario);
 
         return ResponseEntity.ok(dto);
     }
@@ -129,6 +84,13 @@ public class UsuarioController {
         return ResponseEntity.noContent().build();
     }
 
+    // Eventos de mudança dos outros serviços: atualizam os perfis pré-calculados de GET /usuarios/{id}
+    @PostMapping("/eventos")
+    public ResponseEntity<Void> receberEvento(@RequestBody EventoDTO evento) {
+        perfilDetalhado.aplicar(evento);
+        return ResponseEntity.accepted().build();
+    }
+
     @GetMapping("/{id}/resumo")
     public ResponseEntity<Usuario> buscarResumo(@PathVariable Long id) {
         return ResponseEntity.ok(usuarioService.buscarPorId(id));
@@ -136,11 +98,7 @@ public class UsuarioController {
 
     @PostMapping("/{id}/ganhar-recompensa/{idRecompensa}")
     public ResponseEntity<Void> adcionarRecompensa(@PathVariable Long id, @PathVariable Long idRecompensa) {
-        Usuario usuario = usuarioService.buscarPorId(id);
-
-        if (!usuario.getIdRecompensasRecebidas().contains(idRecompensa)) {
-            usuario.getIdRecompensasRecebidas().add(idRecompensa);
-            usuarioService.editarUsuario(id, usuario);
+        if (usuarioService.ganharRecompensa(id, idRecompensa)) {
             System.out.println("Parabéns! Usuário " + id + " ganhou a recompensa " + idRecompensa);
         }
 
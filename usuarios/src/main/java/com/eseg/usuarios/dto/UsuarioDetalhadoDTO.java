@@ -1,5 +1,10 @@
 package com.eseg.usuarios.dto;
 
+import com.eseg.contratos.CampanhaDTO;
+import com.eseg.contratos.ComentarioDTO;
+import com.eseg.contratos.PagamentoDTO;
+import com.eseg.contratos.RecompensaDTO;
+
 import java.util.List;
 
 // DTO detalhado para resposta expandida (/usuarios/{id})
@@ -1,22 +1,26 @@
 package com.eseg.usuarios.repository;
 
+import com.eseg.infra.persistencia.AtomicJsonFile;
+import com.eseg.infra.persistencia.MapaDuravel;
 import com.eseg.usuarios.model.Usuario;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Repository;
-import org.springframework.core.io.ClassPathResource;
-import org.springframework.core.io.Resource;
 import org.springframework.web.server.ResponseStatusException;
 
-import java.io.File;
 import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Repository
@@ -24,38 +28,68 @@ public class UsuarioRepository {
     @Value("${usuario.json.path}")
     private String jsonPath;
 
+    // Janela do group commit: escritas que chegam dentro dela viram uma única gravação do arquivo
+    @Value("${persistencia.group-commit.janela-ms:2}")
+    private long janelaGroupCommitMs;
+
+    @Value("${persistencia.group-commit.max-lote:256}")
+    private int maxLoteGroupCommit;
+
+    // Quantas gerações do arquivo (atual + anteriores) são mantidas para recuperação
+    @Value("${persistencia.geracoes:3}")
+    private int geracoes;
+
     private final AtomicLong idGenerator = new AtomicLong();
 
     private final ObjectMapper mapper = new ObjectMapper()
             .registerModule(new JavaTimeModule());
 
+    // Estado em memória (id -> usuario), carregado uma única vez no @PostConstruct.
+    // Mudanças só ficam visíveis depois de gravadas (group commit)
+    private MapaDuravel<Usuario> usuarios;
+
+    private AtomicJsonFile arquivo;
+
     @PostConstruct
     public void init() {
+        arquivo = new AtomicJsonFile(Paths.get(jsonPath), geracoes);
+        usuarios = new MapaDuravel<>("usuarios", Duration.ofMillis(janelaGroupCommitMs), maxLoteGroupCommit,
+                this::saveAll);
+        for (Usuario item : loadAll()) {
+            if (item.getId() != null) {
+                usuarios.carregar(item.getId(), item);
+            }
+        }
         initializeIdGenerator();
     }
 
+    @PreDestroy
+    public void close() {
+        usuarios.close();
+    }
+
     private void initializeIdGenerator() {
-        List<Usuario> usuarios = loadAll();
-        long maxId = usuarios.stream().mapToLong(Usuario::getId).max().orElse(0L);
-        idGenerator.set(maxId + 1);
+        idGenerator.set(usuarios.ultimoId() + 1);
     }
 
     private List<Usuario> loadAll() {
         try {
-            File file = new File(jsonPath);
-            if (!file.exists() || file.length() == 0) return new ArrayList<>();
-            List<Usuario> usuarios = mapper.readValue(file, new TypeReference<List<Usuario>>(){});
+            // Lê a geração íntegra mais nova; um arquivo truncado por uma queda cai para a anterior
+            List<Usuario> usuarios = arquivo.read(conteudo -> conteudo.length == 0
+                    ? new ArrayList<Usuario>()
+                    : mapper.readValue(conteudo, new TypeReference<List<Usuario>>(){}))
+                    .orElseGet(ArrayList::new);
             System.out.println("DEBUG: JSON lido com " + usuarios.size() + " usuarios");
             return usuarios;
         } catch (IOException e) {
-            e.printStackTrace();
-            return new ArrayList<>();
+            // Nunca sobe com a lista vazia quando há dados ilegíveis: a próxima escrita os apagaria
+            throw new IllegalStateException("Erro ao ler " + jsonPath, e);
         }
     }
 
-    private void saveAll(List<Usuario> usuarios) {
+    private void saveAll(Collection<Usuario> usuarios) {
         try {
-            mapper.writeValue(new File(jsonPath), usuarios);
+            arquivo.write(mapper.writeValueAsBytes(usuarios));
         } catch (IOException e) {
             throw new RuntimeException("Erro ao salvar usuário", e);
         }
@@ -63,48 +97,94 @@ public class UsuarioRepository {
 
     // 1. Listar todos os usuarios
     public List<Usuario> findAll() {
-        return loadAll();
+        return new ArrayList<>(usuarios.values());
+    }
+
+    // 1.1 Percorrer todos os usuários sem copiar (exportação em streaming); a iteração é fracamente consistente
+    public Iterable<Usuario> iterateAll() {
+        return usuarios.values();
     }
 
     // 2. Buscar por Id
     public Optional<Usuario> findById(Long id) {
-        return loadAll().stream().filter(p -> p.getId().equals(id)).findFirst();
+        if (id == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usuarios.get(id));
+    }
+
+    // 2.1 Buscar vários usuários por Id (na ordem pedida, ignorando os inexistentes)
+    public List<Usuario> findAllById(Collection<Long> ids) {
+        List<Usuario> encontrados = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Usuario encontrado = usuarios.get(id);
+            if (encontrado != null) {
+                encontrados.add(encontrado);
+            }
+        }
+        return encontrados;
     }
 
     // 3. Adcionar novo usuario
     public Usuario save(Usuario novoUsuario) {
-        List<Usuario> usuarios = loadAll();
         Long novoId = idGenerator.getAndIncrement();
         novoUsuario.setId(novoId);
-        usuarios.add(novoUsuario);
-        saveAll(usuarios);
+        usuarios.alterar(novoId, atual -> novoUsuario);
         return novoUsuario;
     }
 
     // 4. Atualizar usuario por Id
     public void update(Long id, Usuario usuarioAtualizado) {
-        List<Usuario> usuarios = loadAll();
-        boolean updated = false;
-        for (int i = 0; i < usuarios.size(); i++) {
-            if (usuarios.get(i).getId().equals(id)) {
-                usuarios.set(i, usuarioAtualizado);
-                updated = true;
-                break;
+        usuarioAtualizado.setId(id);
+        usuarios.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
             }
-        }
-        if (!updated) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(usuarios);
+            return usuarioAtualizado;
+        });
     }
 
     // 5. Remover usuário por ID
     public void deleteById(Long id) {
-        List<Usuario> usuarios = loadAll();
-        boolean removed = usuarios.removeIf(p -> p.getId().equals(id));
-        if (!removed) {
-            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada");
-        }
-        saveAll(usuarios);
+        usuarios.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+            }
+            return null;
+        });
+    }
+
+    // 6. Registrar recompensa recebida. Checar e incluir acontecem no mesmo passo do group commit, sobre uma
+    // cópia: o usuário publicado nunca é alterado enquanto outras threads o leem ou serializam, e duas
+    // concessões simultâneas da mesma recompensa não a duplicam. Retorna false se o usuário já a tinha.
+    public boolean adicionarRecompensa(Long id, Long idRecompensa) {
+        AtomicBoolean adicionada = new AtomicBoolean();
+        usuarios.alterar(id, atual -> {
+            if (atual == null) {
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado");
+            }
+            if (atual.getIdRecompensasRecebidas() != null && atual.getIdRecompensasRecebidas().contains(idRecompensa)) {
+                return atual;
+            }
+            Usuario copia = copiar(atual);
+            copia.getIdRecompensasRecebidas().add(idRecompensa);
+            adicionada.set(true);
+            return copia;
+        });
+        return adicionada.get();
+    }
+
+    private static Usuario copiar(Usuario usuario) {
+        Usuario copia = new Usuario(usuario.getId(), usuario.getNome(), usuario.getTelefone(), usuario.getEmail());
+        copia.setIdCampanhasCriadas(copiarLista(usuario.getIdCampanhasCriadas()));
+        copia.setIdComentariosFeitos(copiarLista(usuario.getIdComentariosFeitos()));
+        copia.setIdPagamentosFeitos(copiarLista(usuario.getIdPagamentosFeitos()));
+        copia.setIdRecompensasRecebidas(copiarLista(usuario.getIdRecompensasRecebidas()));
+        return copia;
+    }
+
+    // Usuários criados por JSON sem as listas as têm null
+    private static List<Long> copiarLista(List<Long> ids) {
+        return ids != null ? new ArrayList<>(ids) : new ArrayList<>();
     }
 }
@@ -0,0 +1,26 @@
+package com.eseg.usuarios.service;
+
+import com.eseg.usuarios.cliente.ClienteServicos;
+import com.eseg.usuarios.model.Usuario;
+import com.eseg.infra.eventos.PublicadorEventos;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+// Avisa o serviço de campanhas sobre mudanças em usuários (GET /campanhas/{id}).
+// Fusão de eventos pendentes, fila limitada e descarte em falha ficam no PublicadorEventos.
+@Service
+public class NotificadorEventos extends PublicadorEventos<Usuario> {
+
+    public NotificadorEventos(ClienteServicos clienteServicos, ObjectMapper objectMapper,
+                              @Value("${eventos.fila-max:10000}") int filaMax) {
+        super("USUARIO", List.of("campanhas"), clienteServicos::enviarEvento, objectMapper, filaMax);
+    }
+
+    // Usuário criado ou editado
+    public void salvo(Usuario usuario) {
+        salvo(usuario.getId(), usuario);
+    }
+}
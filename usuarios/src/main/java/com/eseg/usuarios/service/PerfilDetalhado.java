@@ -0,0 +1,133 @@
+package com.eseg.usuarios.service;
+
+import com.eseg.contratos.*;
+import com.eseg.infra.visao.AgregacaoParalela;
+import com.eseg.infra.visao.IndiceReverso;
+import com.eseg.infra.visao.Parte;
+import com.eseg.infra.visao.VisoesMaterializadas;
+import com.eseg.usuarios.cliente.ClienteServicos;
+import com.eseg.usuarios.dto.*;
+import com.eseg.usuarios.model.Usuario;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+// Perfis pré-calculados de GET /usuarios/{id}: campanhas, comentários, pagamentos e recompensas de cada usuário
+// ficam em memória e são atualizados pelos eventos dos outros serviços (POST /usuarios/eventos).
+// Carga, TTL, cache e busca em paralelo (com o prazo de agregacao.prazo-ms) ficam em VisoesMaterializadas;
+// aqui só as partes do usuário e quem é o dono de cada evento (idUsuario/idCriador).
+@Service
+public class PerfilDetalhado extends VisoesMaterializadas<Usuario, PerfilDetalhado.Perfil> {
+
+    private final ClienteServicos clienteServicos;
+
+    // Idade máxima de um perfil desde a última sincronização completa
+    @Value("${perfil.ttl-ms:60000}")
+    private long ttlMs;
+
+    // Limite de usuários com perfil em memória
+    @Value("${perfil.max-perfis:10000}")
+    private int maxPerfis = 10_000;
+
+    // Quem conhece cada id (recompensas não têm dono: vários usuários recebem a mesma)
+    private final IndiceReverso<Parte<CampanhaDTO>> campanhasConhecidas = new IndiceReverso<>();
+    private final IndiceReverso<Parte<ComentarioDTO>> comentariosConhecidos = new IndiceReverso<>();
+    private final IndiceReverso<Parte<PagamentoDTO>> pagamentosConhecidos = new IndiceReverso<>();
+    private final IndiceReverso<Parte<RecompensaDTO>> recompensasConhecidas = new IndiceReverso<>();
+
+    public PerfilDetalhado(ClienteServicos clienteServicos, AgregacaoParalela agregacaoParalela,
+                           ObjectMapper objectMapper, MeterRegistry registry) {
+        super(agregacaoParalela, objectMapper, registry, "usuarios.perfil", "Usuários com perfil pré-calculado");
+        this.clienteServicos = clienteServicos;
+    }
+
+    // 1. Montar o perfil detalhado: dados do usuário (locais) + partes remotas pré-calculadas
+    public UsuarioDetalhadoDTO montar(Usuario usuario) {
+        Perfil perfil = ler(usuario.getId(), usuario);
+
+        return new UsuarioDetalhadoDTO(
+            usuario.getId(),
+            usuario.getNome(),
+            usuario.getTelefone(),
+            usuario.getEmail(),
+            perfil.campanhas.listar(usuario.getIdCampanhasCriadas()),
+            perfil.comentarios.listar(usuario.getIdComentariosFeitos()),
+            perfil.pagamentos.listar(usuario.getIdPagamentosFeitos()),
+            perfil.recompensas.listar(usuario.getIdRecompensasRecebidas())
+        );
+    }
+
+    // 2. Aplicar um evento de mudança vindo de outro serviço
+    public void aplicar(EventoDTO evento) {
+        boolean remover = remover(evento);
+
+        switch (evento.getTipo()) {
+            case "CAMPANHA" -> aplicarParte(evento, remover, CampanhaDTO.class, campanhasConhecidas,
+                    p -> p.campanhas, "idCriador");
+            case "COMENTARIO" -> aplicarParte(evento, remover, ComentarioDTO.class, comentariosConhecidos,
+                    p -> p.comentarios, "idUsuario");
+            case "PAGAMENTO" -> aplicarParte(evento, remover, PagamentoDTO.class, pagamentosConhecidos,
+                    p -> p.pagamentos, "idUsuario");
+            // Recompensas não têm dono: só atualizam perfis que já as conhecem
+            case "RECOMPENSA" -> aplicarParte(evento, remover, RecompensaDTO.class, recompensasConhecidas,
+                    p -> p.recompensas, null);
+            default -> throw tipoDesconhecido(evento);
+        }
+    }
+
+    @Override
+    protected long ttlMs() {
+        return ttlMs;
+    }
+
+    @Override
+    protected int maxVisoes() {
+        return maxPerfis;
+    }
+
+    @Override
+    protected Perfil nova(Usuario usuario, long sincronizadoEm) {
+        return new Perfil(sincronizadoEm, campanhasConhecidas, comentariosConhecidos,
+                pagamentosConhecidos, recompensasConhecidas);
+    }
+
+    // Uma chamada em lote por tipo, só com os ids que faltam; as quatro vão em paralelo
+    @Override
+    protected void buscar(Perfil perfil, Usuario usuario, Busca busca) {
+        busca.parte("campanhas", perfil.campanhas, usuario.getIdCampanhasCriadas(), CampanhaDTO::getId,
+                clienteServicos::buscarCampanhas);
+        busca.parte("comentarios", perfil.comentarios, usuario.getIdComentariosFeitos(), ComentarioDTO::getId,
+                clienteServicos::buscarComentarios);
+        busca.parte("pagamentos", perfil.pagamentos, usuario.getIdPagamentosFeitos(), PagamentoDTO::getId,
+                clienteServicos::buscarPagamentos);
+        busca.parte("recompensas", perfil.recompensas, usuario.getIdRecompensasRecebidas(), RecompensaDTO::getId,
+                clienteServicos::buscarRecompensas);
+    }
+
+    @Override
+    protected void descartada(Perfil perfil) {
+        perfil.campanhas.descartar();
+        perfil.comentarios.descartar();
+        perfil.pagamentos.descartar();
+        perfil.recompensas.descartar();
+    }
+
+    // Partes remotas pré-calculadas de um usuário
+    static final class Perfil extends VisoesMaterializadas.Visao {
+        final Parte<CampanhaDTO> campanhas;
+        final Parte<ComentarioDTO> comentarios;
+        final Parte<PagamentoDTO> pagamentos;
+        final Parte<RecompensaDTO> recompensas;
+
+        Perfil(long sincronizadoEm, IndiceReverso<Parte<CampanhaDTO>> campanhas,
+               IndiceReverso<Parte<ComentarioDTO>> comentarios, IndiceReverso<Parte<PagamentoDTO>> pagamentos,
+               IndiceReverso<Parte<RecompensaDTO>> recompensas) {
+            super(sincronizadoEm);
+            this.campanhas = new Parte<>(campanhas);
+            this.comentarios = new Parte<>(comentarios);
+            this.pagamentos = new Parte<>(pagamentos);
+            this.recompensas = new Parte<>(recompensas);
+        }
+    }
+}
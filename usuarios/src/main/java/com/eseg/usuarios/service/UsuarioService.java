@@ -11,9 +11,14 @@ import java.util.List;
 @Service
 public class UsuarioService {
     private final UsuarioRepository usuarioRepository;
+    private final NotificadorEventos notificadorEventos;
+    private final PerfilDetalhado perfilDetalhado;
 
-    public UsuarioService(UsuarioRepository usuarioRepository) {
+    public UsuarioService(UsuarioRepository usuarioRepository, NotificadorEventos notificadorEventos,
+                          PerfilDetalhado perfilDetalhado) {
         this.usuarioRepository = usuarioRepository;
+        this.notificadorEventos = notificadorEventos;
+        this.perfilDetalhado = perfilDetalhado;
     }
 
     // 1. Listar todos os usuários
@@ -21,25 +26,50 @@ public class UsuarioService {
         return usuarioRepository.findAll();
     }
 
+    // 1.1 Percorrer todos os usuários sem montar a lista (exportação NDJSON)
+    public Iterable<Usuario> percorrerTodos() {
+        return usuarioRepository.iterateAll();
+    }
+
     // 2. Buscar usuário por Id
     public Usuario buscarPorId(Long id) {
         return usuarioRepository.findById(id)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Campanha não encontrada"));
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+    }
+
+    // 2.1 Buscar vários usuários por Id (uma chamada no lugar de N)
+    public List<Usuario> buscarPorIds(List<Long> ids) {
+        return usuarioRepository.findAllById(ids);
     }
 
     // 3. Criar usuário
     public Usuario criarUsuario(Usuario novoUsuario) {
-        return usuarioRepository.save(novoUsuario);
+        Usuario criado = usuarioRepository.save(novoUsuario);
+        notificadorEventos.salvo(criado);
+        return criado;
     }
 
     // 4. Editar usuário
     public Usuario editarUsuario(Long id, Usuario usuarioAtualizado) {
         usuarioRepository.update(id, usuarioAtualizado);
-        return buscarPorId(id);
+        Usuario editado = buscarPorId(id);
+        notificadorEventos.salvo(editado);
+        return editado;
     }
 
     // 5. Deletar usuário
     public void deletarPorId(Long id) {
         usuarioRepository.deleteById(id);
+        perfilDetalhado.descartar(id);
+        notificadorEventos.removido(id);
+    }
+
+    // 6. Registrar recompensa recebida (idempotente): retorna false se o usuário já a tinha
+    public boolean ganharRecompensa(Long id, Long idRecompensa) {
+        boolean nova = usuarioRepository.adicionarRecompensa(id, idRecompensa);
+        if (nova) {
+            notificadorEventos.salvo(buscarPorId(id));
+        }
+        return nova;
     }
 }
@@ -1,6 +1,6 @@
 package com.eseg.usuarios;
 
-import com.eseg.usuarios.dto.*;
+import com.eseg.contratos.*;
 import com.eseg.usuarios.model.Usuario;
 import com.eseg.usuarios.repository.UsuarioRepository;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -24,6 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.contains;
 import static org.mockito.ArgumentMatchers.eq;
@@ -70,29 +71,29 @@ class UsuariosApplicationTests {
         CampanhaDTO campanhaMock = new CampanhaDTO();
         campanhaMock.setId(10L);
         campanhaMock.setTitulo("Campanha do João");
-        Mockito.when(restTemplate.getForObject(contains("/campanhas/10"), eq(CampanhaDTO.class)))
-                .thenReturn(campanhaMock);
+        Mockito.when(restTemplate.getForObject(contains("/campanhas?ids=10"), eq(CampanhaDTO[].class)))
+                .thenReturn(new CampanhaDTO[]{campanhaMock});
 
         // Criação do Mock de Comentários e determinação da resposta esperada
         ComentarioDTO comentarioMock = new ComentarioDTO();
         comentarioMock.setId(20L);
         comentarioMock.setTexto("Meu comentário");
-        Mockito.when(restTemplate.getForObject(contains("/comentarios/20"), eq(ComentarioDTO.class)))
-                .thenReturn(comentarioMock);
+        Mockito.when(restTemplate.getForObject(contains("/comentarios?ids=20"), eq(ComentarioDTO[].class)))
+                .thenReturn(new ComentarioDTO[]{comentarioMock});
 
         // Criação do Mock de Pagamentos e determinação da resposta esperada
         PagamentoDTO pagamentoMock = new PagamentoDTO();
         pagamentoMock.setId(30L);
         pagamentoMock.setValor(new BigDecimal("100.00"));
-        Mockito.when(restTemplate.getForObject(contains("/pagamentos/30"), eq(PagamentoDTO.class)))
-                .thenReturn(pagamentoMock);
+        Mockito.when(restTemplate.getForObject(contains("/pagamentos?ids=30"), eq(PagamentoDTO[].class)))
+                .thenReturn(new PagamentoDTO[]{pagamentoMock});
 
         // Criação do Mock de Recompensas e determinação da resposta esperada
         RecompensaDTO recompensaMock = new RecompensaDTO();
         recompensaMock.setId(40L);
         recompensaMock.setTitulo("Camiseta");
-        Mockito.when(restTemplate.getForObject(contains("/recompensas/40"), eq(RecompensaDTO.class)))
-                .thenReturn(recompensaMock);
+        Mockito.when(restTemplate.getForObject(contains("/recompensas?ids=40"), eq(RecompensaDTO[].class)))
+                .thenReturn(new RecompensaDTO[]{recompensaMock});
 
         // Verificação da resposta
         mockMvc.perform(get("/usuarios/1"))
@@ -104,6 +105,43 @@ class UsuariosApplicationTests {
                 .andExpect(jsonPath("$.recompensas[0].titulo").value("Camiseta"));
     }
 
+    @Test
+    @DisplayName("POST /usuarios/eventos - Deve atualizar o perfil pré-calculado sem nova chamada externa")
+    void deveAtualizarPerfilPorEvento() throws Exception {
+        Usuario doador = new Usuario(3L, "Ana Doadora", "11977777777", "ana@teste.com");
+        doador.setIdPagamentosFeitos(new ArrayList<>(List.of(31L)));
+        Mockito.when(usuarioRepository.findById(3L)).thenReturn(Optional.of(doador));
+
+        PagamentoDTO pagamentoMock = new PagamentoDTO();
+        pagamentoMock.setId(31L);
+        pagamentoMock.setValor(new BigDecimal("10.00"));
+        Mockito.when(restTemplate.getForObject(contains("/pagamentos?ids=31"), eq(PagamentoDTO[].class)))
+                .thenReturn(new PagamentoDTO[]{pagamentoMock});
+
+        // Primeira leitura (cache miss) monta o perfil pela rede
+        mockMvc.perform(get("/usuarios/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagamentos.length()").value(1));
+
+        // O serviço de pagamentos avisa de uma nova doação da usuária
+        EventoDTO evento = new EventoDTO("PAGAMENTO", "SALVAR", 32L, objectMapper.readTree(
+                "{\"id\":32,\"valor\":25.00,\"idCampanha\":5,\"idUsuario\":3}"));
+        mockMvc.perform(post("/usuarios/eventos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(evento)))
+                .andExpect(status().isAccepted());
+        doador.getIdPagamentosFeitos().add(32L);
+
+        // Segunda leitura sai da memória, já com a nova doação
+        mockMvc.perform(get("/usuarios/3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pagamentos.length()").value(2))
+                .andExpect(jsonPath("$.pagamentos[1].valor").value(25.00));
+
+        Mockito.verify(restTemplate, Mockito.never())
+                .getForObject(contains("/pagamentos?ids=32"), eq(PagamentoDTO[].class));
+    }
+
     @Test
     @DisplayName("POST /usuarios - Deve criar usuário")
     void deveCriarUsuario() throws Exception {
@@ -139,6 +177,28 @@ class UsuariosApplicationTests {
                 .andExpect(jsonPath("$[0].idCampanhasCriadas[0]").value(10));
     }
 
+    @Test
+    @DisplayName("GET /usuarios (Accept: application/x-ndjson) - Deve exportar um usuário por linha")
+    void deveExportarEmNdjson() throws Exception {
+        Usuario outro = new Usuario(2L, "Maria", "1188888888", "maria@email.com");
+        Mockito.when(usuarioRepository.iterateAll()).thenReturn(List.of(usuarioPadrao, outro));
+
+        // A resposta é escrita em streaming, então é preciso esperar o corpo assíncrono
+        var resultado = mockMvc.perform(get("/usuarios").accept("application/x-ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String corpo = mockMvc.perform(asyncDispatch(resultado))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] linhas = corpo.split("\n");
+        assertEquals(2, linhas.length);
+        assertEquals("Maria", objectMapper.readTree(linhas[1]).get("nome").asText());
+        Mockito.verify(usuarioRepository, Mockito.never()).findAll();
+    }
+
     @Test
     @DisplayName("GET /usuarios/{id} - Deve retornar 404 se usuário não existir")
     void deveRetornarErroSeNaoEncontrar() throws Exception {
@@ -205,4 +265,28 @@ class UsuariosApplicationTests {
         mockMvc.perform(delete("/usuarios/999"))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("POST /usuarios/{id}/ganhar-recompensa/{idRecompensa} - Concede pelo repositório, sem editar o usuário publicado")
+    void deveGanharRecompensa() throws Exception {
+        Mockito.when(usuarioRepository.adicionarRecompensa(1L, 41L)).thenReturn(true);
+        Mockito.when(usuarioRepository.findById(1L)).thenReturn(Optional.of(usuarioPadrao));
+
+        mockMvc.perform(post("/usuarios/1/ganhar-recompensa/41"))
+                .andExpect(status().isOk());
+
+        Mockito.verify(usuarioRepository).adicionarRecompensa(1L, 41L);
+        Mockito.verify(usuarioRepository, Mockito.never()).update(any(), any());
+        assertEquals(List.of(40L), usuarioPadrao.getIdRecompensasRecebidas());
+    }
+
+    @Test
+    @DisplayName("POST /usuarios/{id}/ganhar-recompensa/{idRecompensa} - Deve retornar 404 para usuário inexistente")
+    void deveFalharAoGanharRecompensaInexistente() throws Exception {
+        Mockito.when(usuarioRepository.adicionarRecompensa(999L, 41L))
+                .thenThrow(new ResponseStatusException(HttpStatus.NOT_FOUND, "Usuário não encontrado"));
+
+        mockMvc.perform(post("/usuarios/999/ganhar-recompensa/41"))
+                .andExpect(status().isNotFound());
+    }
+}